@@ -4,6 +4,7 @@ dependencies {
     implementation(projects.databaseMongo)
 
     implementation(libs.oracle) // OracleTypes
+    implementation(libs.mongo.driver.reactive) // for the reactive mongo generation mode
 
     implementation(libs.javapoet)
     implementation(libs.auto.service)
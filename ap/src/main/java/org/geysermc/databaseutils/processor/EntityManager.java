@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import javax.lang.model.element.Element;
@@ -20,9 +21,11 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
+import org.geysermc.databaseutils.meta.BloomFilter;
 import org.geysermc.databaseutils.meta.Entity;
 import org.geysermc.databaseutils.meta.Index;
 import org.geysermc.databaseutils.meta.Key;
+import org.geysermc.databaseutils.meta.TimeToLive;
 import org.geysermc.databaseutils.processor.info.ColumnInfo;
 import org.geysermc.databaseutils.processor.info.EntityInfo;
 import org.geysermc.databaseutils.processor.info.IndexInfo;
@@ -64,6 +67,7 @@ final class EntityManager {
 
         var constructors = new ArrayList<ExecutableElement>();
         var keys = new ArrayList<CharSequence>();
+        CharSequence timeToLiveColumn = null;
 
         var indexes = new ArrayList<IndexInfo>();
         var columns = new ArrayList<ColumnInfo>();
@@ -98,6 +102,43 @@ final class EntityManager {
             if (index != null) {
                 indexes.add(new IndexInfo(index.name(), index.columns(), index.unique(), index.direction()));
             }
+
+            if (hasAnnotation(field, TimeToLive.class)) {
+                if (timeToLiveColumn != null) {
+                    throw new IllegalStateException("An entity can only have one TimeToLive column, found %s and %s"
+                            .formatted(timeToLiveColumn, field.getSimpleName()));
+                }
+                if (!typeUtils.isType(Long.class, typeUtils.toBoxedMirror(field.asType()))) {
+                    throw new IllegalStateException("TimeToLive column %s has to be a long holding epoch millis"
+                            .formatted(field.getSimpleName()));
+                }
+                timeToLiveColumn = field.getSimpleName();
+            }
+        }
+
+        var bloomFilter = type.getAnnotation(BloomFilter.class);
+        if (bloomFilter != null) {
+            if (!(bloomFilter.falsePositiveRate() > 0 && bloomFilter.falsePositiveRate() < 1)) {
+                throw new IllegalStateException("BloomFilter falsePositiveRate of %s has to be between 0 and 1"
+                        .formatted(type.getSimpleName()));
+            }
+            if (bloomFilter.rebuildInterval() <= 0) {
+                throw new IllegalStateException(
+                        "BloomFilter rebuildInterval of %s has to be positive".formatted(type.getSimpleName()));
+            }
+            // the filter hashes the keys as they are in Java, a key the database considers equal would be missed
+            for (ColumnInfo column : columns) {
+                if (keys.contains(column.name()) && !typeUtils.hasExactEquality(column.asType())) {
+                    throw new IllegalStateException(
+                            "BloomFilter key %s of %s is of type %s, which isn't compared exactly like a number or UUID"
+                                    .formatted(column.name(), type.getSimpleName(), column.typeName()));
+                }
+            }
+        }
+
+        if (timeToLiveColumn != null && !isIndexed(indexes, timeToLiveColumn)) {
+            // the purger filters on this column, without an index every batch would scan the whole table
+            indexes.add(new IndexInfo("", new CharSequence[] {timeToLiveColumn}, IndexType.NORMAL));
         }
 
         boolean validConstructorFound = false;
@@ -137,4 +178,13 @@ final class EntityManager {
         entityInfoByClassName.put(type.getQualifiedName(), entityInfo);
         return entityInfo;
     }
+
+    private boolean isIndexed(List<IndexInfo> indexes, CharSequence column) {
+        for (IndexInfo index : indexes) {
+            if (index.columns().length > 0 && index.columns()[0].toString().contentEquals(column)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.sql.SqlDialect;
+
+/**
+ * The options that can be passed to the annotation processor using {@code -A<option>=<value>}.
+ *
+ * @param reactiveMongo whether async MongoDB methods should use the reactive streams driver instead of running the
+ *                      sync driver on the executor service. Set using {@value #REACTIVE_MONGO}
+ * @param strictIndexCoverage whether queries that aren't covered by an index should fail the compilation instead of
+ *                            resulting in a warning. Set using {@value #STRICT_INDEX_COVERAGE}
+ * @param targets the database types to generate the implementations for, all of them by default. Set using
+ *                {@value #TARGETS} to a comma separated list of database types (e.g. {@code MARIADB,SQLITE}), where
+ *                {@code SQL} is short for every SQL dialect
+ */
+public record ProcessorOptions(boolean reactiveMongo, boolean strictIndexCoverage, Set<DatabaseType> targets) {
+    public static final String REACTIVE_MONGO = "databaseutils.mongo.reactive";
+    public static final String STRICT_INDEX_COVERAGE = "databaseutils.index.strict";
+    public static final String TARGETS = "databaseutils.targets";
+
+    public ProcessorOptions {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target has to be provided");
+        }
+        targets = Collections.unmodifiableSet(EnumSet.copyOf(targets));
+    }
+
+    public static Set<String> supportedOptions() {
+        return Set.of(REACTIVE_MONGO, STRICT_INDEX_COVERAGE, TARGETS);
+    }
+
+    public static ProcessorOptions from(Map<String, String> options) {
+        return new ProcessorOptions(
+                Boolean.parseBoolean(options.get(REACTIVE_MONGO)),
+                Boolean.parseBoolean(options.get(STRICT_INDEX_COVERAGE)),
+                parseTargets(options.get(TARGETS)));
+    }
+
+    /**
+     * Whether the implementations of the given database category have to be generated.
+     */
+    public boolean generates(DatabaseCategory category) {
+        for (DatabaseType target : targets) {
+            if (target.databaseCategory() == category) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the SQL dialects the SQL implementations have to support.
+     */
+    public Set<SqlDialect> sqlDialects() {
+        var dialects = EnumSet.noneOf(SqlDialect.class);
+        for (DatabaseType target : targets) {
+            if (target.dialect() != null) {
+                dialects.add(target.dialect());
+            }
+        }
+        return dialects;
+    }
+
+    private static Set<DatabaseType> parseTargets(String value) {
+        if (value == null || value.isBlank()) {
+            return EnumSet.allOf(DatabaseType.class);
+        }
+
+        var targets = EnumSet.noneOf(DatabaseType.class);
+        for (String name : value.split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (name.equalsIgnoreCase(DatabaseCategory.SQL.name())) {
+                for (DatabaseType type : DatabaseType.VALUES) {
+                    if (type.databaseCategory() == DatabaseCategory.SQL) {
+                        targets.add(type);
+                    }
+                }
+                continue;
+            }
+            var type = DatabaseType.byName(name);
+            if (type == null) {
+                throw new IllegalArgumentException("Unknown database type '%s' in %s".formatted(name, TARGETS));
+            }
+            targets.add(type);
+        }
+        return targets;
+    }
+}
@@ -5,43 +5,70 @@
  */
 package org.geysermc.databaseutils.processor;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.geysermc.databaseutils.DatabaseCategory;
 import org.geysermc.databaseutils.processor.type.DatabaseGenerator;
 import org.geysermc.databaseutils.processor.type.RepositoryGenerator;
+import org.geysermc.databaseutils.processor.type.memory.MemoryDatabaseGenerator;
+import org.geysermc.databaseutils.processor.type.memory.MemoryRepositoryGenerator;
 import org.geysermc.databaseutils.processor.type.mongo.MongoDatabaseGenerator;
 import org.geysermc.databaseutils.processor.type.mongo.MongoRepositoryGenerator;
 import org.geysermc.databaseutils.processor.type.sql.SqlDatabaseGenerator;
 import org.geysermc.databaseutils.processor.type.sql.SqlRepositoryGenerator;
 
 final class RegisteredGenerators {
-    private static final Map<DatabaseCategory, Supplier<DatabaseGenerator>> DATABASE_GENERATORS = new HashMap<>();
-    private static final Map<DatabaseCategory, Supplier<RepositoryGenerator>> REPOSITORY_GENERATORS = new HashMap<>();
+    private static final Map<DatabaseCategory, Registration> GENERATORS = new EnumMap<>(DatabaseCategory.class);
 
     private RegisteredGenerators() {}
 
-    public static List<DatabaseGenerator> databaseGenerators() {
-        return DATABASE_GENERATORS.values().stream().map(Supplier::get).collect(Collectors.toList());
+    /**
+     * Returns the database generators of the categories that the options target, in the same order as
+     * {@link #repositoryGenerators(ProcessorOptions)}.
+     */
+    public static List<DatabaseGenerator> databaseGenerators(ProcessorOptions options) {
+        return registrationsFor(options).stream()
+                .map(registration -> registration.database().apply(options))
+                .collect(Collectors.toList());
     }
 
-    public static List<RepositoryGenerator> repositoryGenerators() {
-        return REPOSITORY_GENERATORS.values().stream().map(Supplier::get).collect(Collectors.toList());
+    public static List<RepositoryGenerator> repositoryGenerators(ProcessorOptions options) {
+        return registrationsFor(options).stream()
+                .map(registration -> registration.repository().apply(options))
+                .collect(Collectors.toList());
     }
 
-    public static int generatorCount() {
-        return DATABASE_GENERATORS.size();
+    public static int generatorCount(ProcessorOptions options) {
+        return registrationsFor(options).size();
     }
 
-    static {
-        // todo make it less cursed by using one map/list with everything for each database category
-        DATABASE_GENERATORS.put(DatabaseCategory.SQL, SqlDatabaseGenerator::new);
-        DATABASE_GENERATORS.put(DatabaseCategory.MONGODB, MongoDatabaseGenerator::new);
+    private static List<Registration> registrationsFor(ProcessorOptions options) {
+        return GENERATORS.entrySet().stream()
+                .filter(entry -> options.generates(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+    }
 
-        REPOSITORY_GENERATORS.put(DatabaseCategory.SQL, SqlRepositoryGenerator::new);
-        REPOSITORY_GENERATORS.put(DatabaseCategory.MONGODB, MongoRepositoryGenerator::new);
+    private record Registration(
+            Function<ProcessorOptions, DatabaseGenerator> database,
+            Function<ProcessorOptions, RepositoryGenerator> repository) {}
+
+    static {
+        GENERATORS.put(
+                DatabaseCategory.SQL,
+                new Registration(
+                        options -> new SqlDatabaseGenerator(options.sqlDialects()),
+                        options -> new SqlRepositoryGenerator(options.sqlDialects())));
+        GENERATORS.put(
+                DatabaseCategory.MONGODB,
+                new Registration(
+                        options -> new MongoDatabaseGenerator(options.reactiveMongo()),
+                        options -> new MongoRepositoryGenerator(options.reactiveMongo())));
+        GENERATORS.put(
+                DatabaseCategory.MEMORY,
+                new Registration(options -> new MemoryDatabaseGenerator(), options -> new MemoryRepositoryGenerator()));
     }
 }
@@ -8,6 +8,7 @@ package org.geysermc.databaseutils.processor;
 import com.google.auto.common.MoreTypes;
 import com.google.auto.service.AutoService;
 import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeSpec;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -16,6 +17,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
 import javax.annotation.processing.Messager;
@@ -29,13 +31,24 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import org.geysermc.databaseutils.DatabaseBootstrap;
 import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.meta.AllowFullScan;
 import org.geysermc.databaseutils.meta.Query;
 import org.geysermc.databaseutils.meta.Repository;
+import org.geysermc.databaseutils.meta.Sharded;
 import org.geysermc.databaseutils.processor.action.ActionRegistry;
+import org.geysermc.databaseutils.processor.info.EntityInfo;
+import org.geysermc.databaseutils.processor.query.IndexCoverage;
+import org.geysermc.databaseutils.processor.query.KeywordsReadResult;
 import org.geysermc.databaseutils.processor.query.KeywordsReader;
+import org.geysermc.databaseutils.processor.query.NativeQuery;
+import org.geysermc.databaseutils.processor.query.QueryContext;
 import org.geysermc.databaseutils.processor.query.QueryContextCreator;
+import org.geysermc.databaseutils.processor.type.EventRepositoryGenerator;
 import org.geysermc.databaseutils.processor.type.RepositoryGenerator;
+import org.geysermc.databaseutils.processor.type.ShardedRepositoryGenerator;
 import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
 import org.geysermc.databaseutils.processor.util.TypeUtils;
 
@@ -45,14 +58,20 @@ public final class RepositoryProcessor extends AbstractProcessor {
     private EntityManager entityManager;
     private Filer filer;
     private Messager messager;
+    private ProcessorOptions options;
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
+        this.messager = processingEnv.getMessager();
+        try {
+            this.options = ProcessorOptions.from(processingEnv.getOptions());
+        } catch (IllegalArgumentException exception) {
+            messager.printMessage(Diagnostic.Kind.ERROR, exception.getMessage());
+        }
         this.typeUtils = new TypeUtils(processingEnv.getTypeUtils(), processingEnv.getElementUtils());
         this.entityManager = new EntityManager(typeUtils);
         this.filer = processingEnv.getFiler();
-        this.messager = processingEnv.getMessager();
     }
 
     @Override
@@ -60,16 +79,23 @@ public final class RepositoryProcessor extends AbstractProcessor {
         return Set.of(Repository.class.getCanonicalName());
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        return ProcessorOptions.supportedOptions();
+    }
+
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment env) {
-        if (env.processingOver()) {
+        if (env.processingOver() || options == null) {
             return true;
         }
 
         List<List<RepositoryGenerator>> results = new ArrayList<>();
-        for (int i = 0; i < RegisteredGenerators.generatorCount(); i++) {
+        for (int i = 0; i < RegisteredGenerators.generatorCount(options); i++) {
             results.add(new ArrayList<>());
         }
+        List<ShardedRepositoryGenerator> shardedResults = new ArrayList<>();
+        List<EventRepositoryGenerator> eventResults = new ArrayList<>();
         boolean errorOccurred = false;
 
         // generate repositories
@@ -80,7 +106,13 @@ public final class RepositoryProcessor extends AbstractProcessor {
             }
 
             try {
-                var result = processRepository((TypeElement) element);
+                var sharded = element.getAnnotation(Sharded.class) != null ? new ShardedRepositoryGenerator() : null;
+                var events = new EventRepositoryGenerator();
+                var result = processRepository((TypeElement) element, events, sharded);
+                eventResults.add(events);
+                if (sharded != null) {
+                    shardedResults.add(sharded);
+                }
                 // repository -> database to database -> repository
                 for (int i = 0; i < result.size(); i++) {
                     results.get(i).add(result.get(i));
@@ -104,31 +136,45 @@ public final class RepositoryProcessor extends AbstractProcessor {
         }
 
         List<GeneratedType> generatedTypes = new ArrayList<>();
+        List<String> bootstrapClasses = new ArrayList<>();
+
+        for (var events : eventResults) {
+            generatedTypes.add(new GeneratedType(events.packageName(), events.finish().build()));
+        }
+        for (var sharded : shardedResults) {
+            generatedTypes.add(new GeneratedType(sharded.packageName(), sharded.finish().build()));
+        }
 
         // generate databases
-        var databases = RegisteredGenerators.databaseGenerators();
+        var databases = RegisteredGenerators.databaseGenerators(options);
         for (int i = 0; i < databases.size(); i++) {
             var generator = databases.get(i);
 
-            var repositoryClasses = new ArrayList<String>();
             boolean hasAsync = false;
             for (var result : results.get(i)) {
                 hasAsync |= result.hasAsync();
 
                 var build = result.finish(generator.databaseClass()).build();
                 generatedTypes.add(new GeneratedType(result.packageName(), build));
-                repositoryClasses.add(result.packageName() + "." + build.name);
             }
 
             var spec = TypeSpec.classBuilder(generator.databaseCategory().upperCamelCaseName() + "DatabaseGenerated");
             generator.init(spec, hasAsync);
             generator.addEntities(entityManager.processedEntities());
-            generator.addRepositories(repositoryClasses);
-
-            generatedTypes.add(new GeneratedType(generator.databaseClass().getPackageName(), spec.build()));
+            generator.addExpiringEntities(entityManager.processedEntities());
+            generator.addFilteredEntities(entityManager.processedEntities());
+            generator.addSnapshotEntities(entityManager.processedEntities());
+            generator.addRepositories(results.get(i));
+            generator.addShardedRepositories(shardedResults);
+
+            var packageName = generator.databaseClass().getPackageName();
+            var build = spec.build();
+            generatedTypes.add(new GeneratedType(packageName, build));
+            bootstrapClasses.add(packageName + "." + build.name);
         }
 
         writeGeneratedTypes(generatedTypes);
+        writeBootstrapMetadata(bootstrapClasses);
 
         return true;
     }
@@ -150,7 +196,39 @@ public final class RepositoryProcessor extends AbstractProcessor {
         }
     }
 
-    private List<RepositoryGenerator> processRepository(TypeElement repository) {
+    /**
+     * Registers the generated bootstrap classes as a service, and makes them known to GraalVM's native-image, since
+     * the ServiceLoader creates them reflectively.
+     */
+    private void writeBootstrapMetadata(List<String> bootstrapClasses) {
+        var services = String.join("\n", bootstrapClasses) + "\n";
+        writeResource("META-INF/services/" + DatabaseBootstrap.class.getCanonicalName(), services);
+
+        var reflectConfig = new StringBuilder("[\n");
+        for (int i = 0; i < bootstrapClasses.size(); i++) {
+            reflectConfig
+                    .append("  {\"name\": \"")
+                    .append(bootstrapClasses.get(i))
+                    .append("\", \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]}")
+                    .append(i + 1 < bootstrapClasses.size() ? ",\n" : "\n");
+        }
+        reflectConfig.append("]\n");
+        writeResource("META-INF/native-image/org.geysermc.databaseutils/generated/reflect-config.json", reflectConfig);
+    }
+
+    private void writeResource(String location, CharSequence content) {
+        try {
+            var resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", location);
+            try (var writer = resource.openWriter()) {
+                writer.write(content.toString());
+            }
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private List<RepositoryGenerator> processRepository(
+            TypeElement repository, EventRepositoryGenerator events, ShardedRepositoryGenerator sharded) {
         TypeMirror entityType = null;
         for (TypeMirror mirror : repository.getInterfaces()) {
             if (typeUtils.isType(IRepository.class, mirror)) {
@@ -164,10 +242,14 @@ public final class RepositoryProcessor extends AbstractProcessor {
 
         var entity = entityManager.processEntity(entityType);
 
-        var generators = RegisteredGenerators.repositoryGenerators();
+        var generators = RegisteredGenerators.repositoryGenerators(options);
         for (var generator : generators) {
             generator.init(repository, entity);
         }
+        events.init(repository);
+        if (sharded != null) {
+            sharded.init(repository, entity);
+        }
 
         for (Element enclosedElement : repository.getEnclosedElements()) {
             if (enclosedElement.getKind() != ElementKind.METHOD) {
@@ -183,6 +265,16 @@ public final class RepositoryProcessor extends AbstractProcessor {
             var query = methodName;
             var queryAnnotation = enclosedElement.getAnnotation(Query.class);
             if (queryAnnotation != null) {
+                try {
+                    var nativeQuery = NativeQuery.from(queryAnnotation, element);
+                    if (nativeQuery != null) {
+                        processNativeMethod(element, entity, nativeQuery, generators, events, sharded);
+                        continue;
+                    }
+                } catch (InvalidRepositoryException exception) {
+                    error(element, exception);
+                    continue;
+                }
                 query = queryAnnotation.value();
             }
 
@@ -194,7 +286,12 @@ public final class RepositoryProcessor extends AbstractProcessor {
 
             try {
                 var queryContext = new QueryContextCreator(action, result, element, entity, typeUtils).create();
+                checkIndexCoverage(element, queryContext);
                 action.addTo(generators, queryContext);
+                events.addMethod(queryContext);
+                if (sharded != null) {
+                    sharded.addMethod(queryContext);
+                }
             } catch (Throwable exception) {
                 error(element, exception);
             }
@@ -203,6 +300,65 @@ public final class RepositoryProcessor extends AbstractProcessor {
         return generators;
     }
 
+    /**
+     * Native queries don't have a derived query to read, so only the action is read from the method name. Index
+     * coverage isn't checked either, since the query isn't analysed.
+     */
+    private void processNativeMethod(
+            ExecutableElement element,
+            EntityInfo entity,
+            NativeQuery nativeQuery,
+            List<RepositoryGenerator> generators,
+            EventRepositoryGenerator events,
+            ShardedRepositoryGenerator sharded) {
+        var methodName = element.getSimpleName().toString();
+        int actionEnd = 0;
+        while (actionEnd < methodName.length() && !Character.isUpperCase(methodName.charAt(actionEnd))) {
+            actionEnd++;
+        }
+
+        var result = KeywordsReadResult.builder().build(methodName.substring(0, actionEnd));
+        var action = ActionRegistry.actionMatching(result);
+        if (action == null) {
+            throw new InvalidRepositoryException("No available actions for %s", methodName);
+        }
+
+        try {
+            var queryContext =
+                    new QueryContextCreator(action, result, element, entity, typeUtils).createNative(nativeQuery);
+            for (RepositoryGenerator generator : generators) {
+                generator.addNativeQuery(queryContext, MethodSpec.overriding(element));
+            }
+            events.addMethod(queryContext);
+            if (sharded != null) {
+                sharded.addMethod(queryContext);
+            }
+        } catch (Throwable exception) {
+            error(element, exception);
+        }
+    }
+
+    private void checkIndexCoverage(ExecutableElement element, QueryContext context) {
+        if (element.getAnnotation(AllowFullScan.class) != null) {
+            return;
+        }
+
+        var kind = options.strictIndexCoverage() ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING;
+        for (List<String> columns : IndexCoverage.uncovered(context)) {
+            var suggestion = columns.stream().map(column -> '"' + column + '"').collect(Collectors.joining(", "));
+            this.messager.printMessage(
+                    kind,
+                    String.format(
+                            Locale.ROOT,
+                            "%s isn't covered by an index and can result in a full table scan. Consider adding "
+                                    + "@Index(columns = {%s}) to %s, or @AllowFullScan to the method if intended",
+                            context.methodName(),
+                            suggestion,
+                            context.entityInfo().type().getSimpleName()),
+                    element);
+        }
+    }
+
     private void error(Element cause, String message, Object... arguments) {
         this.messager.printMessage(Diagnostic.Kind.ERROR, String.format(Locale.ROOT, message, arguments), cause);
     }
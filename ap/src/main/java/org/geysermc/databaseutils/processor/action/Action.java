@@ -42,6 +42,14 @@ public abstract class Action {
         return allowReturnAnySelfOrColumn;
     }
 
+    /**
+     * Whether the action can return a record or interface with a subset of the columns, see
+     * {@link org.geysermc.databaseutils.processor.info.DtoInfo}.
+     */
+    public boolean allowReturnDto() {
+        return false;
+    }
+
     public boolean supportsFilter() {
         return supportsFilter;
     }
@@ -66,6 +74,11 @@ public abstract class Action {
                 "Collection return type (%s) is not supported for %s", context.returnType(), actionType());
     }
 
+    protected void validatePrimitiveSequence(QueryContext context) {
+        throw new InvalidRepositoryException(
+                "Primitive return type (%s) is not supported for %s", context.returnType(), actionType());
+    }
+
     protected boolean validateEither(QueryContext context, boolean passedCustomValidation) {
         return false;
     }
@@ -113,6 +126,9 @@ public abstract class Action {
             throw new InvalidRepositoryException(
                     "Expected at most one parameter, with type %s", context.entityTypeName());
         }
+        if (context.returnInfo().isPrimitiveSequence()) {
+            validatePrimitiveSequence(context);
+        }
 
         for (RepositoryGenerator generator : generators) {
             addToSingle(
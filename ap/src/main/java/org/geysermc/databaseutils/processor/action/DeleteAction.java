@@ -18,6 +18,7 @@ final class DeleteAction extends Action {
 
     @Override
     protected void addToSingle(RepositoryGenerator generator, QueryContext context, MethodSpec.Builder spec) {
+        generator.addKeyFilterDelete(context, spec);
         generator.addDelete(context, spec);
     }
 
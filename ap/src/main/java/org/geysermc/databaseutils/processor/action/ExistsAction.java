@@ -27,6 +27,7 @@ final class ExistsAction extends Action {
 
     @Override
     public void addToSingle(RepositoryGenerator generator, QueryContext context, MethodSpec.Builder spec) {
+        generator.addKeyFilterLookup(context, spec);
         generator.addExists(context, spec);
     }
 }
@@ -6,22 +6,38 @@
 package org.geysermc.databaseutils.processor.action;
 
 import static org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeywordCategory.LIMIT;
+import static org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeywordCategory.OFFSET;
 import static org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeywordCategory.SUMMARY;
 import static org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeywordCategory.UNIQUE;
 
 import com.squareup.javapoet.MethodSpec;
+import javax.lang.model.type.TypeKind;
+import org.geysermc.databaseutils.meta.Coalesce;
 import org.geysermc.databaseutils.processor.query.QueryContext;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.EqualsKeyword;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableByFactor;
+import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.CountProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MaxProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MinProjectionKeyword;
 import org.geysermc.databaseutils.processor.type.RepositoryGenerator;
 import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
 
 final class FindAction extends Action {
+    private static final int MAX_COALESCE_BATCH_SIZE = 1000;
+
     FindAction() {
-        super("find", true, true, false, UNIQUE, SUMMARY, LIMIT);
+        super("find", true, true, false, UNIQUE, SUMMARY, LIMIT, OFFSET);
+    }
+
+    @Override
+    public boolean allowReturnDto() {
+        return true;
     }
 
     @Override
     protected boolean validateEither(QueryContext context, boolean passedCustomValidation) {
-        if (passedCustomValidation) {
+        if (passedCustomValidation || context.hasDto()) {
             return true;
         }
         if (!context.returnInfo().isAnySelf()) {
@@ -37,8 +53,135 @@ final class FindAction extends Action {
         return false;
     }
 
+    @Override
+    protected void validatePrimitiveSequence(QueryContext context) {
+        if (!context.hasProjectionColumnName() || context.projection().summary() != null) {
+            throw new InvalidRepositoryException(
+                    "%s as return type requires a projection of a single column, for %s",
+                    context.returnType(), context.methodName());
+        }
+        var column = context.projectionColumnInfo();
+        if (!context.typeUtils().isType(column.asType(), context.returnInfo().elementType())) {
+            throw new InvalidRepositoryException(
+                    "Expected column %s to be of type %s for %s, got %s",
+                    column.name(), context.returnInfo().elementType(), context.methodName(), column.typeName());
+        }
+        if (!column.variable().asType().getKind().isPrimitive()) {
+            throw new InvalidRepositoryException(
+                    "Column %s of type %s can be null, which %s can't hold, for %s",
+                    column.name(), column.typeName(), context.returnType(), context.methodName());
+        }
+    }
+
     @Override
     public void addToSingle(RepositoryGenerator generator, QueryContext context, MethodSpec.Builder spec) {
-        generator.addFind(context, spec);
+        if (context.hasProjection() && context.projection().summary() != null) {
+            validateSummary(context, context.projection().summary());
+        }
+
+        generator.addKeyFilterLookup(context, spec);
+        var coalesce = context.method().getAnnotation(Coalesce.class);
+        if (coalesce == null) {
+            generator.addFind(context, spec);
+            return;
+        }
+
+        var variable = coalescedVariable(context, coalesce);
+        var keyword = (EqualsKeyword) variable.keyword();
+        generator.addCoalescedFind(
+                context,
+                spec,
+                context.columnFor(variable.columnName()),
+                keyword.parameterNames().get(0),
+                coalesce);
+    }
+
+    private void validateSummary(QueryContext context, ProjectionKeyword summary) {
+        if (context.returnInfo().isCollection()) {
+            throw new InvalidRepositoryException(
+                    "%s expects a single result as return type for %s, got %s",
+                    summary.name(), context.methodName(), context.returnType());
+        }
+        if (context.projection().limit() != -1
+                || context.projection().offset() != 0
+                || context.result().orderBySection() != null) {
+            throw new InvalidRepositoryException(
+                    "%s can't be combined with a limit, offset or order by, for %s",
+                    summary.name(), context.methodName());
+        }
+        if (context.projection().distinct() && !(summary instanceof CountProjectionKeyword)) {
+            throw new InvalidRepositoryException(
+                    "Distinct can only be combined with Count, for %s", context.methodName());
+        }
+
+        var typeUtils = context.typeUtils();
+        var returnType = context.returnType();
+        var columnType = context.projectionColumnInfo().asType();
+        boolean valid;
+        if (summary instanceof CountProjectionKeyword) {
+            valid = typeUtils.isWholeNumberType(returnType);
+        } else if (summary instanceof MinProjectionKeyword || summary instanceof MaxProjectionKeyword) {
+            if (returnType.getKind().isPrimitive()) {
+                // a primitive can't tell a minimum of zero apart from no matches
+                throw new InvalidRepositoryException(
+                        "%s returns null when nothing matches, so it requires a boxed return type, for %s",
+                        summary.name(), context.methodName());
+            }
+            valid = typeUtils.isType(columnType, returnType)
+                    || typeUtils.isNumberType(columnType) && typeUtils.isNumberType(returnType);
+        } else {
+            valid = typeUtils.isNumberType(columnType) && typeUtils.isNumberType(returnType);
+        }
+
+        if (!valid) {
+            throw new InvalidRepositoryException(
+                    "Unsupported return type %s for %s of column %s, for %s",
+                    returnType, summary.name(), context.projection().columnName(), context.methodName());
+        }
+    }
+
+    private VariableByFactor coalescedVariable(QueryContext context, Coalesce coalesce) {
+        if (!context.returnInfo().async() || !context.returnInfo().isSelf()) {
+            throw new InvalidRepositoryException(
+                    "@Coalesce requires CompletableFuture<%s> as return type for %s, got %s",
+                    context.entityTypeName(), context.methodName(), context.returnType());
+        }
+        if (context.hasProjection() || context.result().orderBySection() != null) {
+            throw new InvalidRepositoryException(
+                    "@Coalesce does not support projections or an order by section, for %s", context.methodName());
+        }
+
+        var factors = context.bySectionFactors();
+        if (factors == null
+                || factors.size() != 1
+                || !(factors.get(0) instanceof VariableByFactor variable)
+                || !(variable.keyword() instanceof EqualsKeyword)) {
+            throw new InvalidRepositoryException(
+                    "@Coalesce requires a By section with exactly one equals column, for %s", context.methodName());
+        }
+
+        var columnType = context.columnFor(variable.columnName()).asType();
+        if (columnType.getKind() == TypeKind.ARRAY) {
+            // arrays don't implement equals, so the results can't be matched with the requested keys
+            throw new InvalidRepositoryException(
+                    "@Coalesce does not support array columns, for %s", context.methodName());
+        }
+        if (!context.typeUtils().hasExactEquality(columnType)) {
+            // the database could return a row for a key that isn't equal to it in Java, e.g. "steve" for "Steve"
+            throw new InvalidRepositoryException(
+                    "@Coalesce requires a column of which the values are compared exactly, like a number or UUID."
+                            + " %s of type %s isn't, for %s",
+                    variable.columnName(), columnType, context.methodName());
+        }
+
+        if (coalesce.windowMillis() <= 0 || coalesce.maxBatchSize() <= 0) {
+            throw new InvalidRepositoryException(
+                    "@Coalesce expects a positive window and batch size, for %s", context.methodName());
+        }
+        if (coalesce.maxBatchSize() > MAX_COALESCE_BATCH_SIZE) {
+            throw new InvalidRepositoryException(
+                    "@Coalesce maxBatchSize can be at most %s, for %s", MAX_COALESCE_BATCH_SIZE, context.methodName());
+        }
+        return variable;
     }
 }
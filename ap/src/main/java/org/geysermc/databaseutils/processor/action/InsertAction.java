@@ -17,6 +17,7 @@ final class InsertAction extends Action {
 
     @Override
     protected void addToSingle(RepositoryGenerator generator, QueryContext context, MethodSpec.Builder spec) {
+        generator.addKeyFilterInsert(context, spec);
         generator.addInsert(context, spec);
     }
 }
@@ -6,6 +6,7 @@
 package org.geysermc.databaseutils.processor.action;
 
 import com.squareup.javapoet.MethodSpec;
+import org.geysermc.databaseutils.processor.info.ColumnInfo;
 import org.geysermc.databaseutils.processor.query.QueryContext;
 import org.geysermc.databaseutils.processor.type.RepositoryGenerator;
 import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
@@ -29,6 +30,16 @@ final class UpdateAction extends Action {
                     "Expected additional parameters for the changed columns (e.g. updateById(id, title) to change the title for a given id) for %s",
                     context.method());
         }
+        if (context.entityInfo().bloomFilter() != null) {
+            for (ColumnInfo column : context.parametersInfo().remaining()) {
+                if (context.entityInfo().keys().contains(column.name())) {
+                    // the new key wouldn't be in the key filter, so lookups of it would find nothing
+                    throw new InvalidRepositoryException(
+                            "Can't change key column %s of %s, since the entity has a BloomFilter, for %s",
+                            column.name(), context.entityTypeName(), context.methodName());
+                }
+            }
+        }
         return false;
     }
 }
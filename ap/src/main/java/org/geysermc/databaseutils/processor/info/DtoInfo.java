@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.info;
+
+import java.util.List;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A record or interface that a find returns instead of the entity, of which every component (or accessor method for
+ * interfaces) is one of the columns of the entity. Only those columns are read from the database.
+ *
+ * @param type the record or interface
+ * @param components the components in the order of the record constructor, or the accessors of the interface
+ */
+public record DtoInfo(TypeElement type, List<Component> components) {
+    public boolean isInterface() {
+        return type.getKind() == ElementKind.INTERFACE;
+    }
+
+    public List<ColumnInfo> columns() {
+        return components.stream().map(Component::column).toList();
+    }
+
+    public boolean hasColumn(CharSequence columnName) {
+        for (Component component : components) {
+            if (component.column().name().contentEquals(columnName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param column the column of the entity the component reads
+     * @param type the type of the component, which can be the primitive version of the column type
+     */
+    public record Component(ColumnInfo column, TypeMirror type) {}
+}
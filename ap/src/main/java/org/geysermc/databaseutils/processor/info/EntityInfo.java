@@ -12,6 +12,8 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.meta.BloomFilter;
+import org.geysermc.databaseutils.meta.TimeToLive;
 import org.geysermc.databaseutils.processor.query.section.by.keyword.EqualsKeyword;
 import org.geysermc.databaseutils.processor.query.section.factor.Factor;
 import org.geysermc.databaseutils.processor.query.section.factor.VariableByFactor;
@@ -39,6 +41,25 @@ public record EntityInfo(
         return columns;
     }
 
+    /**
+     * Returns the column annotated with {@link org.geysermc.databaseutils.meta.TimeToLive}, or null if there is none.
+     */
+    public ColumnInfo timeToLiveColumn() {
+        for (ColumnInfo column : columns) {
+            if (column.annotation(TimeToLive.class) != null) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the {@link BloomFilter} of the entity, or null if it doesn't have one.
+     */
+    public BloomFilter bloomFilter() {
+        return type.getAnnotation(BloomFilter.class);
+    }
+
     public TypeMirror asType() {
         return type.asType();
     }
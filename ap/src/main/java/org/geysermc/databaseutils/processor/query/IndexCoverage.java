@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.geysermc.databaseutils.processor.info.IndexInfo;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.EqualsKeyword;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.NullKeyword;
+import org.geysermc.databaseutils.processor.query.section.factor.Factor;
+import org.geysermc.databaseutils.processor.query.section.factor.OrFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableByFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableOrderByFactor;
+
+/**
+ * Checks whether the By and OrderBy section of a query can use one of the indexes of the entity. Like the databases
+ * do, this follows the leftmost-prefix rule: an index can only be used for a filter when the filter uses the first
+ * column of the index, and it can only be used for the order when the order by columns directly follow the columns
+ * that are filtered on equality.
+ */
+public final class IndexCoverage {
+    private IndexCoverage() {}
+
+    /**
+     * Returns the columns of the indexes that would cover the query, or an empty list if the query is covered.
+     * Every branch of an or needs its own index, so there can be more than one suggestion.
+     */
+    public static List<List<String>> uncovered(QueryContext context) {
+        var orderBy = orderByColumns(context);
+        var groups = filterGroups(context.bySectionFactors());
+        if (groups.isEmpty()) {
+            if (orderBy.isEmpty()) {
+                return List.of();
+            }
+            groups.add(new FilterGroup());
+        }
+
+        var suggestions = new ArrayList<List<String>>();
+        for (FilterGroup group : groups) {
+            if (!isCovered(context.entityInfo().indexes(), group, orderBy)) {
+                suggestions.add(group.suggestion(orderBy));
+            }
+        }
+        return suggestions;
+    }
+
+    private static boolean isCovered(List<IndexInfo> indexes, FilterGroup group, List<String> orderBy) {
+        // the filter and the order have to be covered by the same index, otherwise it's either filtered or ordered
+        // using the index while the other has to be done by going through the remaining rows
+        for (IndexInfo index : indexes) {
+            var columns = new ArrayList<String>();
+            for (CharSequence column : index.columns()) {
+                columns.add(column.toString());
+            }
+            if (columns.isEmpty()) {
+                continue;
+            }
+
+            boolean filterCovered = group.isEmpty() || group.uses(columns.get(0));
+            boolean orderCovered = orderBy.isEmpty() || coversOrder(columns, group.equal, orderBy);
+            if (filterCovered && orderCovered) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean coversOrder(List<String> index, List<String> equal, List<String> orderBy) {
+        // columns filtered on equality have a single value, so the index is ordered by the columns after them
+        int offset = 0;
+        while (offset < index.size() && equal.contains(index.get(offset))) {
+            offset++;
+        }
+        if (index.size() - offset < orderBy.size()) {
+            return false;
+        }
+        return index.subList(offset, offset + orderBy.size()).equals(orderBy);
+    }
+
+    private static List<FilterGroup> filterGroups(List<Factor> factors) {
+        var groups = new ArrayList<FilterGroup>();
+        if (factors == null) {
+            return groups;
+        }
+
+        var current = new FilterGroup();
+        for (Factor factor : factors) {
+            if (factor instanceof OrFactor) {
+                groups.add(current);
+                current = new FilterGroup();
+                continue;
+            }
+            if (factor instanceof VariableByFactor variable) {
+                var columnName = variable.columnName().toString();
+                if (variable.keyword() instanceof EqualsKeyword || variable.keyword() instanceof NullKeyword) {
+                    addDistinct(current.equal, columnName);
+                } else {
+                    addDistinct(current.range, columnName);
+                }
+            }
+        }
+        groups.add(current);
+        return groups;
+    }
+
+    private static List<String> orderByColumns(QueryContext context) {
+        var columns = new ArrayList<String>();
+        var orderBy = context.result().orderBySection();
+        if (orderBy == null) {
+            return columns;
+        }
+        for (Factor factor : orderBy.factors()) {
+            if (factor instanceof VariableOrderByFactor variable) {
+                addDistinct(columns, variable.columnName().toString());
+            }
+        }
+        return columns;
+    }
+
+    private static void addDistinct(List<String> list, String item) {
+        if (!list.contains(item)) {
+            list.add(item);
+        }
+    }
+
+    private static final class FilterGroup {
+        private final List<String> equal = new ArrayList<>();
+        private final List<String> range = new ArrayList<>();
+
+        boolean isEmpty() {
+            return equal.isEmpty() && range.isEmpty();
+        }
+
+        boolean uses(String column) {
+            return equal.contains(column) || range.contains(column);
+        }
+
+        List<String> suggestion(List<String> orderBy) {
+            // equality columns first, so that both the range and the order can use the remainder of the index
+            var columns = new ArrayList<>(equal);
+            range.forEach(column -> addDistinct(columns, column));
+            orderBy.forEach(column -> addDistinct(columns, column));
+            return columns;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.query;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.meta.Query;
+import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
+import org.geysermc.databaseutils.sql.SqlDialect;
+
+/**
+ * The native queries provided using {@link Query}, of which the named parameters have been replaced and resolved to
+ * the parameters of the method. SQL parameters are replaced with a ?, and MongoDB parameters with
+ * {@code {"$parameter": "name"}} so that the filter can be parsed as JSON.
+ *
+ * @param sql the query for every dialect without its own query, or null if there is none
+ * @param dialectSql the queries of specific dialects
+ * @param mongo the MongoDB filter, or null if there is none
+ */
+public record NativeQuery(
+        @Nullable Statement sql, Map<SqlDialect, Statement> dialectSql, @Nullable Statement mongo) {
+    public static final String PARAMETER_KEY = "$parameter";
+
+    /**
+     * Returns the native queries of the annotation, or null when the annotation doesn't have any.
+     */
+    public static @Nullable NativeQuery from(Query annotation, ExecutableElement element) {
+        var hasSql = !annotation.sql().isEmpty() || annotation.dialects().length > 0;
+        if (!hasSql && annotation.mongo().isEmpty()) {
+            return null;
+        }
+        if (!annotation.value().isEmpty()) {
+            throw new InvalidRepositoryException(
+                    "@Query of %s can either have a derived query or native queries, not both", element);
+        }
+
+        var sql = annotation.sql().isEmpty() ? null : parseSql(annotation.sql(), element);
+        var dialectSql = new EnumMap<SqlDialect, Statement>(SqlDialect.class);
+        for (Query.Dialect dialect : annotation.dialects()) {
+            if (dialectSql.put(dialect.dialect(), parseSql(dialect.sql(), element)) != null) {
+                throw new InvalidRepositoryException(
+                        "@Query of %s has multiple queries for %s", element, dialect.dialect());
+            }
+        }
+        var mongo = annotation.mongo().isEmpty() ? null : parseMongo(annotation.mongo(), element);
+        return new NativeQuery(sql, dialectSql, mongo);
+    }
+
+    public boolean hasSql() {
+        return sql != null || !dialectSql.isEmpty();
+    }
+
+    /**
+     * Returns the query for the given dialect, which is the default query if the dialect doesn't have its own. Null
+     * is returned when neither is present.
+     */
+    public @Nullable Statement sqlFor(@Nullable SqlDialect dialect) {
+        if (dialect != null && dialectSql.containsKey(dialect)) {
+            return dialectSql.get(dialect);
+        }
+        return sql;
+    }
+
+    private static Statement parseSql(String query, ExecutableElement element) {
+        var result = new StringBuilder();
+        var parameters = new ArrayList<VariableElement>();
+
+        char quote = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char current = query.charAt(i);
+            if (quote != 0) {
+                if (current == quote) {
+                    quote = 0;
+                }
+                result.append(current);
+                continue;
+            }
+            if (current == '\'' || current == '"') {
+                quote = current;
+                result.append(current);
+                continue;
+            }
+            // skip type casts like ::text
+            if (current == ':' && i + 1 < query.length() && query.charAt(i + 1) == ':') {
+                result.append("::");
+                i++;
+                continue;
+            }
+
+            var end = identifierEnd(query, i);
+            if (current != ':' || end == i + 1) {
+                result.append(current);
+                continue;
+            }
+
+            var name = query.substring(i + 1, end);
+            var parameter = parameterFor(element, name);
+            if (parameter == null) {
+                throw new InvalidRepositoryException(
+                        "Native query of %s references :%s, which isn't a parameter", element, name);
+            }
+            parameters.add(parameter);
+            result.append('?');
+            i = end - 1;
+        }
+
+        if (quote != 0) {
+            throw new InvalidRepositoryException("Native query of %s has an unterminated %s", element, quote);
+        }
+        return createStatement(result.toString(), parameters, element);
+    }
+
+    private static Statement parseMongo(String query, ExecutableElement element) {
+        var result = new StringBuilder();
+        var parameters = new ArrayList<VariableElement>();
+
+        boolean inString = false;
+        for (int i = 0; i < query.length(); i++) {
+            char current = query.charAt(i);
+            if (inString) {
+                if (current == '\\' && i + 1 < query.length()) {
+                    result.append(current).append(query.charAt(++i));
+                    continue;
+                }
+                if (current == '"') {
+                    inString = false;
+                }
+                result.append(current);
+                continue;
+            }
+            if (current == '"') {
+                inString = true;
+                result.append(current);
+                continue;
+            }
+
+            var end = identifierEnd(query, i);
+            // a colon followed by something that isn't a parameter is just a key-value separator, e.g. {"a":true}
+            var parameter = current == ':' && end > i + 1 ? parameterFor(element, query.substring(i + 1, end)) : null;
+            if (parameter == null) {
+                result.append(current);
+                continue;
+            }
+
+            parameters.add(parameter);
+            // {"a":name} is read as {"a": :name}, since the colon directly after a key is the separator
+            if (result.toString().stripTrailing().endsWith("\"")) {
+                result.append(':');
+            }
+            result.append("{\"")
+                    .append(PARAMETER_KEY)
+                    .append("\": \"")
+                    .append(parameter.getSimpleName())
+                    .append("\"}");
+            i = end - 1;
+        }
+
+        if (inString) {
+            throw new InvalidRepositoryException("Native MongoDB query of %s has an unterminated string", element);
+        }
+        return createStatement(result.toString(), parameters, element);
+    }
+
+    private static Statement createStatement(
+            String query, List<VariableElement> parameters, ExecutableElement element) {
+        var unused = new HashSet<>(element.getParameters());
+        parameters.forEach(unused::remove);
+        if (!unused.isEmpty()) {
+            throw new InvalidRepositoryException(
+                    "Native query of %s doesn't use parameter(s) %s",
+                    element, unused.stream().map(VariableElement::getSimpleName).toList());
+        }
+        return new Statement(query, parameters);
+    }
+
+    /**
+     * Returns the index after the identifier that starts after the given index, which is the given index + 1 if
+     * there's no identifier.
+     */
+    private static int identifierEnd(String query, int index) {
+        int end = index + 1;
+        if (end >= query.length() || !Character.isJavaIdentifierStart(query.charAt(end))) {
+            return end;
+        }
+        while (end < query.length() && Character.isJavaIdentifierPart(query.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static @Nullable VariableElement parameterFor(ExecutableElement element, String name) {
+        for (VariableElement parameter : element.getParameters()) {
+            if (parameter.getSimpleName().contentEquals(name)) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param query the query where the named parameters have been replaced
+     * @param parameters the parameters in the order they appear in the query, which can contain a parameter
+     *                   multiple times
+     */
+    public record Statement(String query, List<VariableElement> parameters) {}
+}
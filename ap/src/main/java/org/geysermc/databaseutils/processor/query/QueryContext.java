@@ -11,7 +11,9 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.databaseutils.processor.info.ColumnInfo;
+import org.geysermc.databaseutils.processor.info.DtoInfo;
 import org.geysermc.databaseutils.processor.info.EntityInfo;
 import org.geysermc.databaseutils.processor.query.section.ProjectionSection;
 import org.geysermc.databaseutils.processor.query.section.factor.Factor;
@@ -24,7 +26,9 @@ public record QueryContext(
         KeywordsReadResult result,
         ParametersTypeInfo parametersInfo,
         ReturnTypeInfo returnInfo,
-        TypeUtils typeUtils) {
+        TypeUtils typeUtils,
+        @Nullable DtoInfo dto,
+        @Nullable NativeQuery nativeQuery) {
 
     public String tableName() {
         return entityInfo.name();
@@ -95,6 +99,21 @@ public record QueryContext(
         return entityInfo.columnFor(projection().columnName());
     }
 
+    /**
+     * Whether the method returns a record or interface that holds a subset of the columns, instead of the entity.
+     */
+    public boolean hasDto() {
+        return dto != null;
+    }
+
+    /**
+     * Whether the method uses the native queries of {@link org.geysermc.databaseutils.meta.Query} instead of a
+     * derived query. The read result of a native method only contains the action.
+     */
+    public boolean isNative() {
+        return nativeQuery != null;
+    }
+
     public boolean hasParameters() {
         return parametersInfo.hasParameters();
     }
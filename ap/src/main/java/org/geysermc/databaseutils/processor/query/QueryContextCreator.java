@@ -11,12 +11,20 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.geysermc.databaseutils.processor.action.Action;
 import org.geysermc.databaseutils.processor.info.ColumnInfo;
+import org.geysermc.databaseutils.processor.info.DtoInfo;
 import org.geysermc.databaseutils.processor.info.EntityInfo;
 import org.geysermc.databaseutils.processor.query.section.SectionType;
 import org.geysermc.databaseutils.processor.query.section.factor.Factor;
@@ -70,10 +78,68 @@ public class QueryContextCreator {
         return analyseValidateAndCreate();
     }
 
+    /**
+     * Validates a method with a native query. The read result only contains the action, and the parameters are only
+     * referenced by the query. The results are read the same way as those of derived queries.
+     */
+    public QueryContext createNative(NativeQuery nativeQuery) {
+        var parameterInfo = new ParametersTypeInfo(element);
+        var returnTypeInfo = new ReturnTypeInfo(async, returnType, info.asType(), typeUtils);
+        var dto = dtoFor(returnTypeInfo);
+
+        if (returnTypeInfo.isPrimitiveSequence()) {
+            throw new InvalidRepositoryException(
+                    "Native queries don't support %s as return type, for %s", returnType, element.getSimpleName());
+        }
+
+        var actionType = action.actionType();
+        if (actionType.equals("find")) {
+            if (!returnTypeInfo.isAnySelf() && dto == null) {
+                throw new InvalidRepositoryException(
+                        "Expected %s, a collection of it or a projection as return type for %s, got %s",
+                        info.typeName(), element.getSimpleName(), returnType);
+            }
+        } else if (actionType.equals("exists")) {
+            if (!typeUtils.isType(Boolean.class, returnType)) {
+                throw new InvalidRepositoryException(
+                        "Expected Boolean as return type for %s, got %s", element.getSimpleName(), returnType);
+            }
+        } else if (actionType.equals("update") || actionType.equals("delete")) {
+            if (!returnTypeInfo.isVoid()
+                    && !typeUtils.isType(Integer.class, returnType)
+                    && !typeUtils.isType(Boolean.class, returnType)) {
+                throw new InvalidRepositoryException(
+                        "Expected void, int or boolean as return type for %s, got %s",
+                        element.getSimpleName(), returnType);
+            }
+        } else {
+            throw new InvalidRepositoryException(
+                    "Native queries only support find, exists, update and delete, not %s (for %s)",
+                    actionType, element.getSimpleName());
+        }
+
+        if (actionType.equals("update")) {
+            if (nativeQuery.mongo() != null) {
+                throw new InvalidRepositoryException(
+                        "A native MongoDB query is a filter, so it doesn't support update (for %s)",
+                        element.getSimpleName());
+            }
+            // the keys that the update changes are unknown
+            if (info.bloomFilter() != null) {
+                throw new InvalidRepositoryException(
+                        "Native updates aren't supported for %s, since the entity has a BloomFilter, for %s",
+                        info.typeName(), element.getSimpleName());
+            }
+        }
+        return new QueryContext(info, readResult, parameterInfo, returnTypeInfo, typeUtils, dto, nativeQuery);
+    }
+
     private QueryContext analyseValidateAndCreate() {
         var parameterInfo = new ParametersTypeInfo(element, readResult, action, info, typeUtils);
         var returnTypeInfo = new ReturnTypeInfo(async, returnType, info.asType(), typeUtils);
-        QueryContext queryContext = new QueryContext(info, readResult, parameterInfo, returnTypeInfo, typeUtils);
+        var dto = dtoFor(returnTypeInfo);
+        QueryContext queryContext =
+                new QueryContext(info, readResult, parameterInfo, returnTypeInfo, typeUtils, dto, null);
 
         AtomicInteger handledInputs = new AtomicInteger();
 
@@ -137,6 +203,11 @@ public class QueryContextCreator {
                     "Action %s (for %s) doesn't support returning an entity or an entity collection!",
                     action.actionType(), element);
         }
+        if (dto != null && !action.allowReturnDto()) {
+            throw new InvalidRepositoryException(
+                    "Action %s (for %s) doesn't support returning a projection into %s",
+                    action.actionType(), element, dto.type().getSimpleName());
+        }
         if (queryContext.hasProjectionColumnName() && !action.allowReturnAnySelfOrColumn()) {
             throw new InvalidRepositoryException(
                     "Action %S (for %s) doesn't support returning a column of the entity!",
@@ -175,6 +246,74 @@ public class QueryContextCreator {
         return queryContext;
     }
 
+    /**
+     * Returns the record or interface the method returns instead of the entity, or null if it doesn't return one.
+     * Every component of the record, or every abstract method of the interface, has to be a column of the entity.
+     */
+    private DtoInfo dtoFor(ReturnTypeInfo returnInfo) {
+        var returned = returnInfo.elementTypeOrType();
+        if (returned.getKind() != TypeKind.DECLARED || returnInfo.isAnySelf()) {
+            return null;
+        }
+        // a projected column can be of any type
+        if (readResult.projection() != null && readResult.projection().columnName() != null) {
+            return null;
+        }
+
+        var type = MoreTypes.asTypeElement(returned);
+        if (type.getKind() != ElementKind.RECORD && type.getKind() != ElementKind.INTERFACE) {
+            return null;
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new InvalidRepositoryException(
+                    "Projection %s of %s can't have type parameters", type.getSimpleName(), element.getSimpleName());
+        }
+        if (readResult.projection() != null && readResult.projection().distinct()) {
+            throw new InvalidRepositoryException(
+                    "Distinct can't be combined with a projection into %s, for %s",
+                    type.getSimpleName(), element.getSimpleName());
+        }
+
+        var components = new ArrayList<DtoInfo.Component>();
+        if (type.getKind() == ElementKind.RECORD) {
+            for (RecordComponentElement component : type.getRecordComponents()) {
+                components.add(dtoComponent(type, component.getSimpleName(), component.asType()));
+            }
+        } else {
+            for (ExecutableElement method : ElementFilter.methodsIn(typeUtils.elementUtils().getAllMembers(type))) {
+                if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                    continue;
+                }
+                if (!method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty()) {
+                    throw new InvalidRepositoryException(
+                            "Projection %s can only have accessors without parameters, got %s",
+                            type.getSimpleName(), method);
+                }
+                components.add(dtoComponent(type, method.getSimpleName(), method.getReturnType()));
+            }
+        }
+
+        if (components.isEmpty()) {
+            throw new InvalidRepositoryException(
+                    "Projection %s of %s doesn't have any columns", type.getSimpleName(), element.getSimpleName());
+        }
+        return new DtoInfo(type, components);
+    }
+
+    private DtoInfo.Component dtoComponent(TypeElement type, Name name, TypeMirror componentType) {
+        var column = info.columnFor(name);
+        if (column == null) {
+            throw new InvalidRepositoryException(
+                    "Projection %s has %s, which isn't a column of entity %s", type.getSimpleName(), name, info.name());
+        }
+        if (!typeUtils.isType(column.asType(), componentType)) {
+            throw new InvalidRepositoryException(
+                    "Expected %s of projection %s to be of type %s, got %s",
+                    name, type.getSimpleName(), column.typeName(), componentType);
+        }
+        return new DtoInfo.Component(column, componentType);
+    }
+
     private void validateProjectionColumnName(List<ProjectionFactor> factors, SectionType type) {
         for (ProjectionFactor factor : factors) {
             CharSequence columnName = factor.columnName();
@@ -7,11 +7,14 @@ package org.geysermc.databaseutils.processor.query.section;
 
 import java.util.List;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.databaseutils.processor.query.section.factor.Factor;
 import org.geysermc.databaseutils.processor.query.section.factor.ProjectionFactor;
 import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeywordCategory;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.DistinctProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.FirstProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.SkipProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.TopProjectionKeyword;
 
 public record ProjectionSection(List<@NonNull ProjectionFactor> projections) {
@@ -65,6 +68,27 @@ public record ProjectionSection(List<@NonNull ProjectionFactor> projections) {
         return -1;
     }
 
+    /**
+     * Returns the keyword of the {@link ProjectionKeywordCategory#SUMMARY} category, like sum or avg, if present.
+     */
+    public @Nullable ProjectionKeyword summary() {
+        for (var factor : projections) {
+            if (factor.keyword() != null && factor.keyword().category() == ProjectionKeywordCategory.SUMMARY) {
+                return factor.keyword();
+            }
+        }
+        return null;
+    }
+
+    public int offset() {
+        for (var factor : projections) {
+            if (factor.keyword() instanceof SkipProjectionKeyword skip) {
+                return skip.offset();
+            }
+        }
+        return 0;
+    }
+
     /**
      * Returns all the projection keywords that are not:
      * <ul>
@@ -11,9 +11,13 @@ import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.AvgProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.CountProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.DistinctProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.FirstProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MaxProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MinProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.SkipProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.SumProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.TopProjectionKeyword;
 
 public class ProjectionKeywordRegistry {
@@ -48,6 +52,10 @@ public class ProjectionKeywordRegistry {
     static {
         register(DistinctProjectionKeyword.INSTANCE);
         register(AvgProjectionKeyword.INSTANCE);
+        register(SumProjectionKeyword.INSTANCE);
+        register(MinProjectionKeyword.INSTANCE);
+        register(MaxProjectionKeyword.INSTANCE);
+        register(CountProjectionKeyword.INSTANCE);
         register(TopProjectionKeyword::new);
         register(FirstProjectionKeyword.INSTANCE);
         register(SkipProjectionKeyword::new);
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.query.section.projection.keyword;
+
+import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeywordCategory;
+
+public class MinProjectionKeyword extends ProjectionKeyword {
+    public static final MinProjectionKeyword INSTANCE = new MinProjectionKeyword();
+
+    private MinProjectionKeyword() {
+        super("Min", ProjectionKeywordCategory.SUMMARY);
+    }
+}
@@ -31,7 +31,7 @@ public class SkipProjectionKeyword extends ProjectionKeyword {
     }
 
     public void setValue(@NonNull String fullKeyword) {
-        offset(Integer.parseInt(fullKeyword.substring(3)));
+        offset(Integer.parseInt(fullKeyword.substring(4)));
     }
 
     @Override
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.query.section.projection.keyword;
+
+import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeywordCategory;
+
+public class SumProjectionKeyword extends ProjectionKeyword {
+    public static final SumProjectionKeyword INSTANCE = new SumProjectionKeyword();
+
+    private SumProjectionKeyword() {
+        super("Sum", ProjectionKeywordCategory.SUMMARY);
+    }
+}
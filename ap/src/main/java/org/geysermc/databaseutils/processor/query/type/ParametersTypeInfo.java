@@ -46,6 +46,19 @@ public class ParametersTypeInfo {
         this.remaining = remaining(element, readResult, action, entityInfo, typeUtils);
     }
 
+    /**
+     * Creates the info of a method with a native query, where the parameters are referenced by the query instead of
+     * representing the entity or its columns.
+     */
+    public ParametersTypeInfo(ExecutableElement element) {
+        this.element = element;
+        this.isSelf = false;
+        this.elementType = null;
+        this.isSelfCollection = false;
+        this.isUnique = false;
+        this.remaining = Collections.emptyList();
+    }
+
     public ExecutableElement element() {
         return element;
     }
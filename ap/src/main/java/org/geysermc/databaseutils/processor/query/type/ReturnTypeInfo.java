@@ -6,13 +6,31 @@
 package org.geysermc.databaseutils.processor.query.type;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import org.geysermc.databaseutils.processor.util.TypeUtils;
+import org.geysermc.databaseutils.util.DoubleArrayBuilder;
+import org.geysermc.databaseutils.util.IntArrayBuilder;
+import org.geysermc.databaseutils.util.LongArrayBuilder;
 
 public final class ReturnTypeInfo {
+    private static final Map<TypeKind, Class<?>> PRIMITIVE_STREAMS =
+            Map.of(TypeKind.INT, IntStream.class, TypeKind.LONG, LongStream.class, TypeKind.DOUBLE, DoubleStream.class);
+    private static final Map<TypeKind, Class<?>> PRIMITIVE_ARRAY_BUILDERS = Map.of(
+            TypeKind.INT,
+            IntArrayBuilder.class,
+            TypeKind.LONG,
+            LongArrayBuilder.class,
+            TypeKind.DOUBLE,
+            DoubleArrayBuilder.class);
+
     private final TypeUtils typeUtils;
     private final boolean async;
     private final TypeMirror type;
@@ -51,6 +69,25 @@ public final class ReturnTypeInfo {
         return elementType() != null;
     }
 
+    /**
+     * Whether the return type is a primitive array or primitive stream, like int[] and IntStream. These are handled
+     * as a collection of which the element type is the primitive type.
+     */
+    public boolean isPrimitiveSequence() {
+        return isCollection() && elementType.getKind().isPrimitive();
+    }
+
+    public boolean isPrimitiveStream() {
+        return isPrimitiveSequence() && type.getKind() == TypeKind.DECLARED;
+    }
+
+    /**
+     * Returns the builder the generated code uses to collect the values of a primitive sequence.
+     */
+    public Class<?> primitiveArrayBuilder() {
+        return isPrimitiveSequence() ? PRIMITIVE_ARRAY_BUILDERS.get(elementType.getKind()) : null;
+    }
+
     public boolean isSelfCollection() {
         return isCollection() && typeUtils.isType(selfType, elementType);
     }
@@ -70,9 +107,19 @@ public final class ReturnTypeInfo {
     }
 
     private TypeMirror elementType(TypeUtils typeUtils) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            // other arrays, like byte[], are a column type instead
+            var componentType = ((ArrayType) type).getComponentType();
+            return PRIMITIVE_STREAMS.containsKey(componentType.getKind()) ? componentType : null;
+        }
         if (type.getKind() != TypeKind.DECLARED) {
             return null;
         }
+        for (var entry : PRIMITIVE_STREAMS.entrySet()) {
+            if (typeUtils.isType(entry.getValue(), type)) {
+                return typeUtils.typeUtils().getPrimitiveType(entry.getKey());
+            }
+        }
         if (!typeUtils.isAssignable(type, Collection.class)) {
             return null;
         }
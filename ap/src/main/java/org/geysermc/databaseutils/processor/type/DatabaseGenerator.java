@@ -7,22 +7,42 @@ package org.geysermc.databaseutils.processor.type;
 
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
-import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.WildcardTypeName;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.function.BiFunction;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import javax.lang.model.element.Modifier;
+import org.geysermc.databaseutils.DatabaseBootstrap;
 import org.geysermc.databaseutils.DatabaseCategory;
 import org.geysermc.databaseutils.IRepository;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.expiry.ExpiringEntity;
+import org.geysermc.databaseutils.filter.FilteredEntity;
+import org.geysermc.databaseutils.meta.TimeToLive;
+import org.geysermc.databaseutils.shard.Shards;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotType;
 import org.geysermc.databaseutils.processor.info.EntityInfo;
 
 public abstract class DatabaseGenerator {
+    private static final Map<String, SnapshotType> SNAPSHOT_TYPES = Map.of(
+            Boolean.class.getCanonicalName(), SnapshotType.BOOLEAN,
+            Byte.class.getCanonicalName(), SnapshotType.BYTE,
+            Short.class.getCanonicalName(), SnapshotType.SHORT,
+            Character.class.getCanonicalName(), SnapshotType.CHARACTER,
+            Integer.class.getCanonicalName(), SnapshotType.INTEGER,
+            Long.class.getCanonicalName(), SnapshotType.LONG,
+            Float.class.getCanonicalName(), SnapshotType.FLOAT,
+            Double.class.getCanonicalName(), SnapshotType.DOUBLE,
+            String.class.getCanonicalName(), SnapshotType.STRING);
+
     private final DatabaseCategory databaseCategory;
     protected TypeSpec.Builder spec;
 
@@ -35,8 +55,20 @@ public abstract class DatabaseGenerator {
             throw new IllegalStateException("Cannot reinitialize RepositoryGenerator");
         }
         this.spec = spec;
-        spec.addField(FieldSpec.builder(Boolean.TYPE, "HAS_ASYNC", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                .initializer("$L", hasAsync)
+        spec.addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        spec.addSuperinterface(bootstrapType());
+
+        spec.addMethod(MethodSpec.methodBuilder("category")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(DatabaseCategory.class)
+                .addStatement("return $T.$L", DatabaseCategory.class, databaseCategory)
+                .build());
+        spec.addMethod(MethodSpec.methodBuilder("hasAsync")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(Boolean.TYPE)
+                .addStatement("return $L", hasAsync)
                 .build());
     }
 
@@ -46,36 +78,180 @@ public abstract class DatabaseGenerator {
 
     public abstract Class<?> databaseClass();
 
+    /**
+     * The interface the generated class implements, which is what the runtime looks up using the ServiceLoader.
+     */
+    protected TypeName bootstrapType() {
+        return ParameterizedTypeName.get(ClassName.get(DatabaseBootstrap.class), ClassName.get(databaseClass()));
+    }
+
     protected abstract void addEntities(Collection<EntityInfo> entities, MethodSpec.Builder method);
 
     public void addEntities(Collection<EntityInfo> entities) {
         var builder = MethodSpec.methodBuilder("createEntities")
-                .addModifiers(Modifier.STATIC)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
                 .addParameter(databaseClass(), "database");
         addEntities(entities, builder);
         spec.addMethod(builder.build());
     }
 
-    public void addRepositories(List<String> repositoriesClassName) {
-        var builder = CodeBlock.builder().addStatement("REPOSITORIES = new $T<>()", ArrayList.class);
-        for (String repository : repositoriesClassName) {
-            builder.addStatement("REPOSITORIES.add($T::new)", ClassName.bestGuess(repository));
+    public void addExpiringEntities(Collection<EntityInfo> entities) {
+        var expiring = CodeBlock.builder();
+        for (EntityInfo entity : entities) {
+            var column = entity.timeToLiveColumn();
+            if (column == null) {
+                continue;
+            }
+            var timeToLive = column.annotation(TimeToLive.class);
+            if (!expiring.isEmpty()) {
+                expiring.add(",\n");
+            }
+            expiring.add(
+                    "new $T($S, $T.of($L), $S, $LL)",
+                    ExpiringEntity.class,
+                    entity.name(),
+                    List.class,
+                    entity.keys().stream().map(key -> CodeBlock.of("$S", key)).collect(CodeBlock.joining(", ")),
+                    column.name(),
+                    timeToLive.unit().toMillis(timeToLive.value()));
+        }
+        if (expiring.isEmpty()) {
+            return;
+        }
+
+        spec.addMethod(MethodSpec.methodBuilder("expiringEntities")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(ParameterizedTypeName.get(List.class, ExpiringEntity.class))
+                .addStatement("return $T.of(\n$>$L$<)", List.class, expiring.build())
+                .build());
+    }
+
+    public void addFilteredEntities(Collection<EntityInfo> entities) {
+        var filtered = CodeBlock.builder();
+        for (EntityInfo entity : entities) {
+            var bloomFilter = entity.bloomFilter();
+            if (bloomFilter == null) {
+                continue;
+            }
+            if (!filtered.isEmpty()) {
+                filtered.add(",\n");
+            }
+            filtered.add(
+                    "new $T($S, $L, $LL)",
+                    FilteredEntity.class,
+                    entity.name(),
+                    bloomFilter.falsePositiveRate(),
+                    bloomFilter.rebuildUnit().toMillis(bloomFilter.rebuildInterval()));
+        }
+        if (filtered.isEmpty()) {
+            return;
+        }
+
+        spec.addMethod(MethodSpec.methodBuilder("filteredEntities")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(ParameterizedTypeName.get(List.class, FilteredEntity.class))
+                .addStatement("return $T.of(\n$>$L$<)", List.class, filtered.build())
+                .build());
+    }
+
+    public void addSnapshotEntities(Collection<EntityInfo> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        var snapshotEntities = CodeBlock.builder();
+        for (EntityInfo entity : entities) {
+            if (!snapshotEntities.isEmpty()) {
+                snapshotEntities.add(",\n");
+            }
+            var columns = entity.columns().stream()
+                    .map(column -> CodeBlock.of(
+                            "new $T($S, $T.$L)",
+                            SnapshotColumn.class,
+                            column.name(),
+                            SnapshotType.class,
+                            snapshotTypeFor(column.typeName())))
+                    .collect(CodeBlock.joining(",\n"));
+            snapshotEntities.add(
+                    "new $T($T.class, $S, $T.of(\n$>$L$<), $T.of($L))",
+                    SnapshotEntity.class,
+                    entity.type(),
+                    entity.name(),
+                    List.class,
+                    columns,
+                    List.class,
+                    entity.keys().stream().map(key -> CodeBlock.of("$S", key)).collect(CodeBlock.joining(", ")));
         }
-        spec.addStaticBlock(builder.build());
-
-        // List<BiFunction<dbClass, TypeCodecRegistry, IRepository<?>>>
-        spec.addField(
-                ParameterizedTypeName.get(
-                        ClassName.get(List.class),
-                        ParameterizedTypeName.get(
-                                ClassName.get(BiFunction.class),
-                                ClassName.get(databaseClass()),
-                                ClassName.get(TypeCodecRegistry.class),
-                                ParameterizedTypeName.get(
-                                        ClassName.get(IRepository.class), WildcardTypeName.subtypeOf(Object.class)))),
-                "REPOSITORIES",
-                Modifier.PRIVATE,
-                Modifier.STATIC,
-                Modifier.FINAL);
+
+        spec.addMethod(MethodSpec.methodBuilder("snapshotEntities")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(ParameterizedTypeName.get(List.class, SnapshotEntity.class))
+                .addStatement("return $T.of(\n$>$L$<)", List.class, snapshotEntities.build())
+                .build());
+    }
+
+    private static SnapshotType snapshotTypeFor(CharSequence typeName) {
+        // types without a mapping use a TypeCodec, and are stored as bytes
+        return SNAPSHOT_TYPES.getOrDefault(typeName.toString(), SnapshotType.BYTES);
+    }
+
+    public void addRepositories(List<RepositoryGenerator> repositories) {
+        var returnType = repositoriesType();
+        var builder = MethodSpec.methodBuilder("createRepositories")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(returnType)
+                .addParameter(databaseClass(), "database")
+                .addParameter(TypeCodecRegistry.class, "registry");
+
+        builder.addStatement("$T repositories = new $T<>()", returnType, HashMap.class);
+        for (RepositoryGenerator repository : repositories) {
+            var events = EventRepositoryGenerator.classNameFor(repository.repositoryType().simpleName());
+            builder.addStatement(
+                    "repositories.put($T.class, new $T(new $T(database, registry), database))",
+                    repository.repositoryType(),
+                    ClassName.get(repository.packageName(), events),
+                    ClassName.get(repository.packageName(), repository.className()));
+        }
+        builder.addStatement("return repositories");
+        spec.addMethod(builder.build());
+    }
+
+    public void addShardedRepositories(List<ShardedRepositoryGenerator> repositories) {
+        if (repositories.isEmpty()) {
+            return;
+        }
+
+        var repositoriesType = repositoriesType();
+        var builder = MethodSpec.methodBuilder("createShardedRepositories")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(repositoriesType)
+                .addParameter(ParameterizedTypeName.get(ClassName.get(List.class), repositoriesType), "shards")
+                .addParameter(Executor.class, "executor");
+
+        builder.addStatement("$T repositories = new $T<>()", repositoriesType, HashMap.class);
+        for (ShardedRepositoryGenerator repository : repositories) {
+            builder.addStatement(
+                    "repositories.put($T.class, new $T(new $T<>($T.class, shards, executor)))",
+                    repository.repositoryType(),
+                    ClassName.get(repository.packageName(), repository.className()),
+                    Shards.class,
+                    repository.repositoryType());
+        }
+        builder.addStatement("return repositories");
+        spec.addMethod(builder.build());
+    }
+
+    private static TypeName repositoriesType() {
+        // Map<Class<?>, IRepository<?>>
+        return ParameterizedTypeName.get(
+                ClassName.get(Map.class),
+                ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)),
+                ParameterizedTypeName.get(ClassName.get(IRepository.class), WildcardTypeName.subtypeOf(Object.class)));
     }
 }
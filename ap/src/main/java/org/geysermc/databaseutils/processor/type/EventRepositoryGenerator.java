@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.type;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import org.geysermc.databaseutils.Database;
+import org.geysermc.databaseutils.jfr.RepositoryEvent;
+import org.geysermc.databaseutils.processor.query.QueryContext;
+import org.geysermc.databaseutils.processor.util.TypeUtils;
+
+/**
+ * Generates the decorator that emits a {@link RepositoryEvent} for every call to a repository method, which wraps the
+ * implementations of every database category. Like the {@link ShardedRepositoryGenerator} this doesn't depend on the
+ * database category, since the event is filled in around the call to the implementation.
+ */
+public final class EventRepositoryGenerator {
+    private TypeSpec.Builder typeSpec;
+    private ClassName repositoryType;
+    private String packageName;
+
+    public void init(TypeElement superType) {
+        if (this.typeSpec != null) {
+            throw new IllegalStateException("Cannot reinitialize EventRepositoryGenerator");
+        }
+        this.repositoryType = ClassName.get(superType);
+        this.packageName = TypeUtils.packageNameFor(superType.getQualifiedName());
+        this.typeSpec = TypeSpec.classBuilder(classNameFor(superType.getSimpleName()))
+                .addSuperinterface(ParameterizedTypeName.get(superType.asType()))
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+    }
+
+    /**
+     * Returns the name of the decorator of the repository with the given name.
+     */
+    public static String classNameFor(CharSequence repositoryName) {
+        return repositoryName + "EventsImpl";
+    }
+
+    public String packageName() {
+        return packageName;
+    }
+
+    public void addMethod(QueryContext context) {
+        var spec = MethodSpec.overriding(context.method());
+        var returnInfo = context.returnInfo();
+        var returns = returnInfo.async() || !returnInfo.isVoid();
+        var call = CodeBlock.of(
+                "this.delegate.$L($L)", context.methodName(), String.join(", ", context.parametersInfo().names()));
+
+        spec.addStatement("$T __event = new $T()", RepositoryEvent.class, RepositoryEvent.class);
+        spec.beginControlFlow("if (!__event.isEnabled())");
+        if (returns) {
+            spec.addStatement("return $L", call);
+        } else {
+            spec.addStatement(call);
+            spec.addStatement("return");
+        }
+        spec.endControlFlow();
+        spec.addStatement(
+                "__event.start($S, $S, this.database, $L)",
+                repositoryType.toString(),
+                context.methodName(),
+                batchSize(context));
+
+        var rows = rows(context);
+        if (returnInfo.async()) {
+            // the original future is returned, so that cancelling it still cancels the query
+            spec.addStatement("$T __future", TypeName.get(context.method().getReturnType()));
+            spec.beginControlFlow("try");
+            spec.addStatement("__future = $L", call);
+            spec.nextControlFlow("finally");
+            spec.addStatement("__event.detach()");
+            spec.endControlFlow();
+
+            spec.beginControlFlow("__future.whenComplete((__result, __error) ->");
+            if (rows != null) {
+                spec.beginControlFlow("if (__error == null)");
+                spec.addStatement("__event.rows($L)", rows);
+                spec.endControlFlow();
+            }
+            spec.addStatement("__event.finish()");
+            spec.endControlFlow(")");
+            spec.addStatement("return __future");
+        } else {
+            spec.beginControlFlow("try");
+            if (!returns) {
+                spec.addStatement(call);
+            } else {
+                spec.addStatement("$T __result = $L", TypeName.get(returnInfo.type()), call);
+                if (rows != null) {
+                    spec.addStatement("__event.rows($L)", rows);
+                }
+                spec.addStatement("return __result");
+            }
+            spec.nextControlFlow("finally");
+            spec.addStatement("__event.finish()");
+            spec.endControlFlow();
+        }
+        typeSpec.addMethod(spec.build());
+    }
+
+    public TypeSpec.Builder finish() {
+        typeSpec.addField(repositoryType, "delegate", Modifier.PRIVATE, Modifier.FINAL);
+        typeSpec.addField(String.class, "database", Modifier.PRIVATE, Modifier.FINAL);
+        typeSpec.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(repositoryType, "delegate")
+                .addParameter(Database.class, "database")
+                .addStatement("this.delegate = delegate")
+                .addStatement("this.database = database.type().name()")
+                .build());
+        return typeSpec;
+    }
+
+    private CodeBlock batchSize(QueryContext context) {
+        var parameters = context.parametersInfo();
+        if (parameters.isSelfCollection()) {
+            return CodeBlock.of("$L.size()", parameters.firstName());
+        }
+        return CodeBlock.of("$L", parameters.isSelf() ? 1 : 0);
+    }
+
+    /**
+     * Returns the amount of rows that were returned or affected based on the result named __result, or null if it
+     * can't be derived from the result.
+     */
+    private CodeBlock rows(QueryContext context) {
+        var returnInfo = context.returnInfo();
+        var typeUtils = context.typeUtils();
+        var type = returnInfo.type();
+        if (returnInfo.isVoid() || returnInfo.isPrimitiveStream()) {
+            return null;
+        }
+        if (returnInfo.isPrimitiveSequence()) {
+            return CodeBlock.of("__result.length");
+        }
+        if (returnInfo.isCollection()) {
+            return CodeBlock.of("__result.size()");
+        }
+
+        var action = context.result().actionName();
+        if ("exists".equals(action)) {
+            return CodeBlock.of("$T.TRUE.equals(__result) ? 1 : 0", Boolean.class);
+        }
+        if (!"find".equals(action)) {
+            // the amount of affected rows
+            if (!typeUtils.isWholeNumberType(type)) {
+                return null;
+            }
+            return type.getKind().isPrimitive()
+                    ? CodeBlock.of("(int) __result")
+                    : CodeBlock.of("__result != null ? __result.intValue() : -1");
+        }
+
+        if (context.hasProjection() && context.projection().summary() != null) {
+            return null;
+        }
+        if (type.getKind().isPrimitive()) {
+            return CodeBlock.of("1");
+        }
+        return CodeBlock.of("__result != null ? 1 : 0");
+    }
+}
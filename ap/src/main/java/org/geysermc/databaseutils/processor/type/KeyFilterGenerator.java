@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.type;
+
+import com.squareup.javapoet.CodeBlock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.processor.info.ColumnInfo;
+import org.geysermc.databaseutils.processor.info.EntityInfo;
+import org.geysermc.databaseutils.processor.query.QueryContext;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.EqualsKeyword;
+import org.geysermc.databaseutils.processor.query.section.factor.Factor;
+import org.geysermc.databaseutils.processor.query.section.factor.OrFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableByFactor;
+import org.geysermc.databaseutils.processor.util.TypeUtils;
+
+/**
+ * Creates the code that uses the {@link org.geysermc.databaseutils.filter.KeyFilter} of an entity with a
+ * {@link org.geysermc.databaseutils.meta.BloomFilter}. The code is the same for every database category, since the
+ * filter only needs the values of the key columns.
+ */
+final class KeyFilterGenerator {
+    private KeyFilterGenerator() {}
+
+    /**
+     * Returns the key the method looks up, or null if the method doesn't have an equals condition for every key column.
+     */
+    static CodeBlock lookupKey(QueryContext context) {
+        var entity = context.entityInfo();
+        if (!context.hasBySection()) {
+            // find(entity) and exists(entity)
+            if (!context.parametersInfo().isSelf()) {
+                return null;
+            }
+            return keyOf(entity, context.parametersInfo().firstName());
+        }
+
+        var equals = new HashMap<String, CharSequence>();
+        for (Factor factor : context.bySectionFactors()) {
+            if (factor instanceof OrFactor) {
+                return null;
+            }
+            if (factor instanceof VariableByFactor variable && variable.keyword() instanceof EqualsKeyword keyword) {
+                equals.put(variable.columnName().toString(), keyword.parameterNames().get(0));
+            }
+        }
+        return keyFrom(entity, equals);
+    }
+
+    /**
+     * Returns the value a method that looks up a key returns when the key doesn't exist, or null if the return type
+     * has no value that is the same for every database.
+     */
+    static CodeBlock emptyResult(QueryContext context) {
+        var returnInfo = context.returnInfo();
+        CodeBlock result;
+        if (context.typeUtils().isType(Boolean.class, context.returnType())) {
+            result = CodeBlock.of("false");
+        } else if (context.hasProjection() && context.projection().summary() != null) {
+            return null;
+        } else if (returnInfo.isCollection()) {
+            if (returnInfo.isPrimitiveSequence()) {
+                return null;
+            }
+            result = CodeBlock.of(
+                    "new $T<>()", context.typeUtils().collectionImplementationFor(context.returnType()));
+        } else if (context.returnType().getKind().isPrimitive()) {
+            return null;
+        } else {
+            result = CodeBlock.of("null");
+        }
+
+        if (returnInfo.async()) {
+            return CodeBlock.of("$T.completedFuture($L)", CompletableFuture.class, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the key of the given entity variable.
+     */
+    static CodeBlock keyOf(EntityInfo entity, CharSequence variable) {
+        var values = new HashMap<String, CharSequence>();
+        for (ColumnInfo column : entity.keyColumns()) {
+            values.put(column.name().toString(), "%s.%s()".formatted(variable, column.name()));
+        }
+        return keyFrom(entity, values);
+    }
+
+    private static CodeBlock keyFrom(EntityInfo entity, Map<String, CharSequence> values) {
+        var key = CodeBlock.builder();
+        for (ColumnInfo column : entity.keyColumns()) {
+            var value = values.get(column.name().toString());
+            if (value == null) {
+                return null;
+            }
+            if (!key.isEmpty()) {
+                key.add(", ");
+            }
+            // the filter hashes keys in snapshot format, in which these columns are stored encoded
+            if (TypeUtils.needsTypeCodec(column.typeName())) {
+                key.add("$L != null ? this.__$L.encode($L) : null", value, column.name(), value);
+            } else {
+                key.add("$L", value);
+            }
+        }
+        return key.build();
+    }
+}
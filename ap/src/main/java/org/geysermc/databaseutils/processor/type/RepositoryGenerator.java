@@ -6,27 +6,43 @@
 package org.geysermc.databaseutils.processor.type;
 
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
-import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import org.geysermc.databaseutils.DatabaseCategory;
 import org.geysermc.databaseutils.codec.TypeCodec;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.filter.KeyFilter;
+import org.geysermc.databaseutils.meta.Coalesce;
+import org.geysermc.databaseutils.meta.Timeout;
 import org.geysermc.databaseutils.processor.info.ColumnInfo;
+import org.geysermc.databaseutils.processor.info.DtoInfo;
 import org.geysermc.databaseutils.processor.info.EntityInfo;
 import org.geysermc.databaseutils.processor.query.QueryContext;
+import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
 import org.geysermc.databaseutils.processor.util.TypeUtils;
+import org.geysermc.databaseutils.util.CoalescingLoader;
 
 public abstract class RepositoryGenerator {
     private final DatabaseCategory category;
+    private final List<CodeBlock> loaderInitializers = new ArrayList<>();
+    private final Map<String, ClassName> dtoImplementations = new HashMap<>();
 
     protected TypeSpec.Builder typeSpec;
     protected boolean hasAsync;
     protected EntityInfo entityInfo;
+    private boolean usesKeyFilter;
 
+    private ClassName repositoryType;
     private String packageName;
     private String className;
 
@@ -46,10 +62,205 @@ public abstract class RepositoryGenerator {
 
     public abstract void addDelete(QueryContext context, MethodSpec.Builder spec);
 
+    /**
+     * Adds a method that runs the native query of {@link org.geysermc.databaseutils.meta.Query}. By default the method
+     * throws when it's called, for categories that can't run native queries or don't have a query provided.
+     */
+    public void addNativeQuery(QueryContext context, MethodSpec.Builder spec) {
+        spec.addStatement(
+                "throw new $T($S)",
+                IllegalStateException.class,
+                "No native query is available for %s databases".formatted(category.name().toLowerCase(Locale.ROOT)));
+        typeSpec.addMethod(spec.build());
+    }
+
+    /**
+     * Adds the body of a method that returns every entity of which the key column matches one of the given keys.
+     * The method has a single {@code __keys} parameter.
+     */
+    protected abstract void addBatchFind(QueryContext context, ColumnInfo keyColumn, MethodSpec.Builder spec);
+
+    public void addCoalescedFind(
+            QueryContext context,
+            MethodSpec.Builder spec,
+            ColumnInfo keyColumn,
+            CharSequence parameterName,
+            Coalesce coalesce) {
+        hasAsync = true;
+
+        var loaderName = "__%sLoader".formatted(context.methodName());
+        var batchName = "__%sBatch".formatted(context.methodName());
+        var keyType = TypeName.get(keyColumn.asType()).box();
+        var entityType = ClassName.get(context.entityType());
+
+        typeSpec.addField(
+                ParameterizedTypeName.get(ClassName.get(CoalescingLoader.class), keyType, entityType),
+                loaderName,
+                Modifier.PRIVATE,
+                Modifier.FINAL);
+        loaderInitializers.add(CodeBlock.of(
+                "this.$L = new $T<>(database, $L, $L, this::$L, $T::$L)",
+                loaderName,
+                CoalescingLoader.class,
+                coalesce.windowMillis(),
+                coalesce.maxBatchSize(),
+                batchName,
+                entityType,
+                keyColumn.name()));
+
+        spec.addStatement("return this.$L.load($L)", loaderName, parameterName);
+        typeSpec.addMethod(spec.build());
+
+        var batchSpec = MethodSpec.methodBuilder(batchName)
+                .addModifiers(Modifier.PRIVATE)
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class), entityType))
+                .addParameter(ParameterizedTypeName.get(ClassName.get(List.class), keyType), "__keys");
+        addBatchFind(context, keyColumn, batchSpec);
+        typeSpec.addMethod(batchSpec.build());
+    }
+
+    /**
+     * Adds a check that returns the empty result right away when the key filter of the entity says that the key the
+     * method looks up doesn't exist. Nothing is added when the entity doesn't have a key filter, or when the method
+     * doesn't look up a single key.
+     */
+    public void addKeyFilterLookup(QueryContext context, MethodSpec.Builder spec) {
+        if (entityInfo.bloomFilter() == null) {
+            return;
+        }
+        var key = KeyFilterGenerator.lookupKey(context);
+        var emptyResult = KeyFilterGenerator.emptyResult(context);
+        if (key == null || emptyResult == null) {
+            return;
+        }
+        usesKeyFilter = true;
+        spec.beginControlFlow("if (!this.__keyFilter.mightContain($L))", key);
+        spec.addStatement("return $L", emptyResult);
+        spec.endControlFlow();
+    }
+
+    /**
+     * Adds the keys of the entities that are about to be inserted to the key filter of the entity, if it has one.
+     */
+    public void addKeyFilterInsert(QueryContext context, MethodSpec.Builder spec) {
+        if (entityInfo.bloomFilter() == null) {
+            return;
+        }
+        usesKeyFilter = true;
+        var parameterName = context.parametersInfo().firstName();
+        if (context.parametersInfo().isSelfCollection()) {
+            spec.beginControlFlow("for (var __entity : $L)", parameterName);
+            spec.addStatement("this.__keyFilter.add($L)", KeyFilterGenerator.keyOf(entityInfo, "__entity"));
+            spec.endControlFlow();
+            return;
+        }
+        spec.addStatement("this.__keyFilter.add($L)", KeyFilterGenerator.keyOf(entityInfo, parameterName));
+    }
+
+    /**
+     * Marks the key filter of the entity as stale, if it has one. Keys can't be removed from the filter, so the
+     * deleted keys are dropped when the filter is rebuilt.
+     */
+    public void addKeyFilterDelete(QueryContext context, MethodSpec.Builder spec) {
+        if (entityInfo.bloomFilter() == null) {
+            return;
+        }
+        usesKeyFilter = true;
+        spec.addStatement("this.__keyFilter.markStale()");
+    }
+
+    protected static boolean hasTimeout(QueryContext context) {
+        return context.method().getAnnotation(Timeout.class) != null;
+    }
+
+    /**
+     * Returns the timeout of the method in milliseconds. Only valid when {@link #hasTimeout(QueryContext)}.
+     */
+    protected static long timeoutMillis(QueryContext context) {
+        var timeout = context.method().getAnnotation(Timeout.class);
+        if (timeout.value() <= 0) {
+            throw new InvalidRepositoryException("Timeout of %s has to be positive", context.methodName());
+        }
+        // a timeout below a millisecond is rounded up
+        return Math.max(1, timeout.unit().toMillis(timeout.value()));
+    }
+
+    /**
+     * Creates the builder that collects the values of a primitive array or stream return type. When the query has a
+     * limit the builder doesn't have to grow.
+     */
+    protected static CodeBlock createPrimitiveArrayBuilder(QueryContext context) {
+        var builderType = context.returnInfo().primitiveArrayBuilder();
+        if (context.projection().limit() != -1) {
+            return CodeBlock.of("new $T($L)", builderType, context.projection().limit());
+        }
+        return CodeBlock.of("new $T()", builderType);
+    }
+
+    protected static String primitiveArrayBuilderResult(QueryContext context) {
+        return context.returnInfo().isPrimitiveStream() ? "stream" : "toArray";
+    }
+
+    /**
+     * Returns the code that creates the DTO the method returns, from the values of its columns in the order of
+     * {@link DtoInfo#components()}.
+     */
+    protected CodeBlock createDto(QueryContext context, List<CodeBlock> values) {
+        var dto = context.dto();
+        var type = dto.isInterface() ? dtoImplementationFor(dto) : ClassName.get(dto.type());
+        return CodeBlock.of("new $T($L)", type, CodeBlock.join(values, ", "));
+    }
+
+    /**
+     * Interfaces don't have a constructor, so the repository gets an implementation that holds the column values.
+     * The implementation is shared by every method that returns the interface.
+     */
+    private ClassName dtoImplementationFor(DtoInfo dto) {
+        var qualifiedName = dto.type().getQualifiedName().toString();
+        var existing = dtoImplementations.get(qualifiedName);
+        if (existing != null) {
+            return existing;
+        }
+
+        var name = dto.type().getSimpleName() + "Impl";
+        for (ClassName implementation : dtoImplementations.values()) {
+            if (implementation.simpleName().equals(name)) {
+                throw new InvalidRepositoryException(
+                        "Projections %s and %s can't have the same simple name", qualifiedName, implementation);
+            }
+        }
+
+        var implementation = TypeSpec.classBuilder(name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addSuperinterface(ClassName.get(dto.type()));
+        var constructor = MethodSpec.constructorBuilder();
+        var accessors = new ArrayList<MethodSpec>();
+        for (DtoInfo.Component component : dto.components()) {
+            var columnName = component.column().name().toString();
+            var type = TypeName.get(component.type());
+            implementation.addField(type, columnName, Modifier.PRIVATE, Modifier.FINAL);
+            constructor.addParameter(type, columnName);
+            constructor.addStatement("this.$L = $L", columnName, columnName);
+            accessors.add(MethodSpec.methodBuilder(columnName)
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(type)
+                    .addStatement("return this.$L", columnName)
+                    .build());
+        }
+        implementation.addMethod(constructor.build()).addMethods(accessors);
+        typeSpec.addType(implementation.build());
+
+        var className = ClassName.get(packageName, this.className, name);
+        dtoImplementations.put(qualifiedName, className);
+        return className;
+    }
+
     public void init(TypeElement superType, EntityInfo entityInfo) {
         if (this.typeSpec != null) {
             throw new IllegalStateException("Cannot reinitialize RepositoryGenerator");
         }
+        this.repositoryType = ClassName.get(superType);
         this.packageName = TypeUtils.packageNameFor(superType.getQualifiedName());
         this.className = superType.getSimpleName() + category.upperCamelCaseName() + "Impl";
         this.typeSpec = TypeSpec.classBuilder(className)
@@ -58,6 +269,10 @@ public abstract class RepositoryGenerator {
         this.entityInfo = entityInfo;
     }
 
+    public ClassName repositoryType() {
+        return repositoryType;
+    }
+
     public String packageName() {
         return packageName;
     }
@@ -90,6 +305,15 @@ public abstract class RepositoryGenerator {
             constructor.addStatement("this.__$L = registry.requireCodecFor($T.class)", column.name(), column.asType());
         }
 
+        if (usesKeyFilter) {
+            typeSpec.addField(KeyFilter.class, "__keyFilter", Modifier.PRIVATE, Modifier.FINAL);
+            constructor.addStatement("this.__keyFilter = database.keyFilter($S)", entityInfo.name());
+        }
+
+        for (CodeBlock initializer : loaderInitializers) {
+            constructor.addStatement(initializer);
+        }
+
         typeSpec.addMethod(constructor.build());
         return typeSpec;
     }
@@ -98,11 +322,11 @@ public abstract class RepositoryGenerator {
         hasAsync |= async;
 
         if (async) {
-            builder.beginControlFlow("return $T.supplyAsync(() ->", CompletableFuture.class);
+            builder.beginControlFlow("return this.database.supplyAsync(() ->");
         }
         content.run();
         if (async) {
-            builder.endControlFlow(", this.database.executorService())");
+            builder.endControlFlow(")");
         }
     }
 }
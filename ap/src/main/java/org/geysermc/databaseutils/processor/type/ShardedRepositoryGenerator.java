@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.type;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import org.geysermc.databaseutils.processor.info.ColumnInfo;
+import org.geysermc.databaseutils.processor.info.EntityInfo;
+import org.geysermc.databaseutils.processor.query.QueryContext;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.EqualsKeyword;
+import org.geysermc.databaseutils.processor.query.section.factor.Factor;
+import org.geysermc.databaseutils.processor.query.section.factor.OrFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableByFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableOrderByFactor;
+import org.geysermc.databaseutils.processor.query.section.order.OrderDirection;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.AvgProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.CountProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MaxProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MinProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.SumProjectionKeyword;
+import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
+import org.geysermc.databaseutils.processor.util.TypeUtils;
+import org.geysermc.databaseutils.shard.ShardResults;
+import org.geysermc.databaseutils.shard.Shards;
+
+/**
+ * Generates the implementation of a repository annotated with {@link org.geysermc.databaseutils.meta.Sharded}.
+ * Unlike the {@link RepositoryGenerator}s this doesn't depend on the database category, since it only decides which
+ * shards a method runs on and delegates to the implementations of those shards.
+ */
+public final class ShardedRepositoryGenerator {
+    private TypeSpec.Builder typeSpec;
+    private EntityInfo entityInfo;
+    private ClassName repositoryType;
+    private String packageName;
+    private String className;
+
+    public void init(TypeElement superType, EntityInfo entityInfo) {
+        if (this.typeSpec != null) {
+            throw new IllegalStateException("Cannot reinitialize ShardedRepositoryGenerator");
+        }
+        this.repositoryType = ClassName.get(superType);
+        this.packageName = TypeUtils.packageNameFor(superType.getQualifiedName());
+        this.className = superType.getSimpleName() + "ShardedImpl";
+        this.typeSpec = TypeSpec.classBuilder(className)
+                .addSuperinterface(ParameterizedTypeName.get(superType.asType()))
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        this.entityInfo = entityInfo;
+    }
+
+    public ClassName repositoryType() {
+        return repositoryType;
+    }
+
+    public String packageName() {
+        return packageName;
+    }
+
+    public String className() {
+        return className;
+    }
+
+    public void addMethod(QueryContext context) {
+        var spec = MethodSpec.overriding(context.method());
+        var call = CodeBlock.of("$L($L)", context.methodName(), String.join(", ", context.parametersInfo().names()));
+
+        var parameters = context.parametersInfo();
+        if (parameters.isSelf()) {
+            addRouted(context, spec, keysOf(parameters.firstName()), call);
+        } else if (parameters.isSelfCollection()) {
+            addSplit(context, spec);
+        } else {
+            var keyParameters = keyParameters(context);
+            if (keyParameters != null) {
+                addRouted(context, spec, CodeBlock.of("$L", String.join(", ", keyParameters)), call);
+            } else {
+                addFanOut(context, spec, call);
+            }
+        }
+        typeSpec.addMethod(spec.build());
+    }
+
+    public TypeSpec.Builder finish() {
+        var shardsType = ParameterizedTypeName.get(ClassName.get(Shards.class), repositoryType);
+        typeSpec.addField(shardsType, "shards", Modifier.PRIVATE, Modifier.FINAL);
+        typeSpec.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(shardsType, "shards")
+                .addStatement("this.shards = shards")
+                .build());
+        return typeSpec;
+    }
+
+    private void addRouted(QueryContext context, MethodSpec.Builder spec, CodeBlock keys, CodeBlock call) {
+        var returns = context.returnInfo().async() || !context.returnInfo().isVoid();
+        spec.addStatement("$Lthis.shards.shardFor($L).$L", returns ? "return " : "", keys, call);
+    }
+
+    private void addSplit(QueryContext context, MethodSpec.Builder spec) {
+        var parameter = context.method().getParameters().get(0);
+        if (!context.typeUtils().isType(List.class, parameter.asType())
+                && !context.typeUtils().isType(Collection.class, parameter.asType())) {
+            throw unsupported(context, "the entities have to be a List or a Collection");
+        }
+
+        var keys = CodeBlock.of("__entity -> new Object[] {$L}", keysOf("__entity"));
+        var call = CodeBlock.of("__shard.$L(__part)", context.methodName());
+        if (context.returnInfo().async()) {
+            spec.addStatement(
+                    "return this.shards.splitAsync($L, $L, (__shard, __part) -> $L).thenApply(__results -> $L)",
+                    parameter.getSimpleName(),
+                    keys,
+                    call,
+                    combine(context));
+            return;
+        }
+        if (context.returnInfo().isVoid()) {
+            spec.addStatement(
+                    "this.shards.split($L, $L, (__shard, __part) -> {\n$>$L;\nreturn null;\n$<})",
+                    parameter.getSimpleName(),
+                    keys,
+                    call);
+            return;
+        }
+        spec.addStatement(
+                "$T __results = this.shards.split($L, $L, (__shard, __part) -> $L)",
+                resultsType(context),
+                parameter.getSimpleName(),
+                keys,
+                call);
+        spec.addStatement("return $L", combine(context));
+    }
+
+    private void addFanOut(QueryContext context, MethodSpec.Builder spec, CodeBlock call) {
+        if (context.hasProjection() && context.projection().offset() > 0) {
+            throw unsupported(context, "Skip can't be combined with running on every shard");
+        }
+        if ("delete".equals(context.result().actionName())
+                && context.hasProjection()
+                && context.projection().limit() != -1) {
+            throw unsupported(context, "a limited delete can't be combined with running on every shard");
+        }
+
+        if (context.returnInfo().async()) {
+            spec.addStatement(
+                    "return this.shards.fanOutAsync(__shard -> __shard.$L).thenApply(__results -> $L)",
+                    call,
+                    combine(context));
+            return;
+        }
+        if (context.returnInfo().isVoid()) {
+            spec.addStatement("this.shards.fanOut(__shard -> {\n$>__shard.$L;\nreturn null;\n$<})", call);
+            return;
+        }
+        spec.addStatement("$T __results = this.shards.fanOut(__shard -> __shard.$L)", resultsType(context), call);
+        spec.addStatement("return $L", combine(context));
+    }
+
+    /**
+     * Returns the expression that merges the results of the shards, which are in a List named __results.
+     */
+    private CodeBlock combine(QueryContext context) {
+        var returnInfo = context.returnInfo();
+        var typeUtils = context.typeUtils();
+        if (returnInfo.isVoid()) {
+            return CodeBlock.of("null");
+        }
+        if (returnInfo.isPrimitiveSequence()) {
+            throw unsupported(context, "primitive arrays and streams can't be merged");
+        }
+
+        if (returnInfo.isCollection()) {
+            int limit = context.hasProjection() ? context.projection().limit() : -1;
+            boolean distinct = context.hasProjection() && context.projection().distinct();
+            return CodeBlock.of(
+                    "$T.merge(__results, $L, $L, $L, new $T<>())",
+                    ShardResults.class,
+                    order(context, returnInfo.elementType()),
+                    distinct,
+                    limit,
+                    typeUtils.collectionImplementationFor(returnInfo.type()));
+        }
+
+        var summary = context.hasProjection() ? context.projection().summary() : null;
+        if (summary instanceof SumProjectionKeyword || summary instanceof CountProjectionKeyword) {
+            if (context.projection().distinct()) {
+                throw unsupported(context, "distinct counts can't be merged");
+            }
+            return sum(context);
+        }
+        if (summary instanceof MinProjectionKeyword || summary instanceof MaxProjectionKeyword) {
+            // shards without matching rows return null (Min and Max require a boxed type), which first() skips
+            return CodeBlock.of(
+                    "$T.first(__results, $T.<$T>$L())",
+                    ShardResults.class,
+                    Comparator.class,
+                    TypeName.get(returnInfo.type()).box(),
+                    summary instanceof MinProjectionKeyword ? "naturalOrder" : "reverseOrder");
+        }
+        if (summary instanceof AvgProjectionKeyword) {
+            throw unsupported(context, "averages can't be merged");
+        }
+
+        if (typeUtils.isType(Boolean.class, typeUtils.toBoxedMirror(returnInfo.type()))) {
+            return CodeBlock.of("$T.any(__results)", ShardResults.class);
+        }
+        if (!"find".equals(context.result().actionName()) && typeUtils.isWholeNumberType(returnInfo.type())) {
+            // the amount of affected rows
+            return sum(context);
+        }
+        return CodeBlock.of("$T.first(__results, $L)", ShardResults.class, order(context, returnInfo.type()));
+    }
+
+    private CodeBlock sum(QueryContext context) {
+        var type = context.returnInfo().type();
+        var kind = type.getKind().isPrimitive()
+                ? type.getKind()
+                : context.typeUtils().unboxType(type).getKind();
+        var method =
+                switch (kind) {
+                    case INT -> "sumInt";
+                    case LONG -> "sumLong";
+                    case DOUBLE -> "sumDouble";
+                    default -> throw unsupported(context, "results of type " + type + " can't be summed");
+                };
+        var sum = CodeBlock.of("$T.$L(__results)", ShardResults.class, method);
+        if (!type.getKind().isPrimitive()) {
+            return sum;
+        }
+        // the sum is null when no shard had to be used, or when every shard returned null
+        var zero =
+                switch (kind) {
+                    case LONG -> "0L";
+                    case DOUBLE -> "0D";
+                    default -> "0";
+                };
+        return CodeBlock.of("$T.requireNonNullElse($L, $L)", Objects.class, sum, zero);
+    }
+
+    /**
+     * Returns the comparator that sorts the merged results in the same order as the method, or null if the method
+     * has no order.
+     */
+    private CodeBlock order(QueryContext context, TypeMirror elementType) {
+        var orderBy = context.result().orderBySection();
+        if (orderBy == null) {
+            return CodeBlock.of("null");
+        }
+
+        var orderFactors = new ArrayList<VariableOrderByFactor>();
+        for (Factor factor : orderBy.factors()) {
+            if (factor instanceof VariableOrderByFactor variable) {
+                orderFactors.add(variable);
+            }
+        }
+
+        var ownerType = ClassName.get(context.entityType());
+        if (context.hasDto()) {
+            // the accessors of a DTO have the same name as the columns they hold
+            for (VariableOrderByFactor factor : orderFactors) {
+                if (!context.dto().hasColumn(factor.columnName())) {
+                    throw unsupported(
+                            context, "the results can only be merged when the projection holds the ordered columns");
+                }
+            }
+            ownerType = ClassName.get(context.dto().type());
+        } else if (!context.typeUtils().isType(context.entityInfo().asType(), elementType)) {
+            // a column projection can only be sorted when it's ordered by that column
+            var column = context.hasProjectionColumnName() ? context.projectionColumnInfo() : null;
+            if (column == null
+                    || orderFactors.size() != 1
+                    || !column.name().contentEquals(orderFactors.get(0).columnName())) {
+                throw unsupported(context, "the results can only be merged when ordered by the projected column");
+            }
+            return columnOrder(context, column, orderFactors.get(0).direction());
+        }
+
+        var comparator = CodeBlock.builder();
+        for (int i = 0; i < orderFactors.size(); i++) {
+            var column = context.entityInfo().columnFor(orderFactors.get(i).columnName());
+            var boxed = TypeName.get(column.asType()).box();
+            var columnOrder = columnOrder(context, column, orderFactors.get(i).direction());
+            if (i == 0) {
+                comparator.add(
+                        "$T.<$T, $T>comparing($T::$L, $L)",
+                        Comparator.class,
+                        ownerType,
+                        boxed,
+                        ownerType,
+                        column.name(),
+                        columnOrder);
+            } else {
+                comparator.add(".<$T>thenComparing($T::$L, $L)", boxed, ownerType, column.name(), columnOrder);
+            }
+        }
+        return comparator.build();
+    }
+
+    private CodeBlock columnOrder(QueryContext context, ColumnInfo column, OrderDirection direction) {
+        var types = context.typeUtils().typeUtils();
+        var comparable = types.erasure(context.typeUtils().elementFor(Comparable.class).asType());
+        if (!types.isAssignable(column.asType(), comparable)) {
+            throw unsupported(context, "column " + column.name() + " is not comparable");
+        }
+        // like most databases: nulls first when ascending and last when descending
+        return CodeBlock.of(
+                "$T.$L($T.<$T>$L())",
+                Comparator.class,
+                direction == OrderDirection.DESCENDING ? "nullsLast" : "nullsFirst",
+                Comparator.class,
+                TypeName.get(column.asType()).box(),
+                direction == OrderDirection.DESCENDING ? "reverseOrder" : "naturalOrder");
+    }
+
+    private TypeName resultsType(QueryContext context) {
+        var type = context.returnInfo().type();
+        var element = type.getKind() == TypeKind.VOID ? TypeName.get(Void.class) : TypeName.get(type).box();
+        return ParameterizedTypeName.get(ClassName.get(List.class), element);
+    }
+
+    private CodeBlock keysOf(CharSequence entityName) {
+        var keys = CodeBlock.builder();
+        for (CharSequence key : entityInfo.keys()) {
+            if (!keys.isEmpty()) {
+                keys.add(", ");
+            }
+            keys.add("$L.$L()", entityName, key);
+        }
+        return keys.build();
+    }
+
+    /**
+     * Returns the parameters that hold the value of every key column, in the order of the keys, or null if the
+     * method doesn't filter on all key columns by equality.
+     */
+    private List<CharSequence> keyParameters(QueryContext context) {
+        var factors = context.bySectionFactors();
+        if (factors == null || factors.stream().anyMatch(factor -> factor instanceof OrFactor)) {
+            return null;
+        }
+
+        var parameters = new ArrayList<CharSequence>();
+        for (CharSequence key : entityInfo.keys()) {
+            CharSequence parameter = null;
+            for (Factor factor : factors) {
+                if (factor instanceof VariableByFactor variable
+                        && variable.keyword() instanceof EqualsKeyword
+                        && variable.columnName().toString().contentEquals(key)) {
+                    parameter = variable.keyword().parameterNames().get(0);
+                }
+            }
+            if (parameter == null) {
+                return null;
+            }
+            parameters.add(parameter);
+        }
+        return parameters;
+    }
+
+    private InvalidRepositoryException unsupported(QueryContext context, String reason) {
+        return new InvalidRepositoryException(
+                "%s is not supported by a Sharded repository, %s", context.methodName(), reason);
+    }
+}
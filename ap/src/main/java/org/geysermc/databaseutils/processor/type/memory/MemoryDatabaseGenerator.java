@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.type.memory;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.memory.MemoryDatabase;
+import org.geysermc.databaseutils.memory.MemoryIndex;
+import org.geysermc.databaseutils.processor.info.EntityInfo;
+import org.geysermc.databaseutils.processor.type.DatabaseGenerator;
+
+public class MemoryDatabaseGenerator extends DatabaseGenerator {
+    public MemoryDatabaseGenerator() {
+        super(DatabaseCategory.MEMORY);
+    }
+
+    @Override
+    public Class<?> databaseClass() {
+        return MemoryDatabase.class;
+    }
+
+    @Override
+    protected void addEntities(Collection<EntityInfo> entities, MethodSpec.Builder method) {
+        for (EntityInfo entity : entities) {
+            method.addStatement(
+                    "database.createTable($S, $T.of($L), $T::of, new $T(database.registry()), $L)",
+                    entity.name(),
+                    List.class,
+                    entity.columns().stream()
+                            .map(column -> CodeBlock.of("$S", column.name()))
+                            .collect(CodeBlock.joining(", ")),
+                    MemoryEntityGenerator.keyType(entity),
+                    MemoryEntityGenerator.rowCodecType(entity),
+                    createIndexes(entity));
+            MemoryEntityGenerator.createFor(entity, spec);
+        }
+    }
+
+    private CodeBlock createIndexes(EntityInfo entity) {
+        var indexes = MemoryEntityGenerator.indexes(entity);
+        if (indexes.isEmpty()) {
+            return CodeBlock.of("$T.of()", List.class);
+        }
+
+        var indexList = indexes.stream()
+                .map(index -> CodeBlock.of(
+                        "new $T<$T>($S, $L, $L, __entity -> $T.asList($L))",
+                        MemoryIndex.class,
+                        entity.type(),
+                        index.name(),
+                        index.unique(),
+                        index.sorted(),
+                        Arrays.class,
+                        index.columns().stream()
+                                .map(column -> CodeBlock.of("__entity.$L()", column.name()))
+                                .collect(CodeBlock.joining(", "))))
+                .collect(CodeBlock.joining(",\n"));
+        return CodeBlock.of("$T.of(\n$>$L$<)", List.class, indexList);
+    }
+}
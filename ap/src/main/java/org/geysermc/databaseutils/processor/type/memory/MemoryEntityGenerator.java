@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.type.memory;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.codec.TypeCodec;
+import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.memory.MemoryDatabase;
+import org.geysermc.databaseutils.memory.MemoryRowCodec;
+import org.geysermc.databaseutils.processor.info.ColumnInfo;
+import org.geysermc.databaseutils.processor.info.EntityInfo;
+import org.geysermc.databaseutils.processor.info.IndexInfo;
+import org.geysermc.databaseutils.processor.util.TypeUtils;
+
+/**
+ * Creates the types the in-memory database needs for every entity: the key class the entities are stored by and the
+ * codec converting entities from and to snapshot rows. Both are nested in the generated database class, so that every
+ * repository of the entity shares them.
+ */
+final class MemoryEntityGenerator {
+    private static final ClassName DATABASE_GENERATED = ClassName.get(
+            MemoryDatabase.class.getPackageName(), DatabaseCategory.MEMORY.upperCamelCaseName() + "DatabaseGenerated");
+
+    private MemoryEntityGenerator() {}
+
+    static ClassName keyType(EntityInfo info) {
+        return DATABASE_GENERATED.nestedClass(info.type().getSimpleName() + "Key");
+    }
+
+    static ClassName rowCodecType(EntityInfo info) {
+        return DATABASE_GENERATED.nestedClass(info.type().getSimpleName() + "RowCodec");
+    }
+
+    /**
+     * Returns the indexes the in-memory table keeps, which are all the indexes except the primary key. The key is
+     * already what the entities are stored by.
+     */
+    static List<MemoryIndexInfo> indexes(EntityInfo info) {
+        var indexes = new ArrayList<MemoryIndexInfo>();
+        var names = new HashSet<String>();
+        for (IndexInfo index : info.indexes()) {
+            if (index.type() == IndexInfo.IndexType.PRIMARY) {
+                continue;
+            }
+            var columns = info.columnsFor(index.columns());
+            var name = !index.name().isEmpty()
+                    ? index.name()
+                    : columns.stream().map(column -> column.name().toString()).collect(Collectors.joining("_"));
+            var uniqueName = name;
+            for (int i = 2; !names.add(uniqueName); i++) {
+                uniqueName = name + "_" + i;
+            }
+            boolean sorted = columns.stream().allMatch(column -> isComparable(column.type()));
+            indexes.add(new MemoryIndexInfo(uniqueName, columns, index.unique(), sorted));
+        }
+        return indexes;
+    }
+
+    static void createFor(EntityInfo info, TypeSpec.Builder typeSpec) {
+        typeSpec.addType(createKey(info));
+        typeSpec.addType(createRowCodec(info));
+    }
+
+    private static TypeSpec createKey(EntityInfo info) {
+        var keyType = keyType(info);
+        var keyColumns = info.keyColumns();
+        var spec = TypeSpec.classBuilder(keyType).addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL);
+
+        var constructor = MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC);
+        for (ColumnInfo column : keyColumns) {
+            spec.addField(TypeName.get(column.asType()), column.name().toString(), Modifier.PRIVATE, Modifier.FINAL);
+            constructor.addParameter(TypeName.get(column.asType()), column.name().toString());
+            constructor.addStatement("this.$L = $L", column.name(), column.name());
+        }
+        spec.addMethod(constructor.build());
+
+        spec.addMethod(MethodSpec.methodBuilder("of")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(keyType)
+                .addParameter(ClassName.get(info.type()), "entity")
+                .addStatement(
+                        "return new $T($L)",
+                        keyType,
+                        keyColumns.stream()
+                                .map(column -> CodeBlock.of("entity.$L()", column.name()))
+                                .collect(CodeBlock.joining(", ")))
+                .build());
+
+        spec.addMethod(MethodSpec.methodBuilder("equals")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.BOOLEAN)
+                .addParameter(Object.class, "object")
+                .beginControlFlow("if (!(object instanceof $T other))", keyType)
+                .addStatement("return false")
+                .endControlFlow()
+                .addStatement(
+                        "return $L",
+                        keyColumns.stream()
+                                .map(column -> CodeBlock.of(
+                                        "$T.equals(this.$L, other.$L)", Objects.class, column.name(), column.name()))
+                                .collect(CodeBlock.joining(" && ")))
+                .build());
+
+        spec.addMethod(MethodSpec.methodBuilder("hashCode")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.INT)
+                .addStatement(
+                        "return $T.hash($L)",
+                        Objects.class,
+                        keyColumns.stream().map(ColumnInfo::name).collect(Collectors.joining(", ")))
+                .build());
+
+        spec.addMethod(MethodSpec.methodBuilder("toString")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(String.class)
+                .addStatement(
+                        "return $S + $T.asList($L)",
+                        info.type().getSimpleName(),
+                        Arrays.class,
+                        keyColumns.stream().map(ColumnInfo::name).collect(Collectors.joining(", ")))
+                .build());
+        return spec.build();
+    }
+
+    private static TypeSpec createRowCodec(EntityInfo info) {
+        var entityType = ClassName.get(info.type());
+        var spec = TypeSpec.classBuilder(rowCodecType(info))
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addSuperinterface(ParameterizedTypeName.get(ClassName.get(MemoryRowCodec.class), entityType));
+
+        var constructor = MethodSpec.constructorBuilder().addParameter(TypeCodecRegistry.class, "registry");
+        var toRow = CodeBlock.builder();
+        var fromRow = CodeBlock.builder();
+        for (int i = 0; i < info.columns().size(); i++) {
+            var column = info.columns().get(i);
+            if (i > 0) {
+                toRow.add(", ");
+                fromRow.add(", ");
+            }
+
+            // like the other databases, columns that use a TypeCodec are stored in their encoded form
+            if (TypeUtils.needsTypeCodec(column.typeName())) {
+                var fieldType =
+                        ParameterizedTypeName.get(ClassName.get(TypeCodec.class), ClassName.get(column.asType()));
+                spec.addField(fieldType, column.name().toString(), Modifier.PRIVATE, Modifier.FINAL);
+                constructor.addStatement(
+                        "this.$L = registry.requireCodecFor($T.class)", column.name(), column.asType());
+
+                toRow.add(
+                        "entity.$L() != null ? this.$L.encode(entity.$L()) : null",
+                        column.name(),
+                        column.name(),
+                        column.name());
+                fromRow.add("row[$L] != null ? this.$L.decode((byte[]) row[$L]) : null", i, column.name(), i);
+                continue;
+            }
+            toRow.add("entity.$L()", column.name());
+            fromRow.add("($T) row[$L]", TypeName.get(column.variable().asType()), i);
+        }
+
+        spec.addMethod(constructor.build());
+        spec.addMethod(MethodSpec.methodBuilder("toRow")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(Object[].class)
+                .addParameter(entityType, "entity")
+                .addStatement("return new $T[] {$L}", Object.class, toRow.build())
+                .build());
+        spec.addMethod(MethodSpec.methodBuilder("fromRow")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(entityType)
+                .addParameter(Object[].class, "row")
+                .addStatement("return new $T($L)", entityType, fromRow.build())
+                .build());
+        return spec.build();
+    }
+
+    private static boolean isComparable(TypeElement type) {
+        for (TypeMirror anInterface : type.getInterfaces()) {
+            var element = (TypeElement) ((DeclaredType) anInterface).asElement();
+            if (element.getQualifiedName().contentEquals(Comparable.class.getCanonicalName())
+                    || isComparable(element)) {
+                return true;
+            }
+        }
+        var superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED
+                && isComparable((TypeElement) ((DeclaredType) superclass).asElement());
+    }
+
+    record MemoryIndexInfo(String name, List<ColumnInfo> columns, boolean unique, boolean sorted) {}
+}
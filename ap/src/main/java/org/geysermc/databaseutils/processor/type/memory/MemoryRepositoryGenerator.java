@@ -0,0 +1,622 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.processor.type.memory;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
+import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.memory.MemoryTable;
+import org.geysermc.databaseutils.memory.MemoryValues;
+import org.geysermc.databaseutils.processor.info.ColumnInfo;
+import org.geysermc.databaseutils.processor.query.QueryContext;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.EqualsKeyword;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.LessThanKeyword;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.NotNullKeyword;
+import org.geysermc.databaseutils.processor.query.section.by.keyword.NullKeyword;
+import org.geysermc.databaseutils.processor.query.section.factor.AndFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.Factor;
+import org.geysermc.databaseutils.processor.query.section.factor.OrFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableByFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableOrderByFactor;
+import org.geysermc.databaseutils.processor.query.section.order.OrderDirection;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.AvgProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.CountProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MaxProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MinProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.SumProjectionKeyword;
+import org.geysermc.databaseutils.processor.type.RepositoryGenerator;
+import org.geysermc.databaseutils.processor.type.memory.MemoryEntityGenerator.MemoryIndexInfo;
+import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
+
+/**
+ * Generates repositories that query the entities of an in-memory table using streams. Instead of scanning the whole
+ * table, the entities are looked up by key or by an index when the query allows it. Timeouts are ignored since the
+ * queries never wait on I/O.
+ */
+public class MemoryRepositoryGenerator extends RepositoryGenerator {
+    private List<MemoryIndexInfo> indexes;
+
+    public MemoryRepositoryGenerator() {
+        super(DatabaseCategory.MEMORY);
+    }
+
+    @Override
+    protected void onConstructorBuilder(MethodSpec.Builder builder) {
+        typeSpec.addField(
+                ParameterizedTypeName.get(ClassName.get(MemoryTable.class), ClassName.get(entityInfo.type())),
+                "table",
+                Modifier.PRIVATE,
+                Modifier.FINAL);
+        builder.addStatement("this.table = database.table($S)", entityInfo.name());
+    }
+
+    @Override
+    public void addFind(QueryContext context, MethodSpec.Builder spec) {
+        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+            if (context.hasProjection() && context.projection().summary() != null) {
+                spec.addStatement("return $L", createSummary(context));
+                return;
+            }
+
+            if (context.returnInfo().isPrimitiveSequence()) {
+                var kind = context.returnInfo().elementType().getKind();
+                var values = CodeBlock.of(
+                        "$L.$L(Number::$LValue).toArray()",
+                        createStream(context, true, true),
+                        switch (kind) {
+                            case INT -> "mapToInt";
+                            case LONG -> "mapToLong";
+                            default -> "mapToDouble";
+                        },
+                        kind.name().toLowerCase(Locale.ROOT));
+                if (context.returnInfo().isPrimitiveStream()) {
+                    spec.addStatement("return $T.stream($L)", Arrays.class, values);
+                } else {
+                    spec.addStatement("return $L", values);
+                }
+                return;
+            }
+
+            if (context.returnInfo().isCollection()) {
+                spec.addStatement(
+                        "return $L.collect($T.toCollection($T::new))",
+                        createStream(context, true, true),
+                        Collectors.class,
+                        context.typeUtils().collectionImplementationFor(context.returnType()));
+                return;
+            }
+
+            // a null column value can't be mapped inside the stream, Optional#map handles it
+            CodeBlock map = CodeBlock.of("");
+            if (context.hasProjectionColumnName()) {
+                map = CodeBlock.of(".map($T::$L)", context.entityType(), context.projection().columnName());
+            } else if (context.hasDto()) {
+                map = CodeBlock.of(".map($L)", createDtoMapper(context));
+            }
+            spec.addStatement("return $L.findFirst()$L.orElse(null)", createStream(context, true, false), map);
+        });
+        typeSpec.addMethod(spec.build());
+    }
+
+    /**
+     * Like the other databases, summaries ignore null values and ignore the order and limits of the query.
+     */
+    private CodeBlock createSummary(QueryContext context) {
+        var typeUtils = context.typeUtils();
+        var summary = context.projection().summary();
+        var column = context.projectionColumnInfo();
+
+        var values = CodeBlock.builder().add(createBaseStream(context));
+        values.add(".map($T::$L)", context.entityType(), column.name());
+        if (!isPrimitive(column)) {
+            values.add(".filter($T::nonNull)", Objects.class);
+        }
+
+        if (summary instanceof CountProjectionKeyword) {
+            if (context.projection().distinct()) {
+                values.add(".distinct()");
+            }
+            return CodeBlock.of("($T) $L.count()", context.countableReturnType(), values.build());
+        }
+
+        if (!typeUtils.isNumberType(context.returnType())) {
+            if (summary instanceof MinProjectionKeyword) {
+                return CodeBlock.of("$L.min($T::compare).orElse(null)", values.build(), MemoryValues.class);
+            }
+            if (summary instanceof MaxProjectionKeyword) {
+                return CodeBlock.of("$L.max($T::compare).orElse(null)", values.build(), MemoryValues.class);
+            }
+            throw new InvalidRepositoryException("Unsupported summary %s", summary.name());
+        }
+
+        var returnType = typeUtils.unboxType(context.returnType());
+        if (summary instanceof SumProjectionKeyword) {
+            if (typeUtils.isWholeNumberType(context.returnType())) {
+                return CodeBlock.of("($T) $L.mapToLong(Number::longValue).sum()", returnType, values.build());
+            }
+            return CodeBlock.of("($T) $L.mapToDouble(Number::doubleValue).sum()", returnType, values.build());
+        }
+        if (summary instanceof AvgProjectionKeyword) {
+            return CodeBlock.of(
+                    "($T) $L.mapToDouble(Number::doubleValue).average().orElse(0)", returnType, values.build());
+        }
+
+        String method;
+        if (summary instanceof MinProjectionKeyword) {
+            method = "min";
+        } else if (summary instanceof MaxProjectionKeyword) {
+            method = "max";
+        } else {
+            throw new InvalidRepositoryException("Unsupported summary %s", summary.name());
+        }
+        // like the other databases no matches results in null
+        return CodeBlock.of(
+                "$L.$L($T::compare).map(Number::$LValue).orElse(null)",
+                values.build(),
+                method,
+                MemoryValues.class,
+                returnType);
+    }
+
+    @Override
+    protected void addBatchFind(QueryContext context, ColumnInfo keyColumn, MethodSpec.Builder spec) {
+        if (entityInfo.keyColumns().size() == 1) {
+            spec.addStatement(
+                    "return __keys.stream().map(__key -> this.table.get(new $T(__key))).filter($T::nonNull).toList()",
+                    MemoryEntityGenerator.keyType(entityInfo),
+                    Objects.class);
+            return;
+        }
+        spec.addStatement("var __keySet = new $T<>(__keys)", HashSet.class);
+        spec.addStatement(
+                "return this.table.stream().filter(__entity -> __keySet.contains(__entity.$L())).toList()",
+                keyColumn.name());
+    }
+
+    @Override
+    public void addExists(QueryContext context, MethodSpec.Builder spec) {
+        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+            spec.addStatement("return $L.findAny().isPresent()", createStream(context, false, false));
+        });
+        typeSpec.addMethod(spec.build());
+    }
+
+    @Override
+    public void addInsert(QueryContext context, MethodSpec.Builder spec) {
+        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+            var name = context.parametersInfo().firstName();
+            if (context.parametersInfo().isSelfCollection()) {
+                addCountResult(context, spec, CodeBlock.of("this.table.insertAll($L)", name));
+                return;
+            }
+            if (!context.parametersInfo().isSelf()) {
+                throw new InvalidRepositoryException("Expected insert to be either self or a collection of self");
+            }
+
+            spec.addStatement("this.table.insert($L)", name);
+            if (context.typeUtils().isWholeNumberType(context.returnType())) {
+                spec.addStatement("return 1");
+            } else if (context.returnInfo().async()) {
+                spec.addStatement("return null");
+            }
+        });
+        typeSpec.addMethod(spec.build());
+    }
+
+    @Override
+    public void addUpdate(QueryContext context, MethodSpec.Builder spec) {
+        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+            var name = context.parametersInfo().firstName();
+            if (context.parametersInfo().isSelf()) {
+                addFoundResult(context, spec, CodeBlock.of("this.table.update($L)", name));
+                return;
+            }
+            if (context.parametersInfo().isSelfCollection()) {
+                addCountResult(context, spec, CodeBlock.of("this.table.updateAll($L)", name));
+                return;
+            }
+
+            // the updated columns are the remaining parameters, the other columns keep their value
+            var remaining = context.parametersInfo().remaining();
+            var arguments = entityInfo.columns().stream()
+                    .map(column -> remaining.contains(column)
+                            ? CodeBlock.of("$L", column.name())
+                            : CodeBlock.of("__entity.$L()", column.name()))
+                    .collect(CodeBlock.joining(", "));
+            addCountResult(
+                    context,
+                    spec,
+                    CodeBlock.of(
+                            "this.table.updateMatching($L, __entity -> new $T($L))",
+                            createStream(context, true, false),
+                            context.entityType(),
+                            arguments));
+        });
+        typeSpec.addMethod(spec.build());
+    }
+
+    @Override
+    public void addDelete(QueryContext context, MethodSpec.Builder spec) {
+        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+            var typeUtils = context.typeUtils();
+            var name = context.hasParameters() ? context.parametersInfo().firstName() : null;
+            if (context.parametersInfo().isSelf()) {
+                if (context.returnInfo().isSelf()) {
+                    spec.addStatement("return this.table.delete($L)", name);
+                } else if (context.returnInfo().isVoid()) {
+                    spec.addStatement("this.table.delete($L)", name);
+                    if (context.returnInfo().async()) {
+                        spec.addStatement("return null");
+                    }
+                } else {
+                    addFoundResult(context, spec, CodeBlock.of("this.table.delete($L) != null", name));
+                }
+                return;
+            }
+            if (context.parametersInfo().isSelfCollection()) {
+                addCountResult(context, spec, CodeBlock.of("this.table.deleteAll($L)", name));
+                return;
+            }
+
+            var matching = CodeBlock.builder().add(createStream(context, true, false));
+            boolean limited = context.hasProjection() && context.projection().limit() != -1;
+            if (context.returnInfo().isSelf() && !limited) {
+                // like findOneAndDelete only a single entity is deleted when a single entity is returned
+                matching.add(".limit(1)");
+            }
+            var deleted = CodeBlock.of("this.table.deleteMatching($L)", matching.build());
+
+            if (context.returnInfo().isSelf()) {
+                spec.addStatement("var __deleted = $L", deleted);
+                spec.addStatement("return __deleted.isEmpty() ? null : __deleted.get(0)");
+            } else if (context.returnInfo().isSelfCollection()) {
+                if (typeUtils.isType(List.class, context.returnType())) {
+                    spec.addStatement("return $L", deleted);
+                } else {
+                    spec.addStatement(
+                            "return new $T<>($L)",
+                            typeUtils.collectionImplementationFor(context.returnType()),
+                            deleted);
+                }
+            } else {
+                addCountResult(context, spec, CodeBlock.of("$L.size()", deleted));
+            }
+        });
+        typeSpec.addMethod(spec.build());
+    }
+
+    /**
+     * Adds the result of a write that affects an amount of entities, which is returned when the method asks for it.
+     */
+    private void addCountResult(QueryContext context, MethodSpec.Builder spec, CodeBlock count) {
+        var typeUtils = context.typeUtils();
+        if (typeUtils.isType(Boolean.class, context.returnType())) {
+            spec.addStatement("return $L > 0", count);
+        } else if (typeUtils.isWholeNumberType(context.returnType())) {
+            if (context.countableReturnType().getKind() == TypeKind.INT) {
+                spec.addStatement("return $L", count);
+            } else {
+                spec.addStatement("return ($T) $L", context.countableReturnType(), count);
+            }
+        } else {
+            spec.addStatement(count);
+            if (context.returnInfo().async()) {
+                spec.addStatement("return null");
+            }
+        }
+    }
+
+    /**
+     * Adds the result of a write of a single entity, which is returned when the method asks for it.
+     */
+    private void addFoundResult(QueryContext context, MethodSpec.Builder spec, CodeBlock found) {
+        var typeUtils = context.typeUtils();
+        if (typeUtils.isType(Boolean.class, context.returnType())) {
+            spec.addStatement("return $L", found);
+        } else if (typeUtils.isWholeNumberType(context.returnType())) {
+            spec.addStatement("return $L ? 1 : 0", found);
+        } else {
+            spec.addStatement(found);
+            if (context.returnInfo().async()) {
+                spec.addStatement("return null");
+            }
+        }
+    }
+
+    /**
+     * Creates the stream of the matching entities, in the order of the query.
+     *
+     * @param limited whether the offset and limit of the query should be applied
+     * @param project whether the stream should contain the projected column instead of the entities
+     */
+    private CodeBlock createStream(QueryContext context, boolean limited, boolean project) {
+        var orderedIndex = limited ? orderedIndexFor(context) : null;
+        var source = createSource(context, orderedIndex);
+
+        var builder = CodeBlock.builder().add(source.code());
+        addFilter(context, builder);
+        if (limited && !source.ordered()) {
+            addSort(context, builder);
+        }
+
+        if (project && context.hasProjectionColumnName()) {
+            builder.add(".map($T::$L)", context.entityType(), context.projection().columnName());
+            if (context.projection().distinct()) {
+                builder.add(".distinct()");
+            }
+        } else if (project && context.hasDto()) {
+            builder.add(".map($L)", createDtoMapper(context));
+        }
+
+        if (limited && context.hasProjection()) {
+            if (context.projection().offset() > 0) {
+                builder.add(".skip($L)", context.projection().offset());
+            }
+            if (context.projection().limit() != -1) {
+                builder.add(".limit($L)", context.projection().limit());
+            }
+        }
+        return builder.build();
+    }
+
+    private CodeBlock createDtoMapper(QueryContext context) {
+        var values = new ArrayList<CodeBlock>();
+        for (ColumnInfo column : context.dto().columns()) {
+            values.add(CodeBlock.of("__entity.$L()", column.name()));
+        }
+        return CodeBlock.of("__entity -> $L", createDto(context, values));
+    }
+
+    private CodeBlock createBaseStream(QueryContext context) {
+        var builder = CodeBlock.builder().add(createSource(context, null).code());
+        addFilter(context, builder);
+        return builder.build();
+    }
+
+    /**
+     * Picks the cheapest way to find the entities that may match: the key, an index on columns that have to be
+     * equal, a sorted index of which the first column has to be less than a value, the sorted index the query is
+     * ordered by, or a scan of the whole table.
+     */
+    private Source createSource(QueryContext context, OrderedIndex orderedIndex) {
+        var keyType = MemoryEntityGenerator.keyType(entityInfo);
+        if (!context.hasBySection()) {
+            if (context.hasParameters()) {
+                return new Source(
+                        CodeBlock.of(
+                                "$T.ofNullable(this.table.get($T.of($L)))",
+                                Stream.class,
+                                keyType,
+                                context.parametersInfo().firstName()),
+                        true);
+            }
+            return scanSource(orderedIndex);
+        }
+
+        var factors = context.bySectionFactors();
+        if (factors.stream().anyMatch(factor -> factor instanceof OrFactor)) {
+            return scanSource(orderedIndex);
+        }
+
+        var equals = new HashMap<String, CharSequence>();
+        var lessThan = new HashMap<String, CharSequence>();
+        for (Factor factor : factors) {
+            if (factor instanceof VariableByFactor variable) {
+                var columnName = variable.columnName().toString();
+                if (variable.keyword() instanceof EqualsKeyword keyword) {
+                    equals.put(columnName, keyword.parameterNames().get(0));
+                } else if (variable.keyword() instanceof LessThanKeyword keyword) {
+                    lessThan.put(columnName, keyword.parameterNames().get(0));
+                }
+            }
+        }
+
+        var keyValues = valuesFor(entityInfo.keyColumns(), equals);
+        if (keyValues != null) {
+            return new Source(
+                    CodeBlock.of(
+                            "$T.ofNullable(this.table.get(new $T($L)))", Stream.class, keyType, keyValues),
+                    true);
+        }
+
+        for (MemoryIndexInfo index : indexes()) {
+            var values = valuesFor(index.columns(), equals);
+            // arrays don't have value based equality, so they can't be looked up
+            if (values != null && index.columns().stream().noneMatch(this::isArray)) {
+                return new Source(CodeBlock.of("this.table.equalTo($S, $L)", index.name(), values), false);
+            }
+        }
+
+        for (MemoryIndexInfo index : indexes()) {
+            var value = lessThan.get(index.columns().get(0).name().toString());
+            if (index.sorted() && value != null) {
+                return new Source(CodeBlock.of("this.table.lessThan($S, $L)", index.name(), value), false);
+            }
+        }
+        return scanSource(orderedIndex);
+    }
+
+    private Source scanSource(OrderedIndex orderedIndex) {
+        if (orderedIndex != null) {
+            return new Source(
+                    CodeBlock.of(
+                            "this.table.ordered($S, $L)", orderedIndex.index().name(), orderedIndex.descending()),
+                    true);
+        }
+        return new Source(CodeBlock.of("this.table.stream()"), false);
+    }
+
+    /**
+     * Returns the sorted index of which the columns start with the columns the query is ordered by, if there is one
+     * and the columns are all ordered in the same direction.
+     */
+    private OrderedIndex orderedIndexFor(QueryContext context) {
+        var orderBy = context.result().orderBySection();
+        if (orderBy == null) {
+            return null;
+        }
+
+        var columns = new ArrayList<CharSequence>();
+        OrderDirection direction = null;
+        for (Factor factor : orderBy.factors()) {
+            if (factor instanceof VariableOrderByFactor variable) {
+                if (direction != null && direction != variable.direction()) {
+                    return null;
+                }
+                direction = variable.direction();
+                columns.add(variable.columnName());
+            }
+        }
+
+        for (MemoryIndexInfo index : indexes()) {
+            if (!index.sorted() || index.columns().size() < columns.size()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < columns.size(); i++) {
+                matches &= index.columns().get(i).name().contentEquals(columns.get(i));
+            }
+            if (matches) {
+                return new OrderedIndex(index, direction == OrderDirection.DESCENDING);
+            }
+        }
+        return null;
+    }
+
+    private void addFilter(QueryContext context, CodeBlock.Builder builder) {
+        if (!context.hasBySection()) {
+            return;
+        }
+
+        var predicate = CodeBlock.builder();
+        for (Factor factor : context.bySectionFactors()) {
+            if (factor instanceof AndFactor) {
+                predicate.add(" && ");
+            } else if (factor instanceof OrFactor) {
+                predicate.add(" || ");
+            } else if (factor instanceof VariableByFactor variable) {
+                predicate.add(createCondition(variable));
+            } else {
+                throw new InvalidRepositoryException("Unsupported factor %s", factor);
+            }
+        }
+        builder.add(".filter(__entity -> $L)", predicate.build());
+    }
+
+    private CodeBlock createCondition(VariableByFactor variable) {
+        var column = entityInfo.columnFor(variable.columnName());
+        var keyword = variable.keyword();
+        var value = CodeBlock.of("__entity.$L()", column.name());
+
+        if (keyword instanceof EqualsKeyword equals) {
+            var parameter = equals.parameterNames().get(0);
+            if (isPrimitive(column)) {
+                return CodeBlock.of("$L == $L", value, parameter);
+            }
+            return CodeBlock.of("$T.equals($L, $L)", isArray(column) ? Arrays.class : Objects.class, value, parameter);
+        }
+        if (keyword instanceof NullKeyword) {
+            return isPrimitive(column) ? CodeBlock.of("false") : CodeBlock.of("$L == null", value);
+        }
+        if (keyword instanceof NotNullKeyword) {
+            return isPrimitive(column) ? CodeBlock.of("true") : CodeBlock.of("$L != null", value);
+        }
+        if (keyword instanceof LessThanKeyword lessThan) {
+            var parameter = lessThan.parameterNames().get(0);
+            if (isPrimitive(column)) {
+                return CodeBlock.of("$L < $L", value, parameter);
+            }
+            return CodeBlock.of("$T.lessThan($L, $L)", MemoryValues.class, value, parameter);
+        }
+        throw new InvalidRepositoryException("Unsupported keyword %s", keyword);
+    }
+
+    private void addSort(QueryContext context, CodeBlock.Builder builder) {
+        var columns = new ArrayList<CharSequence>();
+        var directions = new ArrayList<OrderDirection>();
+        var orderBy = context.result().orderBySection();
+        if (orderBy != null) {
+            for (Factor factor : orderBy.factors()) {
+                if (factor instanceof VariableOrderByFactor variable) {
+                    columns.add(variable.columnName());
+                    directions.add(variable.direction());
+                }
+            }
+        } else if (context.hasProjection()
+                && (context.projection().limit() != -1 || context.projection().offset() > 0)) {
+            // the table has no order, so like a clustered primary key the entities are limited in the key order
+            for (ColumnInfo column : entityInfo.keyColumns()) {
+                columns.add(column.name());
+                directions.add(OrderDirection.ASCENDING);
+            }
+        }
+        if (columns.isEmpty()) {
+            return;
+        }
+
+        var comparator = CodeBlock.builder().add("$T", Comparator.class);
+        for (int i = 0; i < columns.size(); i++) {
+            comparator.add(
+                    ".$L($T::$L, $T::$L)",
+                    i == 0 ? "comparing" : "thenComparing",
+                    context.entityType(),
+                    columns.get(i),
+                    MemoryValues.class,
+                    directions.get(i) == OrderDirection.DESCENDING ? "compareReversed" : "compare");
+        }
+        builder.add(".sorted($L)", comparator.build());
+    }
+
+    /**
+     * Returns the parameters that the given columns have to be equal to, or null if not every column has to be equal
+     * to a parameter.
+     */
+    private static CodeBlock valuesFor(List<ColumnInfo> columns, Map<String, CharSequence> equals) {
+        var values = new ArrayList<CodeBlock>();
+        for (ColumnInfo column : columns) {
+            var parameter = equals.get(column.name().toString());
+            if (parameter == null) {
+                return null;
+            }
+            values.add(CodeBlock.of("$L", parameter));
+        }
+        return CodeBlock.join(values, ", ");
+    }
+
+    private List<MemoryIndexInfo> indexes() {
+        if (indexes == null) {
+            indexes = MemoryEntityGenerator.indexes(entityInfo);
+        }
+        return indexes;
+    }
+
+    private boolean isPrimitive(ColumnInfo column) {
+        return column.variable().asType().getKind().isPrimitive();
+    }
+
+    private boolean isArray(ColumnInfo column) {
+        return column.variable().asType().getKind() == TypeKind.ARRAY;
+    }
+
+    private record Source(CodeBlock code, boolean ordered) {}
+
+    private record OrderedIndex(MemoryIndexInfo index, boolean descending) {}
+}
@@ -15,6 +15,7 @@ import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
 import java.util.ArrayList;
@@ -26,14 +27,31 @@ import org.bson.codecs.configuration.CodecProvider;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.geysermc.databaseutils.DatabaseCategory;
 import org.geysermc.databaseutils.meta.Index;
+import org.geysermc.databaseutils.mongo.MongoDatabaseBootstrap;
 import org.geysermc.databaseutils.mongo.MongodbDatabase;
 import org.geysermc.databaseutils.processor.info.EntityInfo;
 import org.geysermc.databaseutils.processor.info.IndexInfo;
 import org.geysermc.databaseutils.processor.type.DatabaseGenerator;
 
 public class MongoDatabaseGenerator extends DatabaseGenerator {
-    public MongoDatabaseGenerator() {
+    private final boolean reactive;
+
+    public MongoDatabaseGenerator(boolean reactive) {
         super(DatabaseCategory.MONGODB);
+        this.reactive = reactive;
+    }
+
+    @Override
+    public void init(TypeSpec.Builder spec, boolean hasAsync) {
+        super.init(spec, hasAsync);
+        if (reactive) {
+            spec.addMethod(MethodSpec.methodBuilder("reactive")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(Override.class)
+                    .returns(Boolean.TYPE)
+                    .addStatement("return true")
+                    .build());
+        }
     }
 
     @Override
@@ -41,6 +59,11 @@ public class MongoDatabaseGenerator extends DatabaseGenerator {
         return MongodbDatabase.class;
     }
 
+    @Override
+    protected TypeName bootstrapType() {
+        return ClassName.get(MongoDatabaseBootstrap.class);
+    }
+
     @Override
     protected void addEntities(Collection<EntityInfo> entities, MethodSpec.Builder method) {
         method.addException(MongoException.class);
@@ -131,5 +154,11 @@ public class MongoDatabaseGenerator extends DatabaseGenerator {
                 .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
                 .initializer("new $L()", "EntityCodecProvider")
                 .build());
+        spec.addMethod(MethodSpec.methodBuilder("entityCodecs")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(CodecProvider.class)
+                .addStatement("return ENTITY_CODECS")
+                .build());
     }
 }
@@ -5,10 +5,12 @@
  */
 package org.geysermc.databaseutils.processor.type.mongo;
 
-import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.DeleteManyModel;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.Sorts;
 import com.mongodb.client.model.Updates;
@@ -17,15 +19,28 @@ import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.lang.model.element.Modifier;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
 import org.bson.conversions.Bson;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.mongo.MongoTransaction;
+import org.geysermc.databaseutils.mongo.PublisherFutures;
 import org.geysermc.databaseutils.processor.info.ColumnInfo;
+import org.geysermc.databaseutils.processor.query.NativeQuery;
 import org.geysermc.databaseutils.processor.query.QueryContext;
 import org.geysermc.databaseutils.processor.query.section.by.keyword.EqualsKeyword;
 import org.geysermc.databaseutils.processor.query.section.by.keyword.LessThanKeyword;
@@ -36,22 +51,33 @@ import org.geysermc.databaseutils.processor.query.section.factor.Factor;
 import org.geysermc.databaseutils.processor.query.section.factor.OrFactor;
 import org.geysermc.databaseutils.processor.query.section.factor.VariableByFactor;
 import org.geysermc.databaseutils.processor.query.section.factor.VariableOrderByFactor;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.CountProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.FirstProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MaxProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MinProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.SkipProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.TopProjectionKeyword;
 import org.geysermc.databaseutils.processor.type.RepositoryGenerator;
 import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
+import org.geysermc.databaseutils.processor.util.TypeUtils;
 
 public class MongoRepositoryGenerator extends RepositoryGenerator {
-    public MongoRepositoryGenerator() {
+    private static final ClassName REACTIVE_COLLECTION =
+            ClassName.get(com.mongodb.reactivestreams.client.MongoCollection.class);
+
+    // keeps every deleteMany filter far below the maximum document size
+    private static final int MAX_DELETE_KEYS = 1000;
+
+    private final boolean reactive;
+    private boolean usesKeyFilter;
+
+    public MongoRepositoryGenerator(boolean reactive) {
         super(DatabaseCategory.MONGODB);
+        this.reactive = reactive;
     }
 
     @Override
     protected void onConstructorBuilder(MethodSpec.Builder builder) {
-        typeSpec.addField(MongoClient.class, "mongoClient", Modifier.PRIVATE, Modifier.FINAL);
-        builder.addStatement("this.mongoClient = database.mongoClient()");
-
         typeSpec.addField(
                 ParameterizedTypeName.get(ClassName.get(MongoCollection.class), ClassName.get(entityInfo.type())),
                 "collection",
@@ -61,27 +87,314 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
                 "this.collection = database.mongoDatabase().getCollection($S, $T.class)",
                 entityInfo.name(),
                 entityInfo.type());
+
+        if (reactive) {
+            typeSpec.addField(
+                    ParameterizedTypeName.get(REACTIVE_COLLECTION, ClassName.get(entityInfo.type())),
+                    "reactiveCollection",
+                    Modifier.PRIVATE,
+                    Modifier.FINAL);
+            builder.addStatement(
+                    "this.reactiveCollection = database.reactiveDatabase().getCollection($S, $T.class)",
+                    entityInfo.name(),
+                    entityInfo.type());
+        }
+    }
+
+    @Override
+    public TypeSpec.Builder finish(Class<?> databaseClass) {
+        super.finish(databaseClass);
+        if (usesKeyFilter) {
+            var entityType = ClassName.get(entityInfo.type());
+            typeSpec.addMethod(MethodSpec.methodBuilder("keyFilter")
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(Bson.class)
+                    .addParameter(entityType, "__entity")
+                    .addStatement(
+                            "return $L",
+                            createFilter(entityInfo.keyColumnsAsFactors(AndFactor.INSTANCE, "__entity")))
+                    .build());
+        }
+        return typeSpec;
     }
 
     @Override
     public void addFind(QueryContext context, MethodSpec.Builder spec) {
+        if (context.hasProjection() && context.projection().summary() != null) {
+            addSummaryFind(context, spec);
+            return;
+        }
+        if (context.returnInfo().isPrimitiveSequence()) {
+            addPrimitiveSequenceFind(context, spec);
+            return;
+        }
+        if (context.hasDto()) {
+            addDtoFind(context, spec);
+            return;
+        }
+        if (isReactive(context)) {
+            addReactiveFind(context, spec);
+            return;
+        }
         // todo wrap in exception handlers, for all methods
-        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+        wrapInTransaction(spec, context.returnInfo().async(), () -> {
             spec.addStatement(
-                    "return this.collection.find($L)$L$L",
+                    "return this.collection.find(__transaction.session(), $L)$L$L$L",
                     createFindFilter(context),
+                    createMaxTime(context),
                     createSort(context),
                     createProjection(context));
         });
         typeSpec.addMethod(spec.build());
     }
 
+    /**
+     * Primitive arrays and streams only need a single column, so instead of decoding every document into an entity
+     * only the column is requested and read from the raw documents. The column is always of a primitive type, so every
+     * document holds a value for it.
+     */
+    private void addPrimitiveSequenceFind(QueryContext context, MethodSpec.Builder spec) {
+        var columnName = context.projection().columnName();
+        var mongoType = MongoTypeMappingRegistry.mongoTypeFor(context.projectionColumnInfo().typeName());
+        var read = CodeBlock.of("__document.get$L($S).getValue()", mongoType, columnName);
+        var options = CodeBlock.of(
+                "$L$L$L.projection($T.include($S))",
+                createMaxTime(context),
+                createSort(context),
+                createLimits(context, true),
+                Projections.class,
+                columnName);
+
+        if (isReactive(context)) {
+            wrapInReactive(spec, () -> {
+                spec.addStatement("var __responses = $L", createPrimitiveArrayBuilder(context));
+                spec.addStatement(
+                        "return $T.forEach(this.reactiveCollection.find($L, $T.class)$L, __document -> __responses.add($L), __responses::$L)",
+                        PublisherFutures.class,
+                        createFindFilter(context),
+                        RawBsonDocument.class,
+                        options,
+                        read,
+                        primitiveArrayBuilderResult(context));
+            });
+            return;
+        }
+
+        wrapInTransaction(spec, context.returnInfo().async(), () -> {
+            spec.addStatement("var __responses = $L", createPrimitiveArrayBuilder(context));
+            spec.beginControlFlow(
+                    "try (var __cursor = this.collection.find(__transaction.session(), $L, $T.class)$L.iterator())",
+                    createFindFilter(context),
+                    RawBsonDocument.class,
+                    options);
+            spec.beginControlFlow("while (__cursor.hasNext())");
+            spec.addStatement("var __document = __cursor.next()");
+            spec.addStatement("__responses.add($L)", read);
+            spec.endControlFlow();
+            spec.endControlFlow();
+            spec.addStatement("return __responses.$L()", primitiveArrayBuilderResult(context));
+        });
+        typeSpec.addMethod(spec.build());
+    }
+
+    /**
+     * Like primitive sequences, only the columns of the DTO are requested and they're read from the raw documents
+     * instead of decoding the whole entity.
+     */
+    private void addDtoFind(QueryContext context, MethodSpec.Builder spec) {
+        var columnNames = context.dto().columns().stream()
+                .map(column -> CodeBlock.of("$S", column.name()))
+                .collect(CodeBlock.joining(", "));
+        var options = CodeBlock.of(
+                "$L$L$L.projection($T.include($L))",
+                createMaxTime(context),
+                createSort(context),
+                createLimits(context, true),
+                Projections.class,
+                columnNames);
+
+        var values = new ArrayList<CodeBlock>();
+        for (ColumnInfo column : context.dto().columns()) {
+            values.add(readDocumentValue(column));
+        }
+        var dto = createDto(context, values);
+        var collection = context.returnInfo().isCollection()
+                ? context.typeUtils().collectionImplementationFor(context.returnType())
+                : null;
+
+        if (isReactive(context)) {
+            wrapInReactive(spec, () -> {
+                var find = CodeBlock.of(
+                        "this.reactiveCollection.find($L, $T.class)$L",
+                        createFindFilter(context),
+                        RawBsonDocument.class,
+                        options);
+                if (collection != null) {
+                    spec.addStatement(
+                            "return $T.into($L, new $T<>(), __document -> $L)",
+                            PublisherFutures.class,
+                            find,
+                            collection,
+                            dto);
+                } else {
+                    spec.addStatement(
+                            "return $T.first($L.first(), __document -> __document != null ? $L : null)",
+                            PublisherFutures.class,
+                            find,
+                            dto);
+                }
+            });
+            return;
+        }
+
+        wrapInTransaction(spec, context.returnInfo().async(), () -> {
+            spec.addStatement(
+                    "return this.collection.find(__transaction.session(), $L, $T.class)$L.map(__document -> $L)$L",
+                    createFindFilter(context),
+                    RawBsonDocument.class,
+                    options,
+                    dto,
+                    collection != null ? CodeBlock.of(".into(new $T<>())", collection) : ".first()");
+        });
+        typeSpec.addMethod(spec.build());
+    }
+
+    /**
+     * Returns the code that reads the column from a raw document named __document, the same way the entity codec
+     * and the default codecs of the driver would decode it. Columns that aren't primitive are read as null when the
+     * field is null or missing.
+     */
+    private CodeBlock readDocumentValue(ColumnInfo column) {
+        var name = column.name();
+        var mongoType = MongoTypeMappingRegistry.mongoTypeFor(column.typeName());
+        CodeBlock read;
+        if (mongoType != null) {
+            read = CodeBlock.of("__document.get$L($S).getValue()", mongoType, name);
+        } else {
+            read = switch (column.typeName().toString()) {
+                case "java.lang.Byte" -> CodeBlock.of("(byte) __document.getInt32($S).getValue()", name);
+                case "java.lang.Short" -> CodeBlock.of("(short) __document.getInt32($S).getValue()", name);
+                case "java.lang.Float" -> CodeBlock.of("(float) __document.getDouble($S).getValue()", name);
+                case "java.lang.Character" -> CodeBlock.of("__document.getString($S).getValue().charAt(0)", name);
+                default -> CodeBlock.of("__document.getBinary($S).getData()", name);
+            };
+        }
+
+        if (!column.variable().asType().getKind().isPrimitive()) {
+            read = CodeBlock.of("!__document.containsKey($S) || __document.isNull($S) ? null : $L", name, name, read);
+        }
+        if (TypeUtils.needsTypeCodec(column.typeName())) {
+            return CodeBlock.of("this.__$L.decode($L)", name, read);
+        }
+        return read;
+    }
+
+    /**
+     * Summaries are calculated by the database using an aggregation pipeline, instead of decoding every matching
+     * document. Like SQL, documents where the column is null are ignored.
+     */
+    private void addSummaryFind(QueryContext context, MethodSpec.Builder spec) {
+        var columnName = context.projection().columnName();
+        var summary = context.projection().summary();
+
+        var pipeline = CodeBlock.builder();
+        pipeline.add(
+                "$T.of($T.match($T.and($L, $T.ne($S, null))), ",
+                List.class,
+                Aggregates.class,
+                Filters.class,
+                createFindFilter(context),
+                Filters.class,
+                columnName);
+        if (summary instanceof CountProjectionKeyword) {
+            if (context.projection().distinct()) {
+                pipeline.add(
+                        "$T.group($S), $T.count($S))", Aggregates.class, "$" + columnName, Aggregates.class, "value");
+            } else {
+                pipeline.add("$T.group(null, $T.sum($S, 1)))", Aggregates.class, Accumulators.class, "value");
+            }
+        } else {
+            pipeline.add(
+                    "$T.group(null, $T.$L($S, $S)))",
+                    Aggregates.class,
+                    Accumulators.class,
+                    summary.name().toLowerCase(Locale.ROOT),
+                    "value",
+                    "$" + columnName);
+        }
+
+        if (isReactive(context)) {
+            wrapInReactive(spec, () -> spec.addStatement(
+                    "return $T.first(this.reactiveCollection.aggregate($L, $T.class)$L.first(), __document -> $L)",
+                    PublisherFutures.class,
+                    pipeline.build(),
+                    Document.class,
+                    createMaxTime(context),
+                    readSummary(context)));
+            return;
+        }
+        wrapInTransaction(spec, context.returnInfo().async(), () -> {
+            spec.addStatement(
+                    "var __document = this.collection.aggregate(__transaction.session(), $L, $T.class)$L.first()",
+                    pipeline.build(),
+                    Document.class,
+                    createMaxTime(context));
+            spec.addStatement("return $L", readSummary(context));
+        });
+        typeSpec.addMethod(spec.build());
+    }
+
+    private CodeBlock readSummary(QueryContext context) {
+        var typeUtils = context.typeUtils();
+        if (typeUtils.isNumberType(context.returnType())) {
+            // Min and Max are null when nothing matches, like they are in SQL
+            var summary = context.projection().summary();
+            var empty =
+                    summary instanceof MinProjectionKeyword || summary instanceof MaxProjectionKeyword ? "null" : "0";
+            // the type of the result depends on the values, e.g. the sum of ints can be a long
+            return CodeBlock.of(
+                    "__document != null ? __document.get($S, $T.class).$LValue() : $L",
+                    "value",
+                    Number.class,
+                    typeUtils.unboxType(context.returnType()),
+                    empty);
+        }
+        return CodeBlock.of(
+                "__document != null ? __document.get($S, $T.class) : null",
+                "value",
+                ClassName.get(typeUtils.toBoxedTypeElement(context.returnType())));
+    }
+
+    @Override
+    protected void addBatchFind(QueryContext context, ColumnInfo keyColumn, MethodSpec.Builder spec) {
+        spec.beginControlFlow("try ($T __transaction = this.database.transaction())", MongoTransaction.class);
+        spec.addStatement(
+                "return this.collection.find(__transaction.session(), $T.in($S, __keys))$L.into(new $T<>())",
+                Filters.class,
+                keyColumn.name(),
+                createMaxTime(context),
+                ArrayList.class);
+        spec.endControlFlow();
+    }
+
     @Override
     public void addExists(QueryContext context, MethodSpec.Builder spec) {
-        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+        if (isReactive(context)) {
+            wrapInReactive(spec, () -> spec.addStatement(
+                    "return $T.first(this.reactiveCollection.find($L)$L$L.limit(1)$L.first(), $T::nonNull)",
+                    PublisherFutures.class,
+                    createFindFilter(context),
+                    createMaxTime(context),
+                    createSort(context),
+                    createLimits(context, false),
+                    Objects.class));
+            return;
+        }
+        wrapInTransaction(spec, context.returnInfo().async(), () -> {
             spec.addStatement(
-                    "return this.collection.find($L)$L.limit(1)$L != null",
+                    "return this.collection.find(__transaction.session(), $L)$L$L.limit(1)$L != null",
                     createFindFilter(context),
+                    createMaxTime(context),
                     createSort(context),
                     createProjection(context));
         });
@@ -90,9 +403,13 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
 
     @Override
     public void addInsert(QueryContext context, MethodSpec.Builder spec) {
+        if (isReactive(context)) {
+            addReactiveInsert(context, spec);
+            return;
+        }
         // theoretically currently the getInsertedIds size should match the amount of documents sent,
         // since 'ordered' prevents it from inserting the remaining documents in case of a conflict
-        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+        wrapInTransaction(spec, context.returnInfo().async(), () -> {
             if (context.parametersInfo().isSelfCollection()) {
                 var firstName = context.parametersInfo().firstName();
                 spec.beginControlFlow("if ($L.isEmpty())", firstName);
@@ -100,22 +417,24 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
                 if (context.typeUtils().isWholeNumberType(context.returnType())) {
                     spec.addStatement("return 0");
                     spec.endControlFlow();
-                    spec.addStatement("return this.collection.insertMany($L).getInsertedIds().size()", firstName);
+                    spec.addStatement(
+                            "return this.collection.insertMany(__transaction.session(), $L).getInsertedIds().size()",
+                            firstName);
                     return;
                 }
 
                 spec.addStatement("return $L", context.returnInfo().async() ? "null" : "");
                 spec.endControlFlow();
-                spec.addStatement("this.collection.insertMany($L)", firstName);
+                spec.addStatement("this.collection.insertMany(__transaction.session(), $L)", firstName);
             } else if (context.parametersInfo().isSelf()) {
                 if (context.typeUtils().isWholeNumberType(context.returnType())) {
                     spec.addStatement(
-                            "return this.collection.insertOne($L).getInsertedId() != null ? 1 : 0",
+                            "return this.collection.insertOne(__transaction.session(), $L).getInsertedId() != null ? 1 : 0",
                             context.parametersInfo().firstName());
                     return;
                 }
                 spec.addStatement(
-                        "this.collection.insertOne($L)",
+                        "this.collection.insertOne(__transaction.session(), $L)",
                         context.parametersInfo().firstName());
             } else {
                 throw new InvalidRepositoryException("Expected insert to be either self or a collection of self");
@@ -131,23 +450,27 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
 
     @Override
     public void addUpdate(QueryContext context, MethodSpec.Builder spec) {
-        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+        if (isReactive(context)) {
+            addReactiveUpdate(context, spec);
+            return;
+        }
+        wrapInTransaction(spec, context.returnInfo().async(), () -> {
             // for now, it's only either: update a (list of) entities, or updateAByBAndC
             // todo keep track of which fields are changed to make sure we only update the fields who have been changed
             // instead of replacing the documents
 
             if (context.parametersInfo().isSelf()) {
                 var name = context.parametersInfo().firstName();
-                var filter = createFilter(context.entityInfo().keyColumnsAsFactors(AndFactor.INSTANCE, name));
+                var filter = createKeyFilter(name);
                 if (context.typeUtils().isWholeNumberType(context.returnType())) {
                     spec.addStatement(
-                            "return ($T) this.collection.replaceOne($L, $L).getModifiedCount()",
+                            "return ($T) this.collection.replaceOne(__transaction.session(), $L, $L).getModifiedCount()",
                             context.countableReturnType(),
                             filter,
                             name);
                     return;
                 }
-                spec.addStatement("this.collection.replaceOne($L, $L)", filter, name);
+                spec.addStatement("this.collection.replaceOne(__transaction.session(), $L, $L)", filter, name);
             } else if (context.parametersInfo().isSelfCollection()) {
                 var name = context.parametersInfo().firstName();
 
@@ -169,30 +492,30 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
                 spec.addStatement(
                         "__bulkOperations.add(new $T<>($L, $L))",
                         ReplaceOneModel.class,
-                        createFilter(context.entityInfo().keyColumnsAsFactors(AndFactor.INSTANCE, "__entry")),
+                        createKeyFilter("__entry"),
                         "__entry");
                 spec.endControlFlow();
 
                 // todo for all these casts, don't add it if it's considered redundant (compile warning)
                 if (context.typeUtils().isWholeNumberType(context.returnType())) {
                     spec.addStatement(
-                            "return ($T) this.collection.bulkWrite(__bulkOperations).getModifiedCount()",
+                            "return ($T) this.collection.bulkWrite(__transaction.session(), __bulkOperations).getModifiedCount()",
                             context.countableReturnType());
                     return;
                 }
-                spec.addStatement("this.collection.bulkWrite(__bulkOperations)");
+                spec.addStatement("this.collection.bulkWrite(__transaction.session(), __bulkOperations)");
             } else {
                 var filter = createFilter(context.bySectionFactors());
                 var document = createUpdateDocument(context.parametersInfo().remaining());
                 if (context.typeUtils().isWholeNumberType(context.returnType())) {
                     spec.addStatement(
-                            "return ($T) this.collection.updateMany($L, $L).getModifiedCount()",
+                            "return ($T) this.collection.updateMany(__transaction.session(), $L, $L).getModifiedCount()",
                             context.countableReturnType(),
                             filter,
                             document);
                     return;
                 }
-                spec.addStatement("this.collection.updateMany($L, $L)", filter, document);
+                spec.addStatement("this.collection.updateMany(__transaction.session(), $L, $L)", filter, document);
             }
 
             if (context.returnInfo().async()) {
@@ -204,7 +527,10 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
 
     @Override
     public void addDelete(QueryContext context, MethodSpec.Builder spec) {
-        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+        if (isReactive(context) && addReactiveDelete(context, spec)) {
+            return;
+        }
+        wrapInTransaction(spec, context.returnInfo().async(), () -> {
             boolean needsUpdatedCount = context.typeUtils().isType(Integer.class, context.returnType())
                     || context.typeUtils().isType(Boolean.class, context.returnType());
             if (needsUpdatedCount) {
@@ -213,57 +539,52 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
 
             // for now, it's only either: delete a (list of) entities, or deleteByAAndB
             if (context.parametersInfo().isSelf()) {
-                var filter = createFilter(context.entityInfo()
-                        .keyColumnsAsFactors(
-                                AndFactor.INSTANCE, context.parametersInfo().firstName()));
+                var filter = createKeyFilter(context.parametersInfo().firstName());
 
                 if (needsUpdatedCount) {
-                    spec.addStatement("__count = this.collection.deleteOne($L).getDeletedCount()", filter);
+                    spec.addStatement(
+                            "__count = this.collection.deleteOne(__transaction.session(), $L).getDeletedCount()",
+                            filter);
                 } else if (context.returnInfo().isSelf()) {
-                    spec.addStatement("return this.collection.findOneAndDelete($L)", filter);
+                    spec.addStatement("return this.collection.findOneAndDelete(__transaction.session(), $L)", filter);
                 } else {
-                    spec.addStatement("this.collection.deleteOne($L)", filter);
+                    spec.addStatement("this.collection.deleteOne(__transaction.session(), $L)", filter);
                 }
             } else if (context.parametersInfo().isSelfCollection()) {
-                spec.addStatement(
-                        "var __bulkOperations = new $T<$T<$T>>()",
-                        ArrayList.class,
-                        WriteModel.class,
-                        context.entityType());
-
-                spec.beginControlFlow(
-                        "for (var __entry : $L)", context.parametersInfo().firstName());
-                spec.addStatement(
-                        "__bulkOperations.add(new $T<>($L))",
-                        DeleteOneModel.class,
-                        createFilter(context.entityInfo().keyColumnsAsFactors(AndFactor.INSTANCE, "__entry")));
+                var name = context.parametersInfo().firstName();
+                spec.beginControlFlow("if ($L.isEmpty())", name);
+                spec.addStatement("return $L", emptyResult(context));
                 spec.endControlFlow();
 
+                addDeleteByKeysOperations(context, spec, name);
+
                 if (needsUpdatedCount) {
-                    spec.addStatement("__count = this.collection.bulkWrite(__bulkOperations).getDeletedCount()");
+                    spec.addStatement(
+                            "__count = this.collection.bulkWrite(__transaction.session(), __bulkOperations).getDeletedCount()");
                 } else {
-                    spec.addStatement("this.collection.bulkWrite(__bulkOperations)");
+                    spec.addStatement("this.collection.bulkWrite(__transaction.session(), __bulkOperations)");
                 }
             } else {
                 if (!context.hasProjection() && needsUpdatedCount) {
                     spec.addStatement(
-                            "__count = ($T) this.collection.deleteMany($L).getDeletedCount()",
+                            "__count = ($T) this.collection.deleteMany(__transaction.session(), $L).getDeletedCount()",
                             context.countableReturnType(),
-                            createFilter(context.bySectionFactors()));
+                            createDeleteFilter(context));
                 } else {
-                    var filter = createFilter(context.bySectionFactors());
+                    var filter = createDeleteFilter(context);
                     if (context.returnInfo().isSelf()) {
-                        spec.addStatement("return this.collection.findOneAndDelete($L)", filter);
+                        spec.addStatement(
+                                "return this.collection.findOneAndDelete(__transaction.session(), $L)", filter);
                         return;
                     } else if (context.returnInfo().isSelfCollection() || needsUpdatedCount) {
-                        spec.addStatement("var __session = this.mongoClient.startSession()");
-                        spec.beginControlFlow("try");
                         // todo add option to require majority
-                        spec.addStatement("__session.startTransaction()");
+                        spec.addStatement("__transaction.begin()");
+                        spec.beginControlFlow("try");
 
                         spec.addStatement(
-                                "var __find = this.collection.find(__session, $L)$L$L",
+                                "var __find = this.collection.find(__transaction.session(), $L)$L$L$L",
                                 filter,
+                                createMaxTime(context),
                                 createSort(context),
                                 createProjection(context, true));
 
@@ -279,7 +600,7 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
                         spec.endControlFlow();
 
                         spec.addStatement(
-                                "var __deletedCount = this.collection.deleteMany(__session, $T.or(__toDelete)).getDeletedCount()",
+                                "var __deletedCount = this.collection.deleteMany(__transaction.session(), $T.or(__toDelete)).getDeletedCount()",
                                 Filters.class);
 
                         spec.beginControlFlow("if (__find.size() != __deletedCount)");
@@ -289,7 +610,7 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
                                 "Found %s documents but deleted %s documents");
                         spec.endControlFlow();
 
-                        spec.addStatement("__session.commitTransaction()");
+                        spec.addStatement("__transaction.commit()");
 
                         if (needsUpdatedCount) {
                             if (context.typeUtils().isType(Boolean.class, context.returnType())) {
@@ -302,15 +623,13 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
                         }
 
                         spec.nextControlFlow("catch ($T __exception)", Exception.class);
-                        spec.addStatement("__session.abortTransaction()");
+                        spec.addStatement("__transaction.rollback()");
                         spec.addStatement("throw __exception");
-                        spec.nextControlFlow("finally");
-                        spec.addStatement("__session.close()");
                         spec.endControlFlow();
                         return;
                     }
                     // todo technically it can be a deleteOne if the factors contain all the key columns
-                    spec.addStatement("this.collection.deleteMany($L)", filter);
+                    spec.addStatement("this.collection.deleteMany(__transaction.session(), $L)", filter);
                 }
             }
 
@@ -328,6 +647,270 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
         typeSpec.addMethod(spec.build());
     }
 
+    @Override
+    public void addNativeQuery(QueryContext context, MethodSpec.Builder spec) {
+        if (context.nativeQuery().mongo() == null) {
+            super.addNativeQuery(context, spec);
+            return;
+        }
+
+        // the native filter is picked up by createFindFilter, and update was already rejected for native filters
+        var action = context.result().actionName();
+        if (action.equals("find")) {
+            addFind(context, spec);
+        } else if (action.equals("exists")) {
+            addExists(context, spec);
+        } else {
+            addDelete(context, spec);
+        }
+    }
+
+    private boolean isReactive(QueryContext context) {
+        return reactive && context.returnInfo().async();
+    }
+
+    private void addReactiveFind(QueryContext context, MethodSpec.Builder spec) {
+        wrapInReactive(spec, () -> {
+            var find = CodeBlock.of(
+                    "this.reactiveCollection.find($L)$L$L$L",
+                    createFindFilter(context),
+                    createMaxTime(context),
+                    createSort(context),
+                    createLimits(context, false));
+            var columnName = context.hasProjectionColumnName() ? context.projection().columnName() : null;
+
+            if (context.returnInfo().isCollection()) {
+                var collection = context.typeUtils().collectionImplementationFor(context.returnType());
+                if (columnName != null) {
+                    spec.addStatement(
+                            "return $T.into($L, new $T<>(), $T::$L)",
+                            PublisherFutures.class,
+                            find,
+                            collection,
+                            context.entityInfo().asType(),
+                            columnName);
+                } else {
+                    spec.addStatement("return $T.into($L, new $T<>())", PublisherFutures.class, find, collection);
+                }
+                return;
+            }
+
+            if (columnName != null) {
+                spec.addStatement(
+                        "return $T.first($L.first(), __result -> __result != null ? __result.$L() : null)",
+                        PublisherFutures.class,
+                        find,
+                        columnName);
+            } else {
+                spec.addStatement("return $T.first($L.first())", PublisherFutures.class, find);
+            }
+        });
+    }
+
+    private void addReactiveInsert(QueryContext context, MethodSpec.Builder spec) {
+        var name = context.parametersInfo().firstName();
+        boolean count = context.typeUtils().isWholeNumberType(context.returnType());
+
+        wrapInReactive(spec, () -> {
+            if (context.parametersInfo().isSelfCollection()) {
+                addReactiveEmptyCheck(context, spec, name);
+                addReactiveResult(
+                        context,
+                        spec,
+                        CodeBlock.of("this.reactiveCollection.insertMany($L)", name),
+                        count ? CodeBlock.of("__result.getInsertedIds().size()") : null);
+            } else if (context.parametersInfo().isSelf()) {
+                addReactiveResult(
+                        context,
+                        spec,
+                        CodeBlock.of("this.reactiveCollection.insertOne($L)", name),
+                        count ? CodeBlock.of("__result.getInsertedId() != null ? 1 : 0") : null);
+            } else {
+                throw new InvalidRepositoryException("Expected insert to be either self or a collection of self");
+            }
+        });
+    }
+
+    private void addReactiveUpdate(QueryContext context, MethodSpec.Builder spec) {
+        var count = context.typeUtils().isWholeNumberType(context.returnType())
+                ? CodeBlock.of("($T) __result.getModifiedCount()", context.countableReturnType())
+                : null;
+
+        wrapInReactive(spec, () -> {
+            if (context.parametersInfo().isSelf()) {
+                var name = context.parametersInfo().firstName();
+                var filter = createKeyFilter(name);
+                addReactiveResult(
+                        context, spec, CodeBlock.of("this.reactiveCollection.replaceOne($L, $L)", filter, name), count);
+            } else if (context.parametersInfo().isSelfCollection()) {
+                var name = context.parametersInfo().firstName();
+                addReactiveEmptyCheck(context, spec, name);
+                addReplaceOperations(context, spec, name);
+                addReactiveResult(
+                        context, spec, CodeBlock.of("this.reactiveCollection.bulkWrite(__bulkOperations)"), count);
+            } else {
+                var filter = createFilter(context.bySectionFactors());
+                var document = createUpdateDocument(context.parametersInfo().remaining());
+                addReactiveResult(
+                        context,
+                        spec,
+                        CodeBlock.of("this.reactiveCollection.updateMany($L, $L)", filter, document),
+                        count);
+            }
+        });
+    }
+
+    /**
+     * Returns false when the delete can't be done in a single operation, the sync driver is used in that case.
+     */
+    private boolean addReactiveDelete(QueryContext context, MethodSpec.Builder spec) {
+        CodeBlock count = null;
+        if (context.typeUtils().isType(Integer.class, context.returnType())) {
+            count = CodeBlock.of("($T) __result.getDeletedCount()", context.countableReturnType());
+        } else if (context.typeUtils().isType(Boolean.class, context.returnType())) {
+            count = CodeBlock.of("__result.getDeletedCount() > 0");
+        }
+
+        CodeBlock publisher;
+        CodeBlock mapping = count;
+        if (context.parametersInfo().isSelf()) {
+            var filter = createKeyFilter(context.parametersInfo().firstName());
+            if (count == null && context.returnInfo().isSelf()) {
+                publisher = CodeBlock.of("this.reactiveCollection.findOneAndDelete($L)", filter);
+            } else {
+                publisher = CodeBlock.of("this.reactiveCollection.deleteOne($L)", filter);
+            }
+        } else if (context.parametersInfo().isSelfCollection()) {
+            publisher = CodeBlock.of("this.reactiveCollection.bulkWrite(__bulkOperations)");
+        } else {
+            var filter = createDeleteFilter(context);
+            if (!context.hasProjection() && count != null) {
+                publisher = CodeBlock.of("this.reactiveCollection.deleteMany($L)", filter);
+            } else if (context.returnInfo().isSelf()) {
+                publisher = CodeBlock.of("this.reactiveCollection.findOneAndDelete($L)", filter);
+            } else if (context.returnInfo().isSelfCollection() || count != null) {
+                // find and delete has to happen in a transaction
+                return false;
+            } else {
+                publisher = CodeBlock.of("this.reactiveCollection.deleteMany($L)", filter);
+            }
+        }
+
+        wrapInReactive(spec, () -> {
+            if (context.parametersInfo().isSelfCollection()) {
+                var name = context.parametersInfo().firstName();
+                spec.beginControlFlow("if ($L.isEmpty())", name);
+                spec.addStatement("return $T.completedFuture($L)", CompletableFuture.class, emptyResult(context));
+                spec.endControlFlow();
+                addDeleteByKeysOperations(context, spec, name);
+            }
+            addReactiveResult(context, spec, publisher, mapping);
+        });
+        return true;
+    }
+
+    private void addReplaceOperations(QueryContext context, MethodSpec.Builder spec, CharSequence name) {
+        spec.addStatement(
+                "var __bulkOperations = new $T<$T<$T>>()", ArrayList.class, WriteModel.class, context.entityType());
+        spec.beginControlFlow("for (var __entry : $L)", name);
+        spec.addStatement(
+                "__bulkOperations.add(new $T<>($L, __entry))", ReplaceOneModel.class, createKeyFilter("__entry"));
+        spec.endControlFlow();
+    }
+
+    /**
+     * Entities are deleted by their keys in chunks, so that a deleteMany is sent per chunk instead of a delete per
+     * entity. A single key column is matched using $in, multiple key columns using an $or of the key filters.
+     */
+    private void addDeleteByKeysOperations(QueryContext context, MethodSpec.Builder spec, CharSequence name) {
+        var keyColumns = context.entityInfo().keyColumns();
+        CodeBlock addKey;
+        CodeBlock filter;
+        if (keyColumns.size() == 1) {
+            var key = keyColumns.get(0);
+            spec.addStatement(
+                    "var __keys = new $T<$T>()",
+                    ArrayList.class,
+                    context.typeUtils().toBoxedMirror(key.asType()));
+            addKey = CodeBlock.of("__keys.add(__entry.$L())", key.name());
+            filter = CodeBlock.of("$T.in($S, __keys)", Filters.class, key.name());
+        } else {
+            spec.addStatement("var __keys = new $T<$T>()", ArrayList.class, Bson.class);
+            addKey = CodeBlock.of("__keys.add($L)", createKeyFilter("__entry"));
+            filter = CodeBlock.of("$T.or(__keys)", Filters.class);
+        }
+
+        spec.addStatement(
+                "var __bulkOperations = new $T<$T<$T>>()", ArrayList.class, WriteModel.class, context.entityType());
+        spec.beginControlFlow("for (var __entry : $L)", name);
+        spec.addStatement(addKey);
+        spec.beginControlFlow("if (__keys.size() == $L)", MAX_DELETE_KEYS);
+        spec.addStatement("__bulkOperations.add(new $T<>($L))", DeleteManyModel.class, filter);
+        spec.addStatement("__keys = new $T<>()", ArrayList.class);
+        spec.endControlFlow();
+        spec.endControlFlow();
+        spec.beginControlFlow("if (!__keys.isEmpty())");
+        spec.addStatement("__bulkOperations.add(new $T<>($L))", DeleteManyModel.class, filter);
+        spec.endControlFlow();
+    }
+
+    private static String emptyResult(QueryContext context) {
+        if (context.typeUtils().isType(Boolean.class, context.returnType())) {
+            return "false";
+        }
+        if (context.typeUtils().isWholeNumberType(context.returnType())) {
+            return "0";
+        }
+        return context.returnInfo().async() ? "null" : "";
+    }
+
+    private void addReactiveEmptyCheck(QueryContext context, MethodSpec.Builder spec, CharSequence name) {
+        spec.beginControlFlow("if ($L.isEmpty())", name);
+        spec.addStatement(
+                "return $T.completedFuture($L)",
+                CompletableFuture.class,
+                context.typeUtils().isWholeNumberType(context.returnType()) ? "0" : "null");
+        spec.endControlFlow();
+    }
+
+    /**
+     * Returns the first item of the publisher. When a mapping is provided the item (named __result) is mapped using
+     * it, and if there is no mapping the item is replaced by null for methods returning Void.
+     */
+    private void addReactiveResult(
+            QueryContext context, MethodSpec.Builder spec, CodeBlock publisher, CodeBlock mapping) {
+        if (mapping != null) {
+            spec.addStatement(
+                    "return $T.first($L, __result -> $L)", PublisherFutures.class, publisher, mapping);
+        } else if (context.returnInfo().isVoid()) {
+            spec.addStatement("return $T.first($L, __result -> null)", PublisherFutures.class, publisher);
+        } else {
+            spec.addStatement("return $T.first($L)", PublisherFutures.class, publisher);
+        }
+    }
+
+    private void wrapInReactive(MethodSpec.Builder spec, Runnable content) {
+        spec.addStatement("this.database.requireNoBoundTransaction()");
+        content.run();
+        typeSpec.addMethod(spec.build());
+    }
+
+    private void wrapInTransaction(MethodSpec.Builder spec, boolean async, Runnable content) {
+        wrapInCompletableFuture(spec, async, () -> {
+            spec.beginControlFlow("try ($T __transaction = this.database.transaction())", MongoTransaction.class);
+            content.run();
+            spec.endControlFlow();
+        });
+    }
+
+    /**
+     * Filtering an entity by its key is shared by all methods through a single helper method.
+     */
+    private CodeBlock createKeyFilter(CharSequence entityName) {
+        usesKeyFilter = true;
+        return CodeBlock.of("keyFilter($L)", entityName);
+    }
+
     private CodeBlock createFilter(List<Factor> factors) {
         if (factors == null || factors.isEmpty()) {
             return CodeBlock.of("$T.empty()", Filters.class);
@@ -412,26 +995,9 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
     }
 
     private CodeBlock createProjection(QueryContext context, boolean needsCollection) {
-        var builder = CodeBlock.builder();
+        var builder = CodeBlock.builder().add(createLimits(context, needsCollection));
 
         if (context.projection() != null) {
-            for (var projection : context.projection().nonSpecialProjectionKeywords()) {
-                if (projection instanceof TopProjectionKeyword keyword) {
-                    builder.add(".limit($L)", keyword.limit());
-                    continue;
-                }
-                if (projection instanceof SkipProjectionKeyword keyword) {
-                    builder.add(".skip($L)", keyword.offset());
-                    continue;
-                }
-                // todo are there other situations I'm missing?
-                if (projection instanceof FirstProjectionKeyword && needsCollection) {
-                    builder.add(".limit(1)");
-                    continue;
-                }
-                throw new InvalidRepositoryException("Unsupported projection %s", projection.name());
-            }
-
             var columnName = context.projection().columnName();
             if (columnName != null) {
                 builder.add(".map($T::$L)", context.entityInfo().asType(), columnName);
@@ -448,6 +1014,42 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
         return builder.build();
     }
 
+    /**
+     * MongoDB only supports a time limit on reads, for which the query timeout of the database is used unless the
+     * method has its own timeout. A maxTime of zero means no limit.
+     */
+    private CodeBlock createMaxTime(QueryContext context) {
+        if (hasTimeout(context)) {
+            return CodeBlock.of(".maxTime($LL, $T.MILLISECONDS)", timeoutMillis(context), TimeUnit.class);
+        }
+        return CodeBlock.of(".maxTime(this.database.queryTimeoutMillis(), $T.MILLISECONDS)", TimeUnit.class);
+    }
+
+    private CodeBlock createLimits(QueryContext context, boolean needsCollection) {
+        var builder = CodeBlock.builder();
+        if (context.projection() == null) {
+            return builder.build();
+        }
+
+        for (var projection : context.projection().nonSpecialProjectionKeywords()) {
+            if (projection instanceof TopProjectionKeyword keyword) {
+                builder.add(".limit($L)", keyword.limit());
+                continue;
+            }
+            if (projection instanceof SkipProjectionKeyword keyword) {
+                builder.add(".skip($L)", keyword.offset());
+                continue;
+            }
+            // todo are there other situations I'm missing?
+            if (projection instanceof FirstProjectionKeyword && needsCollection) {
+                builder.add(".limit(1)");
+                continue;
+            }
+            throw new InvalidRepositoryException("Unsupported projection %s", projection.name());
+        }
+        return builder.build();
+    }
+
     private CodeBlock createSort(QueryContext context) {
         // todo orderBy shouldn't allow or, only and
         var orderBy = context.result().orderBySection();
@@ -509,14 +1111,75 @@ public class MongoRepositoryGenerator extends RepositoryGenerator {
 
     private CodeBlock createFindFilter(QueryContext context) {
         CodeBlock filter;
-        if (context.hasBySection()) {
+        if (context.isNative()) {
+            filter = createNativeFilter(context);
+        } else if (context.hasBySection()) {
             filter = createFilter(context.bySectionFactors());
         } else if (context.hasParameters()) {
             var name = context.parametersInfo().firstName();
-            filter = createFilter(context.entityInfo().keyColumnsAsFactors(AndFactor.INSTANCE, name));
+            filter = createKeyFilter(name);
         } else {
             filter = createFilter(null);
         }
         return filter;
     }
+
+    /**
+     * Deletes that don't delete the given entities only filter using the By section, or the native filter.
+     */
+    private CodeBlock createDeleteFilter(QueryContext context) {
+        return context.isNative() ? createNativeFilter(context) : createFilter(context.bySectionFactors());
+    }
+
+    /**
+     * The native filter is parsed when the repository is generated, and converted into the code that creates it as a
+     * Document. The parameter placeholders are replaced with the parameters of the method, which are encoded by the
+     * codec registry like the values of derived filters.
+     */
+    private CodeBlock createNativeFilter(QueryContext context) {
+        BsonDocument filter;
+        try {
+            filter = BsonDocument.parse(context.nativeQuery().mongo().query());
+        } catch (RuntimeException exception) {
+            throw new InvalidRepositoryException(
+                    "Native MongoDB query of %s isn't valid JSON: %s", context.methodName(), exception.getMessage());
+        }
+        return createNativeValue(context, filter);
+    }
+
+    private CodeBlock createNativeValue(QueryContext context, BsonValue value) {
+        if (value.isDocument()) {
+            var document = value.asDocument();
+            if (document.size() == 1 && document.containsKey(NativeQuery.PARAMETER_KEY)) {
+                return CodeBlock.of("$L", document.getString(NativeQuery.PARAMETER_KEY).getValue());
+            }
+
+            var builder = CodeBlock.builder().add("new $T()", Document.class);
+            document.forEach((key, entry) -> builder.add(".append($S, $L)", key, createNativeValue(context, entry)));
+            return builder.build();
+        }
+        if (value.isArray()) {
+            var elements = value.asArray().stream()
+                    .map(element -> createNativeValue(context, element))
+                    .collect(CodeBlock.joining(", "));
+            return CodeBlock.of("$T.asList($L)", Arrays.class, elements);
+        }
+
+        if (value.isString()) {
+            return CodeBlock.of("$S", value.asString().getValue());
+        } else if (value.isInt32()) {
+            return CodeBlock.of("$L", value.asInt32().getValue());
+        } else if (value.isInt64()) {
+            return CodeBlock.of("$LL", value.asInt64().getValue());
+        } else if (value.isDouble() && Double.isFinite(value.asDouble().getValue())) {
+            return CodeBlock.of("$Ld", value.asDouble().getValue());
+        } else if (value.isBoolean()) {
+            return CodeBlock.of("$L", value.asBoolean().getValue());
+        } else if (value.isNull()) {
+            return CodeBlock.of("null");
+        }
+        throw new InvalidRepositoryException(
+                "Native MongoDB query of %s has a value of type %s, which isn't supported. Use a parameter instead",
+                context.methodName(), value.getBsonType());
+    }
 }
@@ -40,7 +40,7 @@ public final class JdbcTypeMappingRegistry {
         return CONVERT_FORMAT.getOrDefault(typeName.toString(), "%s").formatted(formatted);
     }
 
-    public static String jdbcSetFor(Name typeName, String format, int index, CharSequence variableName) {
+    public static String jdbcSetFor(Name typeName, String format, Object index, CharSequence variableName) {
         // returns e.g.:
         // __result.setBytes(3, __d.encode(data))
         // __result.setInt(0, (char) data)
@@ -73,6 +73,16 @@ public class QueryBuilder {
         return this;
     }
 
+    public QueryBuilder addRawAfter(String after, String queryPart, String... format) {
+        var index = query.indexOf(after);
+        if (index == -1) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot add '%s' after '%s' as after is not present in '%s'", queryPart, after, query));
+        }
+        query.insert(index + after.length(), " " + queryPart.formatted((Object[]) format));
+        return this;
+    }
+
     /**
      * Optionally add before, if before is not found then {@link #addRaw(String, String...)} is called
      */
@@ -124,6 +134,14 @@ public class QueryBuilder {
         return this;
     }
 
+    /**
+     * Adds a column that is bound using the given parameter, which doesn't have to be a parameter of a By section.
+     */
+    public QueryBuilder addParameter(ColumnInfo info, CharSequence parameterName) {
+        columns.add(new QueryBuilderColumn(info, parameterName));
+        return this;
+    }
+
     public QueryBuilder addAll(List<ColumnInfo> columns) {
         columns.forEach(this::addColumn);
         return this;
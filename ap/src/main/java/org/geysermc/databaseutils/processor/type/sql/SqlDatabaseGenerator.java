@@ -12,6 +12,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collection;
 import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.geysermc.databaseutils.DatabaseCategory;
 import org.geysermc.databaseutils.processor.info.ColumnInfo;
 import org.geysermc.databaseutils.processor.info.EntityInfo;
@@ -23,8 +25,11 @@ import org.geysermc.databaseutils.sql.SqlDialect;
 import org.geysermc.databaseutils.sql.SqlTypeMappingRegistry;
 
 public class SqlDatabaseGenerator extends DatabaseGenerator {
-    public SqlDatabaseGenerator() {
+    private final Set<SqlDialect> dialects;
+
+    public SqlDatabaseGenerator(Set<SqlDialect> dialects) {
         super(DatabaseCategory.SQL);
+        this.dialects = dialects;
     }
 
     @Override
@@ -36,25 +41,58 @@ public class SqlDatabaseGenerator extends DatabaseGenerator {
     protected void addEntities(Collection<EntityInfo> entities, MethodSpec.Builder method) {
         method.addException(SQLException.class);
         method.addStatement("$T dialect = database.dialect()", SqlDialect.class);
+        if (dialects.size() < SqlDialect.values().length) {
+            // the repositories only contain the queries of these dialects
+            method.beginControlFlow(
+                    "if ($L)",
+                    dialects.stream()
+                            .map(dialect -> CodeBlock.of("dialect != $T.$L", SqlDialect.class, dialect))
+                            .collect(CodeBlock.joining(" && ")));
+            method.addStatement(
+                    "throw new $T($S + dialect)",
+                    IllegalStateException.class,
+                    "The repositories were generated for %s only, not for "
+                            .formatted(dialects.stream().map(SqlDialect::name).collect(Collectors.joining(", "))));
+            method.endControlFlow();
+        }
 
         method.beginControlFlow("try ($T connection = database.dataSource().getConnection())", Connection.class);
         method.beginControlFlow("try ($T statement = connection.createStatement())", Statement.class);
 
+        boolean sqlServer = dialects.contains(SqlDialect.SQL_SERVER);
+        boolean oracle = dialects.contains(SqlDialect.ORACLE_DATABASE);
+        boolean others = dialects.stream().anyMatch(dialect -> dialect != SqlDialect.SQL_SERVER);
         for (EntityInfo entity : entities) {
-            method.beginControlFlow("if (dialect == $T.$L)", SqlDialect.class, SqlDialect.SQL_SERVER);
-            method.addStatement(
-                    "statement.executeUpdate($S + $L + $S)",
-                    "IF OBJECT_ID(N'" + entity.name() + "', N'U') IS NULL BEGIN ",
-                    createEntityQuery(entity, false),
-                    " END");
-            method.nextControlFlow("else");
+            if (sqlServer) {
+                if (others) {
+                    method.beginControlFlow("if (dialect == $T.$L)", SqlDialect.class, SqlDialect.SQL_SERVER);
+                }
+                method.addStatement(
+                        "statement.executeUpdate($S + $L + $S)",
+                        "IF OBJECT_ID(N'" + entity.name() + "', N'U') IS NULL BEGIN ",
+                        createEntityQuery(entity, false),
+                        " END");
+                if (!others) {
+                    continue;
+                }
+                method.nextControlFlow("else");
+            }
 
             method.addStatement("statement.executeUpdate($L)", createEntityQuery(entity, true));
-            method.beginControlFlow("if (dialect == $T.$L)", SqlDialect.class, SqlDialect.ORACLE_DATABASE);
-            createRowTypes(entity, method);
-            method.endControlFlow();
+            if (oracle) {
+                boolean onlyOracle = dialects.size() - (sqlServer ? 1 : 0) == 1;
+                if (!onlyOracle) {
+                    method.beginControlFlow("if (dialect == $T.$L)", SqlDialect.class, SqlDialect.ORACLE_DATABASE);
+                }
+                createRowTypes(entity, method);
+                if (!onlyOracle) {
+                    method.endControlFlow();
+                }
+            }
 
-            method.endControlFlow();
+            if (sqlServer) {
+                method.endControlFlow();
+            }
         }
 
         method.endControlFlow();
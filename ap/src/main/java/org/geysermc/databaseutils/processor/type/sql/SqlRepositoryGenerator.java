@@ -8,6 +8,7 @@ package org.geysermc.databaseutils.processor.type.sql;
 import static org.geysermc.databaseutils.processor.type.sql.JdbcTypeMappingRegistry.jdbcGetFor;
 import static org.geysermc.databaseutils.processor.type.sql.JdbcTypeMappingRegistry.jdbcReadFor;
 import static org.geysermc.databaseutils.processor.type.sql.JdbcTypeMappingRegistry.jdbcSetFor;
+import static org.geysermc.databaseutils.processor.util.AnnotationUtils.hasAnnotation;
 import static org.geysermc.databaseutils.processor.util.CollectionUtils.mapAndJoin;
 import static org.geysermc.databaseutils.processor.util.StringUtils.repeat;
 
@@ -15,26 +16,32 @@ import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeSpec;
-import com.zaxxer.hikari.HikariDataSource;
 import java.sql.CallableStatement;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Struct;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
 import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
 import oracle.jdbc.OracleTypes;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.meta.ReadFromPrimary;
 import org.geysermc.databaseutils.processor.info.ColumnInfo;
 import org.geysermc.databaseutils.processor.info.EntityInfo;
+import org.geysermc.databaseutils.processor.query.NativeQuery;
 import org.geysermc.databaseutils.processor.query.QueryContext;
 import org.geysermc.databaseutils.processor.query.section.by.keyword.EqualsKeyword;
 import org.geysermc.databaseutils.processor.query.section.by.keyword.LessThanKeyword;
@@ -44,9 +51,14 @@ import org.geysermc.databaseutils.processor.query.section.factor.AndFactor;
 import org.geysermc.databaseutils.processor.query.section.factor.Factor;
 import org.geysermc.databaseutils.processor.query.section.factor.OrFactor;
 import org.geysermc.databaseutils.processor.query.section.factor.VariableByFactor;
+import org.geysermc.databaseutils.processor.query.section.factor.VariableOrderByFactor;
+import org.geysermc.databaseutils.processor.query.section.order.OrderDirection;
 import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.ProjectionKeywordCategory;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.AvgProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.FirstProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MaxProjectionKeyword;
+import org.geysermc.databaseutils.processor.query.section.projection.keyword.MinProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.SkipProjectionKeyword;
 import org.geysermc.databaseutils.processor.query.section.projection.keyword.TopProjectionKeyword;
 import org.geysermc.databaseutils.processor.type.RepositoryGenerator;
@@ -58,28 +70,40 @@ import org.geysermc.databaseutils.processor.util.InvalidRepositoryException;
 import org.geysermc.databaseutils.processor.util.TypeUtils;
 import org.geysermc.databaseutils.sql.FlexibleSqlInput;
 import org.geysermc.databaseutils.sql.SqlDialect;
+import org.geysermc.databaseutils.sql.SqlTransaction;
 
 public final class SqlRepositoryGenerator extends RepositoryGenerator {
     private static final int BATCH_SIZE = 500;
+    // SQL Server allows at most 2100 parameters and Oracle at most 1000 items in an in list
+    private static final int MAX_DELETE_PARAMETERS = 2000;
+    private static final int MAX_DELETE_KEYS = 1000;
+    private final Set<SqlDialect> dialects;
     private DialectClassManager dialectManager;
-
-    public SqlRepositoryGenerator() {
+    private boolean usesMapRow;
+    private boolean usesBindAll;
+    private boolean usesBindKey;
+
+    /**
+     * @param dialects the dialects to generate the queries for. When there is only one, the queries are added to the
+     *                 repository directly instead of being picked based on the dialect of the database
+     */
+    public SqlRepositoryGenerator(Set<SqlDialect> dialects) {
         super(DatabaseCategory.SQL);
+        this.dialects = dialects;
     }
 
     @Override
     public void init(TypeElement superType, EntityInfo entityInfo) {
         super.init(superType, entityInfo);
-        dialectManager = new DialectClassManager(typeSpec, className());
+        dialectManager = new DialectClassManager(typeSpec, className(), dialects);
     }
 
     @Override
     protected void onConstructorBuilder(MethodSpec.Builder builder) {
-        typeSpec.addField(HikariDataSource.class, "dataSource", Modifier.PRIVATE, Modifier.FINAL);
-        builder.addStatement("this.dataSource = database.dataSource()");
-
-        typeSpec.addField(SqlDialect.class, "dialect", Modifier.PRIVATE, Modifier.FINAL);
-        builder.addStatement("this.dialect = database.dialect()");
+        if (dialects.size() > 1) {
+            typeSpec.addField(SqlDialect.class, "dialect", Modifier.PRIVATE, Modifier.FINAL);
+            builder.addStatement("this.dialect = database.dialect()");
+        }
 
         dialectManager.onConstructorBuilder(builder);
     }
@@ -87,6 +111,7 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
     @Override
     public TypeSpec.Builder finish(Class<?> databaseClass) {
         super.finish(databaseClass);
+        addSharedHelpers();
         for (TypeSpec dialectImpl : dialectManager.finish()) {
             typeSpec.addType(dialectImpl);
         }
@@ -103,7 +128,14 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
         } else if (context.hasParameters()) {
             builder.add("where %s", this::createWhereForKeys);
         }
-        executeAndReturn(new DialectMethod(spec), context, builder);
+        addOrderBy(builder, context);
+
+        boolean read = readsFromReplica(context);
+        addForDialects(
+                context,
+                spec,
+                dialect -> addRowLimit(builder.copy(), context, dialect),
+                (method, query) -> executeAndReturn(method, context, query, read));
     }
 
     @Override
@@ -115,7 +147,12 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
             builder.add("where %s", this::createWhereForKeys);
         }
         var method = new DialectMethod(spec);
-        addExecuteQueryData(method, context, builder, () -> method.addStatement("return __result.next()"));
+        addExecuteQueryData(
+                method,
+                context,
+                builder,
+                readsFromReplica(context),
+                () -> method.addStatement("return __result.next()"));
     }
 
     @Override
@@ -157,9 +194,11 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
         // returning the deleted row(s) is not supported by: h2, mysql. Resulting in delete with a find subquery
 
         // order by is not supported by: oracledb, mssql, h2, sqlite (not enabled in xerial)
+        // it's only relevant in combination with a limit, so it is moved into the keyed subquery
+        // and on mssql a cte with 'top (x)' and 'order by' is deleted from instead
 
-        // limit is not supported by: sqlite (not enabled), oracledb
-        // limit needs to be "top x" on mssql, needs to be "fetch next x rows" for h2
+        // limit is not supported by: sqlite (not enabled), oracledb, postgresql. Resulting in a keyed subquery
+        // limit needs to be "top (x)" on mssql
 
         // truncate table is supported by all dialects but sqlite
         // https://docs.oracle.com/en/database/oracle/oracle-database/23/sqlrf/TRUNCATE-TABLE.html
@@ -174,42 +213,134 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
 
         // todo add something that can show you which permissions you need from the db
 
-        var query = new QueryBuilder(context).addRaw("delete from %s", context.tableName());
-        if (context.hasBySection()) {
-            query.add("where %s", this::createWhereForFactors);
-        } else if (context.hasParameters()) {
-            query.add("where %s", this::createWhereForKeys);
-        }
         // todo use 'truncate table' for dialects supporting it
 
-        if (context.hasProjection()) {
-            var limit = context.projection().limit();
-            if (limit != -1) {
-                // todo is top for mssql
-                query.addRaw("limit " + limit);
-            }
-        }
-
         boolean needsReturning =
                 !context.parametersInfo().isSelf() && context.returnInfo().isAnySelf();
+        if (!needsReturning && context.parametersInfo().isSelfCollection() && !context.hasBySection()) {
+            addDeleteByKeys(context, spec);
+            return;
+        }
         if (!needsReturning) {
-            addUpdateQueryData(new DialectMethod(spec), context, query);
+            addForDialects(
+                    context,
+                    spec,
+                    dialect -> createDeleteQuery(context, dialect),
+                    (method, query) -> addUpdateQueryData(method, context, query));
             return;
         }
 
-        var manager = dialectManager.create(context, spec);
+        dialectManager.create(context, spec, manager -> addDeleteReturning(context, manager));
+    }
+
+    @Override
+    public void addNativeQuery(QueryContext context, MethodSpec.Builder spec) {
+        var nativeQuery = context.nativeQuery();
+        if (!nativeQuery.hasSql()) {
+            super.addNativeQuery(context, spec);
+            return;
+        }
+
+        var action = context.result().actionName();
+        boolean read = readsFromReplica(context);
+        addForDialects(
+                context,
+                spec,
+                dialect -> createNativeQuery(context, nativeQuery.sqlFor(dialect)),
+                (method, query) -> {
+                    // dialects without a query of their own when there's no default query
+                    if (query.query().isEmpty()) {
+                        method.setThrow(IllegalStateException.class, "No native query is available for this dialect");
+                        if (method.shouldAdd()) {
+                            typeSpec.addMethod(method.build());
+                        }
+                    } else if (action.equals("find")) {
+                        executeAndReturn(method, context, query, read);
+                    } else if (action.equals("exists")) {
+                        addExecuteQueryData(
+                                method, context, query, read, () -> method.addStatement("return __result.next()"));
+                    } else {
+                        addUpdateQueryData(method, context, query);
+                    }
+                });
+    }
+
+    private QueryBuilder createNativeQuery(QueryContext context, NativeQuery.@Nullable Statement statement) {
+        var builder = new QueryBuilder(context);
+        if (statement == null) {
+            return builder;
+        }
+
+        builder.addRaw("%s", statement.query());
+        for (VariableElement parameter : statement.parameters()) {
+            builder.addParameter(nativeParameterColumn(context, parameter), parameter.getSimpleName());
+        }
+        return builder;
+    }
+
+    /**
+     * Returns the column that a parameter of a native query is bound as. A column with the same type is required for
+     * types that need a TypeCodec, since they're encoded using the codec of that column. For other types a column
+     * matching both name and type is preferred, otherwise the parameter is bound as-is.
+     */
+    private static ColumnInfo nativeParameterColumn(QueryContext context, VariableElement parameter) {
+        var typeUtils = context.typeUtils();
+        ColumnInfo sameType = null;
+        for (ColumnInfo column : context.columns()) {
+            if (!typeUtils.isType(column.asType(), parameter.asType())) {
+                continue;
+            }
+            if (column.name().contentEquals(parameter.getSimpleName())) {
+                return column;
+            }
+            if (sameType == null) {
+                sameType = column;
+            }
+        }
+        if (sameType != null) {
+            return sameType;
+        }
+
+        var kind = parameter.asType().getKind();
+        if (kind.isPrimitive() || kind == TypeKind.DECLARED) {
+            var type = typeUtils.toBoxedTypeElement(parameter.asType());
+            if (!TypeUtils.needsTypeCodec(type.getQualifiedName())) {
+                return new ColumnInfo(parameter.getSimpleName(), type, parameter);
+            }
+        }
+        throw new InvalidRepositoryException(
+                "Parameter %s of %s can't be bound, since there is no column of type %s to encode it with",
+                parameter.getSimpleName(), context.methodName(), parameter.asType());
+    }
+
+    private void addDeleteReturning(QueryContext context, DialectClassManager.CreateManager manager) {
         // for Postgres, SQLite and MariaDB
         manager.createDefault(builder -> {
             // todo if returning is needed and a projection column name is given, only request that specific column
-            executeAndReturn(builder, context, query.copy().addEndRaw("returning *"));
+            executeAndReturn(builder, context, createDeleteQuery(context, null).addEndRaw("returning *"), false);
         });
 
+        if (hasRowLimit(context)) {
+            // MariaDB doesn't support a limit in the subquery, but it does support delete with a limit
+            manager.create(SqlDialect.MARIADB, builder -> {
+                var query = createDeleteQuery(context, SqlDialect.MARIADB).addEndRaw("returning *");
+                executeAndReturn(builder, context, query, false);
+            });
+        }
+
         manager.create(SqlDialect.SQL_SERVER, builder -> {
             // https://learn.microsoft.com/en-us/sql/t-sql/queries/output-clause-transact-sql?view=sql-server-ver16
-            executeAndReturn(builder, context, query.copy().addRawBefore("where", "output deleted.*"));
+            var query = createDeleteQuery(context, SqlDialect.SQL_SERVER);
+            if (hasOrderedRowLimit(context)) {
+                query.addRaw("output deleted.*");
+            } else {
+                query.addRawBefore("where", "output deleted.*");
+            }
+            executeAndReturn(builder, context, query, false);
         });
 
         manager.create(SqlDialect.ORACLE_DATABASE, builder -> {
+            var query = createDeleteQuery(context, SqlDialect.ORACLE_DATABASE);
             boolean bulk = context.returnInfo().isCollection();
             String into = bulk ? "bulk collect into" : "into";
             var oracleDbSqlBuilder = query.copy()
@@ -217,7 +348,7 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
                             "returning %s_row(%s) %s ?",
                             context.tableName(), mapAndJoin(context.entityInfo().columns(), ColumnInfo::name), into);
 
-            addBySectionData(builder, context, oracleDbSqlBuilder, () -> {
+            addBySectionData(builder, context, oracleDbSqlBuilder, false, false, () -> {
                 int set = query.columns().size() + 1;
                 // has to be uppercase, in OracleDB everything is in caps by default.
                 // But for the out parameter type it's not automatically converted to caps.
@@ -247,18 +378,159 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
             // need to wrap it in a BEGIN END because otherwise jdbc expects a ResultSet
             builder.replaceBeginControlFlow(
                     Identifier.PREPARE_STATEMENT,
-                    "try ($T __statement = __connection.prepareCall($S))",
+                    "try ($T __statement = __transaction.prepareCall($S$L))",
                     CallableStatement.class,
-                    "BEGIN " + oracleDbSqlBuilder + "; END;");
+                    "BEGIN " + oracleDbSqlBuilder + "; END;",
+                    timeoutArgument(context));
         });
 
         manager.create(List.of(SqlDialect.H2, SqlDialect.MYSQL), builder -> {
             builder.setThrow(IllegalStateException.class, "This behaviour is not yet implemented!");
+            if (builder.shouldAdd()) {
+                typeSpec.addMethod(builder.build());
+            }
+        });
+    }
+
+    /**
+     * Deletes a collection of entities with a single statement per chunk of keys, instead of a batched statement per
+     * entity. Row value constructors are supported by every dialect except SQL Server, which gets a group per key.
+     */
+    private void addDeleteByKeys(QueryContext context, MethodSpec.Builder spec) {
+        var keyColumns = context.entityInfo().keyColumns();
+        var keys = mapAndJoin(keyColumns, ColumnInfo::name, ",");
+        if (keyColumns.size() == 1) {
+            var query = "delete from %s where %s in (%%s)".formatted(context.tableName(), keys);
+            addDeleteByKeysData(new DialectMethod(spec), context, query, "?", ",");
+            return;
+        }
+
+        dialectManager.create(context, spec, manager -> {
+            manager.createDefault(method -> {
+                var query = "delete from %s where (%s) in (%%s)".formatted(context.tableName(), keys);
+                var group = "(%s)".formatted(String.join(",", repeat("?", keyColumns.size())));
+                addDeleteByKeysData(method, context, query, group, ",");
+            });
+            manager.create(SqlDialect.SQL_SERVER, method -> {
+                var query = "delete from %s where %%s".formatted(context.tableName());
+                var group = "(%s)".formatted(mapAndJoin(keyColumns, column -> column.name() + "=?", " and "));
+                addDeleteByKeysData(method, context, query, group, " or ");
+            });
+        });
+    }
+
+    private void addDeleteByKeysData(
+            DialectMethod spec, QueryContext context, String query, String group, String delimiter) {
+        int keyCount = context.entityInfo().keyColumns().size();
+        int chunkSize = Math.min(MAX_DELETE_KEYS, MAX_DELETE_PARAMETERS / keyCount);
+        var entities = context.parametersInfo().firstName();
+        boolean needsUpdatedCount = context.typeUtils().isType(Integer.class, context.returnType())
+                || context.typeUtils().isType(Boolean.class, context.returnType());
+
+        wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
+            spec.beginControlFlow("try ($T __transaction = this.database.transaction())", SqlTransaction.class);
+            spec.addStatement("__transaction.begin()");
+            spec.beginControlFlow("try");
+            if (needsUpdatedCount) {
+                spec.addStatement("int __updateCount = 0");
+            }
+            spec.addStatement("var __iterator = $L.iterator()", entities);
+            spec.addStatement("int __remaining = $L.size()", entities);
+            spec.beginControlFlow("while (__remaining > 0)");
+            spec.addStatement("int __chunkSize = $T.min(__remaining, $L)", Math.class, chunkSize);
+            spec.addStatement("__remaining -= __chunkSize");
+            spec.beginControlFlow(
+                    "try ($T __statement = __transaction.prepareStatement($S.formatted($T.join($S, $T.nCopies(__chunkSize, $S)))$L))",
+                    PreparedStatement.class,
+                    query,
+                    String.class,
+                    delimiter,
+                    Collections.class,
+                    group,
+                    timeoutArgument(context));
+            usesBindKey = true;
+            spec.beginControlFlow(
+                    "for (int __index = 1; __index <= __chunkSize * $L; __index += $L)", keyCount, keyCount);
+            spec.addStatement("this.bindKey(__statement, __index, __iterator.next())");
+            spec.endControlFlow();
+            if (needsUpdatedCount) {
+                spec.addStatement("__updateCount += __statement.executeUpdate()");
+            } else {
+                spec.addStatement("__statement.executeUpdate()");
+            }
+            spec.endControlFlow();
+            spec.endControlFlow();
+            spec.addStatement("__transaction.commit()");
+
+            if (context.typeUtils().isType(Integer.class, context.returnType())) {
+                spec.addStatement("return __updateCount");
+            } else if (needsUpdatedCount) {
+                spec.addStatement("return __updateCount > 0");
+            } else {
+                spec.addStatement("return $L", context.returnInfo().async() ? "null" : "");
+            }
+            spec.nextControlFlow("catch ($T __exception)", SQLException.class);
+            spec.addStatement("__transaction.rollback()");
+            spec.addStatement("throw __exception");
+            spec.endControlFlow();
+
+            spec.nextControlFlow("catch ($T __exception)", SQLException.class);
+            spec.addStatement("throw new $T($S, __exception)", CompletionException.class, "Unexpected error occurred");
+            spec.endControlFlow();
         });
+
+        if (spec.shouldAdd()) {
+            typeSpec.addMethod(spec.build());
+        }
+    }
+
+    @Override
+    protected void addBatchFind(QueryContext context, ColumnInfo keyColumn, MethodSpec.Builder builder) {
+        var spec = new DialectMethod(builder);
+        spec.beginControlFlow(
+                "try ($T __transaction = this.database.$L())",
+                SqlTransaction.class,
+                transactionMethod(readsFromReplica(context)));
+        // the amount of placeholders depends on the amount of keys, which is limited by Coalesce#maxBatchSize
+        spec.beginControlFlow(
+                "try ($T __statement = __transaction.prepareStatement($S.formatted($T.join(\",\", $T.nCopies(__keys.size(), \"?\")))$L))",
+                PreparedStatement.class,
+                "select * from %s where %s in (%%s)".formatted(context.tableName(), keyColumn.name()),
+                String.class,
+                Collections.class,
+                timeoutArgument(context));
+
+        spec.addStatement("int __index = 0");
+        spec.beginControlFlow("for (var __key : __keys)");
+        CharSequence input = "__key";
+        if (TypeUtils.needsTypeCodec(keyColumn.typeName())) {
+            input = CodeBlock.of("this.__$L.encode($L)", keyColumn.name(), input).toString();
+        }
+        spec.addStatement(jdbcSetFor(keyColumn.typeName(), "__statement.%s", "++__index", input));
+        spec.endControlFlow();
+
+        spec.beginControlFlow("try ($T __result = __statement.executeQuery())", ResultSet.class);
+        spec.addStatement(
+                "$T<$T> __responses = new $T<>()", List.class, ClassName.get(context.entityType()), ArrayList.class);
+        spec.beginControlFlow("while (__result.next())");
+        spec.addStatement("__responses.add($L)", mapRow());
+        spec.endControlFlow();
+        spec.addStatement("return __responses");
+        spec.endControlFlow();
+
+        spec.endControlFlow();
+        spec.nextControlFlow("catch ($T __exception)", SQLException.class);
+        spec.addStatement("throw new $T($S, __exception)", CompletionException.class, "Unexpected error occurred");
+        spec.endControlFlow();
+        spec.build();
     }
 
-    private void executeAndReturn(DialectMethod spec, QueryContext context, QueryBuilder builder) {
-        addExecuteQueryData(spec, context, builder, () -> {
+    private void executeAndReturn(DialectMethod spec, QueryContext context, QueryBuilder builder, boolean read) {
+        if (context.hasProjection() && context.projection().summary() != null) {
+            addExecuteQueryData(spec, context, builder, read, () -> readSummaryResult(spec, context));
+            return;
+        }
+        addExecuteQueryData(spec, context, builder, read, () -> {
             readResultBase(
                     spec,
                     context,
@@ -271,10 +543,39 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
                             spec.endControlFlow();
                         }
                     },
-                    (column) -> jdbcGetFor(column.typeName(), "__result.%s", column.name()));
+                    (column) -> jdbcGetFor(column.typeName(), "__result.%s", column.name()),
+                    true);
         });
     }
 
+    /**
+     * An aggregate without a group by always results in exactly one row, which is read as the return type since it
+     * can differ from the column type (e.g. the sum of an int column as a long). Min and Max are null when nothing
+     * matches, which the JDBC getters of primitives would read as zero.
+     */
+    private void readSummaryResult(DialectMethod spec, QueryContext context) {
+        var typeUtils = context.typeUtils();
+        var returnType = typeUtils.toBoxedTypeElement(context.returnType()).getQualifiedName();
+        var columnName = context.projection().columnName();
+        var summary = context.projection().summary();
+
+        spec.addStatement("__result.next()");
+        if (summary instanceof AvgProjectionKeyword && typeUtils.isWholeNumberType(context.returnType())) {
+            var average = jdbcGetFor(typeUtils.elementFor(Double.class).getQualifiedName(), "__result.%s", columnName);
+            spec.addStatement("return ($L) $L", typeUtils.unboxType(context.returnType()), average);
+            return;
+        }
+        if (summary instanceof MinProjectionKeyword || summary instanceof MaxProjectionKeyword) {
+            spec.addStatement(
+                    "$T __value = $L",
+                    ClassName.get(typeUtils.toBoxedTypeElement(context.returnType())),
+                    jdbcGetFor(returnType, "__result.%s", columnName));
+            spec.addStatement("return __result.wasNull() ? null : __value");
+            return;
+        }
+        spec.addStatement("return $L", jdbcGetFor(returnType, "__result.%s", columnName));
+    }
+
     private void readStructResult(DialectMethod spec, QueryContext context) {
         readResultBase(
                 spec,
@@ -296,12 +597,19 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
                                 Struct.class);
                     }
                 },
-                column -> jdbcReadFor(column.typeName(), "__data.%s"));
+                column -> jdbcReadFor(column.typeName(), "__data.%s"),
+                false);
     }
 
     private void readResultBase(
-            DialectMethod spec, QueryContext context, Runnable initCode, Function<ColumnInfo, String> jdbcBaseFormat) {
-        if (context.returnInfo().isCollection()) {
+            DialectMethod spec,
+            QueryContext context,
+            Runnable initCode,
+            Function<ColumnInfo, String> jdbcBaseFormat,
+            boolean fromResultSet) {
+        if (context.returnInfo().isPrimitiveSequence()) {
+            spec.addStatement("var __responses = $L", createPrimitiveArrayBuilder(context));
+        } else if (context.returnInfo().isCollection()) {
             spec.addStatement(
                     "$T __responses = new $T<>()",
                     context.returnType(),
@@ -331,13 +639,43 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
                 block.add(")");
                 spec.addStatement(block.build());
                 spec.endControlFlow();
-                spec.addStatement("return __responses");
+                if (context.returnInfo().isPrimitiveSequence()) {
+                    spec.addStatement("return __responses.$L()", primitiveArrayBuilderResult(context));
+                } else {
+                    spec.addStatement("return __responses");
+                }
             } else {
                 spec.addStatement(block.build());
             }
             return;
         }
 
+        var prefix = context.returnInfo().isCollection() ? "__responses.add(" : "return ";
+        var suffix = context.returnInfo().isCollection() ? ")" : "";
+        if (context.hasDto()) {
+            var values = new ArrayList<CodeBlock>();
+            for (ColumnInfo column : context.dto().columns()) {
+                var format = jdbcBaseFormat.apply(column);
+                if (TypeUtils.needsTypeCodec(column.typeName())) {
+                    format = "this.__%s.decode(%s)".formatted(column.name(), format);
+                }
+                values.add(CodeBlock.of("$L", format));
+            }
+            spec.addStatement("$L$L$L", prefix, createDto(context, values), suffix);
+        } else if (fromResultSet) {
+            spec.addStatement("$L$L$L", prefix, mapRow(), suffix);
+        } else {
+            var arguments = readColumns(spec, context, jdbcBaseFormat);
+            spec.addStatement("$Lnew $T($L)$L", prefix, ClassName.get(context.entityType()), arguments, suffix);
+        }
+
+        if (context.returnInfo().isCollection()) {
+            spec.endControlFlow();
+            spec.addStatement("return __responses");
+        }
+    }
+
+    private String readColumns(DialectMethod spec, QueryContext context, Function<ColumnInfo, String> jdbcBaseFormat) {
         var arguments = new ArrayList<String>();
         for (ColumnInfo column : context.columns()) {
             var format = jdbcBaseFormat.apply(column);
@@ -348,19 +686,12 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
             spec.addStatement("$T _$L = $L", column.asType(), column.name(), format);
             arguments.add("_" + column.name());
         }
-
-        if (context.returnInfo().isCollection()) {
-            spec.addStatement(
-                    "__responses.add(new $T($L))", ClassName.get(context.entityType()), String.join(", ", arguments));
-            spec.endControlFlow();
-            spec.addStatement("return __responses");
-        } else {
-            spec.addStatement("return new $T($L)", ClassName.get(context.entityType()), String.join(", ", arguments));
-        }
+        return String.join(", ", arguments);
     }
 
-    private void addExecuteQueryData(DialectMethod spec, QueryContext context, QueryBuilder builder, Runnable content) {
-        addBySectionData(spec, context, builder, () -> {
+    private void addExecuteQueryData(
+            DialectMethod spec, QueryContext context, QueryBuilder builder, boolean read, Runnable content) {
+        addBySectionData(spec, context, builder, false, read, () -> {
             spec.beginControlFlow("try ($T __result = __statement.executeQuery())", ResultSet.class);
             content.run();
             spec.endControlFlow();
@@ -368,17 +699,25 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
     }
 
     private void addUpdateQueryData(DialectMethod spec, QueryContext context, QueryBuilder builder) {
-        addBySectionData(spec, context, builder, () -> {
-            if (!context.parametersInfo().isSelfCollection()) {
+        boolean needsUpdatedCount = context.typeUtils().isType(Integer.class, context.returnType())
+                || context.typeUtils().isType(Boolean.class, context.returnType());
+        // writes without a result can be queued and sent as a batch when they're part of a transaction,
+        // but the batch is shared with other methods so a method with its own timeout isn't queued
+        boolean queue = !context.parametersInfo().isSelfCollection() && !needsUpdatedCount && !hasTimeout(context);
+
+        addBySectionData(spec, context, builder, queue, false, () -> {
+            if (queue) {
+                spec.addStatement("__statement.addBatch()");
+            } else if (!context.parametersInfo().isSelfCollection()) {
                 if (context.typeUtils().isType(Integer.class, context.returnType())) {
                     spec.addStatement("return __statement.executeUpdate()");
                     return;
-                } else if (context.typeUtils().isType(Boolean.class, context.returnType())) {
+                } else if (needsUpdatedCount) {
                     spec.addStatement("return __statement.executeUpdate() > 0");
                     return;
-                } else {
-                    spec.addStatement("__statement.executeUpdate()");
                 }
+                // only writes with a timeout that don't need the updated count end up here
+                spec.addStatement("__statement.executeUpdate()");
             }
 
             if (context.typeUtils().isType(Void.class, context.returnType())) {
@@ -401,19 +740,31 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
         });
     }
 
-    private void addBySectionData(DialectMethod spec, QueryContext context, QueryBuilder builder, Runnable execute) {
+    private void addBySectionData(
+            DialectMethod spec,
+            QueryContext context,
+            QueryBuilder builder,
+            boolean queue,
+            boolean read,
+            Runnable execute) {
         wrapInCompletableFuture(spec, context.returnInfo().async(), () -> {
-            spec.beginControlFlow("try ($T __connection = this.dataSource.getConnection())", Connection.class);
+            spec.beginControlFlow(
+                    "try ($T __transaction = this.database.$L())", SqlTransaction.class, transactionMethod(read));
 
-            if (context.parametersInfo().isSelfCollection()) {
-                spec.addStatement("__connection.setAutoCommit(false)");
-            }
+            if (queue) {
+                spec.addStatement("$T __statement = __transaction.batch($S)", PreparedStatement.class, builder.query());
+            } else {
+                if (context.parametersInfo().isSelfCollection()) {
+                    spec.addStatement("__transaction.begin()");
+                }
 
-            spec.beginControlFlow(
-                    Identifier.PREPARE_STATEMENT,
-                    "try ($T __statement = __connection.prepareStatement($S))",
-                    PreparedStatement.class,
-                    builder.query());
+                spec.beginControlFlow(
+                        Identifier.PREPARE_STATEMENT,
+                        "try ($T __statement = __transaction.prepareStatement($S$L))",
+                        PreparedStatement.class,
+                        builder.query(),
+                        timeoutArgument(context));
+            }
 
             CharSequence parameterName = "";
             if (context.hasParameters()) {
@@ -432,21 +783,35 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
                 parameterName = "__element";
             }
 
-            int variableIndex = 0;
-            for (QueryBuilderColumn column : builder.columns()) {
+            var columns = builder.columns();
+            for (int i = 0; i < columns.size(); i++) {
+                var column = columns.get(i);
                 var columnInfo = column.info();
+                // jdbc index starts at 1
+                int variableIndex = i + 1;
+
+                if (column.parameterName() == null) {
+                    // every column of the entity, or every key column, is bound using the shared helpers
+                    if (isEntityRun(columns, i, entityInfo.columns())) {
+                        usesBindAll = true;
+                        spec.addStatement("this.bindAll(__statement, $L, $L)", variableIndex, parameterName);
+                        i += entityInfo.columns().size() - 1;
+                        continue;
+                    }
+                    if (isEntityRun(columns, i, entityInfo.keyColumns())) {
+                        usesBindKey = true;
+                        spec.addStatement("this.bindKey(__statement, $L, $L)", variableIndex, parameterName);
+                        i += entityInfo.keyColumns().size() - 1;
+                        continue;
+                    }
+                }
 
                 CharSequence input = "%s.%s()".formatted(parameterName, columnInfo.name());
                 if (column.parameterName() != null) {
                     input = column.parameterName();
                 }
-
-                if (TypeUtils.needsTypeCodec(columnInfo.typeName())) {
-                    input = CodeBlock.of("this.__$L.encode($L)", columnInfo.name(), input)
-                            .toString();
-                }
-                // jdbc index starts at 1
-                spec.addStatement(jdbcSetFor(columnInfo.typeName(), "__statement.%s", ++variableIndex, input));
+                spec.addStatement(jdbcSetFor(
+                        columnInfo.typeName(), "__statement.%s", variableIndex, encode(columnInfo, input)));
             }
 
             if (context.parametersInfo().isSelfCollection()) {
@@ -459,17 +824,19 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
                 spec.endControlFlow();
 
                 executeBatchAndUpdateUpdateCount(spec, needsUpdatedCount);
-                spec.addStatement("__connection.commit()");
+                spec.addStatement("__transaction.commit()");
             }
 
             execute.run();
 
-            if (context.parametersInfo().isSelfCollection()) {
-                spec.nextControlFlow("catch ($T __exception)", SQLException.class);
-                spec.addStatement("__connection.rollback()");
-                spec.addStatement("throw __exception");
+            if (!queue) {
+                if (context.parametersInfo().isSelfCollection()) {
+                    spec.nextControlFlow("catch ($T __exception)", SQLException.class);
+                    spec.addStatement("__transaction.rollback()");
+                    spec.addStatement("throw __exception");
+                }
+                spec.endControlFlow();
             }
-            spec.endControlFlow();
 
             spec.nextControlFlow("catch ($T __exception)", SQLException.class);
             spec.addStatement("throw new $T($S, __exception)", CompletionException.class, "Unexpected error occurred");
@@ -482,6 +849,97 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
         }
     }
 
+    private static boolean isEntityRun(List<QueryBuilderColumn> columns, int start, List<ColumnInfo> entityColumns) {
+        if (columns.size() - start < entityColumns.size()) {
+            return false;
+        }
+        for (int i = 0; i < entityColumns.size(); i++) {
+            var column = columns.get(start + i);
+            if (column.parameterName() != null || !column.info().equals(entityColumns.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String mapRow() {
+        usesMapRow = true;
+        return "this.mapRow(__result)";
+    }
+
+    private static CharSequence encode(ColumnInfo column, CharSequence input) {
+        if (TypeUtils.needsTypeCodec(column.typeName())) {
+            return CodeBlock.of("this.__$L.encode($L)", column.name(), input).toString();
+        }
+        return input;
+    }
+
+    /**
+     * Adds the row mapper and the binders that the methods share, instead of every method having its own copy.
+     */
+    private void addSharedHelpers() {
+        var entityType = ClassName.get(entityInfo.type());
+        if (usesMapRow) {
+            var method = MethodSpec.methodBuilder("mapRow")
+                    .addModifiers(Modifier.PRIVATE)
+                    .returns(entityType)
+                    .addParameter(ResultSet.class, "__result")
+                    .addException(SQLException.class);
+
+            var arguments = new ArrayList<String>();
+            for (ColumnInfo column : entityInfo.columns()) {
+                var format = jdbcGetFor(column.typeName(), "__result.%s", column.name());
+                if (TypeUtils.needsTypeCodec(column.typeName())) {
+                    format = "this.__%s.decode(%s)".formatted(column.name(), format);
+                }
+                method.addStatement("$T _$L = $L", column.asType(), column.name(), format);
+                arguments.add("_" + column.name());
+            }
+            method.addStatement("return new $T($L)", entityType, String.join(", ", arguments));
+            typeSpec.addMethod(method.build());
+        }
+        if (usesBindAll) {
+            typeSpec.addMethod(createBinder("bindAll", entityInfo.columns()));
+        }
+        if (usesBindKey) {
+            typeSpec.addMethod(createBinder("bindKey", entityInfo.keyColumns()));
+        }
+    }
+
+    private MethodSpec createBinder(String name, List<ColumnInfo> columns) {
+        var method = MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(PreparedStatement.class, "__statement")
+                .addParameter(int.class, "__index")
+                .addParameter(ClassName.get(entityInfo.type()), "__entity")
+                .addException(SQLException.class);
+        for (int i = 0; i < columns.size(); i++) {
+            var column = columns.get(i);
+            var index = i == 0 ? "__index" : "__index + " + i;
+            var input = encode(column, "__entity.%s()".formatted(column.name()));
+            method.addStatement(jdbcSetFor(column.typeName(), "__statement.%s", index, input));
+        }
+        return method.build();
+    }
+
+    /**
+     * Reads go to a read replica (if there are any), unless the method requires read-your-writes.
+     */
+    private static boolean readsFromReplica(QueryContext context) {
+        return !hasAnnotation(context.method(), ReadFromPrimary.class);
+    }
+
+    /**
+     * The argument that overrides the query timeout of the database for the statement, if the method has a timeout.
+     */
+    private static String timeoutArgument(QueryContext context) {
+        return hasTimeout(context) ? ", %sL".formatted(timeoutMillis(context)) : "";
+    }
+
+    private static String transactionMethod(boolean read) {
+        return read ? "readTransaction" : "transaction";
+    }
+
     private void executeBatchAndUpdateUpdateCount(DialectMethod spec, boolean needsUpdatedCount) {
         if (!needsUpdatedCount) {
             spec.addStatement("__statement.executeBatch()");
@@ -503,11 +961,11 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
         hasAsync |= async;
 
         if (async) {
-            builder.beginControlFlow("return $T.supplyAsync(() ->", CompletableFuture.class);
+            builder.beginControlFlow("return this.database.supplyAsync(() ->");
         }
         content.run();
         if (async) {
-            builder.endControlFlow(", this.database.executorService())");
+            builder.endControlFlow(")");
         }
     }
 
@@ -577,36 +1035,192 @@ public final class SqlRepositoryGenerator extends RepositoryGenerator {
         return builder.toString();
     }
 
+    private static boolean hasRowLimit(QueryContext context) {
+        return context.hasProjection() && context.projection().limit() != -1;
+    }
+
+    private static boolean hasOrderedRowLimit(QueryContext context) {
+        return hasRowLimit(context) && context.result().orderBySection() != null;
+    }
+
+    private static void addOrderBy(QueryBuilder query, QueryContext context) {
+        if (context.result().orderBySection() != null) {
+            query.addRaw(createOrderBy(context));
+        }
+    }
+
+    private static String createOrderBy(QueryContext context) {
+        // todo orderBy shouldn't allow or, only and
+        var columns = new ArrayList<String>();
+        for (Factor factor : context.result().orderBySection().factors()) {
+            if (factor instanceof VariableOrderByFactor variable) {
+                var direction = variable.direction() == OrderDirection.DESCENDING ? "desc" : "asc";
+                columns.add(variable.columnName() + " " + direction);
+            }
+        }
+        return "order by " + String.join(",", columns);
+    }
+
+    /**
+     * Adds the Top, First and Skip projections using the row limiting syntax of the dialect.
+     * A null dialect is the default implementation, which uses limit and offset.
+     */
+    private QueryBuilder addRowLimit(QueryBuilder query, QueryContext context, @Nullable SqlDialect dialect) {
+        int limit = context.hasProjection() ? context.projection().limit() : -1;
+        int offset = context.hasProjection() ? context.projection().offset() : 0;
+        if (limit == -1 && offset == 0) {
+            return query;
+        }
+
+        if (dialect == SqlDialect.SQL_SERVER || dialect == SqlDialect.ORACLE_DATABASE) {
+            if (dialect == SqlDialect.SQL_SERVER) {
+                if (offset == 0) {
+                    var distinct = context.projection().distinct();
+                    return query.addRawAfter(distinct ? "select distinct" : "select", "top %s", String.valueOf(limit));
+                }
+                if (context.result().orderBySection() == null) {
+                    // offset fetch requires an order by
+                    query.addRaw("order by (select null)");
+                }
+            }
+            if (offset != 0) {
+                query.addRaw("offset %s rows", String.valueOf(offset));
+            }
+            if (limit != -1) {
+                query.addRaw("fetch %s %s rows only", offset != 0 ? "next" : "first", String.valueOf(limit));
+            }
+            return query;
+        }
+
+        if (limit != -1) {
+            query.addRaw("limit %s", String.valueOf(limit));
+        } else if (dialect == SqlDialect.SQLITE) {
+            // an offset is only allowed after a limit, where a negative limit means no limit
+            query.addRaw("limit -1");
+        } else if (dialect == SqlDialect.MYSQL || dialect == SqlDialect.MARIADB) {
+            // an offset is only allowed after a limit, this is the documented way to have no limit
+            query.addRaw("limit 18446744073709551615");
+        }
+        if (offset != 0) {
+            query.addRaw("offset %s", String.valueOf(offset));
+        }
+        return query;
+    }
+
+    private QueryBuilder createDeleteQuery(QueryContext context, @Nullable SqlDialect dialect) {
+        int limit = context.hasProjection() ? context.projection().limit() : -1;
+        var tableName = context.tableName();
+        boolean ordered = hasOrderedRowLimit(context);
+
+        QueryBuilder query;
+        if (limit == -1 || dialect == SqlDialect.MYSQL || dialect == SqlDialect.MARIADB) {
+            query = new QueryBuilder(context).addRaw("delete from %s", tableName);
+        } else if (dialect == SqlDialect.SQL_SERVER && ordered) {
+            // delete top (x) doesn't support an order by, but deleting from an ordered cte does
+            query = new QueryBuilder(context)
+                    .addRaw("with __rows as (select top (%s) * from %s", String.valueOf(limit), tableName);
+        } else if (dialect == SqlDialect.SQL_SERVER) {
+            query = new QueryBuilder(context).addRaw("delete top (%s) from %s", String.valueOf(limit), tableName);
+        } else {
+            // the other dialects don't support a limit in delete, so the rows are selected by key in a subquery
+            var keyColumns = context.entityInfo().keyColumns();
+            var keys = mapAndJoin(keyColumns, ColumnInfo::name, ",");
+            query = new QueryBuilder(context)
+                    .addRaw(
+                            "delete from %s where %s in (select %s from %s",
+                            tableName,
+                            keyColumns.size() == 1 ? keys : "(" + keys + ")",
+                            keys,
+                            tableName);
+        }
+
+        if (context.hasBySection()) {
+            query.add("where %s", this::createWhereForFactors);
+        } else if (context.hasParameters()) {
+            query.add("where %s", this::createWhereForKeys);
+        }
+
+        if (limit == -1) {
+            return query;
+        }
+        if (dialect == SqlDialect.SQL_SERVER) {
+            return ordered ? query.addRaw("%s) delete from __rows", createOrderBy(context)) : query;
+        }
+        addOrderBy(query, context);
+        if (dialect == SqlDialect.MYSQL || dialect == SqlDialect.MARIADB) {
+            return query.addRaw("limit %s", String.valueOf(limit));
+        }
+        if (dialect == SqlDialect.ORACLE_DATABASE) {
+            return query.addRaw("fetch first %s rows only)", String.valueOf(limit));
+        }
+        return query.addRaw("limit %s)", String.valueOf(limit));
+    }
+
+    /**
+     * Adds the method using the query of the default implementation. When the query differs for some dialects, the
+     * method is split into dialect specific implementations instead, where dialects with the same query share one.
+     */
+    private void addForDialects(
+            QueryContext context,
+            MethodSpec.Builder spec,
+            Function<@Nullable SqlDialect, QueryBuilder> queryFor,
+            BiConsumer<DialectMethod, QueryBuilder> content) {
+        var defaultQuery = queryFor.apply(null);
+
+        var queries = new LinkedHashMap<String, QueryBuilder>();
+        var dialectsByQuery = new LinkedHashMap<String, List<SqlDialect>>();
+        for (SqlDialect dialect : dialects) {
+            var query = queryFor.apply(dialect);
+            if (query.query().equals(defaultQuery.query())) {
+                continue;
+            }
+            queries.putIfAbsent(query.query(), query);
+            dialectsByQuery.computeIfAbsent(query.query(), k -> new ArrayList<>()).add(dialect);
+        }
+
+        if (dialectsByQuery.isEmpty()) {
+            content.accept(new DialectMethod(spec), defaultQuery);
+            return;
+        }
+
+        dialectManager.create(context, spec, manager -> {
+            manager.createDefault(method -> content.accept(method, defaultQuery));
+            dialectsByQuery.forEach((query, queryDialects) ->
+                    manager.create(queryDialects, method -> content.accept(method, queries.get(query))));
+        });
+    }
+
     private String createProjectionFor(QueryContext context, QueryBuilder builder) {
+        // a DTO only needs its own columns
+        var all = context.hasDto()
+                ? context.dto().columns().stream()
+                        .map(column -> column.name().toString())
+                        .collect(Collectors.joining(", "))
+                : "*";
+
         var section = context.result().projection();
         if (section == null) {
-            return "*";
+            return all;
         }
         var distinct = section.distinct();
         var columnName = section.columnName();
 
-        var result = columnName != null ? columnName : "*";
+        var result = columnName != null ? columnName : all;
         if (distinct) {
             result = "distinct " + result;
         }
 
         for (ProjectionKeyword projection : section.nonSpecialProjectionKeywords()) {
-            if (projection instanceof AvgProjectionKeyword) {
-                if (!context.typeUtils().isWholeNumberType(context.returnType())) {
-                    result = "avg(%s)".formatted(result);
-                }
-                continue;
-            }
-            if (projection instanceof TopProjectionKeyword keyword) {
-                builder.addEndRaw("limit " + keyword.limit());
-                continue;
-            }
-            if (projection instanceof FirstProjectionKeyword) {
-                builder.addEndRaw("limit 1");
+            if (projection.category() == ProjectionKeywordCategory.SUMMARY) {
+                // the alias makes the result readable by column name on every dialect
+                var function = projection.name().toLowerCase(Locale.ROOT);
+                result = "%s(%s) as %s".formatted(function, result, columnName);
                 continue;
             }
-            if (projection instanceof SkipProjectionKeyword keyword) {
-                builder.addEndRaw("offset " + keyword.offset());
+            if (projection instanceof TopProjectionKeyword
+                    || projection instanceof FirstProjectionKeyword
+                    || projection instanceof SkipProjectionKeyword) {
+                // row limiting depends on the dialect, see addRowLimit
                 continue;
             }
             throw new InvalidRepositoryException("Unsupported projection %s", projection.name());
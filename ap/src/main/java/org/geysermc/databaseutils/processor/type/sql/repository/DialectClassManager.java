@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import javax.lang.model.element.Modifier;
@@ -28,20 +29,41 @@ import javax.lang.model.type.TypeVariable;
 import org.geysermc.databaseutils.processor.query.QueryContext;
 import org.geysermc.databaseutils.sql.SqlDialect;
 
+/**
+ * Splits methods of which the implementation differs per dialect into a class per dialect, of which the right one is
+ * picked when the repository is created. Only the targeted dialects get an implementation, and when only one
+ * implementation remains it's added to the repository directly instead.
+ */
 public class DialectClassManager {
     private final List<CreateManager> managers = new ArrayList<>();
     private final TypeSpec.Builder typeSpec;
     private final String className;
+    private final Set<SqlDialect> dialects;
 
     private Map<SqlDialect, TypeSpec> cachedFinish;
     private List<TypeSpec> cachedTypes;
 
-    public DialectClassManager(TypeSpec.Builder typeSpec, String className) {
+    public DialectClassManager(TypeSpec.Builder typeSpec, String className, Set<SqlDialect> dialects) {
         this.typeSpec = typeSpec;
         this.className = className;
+        this.dialects = dialects;
     }
 
-    public CreateManager create(QueryContext context, MethodSpec.Builder builder) {
+    /**
+     * Adds the method, of which the implementations are provided by the given consumer.
+     */
+    public void create(QueryContext context, MethodSpec.Builder builder, Consumer<CreateManager> implementations) {
+        var manager = new CreateManager(context, className, dialects);
+        implementations.accept(manager);
+        manager.validate();
+
+        var direct = manager.directImplementation();
+        if (direct != null) {
+            // the implementation is expected to add the method itself, like methods that don't differ per dialect
+            direct.accept(new DialectMethod(builder));
+            return;
+        }
+
         if (context.returnInfo().isVoid()) {
             builder.addStatement(
                     "this.dialectSpecific.$L($L)",
@@ -55,9 +77,8 @@ public class DialectClassManager {
         }
         typeSpec.addMethod(builder.build());
 
-        var manager = new CreateManager(context, className);
+        manager.build();
         managers.add(manager);
-        return manager;
     }
 
     public void onConstructorBuilder(MethodSpec.Builder builder) {
@@ -92,7 +113,6 @@ public class DialectClassManager {
 
         var createdSpecs = new LinkedHashMap<SqlDialect, TypeSpec.Builder>();
         for (CreateManager manager : managers) {
-            manager.validate();
             manager.createdMethods.forEach((dialect, value) -> {
                 var type = createdSpecs.computeIfAbsent(dialect, k -> {
                     var dialectName = dialect == null ? "Common" : screamingSnakeCaseToPascalCase(dialect.name());
@@ -121,15 +141,19 @@ public class DialectClassManager {
     public static final class CreateManager {
         private final QueryContext context;
         private final String className;
+        private final Set<SqlDialect> targets;
+        private final List<Implementation> implementations = new ArrayList<>();
         private final Map<SqlDialect, MethodSpec> createdMethods = new LinkedHashMap<>();
+        private Consumer<DialectMethod> defaultImplementation;
 
-        private CreateManager(QueryContext context, String className) {
+        private CreateManager(QueryContext context, String className, Set<SqlDialect> targets) {
             this.context = context;
             this.className = className;
+            this.targets = targets;
         }
 
         public void createDefault(Consumer<DialectMethod> consumer) {
-            create((SqlDialect) null, consumer);
+            defaultImplementation = consumer;
         }
 
         public void create(SqlDialect dialect, Consumer<DialectMethod> consumer) {
@@ -137,6 +161,33 @@ public class DialectClassManager {
         }
 
         public void create(List<SqlDialect> dialects, Consumer<DialectMethod> consumer) {
+            var targeted = dialects.stream().filter(targets::contains).toList();
+            if (!targeted.isEmpty()) {
+                implementations.add(new Implementation(targeted, consumer));
+            }
+        }
+
+        /**
+         * Returns the only implementation that is relevant for the targeted dialects, or null if the implementation
+         * has to be picked when the repository is created.
+         */
+        private Consumer<DialectMethod> directImplementation() {
+            if (implementations.isEmpty()) {
+                return defaultImplementation;
+            }
+            if (targets.size() == 1) {
+                // the only dialect either has a specific implementation or uses the default one
+                return implementations.get(0).consumer();
+            }
+            return null;
+        }
+
+        private void build() {
+            build(Collections.singletonList(null), defaultImplementation);
+            implementations.forEach(implementation -> build(implementation.dialects(), implementation.consumer()));
+        }
+
+        private void build(List<SqlDialect> dialects, Consumer<DialectMethod> consumer) {
             var methodBuilder = MethodSpec.methodBuilder(context.methodName().toString());
             // MethodSpec#overriding with a few tweaks
             var method = context.method();
@@ -162,10 +213,12 @@ public class DialectClassManager {
             }
         }
 
-        public void validate() {
-            if (createdMethods.get(null) == null) {
+        private void validate() {
+            if (defaultImplementation == null) {
                 throw new IllegalStateException("No base implementation found!");
             }
         }
+
+        private record Implementation(List<SqlDialect> dialects, Consumer<DialectMethod> consumer) {}
     }
 }
@@ -141,6 +141,19 @@ public record TypeUtils(Types typeUtils, Elements elementUtils) {
                 || isType(Long.class, mirror);
     }
 
+    /**
+     * Whether every database compares values of this column type the same way as Java's equals. Strings aren't, since
+     * MySQL and MariaDB for example compare them case-insensitively and ignore trailing spaces by default, and neither
+     * are floating point numbers. Types that need a TypeCodec are stored as bytes, which are compared exactly.
+     */
+    public boolean hasExactEquality(TypeMirror mirror) {
+        return !isType(String.class, mirror) && !isType(Float.class, mirror) && !isType(Double.class, mirror);
+    }
+
+    public boolean isNumberType(TypeMirror mirror) {
+        return isWholeNumberType(mirror) || isType(Float.class, mirror) || isType(Double.class, mirror);
+    }
+
     public TypeMirror unboxType(TypeMirror mirror) {
         if (mirror instanceof PrimitiveType) {
             return mirror;
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+import com.google.testing.compile.JavaFileObjects;
+import org.geysermc.databaseutils.processor.ProcessorOptions;
+import org.geysermc.databaseutils.processor.RepositoryProcessor;
+import org.junit.jupiter.api.Test;
+
+class IndexCoverageTest {
+    private static final String REPOSITORY = "test/coverage/CoverageRepository.java";
+
+    @Test
+    void uncoveredQueriesWarn() {
+        var compilation =
+                javac().withProcessors(new RepositoryProcessor()).compile(JavaFileObjects.forResource(REPOSITORY));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadWarningContaining("findByB isn't covered by an index");
+        assertThat(compilation).hadWarningContaining("@Index(columns = {\"b\"})");
+        assertThat(compilation).hadWarningContaining("findByAOrD isn't covered by an index");
+        assertThat(compilation).hadWarningContaining("findByAOrderByC isn't covered by an index");
+        assertThat(compilation).hadWarningContaining("@Index(columns = {\"a\", \"c\"})");
+        assertThat(compilation).hadWarningContaining("findByCOrderByB isn't covered by an index");
+    }
+
+    @Test
+    void uncoveredQueriesFailWhenStrict() {
+        var compilation = javac().withProcessors(new RepositoryProcessor())
+                .withOptions("-A" + ProcessorOptions.STRICT_INDEX_COVERAGE + "=true")
+                .compile(JavaFileObjects.forResource(REPOSITORY));
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorCount(4);
+        assertThat(compilation).hadErrorContaining("findByB isn't covered by an index");
+    }
+}
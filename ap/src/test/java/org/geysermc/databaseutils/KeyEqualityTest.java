@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.geysermc.databaseutils.processor.RepositoryProcessor;
+import org.junit.jupiter.api.Test;
+
+class KeyEqualityTest {
+    private static final String ENTITY = "test/coverage/TestEntity.java";
+
+    @Test
+    void coalesceOnExactColumnCompiles() {
+        var compilation = compile(
+                "@Coalesce java.util.concurrent.CompletableFuture<TestEntity> findByD(java.util.UUID d);");
+
+        assertThat(compilation).succeeded();
+    }
+
+    @Test
+    void coalesceOnStringColumnFails() {
+        var compilation = compile("@Coalesce java.util.concurrent.CompletableFuture<TestEntity> findByC(String c);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("c of type java.lang.String isn't, for findByC");
+    }
+
+    @Test
+    void bloomFilterOnExactKeysCompiles() {
+        var compilation = compileBloomFilter("@Key @Length(max = 16) UUID id, @Key int realm, long seen");
+
+        assertThat(compilation).succeeded();
+    }
+
+    @Test
+    void bloomFilterOnStringKeyFails() {
+        var compilation = compileBloomFilter("@Key @Length(max = 16) UUID id, @Key @Length(max = 16) String name");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("BloomFilter key name of ProfileEntity is of type java.lang.String");
+    }
+
+    private static Compilation compile(String methods) {
+        var source = """
+                package test.coverage;
+                import org.geysermc.databaseutils.meta.Coalesce;
+                @org.geysermc.databaseutils.meta.Repository
+                public interface KeyRepository extends org.geysermc.databaseutils.IRepository<TestEntity> {
+                %s
+                }
+                """
+                .formatted(methods);
+
+        return javac().withProcessors(new RepositoryProcessor())
+                .compile(
+                        JavaFileObjects.forResource(ENTITY),
+                        JavaFileObjects.forSourceString("test.coverage.KeyRepository", source));
+    }
+
+    private static Compilation compileBloomFilter(String components) {
+        var entity = """
+                package test.coverage;
+                import java.util.UUID;
+                import org.geysermc.databaseutils.meta.*;
+                @BloomFilter
+                @Entity("profiles")
+                public record ProfileEntity(%s) {}
+                """
+                .formatted(components);
+        var repository = """
+                package test.coverage;
+                @org.geysermc.databaseutils.meta.Repository
+                public interface ProfileRepository extends org.geysermc.databaseutils.IRepository<ProfileEntity> {
+                    boolean existsById(java.util.UUID id);
+                }
+                """;
+
+        return javac().withProcessors(new RepositoryProcessor())
+                .compile(
+                        JavaFileObjects.forSourceString("test.coverage.ProfileEntity", entity),
+                        JavaFileObjects.forSourceString("test.coverage.ProfileRepository", repository));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.IOException;
+import org.geysermc.databaseutils.processor.RepositoryProcessor;
+import org.junit.jupiter.api.Test;
+
+class NativeQueryTest {
+    private static final String ENTITY = "test/coverage/TestEntity.java";
+
+    @Test
+    void parametersAreBoundInOrder() throws IOException {
+        var compilation = compile(
+                """
+                @Query(sql = "select * from hello where c = :c and a > :a and b <> ':a' and a::text <> :c")
+                java.util.List<TestEntity> findAll(int a, String c);
+                """);
+
+        assertThat(compilation).succeeded();
+        var source = compilation
+                .generatedSourceFile("test/coverage/NativeRepositorySqlImpl")
+                .orElseThrow()
+                .getCharContent(true)
+                .toString();
+        assertTrue(source.contains("\"select * from hello where c = ? and a > ? and b <> ':a' and a::text <> ?\""));
+        assertTrue(source.contains("__statement.setString(1, c);"));
+        assertTrue(source.contains("__statement.setInt(2, a);"));
+        assertTrue(source.contains("__statement.setString(3, c);"));
+    }
+
+    @Test
+    void codecParametersUseTheColumnCodec() throws IOException {
+        var compilation = compile(
+                """
+                @Query(sql = "select * from hello where d = :id", mongo = "{\\"d\\": :id}")
+                TestEntity findOne(java.util.UUID id);
+                """);
+
+        assertThat(compilation).succeeded();
+        var source = compilation
+                .generatedSourceFile("test/coverage/NativeRepositorySqlImpl")
+                .orElseThrow()
+                .getCharContent(true)
+                .toString();
+        assertTrue(source.contains("this.__d.encode(id)"));
+    }
+
+    @Test
+    void unknownParameterFails() {
+        var compilation = compile("@Query(sql = \"select * from hello where a = :b\") TestEntity findOne(int a);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("references :b, which isn't a parameter");
+    }
+
+    @Test
+    void unusedParameterFails() {
+        var compilation = compile("@Query(sql = \"select * from hello\") TestEntity findOne(int a);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("doesn't use parameter(s) [a]");
+    }
+
+    @Test
+    void derivedAndNativeQueryFails() {
+        var compilation = compile("@Query(value = \"findByA\", sql = \"select * from hello\") TestEntity findOne();");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("can either have a derived query or native queries, not both");
+    }
+
+    @Test
+    void insertIsNotSupported() {
+        var compilation = compile("@Query(sql = \"insert into hello (a) values (:a)\") void insertA(int a);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Native queries only support find, exists, update and delete");
+    }
+
+    @Test
+    void mongoUpdateFails() {
+        var compilation = compile("@Query(mongo = \"{\\\"a\\\": :a}\") void updateSomething(int a);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("A native MongoDB query is a filter");
+    }
+
+    @Test
+    void invalidMongoQueryFails() {
+        var compilation = compile("@Query(mongo = \"{\\\"a\\\": :a\") TestEntity findOne(int a);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("isn't valid JSON");
+    }
+
+    private static Compilation compile(String methods) {
+        var source = """
+                package test.coverage;
+                import org.geysermc.databaseutils.meta.Query;
+                @org.geysermc.databaseutils.meta.Repository
+                public interface NativeRepository extends org.geysermc.databaseutils.IRepository<TestEntity> {
+                %s
+                }
+                """
+                .formatted(methods);
+
+        return javac().withProcessors(new RepositoryProcessor())
+                .compile(
+                        JavaFileObjects.forResource(ENTITY),
+                        JavaFileObjects.forSourceString("test.coverage.NativeRepository", source));
+    }
+}
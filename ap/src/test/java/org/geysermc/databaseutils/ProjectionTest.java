@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.geysermc.databaseutils.processor.RepositoryProcessor;
+import org.junit.jupiter.api.Test;
+
+class ProjectionTest {
+    private static final String ENTITY = "test/coverage/TestEntity.java";
+
+    @Test
+    void validProjectionsCompile() {
+        var compilation = compile(
+                """
+                record KeyView(int a, String b) {}
+
+                interface DetailsView {
+                    String c();
+
+                    default String describe() {
+                        return c();
+                    }
+                }
+                """,
+                "java.util.List<KeyView> findByC(String c);",
+                "DetailsView findByAAndB(int a, String b);");
+
+        assertThat(compilation).succeeded();
+    }
+
+    @Test
+    void unknownColumnFails() {
+        var compilation = compile("record View(int a, String e) {}", "java.util.List<View> findByC(String c);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Projection View has e, which isn't a column of entity hello");
+    }
+
+    @Test
+    void mismatchedTypeFails() {
+        var compilation = compile("record View(long a) {}", "View findByAAndB(int a, String b);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Expected a of projection View to be of type java.lang.Integer");
+    }
+
+    @Test
+    void onlyFindSupportsProjections() {
+        var compilation = compile("record View(int a) {}", "View deleteByAAndB(int a, String b);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("doesn't support returning a projection into View");
+    }
+
+    @Test
+    void primitiveSequenceOfNullableColumnFails() {
+        var entity = """
+                package test.coverage;
+                @org.geysermc.databaseutils.meta.Entity("scores")
+                public record ScoreEntity(@org.geysermc.databaseutils.meta.Key int id, Integer score) {}
+                """;
+        var repository = """
+                package test.coverage;
+                @org.geysermc.databaseutils.meta.Repository
+                public interface ScoreRepository extends org.geysermc.databaseutils.IRepository<ScoreEntity> {
+                    int[] findScoreById(int id);
+                }
+                """;
+
+        var compilation = javac().withProcessors(new RepositoryProcessor())
+                .compile(
+                        JavaFileObjects.forSourceString("test.coverage.ScoreEntity", entity),
+                        JavaFileObjects.forSourceString("test.coverage.ScoreRepository", repository));
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Column score of type java.lang.Integer can be null");
+    }
+
+    private static Compilation compile(String views, String... methods) {
+        var source = new StringBuilder()
+                .append("package test.coverage;\n")
+                .append("@org.geysermc.databaseutils.meta.Repository\n")
+                .append("public interface ProjectionRepository")
+                .append(" extends org.geysermc.databaseutils.IRepository<TestEntity> {\n");
+        for (String method : methods) {
+            source.append(method).append('\n');
+        }
+        source.append(views).append("}\n");
+
+        return javac().withProcessors(new RepositoryProcessor())
+                .compile(
+                        JavaFileObjects.forResource(ENTITY),
+                        JavaFileObjects.forSourceString("test.coverage.ProjectionRepository", source.toString()));
+    }
+}
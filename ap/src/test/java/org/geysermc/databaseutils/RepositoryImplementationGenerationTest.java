@@ -41,4 +41,9 @@ class RepositoryImplementationGenerationTest {
     void testAdvancedCompilation() {
         testCompilation("test/advanced/", "AdvancedRepository");
     }
+
+    @Test
+    void testReactiveMongoCompilation() {
+        TestUtils.testReactiveMongoCompilation("test/advanced/", "AdvancedRepository");
+    }
 }
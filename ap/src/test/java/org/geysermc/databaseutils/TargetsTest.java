@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.IOException;
+import org.geysermc.databaseutils.processor.ProcessorOptions;
+import org.geysermc.databaseutils.processor.RepositoryProcessor;
+import org.junit.jupiter.api.Test;
+
+class TargetsTest {
+    private static final String REPOSITORY = "test/advanced/AdvancedRepository";
+
+    @Test
+    void singleDialectIsInlined() throws IOException {
+        var compilation = compile("SQLITE");
+
+        assertThat(compilation).succeeded();
+        assertEquals(3, compilation.generatedSourceFiles().size(), "Generated source file count");
+
+        var repository = source(compilation, REPOSITORY + "SqlImpl");
+        assertFalse(repository.contains("dialectSpecific"), "Expected no dialect dispatch");
+        assertFalse(repository.contains("SqlDialect.SQL_SERVER"), "Expected no other dialects");
+
+        var database = source(compilation, "org/geysermc/databaseutils/sql/SqlDatabaseGenerated");
+        assertTrue(database.contains("SqlDialect.SQLITE"), "Expected a check for the targeted dialect");
+        assertFalse(database.contains("OBJECT_ID"), "Expected no SQL Server table creation");
+    }
+
+    @Test
+    void multipleDialectsOnlyGenerateTargeted() throws IOException {
+        var compilation = compile("MARIADB, SQL_SERVER");
+
+        assertThat(compilation).succeeded();
+        assertEquals(3, compilation.generatedSourceFiles().size(), "Generated source file count");
+
+        var repository = source(compilation, REPOSITORY + "SqlImpl");
+        assertTrue(repository.contains("dialectSpecific"), "Expected a dialect dispatch");
+        assertFalse(repository.contains("OracleDatabaseImpl"), "Expected no untargeted dialects");
+    }
+
+    @Test
+    void categoriesAreSkipped() {
+        var compilation = compile("MONGODB,FILE");
+
+        assertThat(compilation).succeeded();
+        assertEquals(5, compilation.generatedSourceFiles().size(), "Generated source file count");
+        assertTrue(compilation.generatedSourceFile(REPOSITORY + "MongoImpl").isPresent());
+        assertTrue(compilation.generatedSourceFile(REPOSITORY + "MemoryImpl").isPresent());
+        assertFalse(compilation.generatedSourceFile(REPOSITORY + "SqlImpl").isPresent());
+    }
+
+    @Test
+    void unknownTargetFails() {
+        var compilation = compile("SQLITE,CASSANDRA");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Unknown database type 'CASSANDRA'");
+    }
+
+    private static Compilation compile(String targets) {
+        return javac().withProcessors(new RepositoryProcessor())
+                .withOptions("-A" + ProcessorOptions.TARGETS + "=" + targets)
+                .compile(JavaFileObjects.forResource(REPOSITORY + ".java"));
+    }
+
+    private static String source(Compilation compilation, String name) throws IOException {
+        var file = compilation.generatedSourceFile(name);
+        assertTrue(file.isPresent(), "Expected " + name + " to be generated");
+        return file.get().getCharContent(true).toString();
+    }
+}
@@ -14,13 +14,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import java.util.Map;
+import org.geysermc.databaseutils.memory.MemoryDatabase;
 import org.geysermc.databaseutils.mongo.MongodbDatabase;
+import org.geysermc.databaseutils.processor.ProcessorOptions;
 import org.geysermc.databaseutils.processor.RepositoryProcessor;
 import org.geysermc.databaseutils.sql.SqlDatabase;
 
 final class TestUtils {
     private static final Map<String, Class<?>> DATABASE_TYPES =
-            Map.of("Sql", SqlDatabase.class, "Mongo", MongodbDatabase.class);
+            Map.of("Sql", SqlDatabase.class, "Mongo", MongodbDatabase.class, "Memory", MemoryDatabase.class);
 
     private TestUtils() {}
 
@@ -35,9 +37,16 @@ final class TestUtils {
 
         assertThat(compilation).succeeded();
 
-        // every db type has a db class and a repository class
+        // every db type has a db class and a repository class, and the repository has an event decorator
         assertEquals(
-                DATABASE_TYPES.size() * 2, compilation.generatedSourceFiles().size(), "Generated source file count");
+                DATABASE_TYPES.size() * 2 + 1,
+                compilation.generatedSourceFiles().size(),
+                "Generated source file count");
+
+        var eventsImplName = sourceResourceName + "EventsImpl";
+        var generatedEvents = compilation.generatedSourceFile(eventsImplName);
+        assertTrue(generatedEvents.isPresent(), "Expected " + eventsImplName + " to be generated");
+        assertThat(generatedEvents.get()).hasSourceEquivalentTo(JavaFileObjects.forResource(eventsImplName + ".java"));
 
         for (var entry : DATABASE_TYPES.entrySet()) {
             var databaseType = entry.getKey() + "Database";
@@ -56,4 +65,29 @@ final class TestUtils {
                     .hasSourceEquivalentTo(JavaFileObjects.forResource(expectedDatabaseImpl + ".java"));
         }
     }
+
+    /**
+     * Tests whether the compilation is successful with the reactive Mongo option enabled, and that the generated Mongo
+     * impl and database match the expected ones in the reactive subfolder.
+     */
+    static void testReactiveMongoCompilation(final String folder, final String sourceResourceSimpleName) {
+        final Compilation compilation = javac().withProcessors(new RepositoryProcessor())
+                .withOptions("-A" + ProcessorOptions.REACTIVE_MONGO + "=true")
+                .compile(JavaFileObjects.forResource(folder + sourceResourceSimpleName + ".java"));
+
+        assertThat(compilation).succeeded();
+
+        var repoImplName = folder + sourceResourceSimpleName + "MongoImpl";
+        var generatedRepo = compilation.generatedSourceFile(repoImplName);
+        assertTrue(generatedRepo.isPresent(), "Expected " + repoImplName + " to be generated");
+        assertThat(generatedRepo.get())
+                .hasSourceEquivalentTo(JavaFileObjects.forResource(
+                        folder + "reactive/" + sourceResourceSimpleName + "MongoImpl.java"));
+
+        var actualDatabaseImpl = compilation.generatedSourceFile(
+                MongodbDatabase.class.getPackageName().replace('.', '/') + "/MongoDatabaseGenerated");
+        assertTrue(actualDatabaseImpl.isPresent(), "Expected MongoDatabaseGenerated to be generated");
+        assertThat(actualDatabaseImpl.get())
+                .hasSourceEquivalentTo(JavaFileObjects.forResource(folder + "reactive/MongoDatabaseGenerated.java"));
+    }
 }
@@ -2,6 +2,7 @@ package test.advanced;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 import org.geysermc.databaseutils.IRepository;
 import org.geysermc.databaseutils.meta.Query;
 import org.geysermc.databaseutils.meta.Repository;
@@ -12,6 +13,10 @@ public interface AdvancedRepository extends IRepository<TestEntity> {
 
     List<String> findTop3BByA(int a);
 
+    int[] findAByB(String b);
+
+    CompletableFuture<IntStream> findTop3AByCOrderByA(String c);
+
     CompletableFuture<Boolean> existsByAOrB(int a, String bb);
 
     void updateByBAndC(String b, String oldC, String c);
@@ -0,0 +1,213 @@
+package test.advanced;
+
+import java.lang.Boolean;
+import java.lang.Override;
+import java.lang.String;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.geysermc.databaseutils.Database;
+import org.geysermc.databaseutils.jfr.RepositoryEvent;
+
+public final class AdvancedRepositoryEventsImpl implements AdvancedRepository {
+    private final AdvancedRepository delegate;
+
+    private final String database;
+
+    public AdvancedRepositoryEventsImpl(AdvancedRepository delegate, Database database) {
+        this.delegate = delegate;
+        this.database = database.type().name();
+    }
+
+    @Override
+    public CompletableFuture<TestEntity> findByAAndB(int aa, String b) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.findByAAndB(aa, b);
+        }
+        __event.start("test.advanced.AdvancedRepository", "findByAAndB", this.database, 0);
+        CompletableFuture<TestEntity> __future;
+        try {
+            __future = this.delegate.findByAAndB(aa, b);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            if (__error == null) {
+                __event.rows(__result != null ? 1 : 0);
+            }
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public List<String> findTop3BByA(int a) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.findTop3BByA(a);
+        }
+        __event.start("test.advanced.AdvancedRepository", "findTop3BByA", this.database, 0);
+        try {
+            List<String> __result = this.delegate.findTop3BByA(a);
+            __event.rows(__result.size());
+            return __result;
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public int[] findAByB(String b) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.findAByB(b);
+        }
+        __event.start("test.advanced.AdvancedRepository", "findAByB", this.database, 0);
+        try {
+            int[] __result = this.delegate.findAByB(b);
+            __event.rows(__result.length);
+            return __result;
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public CompletableFuture<IntStream> findTop3AByCOrderByA(String c) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.findTop3AByCOrderByA(c);
+        }
+        __event.start("test.advanced.AdvancedRepository", "findTop3AByCOrderByA", this.database, 0);
+        CompletableFuture<IntStream> __future;
+        try {
+            __future = this.delegate.findTop3AByCOrderByA(c);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsByAOrB(int a, String bb) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.existsByAOrB(a, bb);
+        }
+        __event.start("test.advanced.AdvancedRepository", "existsByAOrB", this.database, 0);
+        CompletableFuture<Boolean> __future;
+        try {
+            __future = this.delegate.existsByAOrB(a, bb);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            if (__error == null) {
+                __event.rows(Boolean.TRUE.equals(__result) ? 1 : 0);
+            }
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public void updateByBAndC(String b, String oldC, String c) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            this.delegate.updateByBAndC(b, oldC, c);
+            return;
+        }
+        __event.start("test.advanced.AdvancedRepository", "updateByBAndC", this.database, 0);
+        try {
+            this.delegate.updateByBAndC(b, oldC, c);
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteByAAndBAndC(int a, String b, String c) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.deleteByAAndBAndC(a, b, c);
+        }
+        __event.start("test.advanced.AdvancedRepository", "deleteByAAndBAndC", this.database, 0);
+        CompletableFuture<Boolean> __future;
+        try {
+            __future = this.delegate.deleteByAAndBAndC(a, b, c);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public int deleteByAAndC(int a, String c) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.deleteByAAndC(a, c);
+        }
+        __event.start("test.advanced.AdvancedRepository", "deleteByAAndC", this.database, 0);
+        try {
+            int __result = this.delegate.deleteByAAndC(a, c);
+            __event.rows((int) __result);
+            return __result;
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public TestEntity deleteByAAndB(int a, String b) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.deleteByAAndB(a, b);
+        }
+        __event.start("test.advanced.AdvancedRepository", "deleteByAAndB", this.database, 0);
+        try {
+            TestEntity __result = this.delegate.deleteByAAndB(a, b);
+            return __result;
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public List<TestEntity> deleteByBAndC(String b, String c) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.deleteByBAndC(b, c);
+        }
+        __event.start("test.advanced.AdvancedRepository", "deleteByBAndC", this.database, 0);
+        try {
+            List<TestEntity> __result = this.delegate.deleteByBAndC(b, c);
+            __event.rows(__result.size());
+            return __result;
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public TestEntity findWithAlternativeName(int a, String b) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.findWithAlternativeName(a, b);
+        }
+        __event.start("test.advanced.AdvancedRepository", "findWithAlternativeName", this.database, 0);
+        try {
+            TestEntity __result = this.delegate.findWithAlternativeName(a, b);
+            __event.rows(__result != null ? 1 : 0);
+            return __result;
+        } finally {
+            __event.finish();
+        }
+    }
+}
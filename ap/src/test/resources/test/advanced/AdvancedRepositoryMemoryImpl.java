@@ -0,0 +1,97 @@
+package test.advanced;
+
+import java.lang.Boolean;
+import java.lang.Override;
+import java.lang.String;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.codec.TypeCodec;
+import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.memory.MemoryDatabase;
+import org.geysermc.databaseutils.memory.MemoryDatabaseGenerated;
+import org.geysermc.databaseutils.memory.MemoryTable;
+import org.geysermc.databaseutils.memory.MemoryValues;
+
+public final class AdvancedRepositoryMemoryImpl implements AdvancedRepository {
+    private final MemoryDatabase database;
+    private final MemoryTable<TestEntity> table;
+    private final TypeCodec<UUID> __d;
+
+    public AdvancedRepositoryMemoryImpl(MemoryDatabase database, TypeCodecRegistry registry) {
+        this.database = database;
+        this.table = database.table("hello");
+        this.__d = registry.requireCodecFor(UUID.class);
+    }
+
+    @Override
+    public CompletableFuture<TestEntity> findByAAndB(int aa, String b) {
+        return this.database.supplyAsync(() -> {
+            return Stream.ofNullable(this.table.get(new MemoryDatabaseGenerated.TestEntityKey(aa, b))).filter(__entity -> __entity.a() == aa && Objects.equals(__entity.b(), b)).findFirst().orElse(null);
+        });
+    }
+
+    @Override
+    public List<String> findTop3BByA(int a) {
+        return this.table.stream().filter(__entity -> __entity.a() == a).sorted(Comparator.comparing(TestEntity::a, MemoryValues::compare).thenComparing(TestEntity::b, MemoryValues::compare)).map(TestEntity::b).limit(3).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Override
+    public int[] findAByB(String b) {
+        return this.table.stream().filter(__entity -> Objects.equals(__entity.b(), b)).map(TestEntity::a).mapToInt(Number::intValue).toArray();
+    }
+
+    @Override
+    public CompletableFuture<IntStream> findTop3AByCOrderByA(String c) {
+        return this.database.supplyAsync(() -> {
+            return Arrays.stream(this.table.equalTo("c", c).filter(__entity -> Objects.equals(__entity.c(), c)).sorted(Comparator.comparing(TestEntity::a, MemoryValues::compare)).map(TestEntity::a).limit(3).mapToInt(Number::intValue).toArray());
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsByAOrB(int a, String bb) {
+        return this.database.supplyAsync(() -> {
+            return this.table.stream().filter(__entity -> __entity.a() == a || Objects.equals(__entity.b(), bb)).findAny().isPresent();
+        });
+    }
+
+    @Override
+    public void updateByBAndC(String b, String oldC, String c) {
+        this.table.updateMatching(this.table.equalTo("c", oldC).filter(__entity -> Objects.equals(__entity.b(), b) && Objects.equals(__entity.c(), oldC)), __entity -> new TestEntity(__entity.a(), __entity.b(), c, __entity.d()));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteByAAndBAndC(int a, String b, String c) {
+        return this.database.supplyAsync(() -> {
+            return this.table.deleteMatching(Stream.ofNullable(this.table.get(new MemoryDatabaseGenerated.TestEntityKey(a, b))).filter(__entity -> __entity.a() == a && Objects.equals(__entity.b(), b) && Objects.equals(__entity.c(), c))).size() > 0;
+        });
+    }
+
+    @Override
+    public int deleteByAAndC(int a, String c) {
+        return this.table.deleteMatching(this.table.equalTo("c", c).filter(__entity -> __entity.a() == a && Objects.equals(__entity.c(), c))).size();
+    }
+
+    @Override
+    public TestEntity deleteByAAndB(int a, String b) {
+        var __deleted = this.table.deleteMatching(Stream.ofNullable(this.table.get(new MemoryDatabaseGenerated.TestEntityKey(a, b))).filter(__entity -> __entity.a() == a && Objects.equals(__entity.b(), b)).limit(1));
+        return __deleted.isEmpty() ? null : __deleted.get(0);
+    }
+
+    @Override
+    public List<TestEntity> deleteByBAndC(String b, String c) {
+        return this.table.deleteMatching(this.table.equalTo("c", c).filter(__entity -> Objects.equals(__entity.b(), b) && Objects.equals(__entity.c(), c)));
+    }
+
+    @Override
+    public TestEntity findWithAlternativeName(int a, String b) {
+        return Stream.ofNullable(this.table.get(new MemoryDatabaseGenerated.TestEntityKey(a, b))).filter(__entity -> __entity.a() == a && Objects.equals(__entity.b(), b) && __entity.c() != null).findFirst().orElse(null);
+    }
+}
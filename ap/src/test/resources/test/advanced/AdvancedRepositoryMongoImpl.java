@@ -1,8 +1,9 @@
 package test.advanced;
 
-import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import com.mongodb.client.model.Updates;
 import java.lang.Boolean;
 import java.lang.Exception;
@@ -13,95 +14,143 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.bson.RawBsonDocument;
 import org.bson.conversions.Bson;
 import org.geysermc.databaseutils.codec.TypeCodec;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.mongo.MongoTransaction;
 import org.geysermc.databaseutils.mongo.MongodbDatabase;
+import org.geysermc.databaseutils.util.IntArrayBuilder;
 
 public final class AdvancedRepositoryMongoImpl implements AdvancedRepository {
     private final MongodbDatabase database;
-    private final MongoClient mongoClient;
     private final MongoCollection<TestEntity> collection;
     private final TypeCodec<UUID> __d;
 
     public AdvancedRepositoryMongoImpl(MongodbDatabase database, TypeCodecRegistry registry) {
         this.database = database;
-        this.mongoClient = database.mongoClient();
         this.collection = database.mongoDatabase().getCollection("hello", TestEntity.class);
         this.__d = registry.requireCodecFor(UUID.class);
     }
 
     @Override
     public CompletableFuture<TestEntity> findByAAndB(int aa, String b) {
-        return CompletableFuture.supplyAsync(() -> {
-            return this.collection.find(Filters.and(Filters.eq("a", aa), Filters.eq("b", b))).first();
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                return this.collection.find(__transaction.session(), Filters.and(Filters.eq("a", aa), Filters.eq("b", b))).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).first();
+            }
+        });
     }
 
     @Override
     public List<String> findTop3BByA(int a) {
-        return this.collection.find(Filters.eq("a", a)).limit(3).map(TestEntity::b).into(new ArrayList<>());
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            return this.collection.find(__transaction.session(), Filters.eq("a", a)).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).limit(3).map(TestEntity::b).into(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public int[] findAByB(String b) {
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            var __responses = new IntArrayBuilder();
+            try (var __cursor = this.collection.find(__transaction.session(), Filters.eq("b", b), RawBsonDocument.class).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).projection(Projections.include("a")).iterator()) {
+                while (__cursor.hasNext()) {
+                    var __document = __cursor.next();
+                    __responses.add(__document.getInt32("a").getValue());
+                }
+            }
+            return __responses.toArray();
+        }
+    }
+
+    @Override
+    public CompletableFuture<IntStream> findTop3AByCOrderByA(String c) {
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                var __responses = new IntArrayBuilder(3);
+                try (var __cursor = this.collection.find(__transaction.session(), Filters.eq("c", c), RawBsonDocument.class).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).sort(Sorts.orderBy(Sorts.ascending("a"))).limit(3).projection(Projections.include("a")).iterator()) {
+                    while (__cursor.hasNext()) {
+                        var __document = __cursor.next();
+                        __responses.add(__document.getInt32("a").getValue());
+                    }
+                }
+                return __responses.stream();
+            }
+        });
     }
 
     @Override
     public CompletableFuture<Boolean> existsByAOrB(int a, String bb) {
-        return CompletableFuture.supplyAsync(() -> {
-            return this.collection.find(Filters.or(Filters.eq("a", a), Filters.eq("b", bb))).limit(1).first() != null;
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                return this.collection.find(__transaction.session(), Filters.or(Filters.eq("a", a), Filters.eq("b", bb))).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).limit(1).first() != null;
+            }
+        });
     }
 
     @Override
     public void updateByBAndC(String b, String oldC, String c) {
-        this.collection.updateMany(Filters.and(Filters.eq("b", b), Filters.eq("c", oldC)), Updates.combine(Updates.set("c", c)));
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            this.collection.updateMany(__transaction.session(), Filters.and(Filters.eq("b", b), Filters.eq("c", oldC)), Updates.combine(Updates.set("c", c)));
+        }
     }
 
     @Override
     public CompletableFuture<Boolean> deleteByAAndBAndC(int a, String b, String c) {
-        return CompletableFuture.supplyAsync(() -> {
-            long __count;
-            __count = (long) this.collection.deleteMany(Filters.and(Filters.eq("a", a), Filters.and(Filters.eq("b", b), Filters.eq("c", c)))).getDeletedCount();
-            return __count > 0;
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                long __count;
+                __count = (long) this.collection.deleteMany(__transaction.session(), Filters.and(Filters.eq("a", a), Filters.and(Filters.eq("b", b), Filters.eq("c", c)))).getDeletedCount();
+                return __count > 0;
+            }
+        });
     }
 
     @Override
     public int deleteByAAndC(int a, String c) {
-        int __count;
-        __count = (int) this.collection.deleteMany(Filters.and(Filters.eq("a", a), Filters.eq("c", c))).getDeletedCount();
-        return __count;
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            int __count;
+            __count = (int) this.collection.deleteMany(__transaction.session(), Filters.and(Filters.eq("a", a), Filters.eq("c", c))).getDeletedCount();
+            return __count;
+        }
     }
 
     @Override
     public TestEntity deleteByAAndB(int a, String b) {
-        return this.collection.findOneAndDelete(Filters.and(Filters.eq("a", a), Filters.eq("b", b)));
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            return this.collection.findOneAndDelete(__transaction.session(), Filters.and(Filters.eq("a", a), Filters.eq("b", b)));
+        }
     }
 
     @Override
     public List<TestEntity> deleteByBAndC(String b, String c) {
-        var __session = this.mongoClient.startSession();
-        try {
-            __session.startTransaction();
-            var __find = this.collection.find(__session, Filters.and(Filters.eq("b", b), Filters.eq("c", c))).into(new ArrayList<>());
-            var __toDelete = new ArrayList<Bson>();
-            for (var __found : __find) {
-                __toDelete.add(Filters.and(Filters.eq("a", __found.a()), Filters.eq("b", __found.b())));
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            __transaction.begin();
+            try {
+                var __find = this.collection.find(__transaction.session(), Filters.and(Filters.eq("b", b), Filters.eq("c", c))).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).into(new ArrayList<>());
+                var __toDelete = new ArrayList<Bson>();
+                for (var __found : __find) {
+                    __toDelete.add(Filters.and(Filters.eq("a", __found.a()), Filters.eq("b", __found.b())));
+                }
+                var __deletedCount = this.collection.deleteMany(__transaction.session(), Filters.or(__toDelete)).getDeletedCount();
+                if (__find.size() != __deletedCount) {
+                    throw new IllegalStateException("Found %s documents but deleted %s documents".formatted(__find.size(), __deletedCount));
+                }
+                __transaction.commit();
+                return __find;
+            } catch (Exception __exception) {
+                __transaction.rollback();
+                throw __exception;
             }
-            var __deletedCount = this.collection.deleteMany(__session, Filters.or(__toDelete)).getDeletedCount();
-            if (__find.size() != __deletedCount) {
-                throw new IllegalStateException("Found %s documents but deleted %s documents".formatted(__find.size(), __deletedCount));
-            }
-            __session.commitTransaction();
-            return __find;
-        } catch (Exception __exception) {
-            __session.abortTransaction();
-            throw __exception;
-        } finally {
-            __session.close();
         }
     }
 
     @Override
     public TestEntity findWithAlternativeName(int a, String b) {
-        return this.collection.find(Filters.and(Filters.eq("a", a), Filters.and(Filters.eq("b", b), Filters.not(Filters.eq("c", null))))).first();
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            return this.collection.find(__transaction.session(), Filters.and(Filters.eq("a", a), Filters.and(Filters.eq("b", b), Filters.not(Filters.eq("c", null))))).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).first();
+        }
     }
 }
\ No newline at end of file
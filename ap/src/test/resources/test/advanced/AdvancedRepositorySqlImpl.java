@@ -1,6 +1,5 @@
 package test.advanced;
 
-import com.zaxxer.hikari.HikariDataSource;
 import java.lang.Boolean;
 import java.lang.IllegalStateException;
 import java.lang.Integer;
@@ -8,7 +7,6 @@ import java.lang.Object;
 import java.lang.Override;
 import java.lang.String;
 import java.sql.CallableStatement;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -18,22 +16,23 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
 import org.geysermc.databaseutils.codec.TypeCodec;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
 import org.geysermc.databaseutils.sql.FlexibleSqlInput;
 import org.geysermc.databaseutils.sql.SqlDatabase;
 import org.geysermc.databaseutils.sql.SqlDialect;
+import org.geysermc.databaseutils.sql.SqlTransaction;
+import org.geysermc.databaseutils.util.IntArrayBuilder;
 
 public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
     private final SqlDatabase database;
-    private final HikariDataSource dataSource;
     private final SqlDialect dialect;
     private final CommonImpl dialectSpecific;
     private final TypeCodec<UUID> __d;
 
     public AdvancedRepositorySqlImpl(SqlDatabase database, TypeCodecRegistry registry) {
         this.database = database;
-        this.dataSource = database.dataSource();
         this.dialect = database.dialect();
         if (this.dialect == SqlDialect.SQL_SERVER) {
             this.dialectSpecific = new SqlServerImpl();
@@ -51,39 +50,40 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
 
     @Override
     public CompletableFuture<TestEntity> findByAAndB(int aa, String b) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("select * from hello where a=? and b=?")) {
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select * from hello where a=? and b=?")) {
                     __statement.setInt(1, aa);
                     __statement.setString(2, b);
                     try (ResultSet __result = __statement.executeQuery()) {
                         if (!__result.next()) {
                             return null;
                         }
-                        Integer _a = __result.getInt("a");
-                        String _b = __result.getString("b");
-                        String _c = __result.getString("c");
-                        UUID _d = this.__d.decode(__result.getBytes("d"));
-                        return new TestEntity(_a, _b, _c, _d);
+                        return this.mapRow(__result);
                     }
                 }
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public List<String> findTop3BByA(int a) {
-        try (Connection __connection = this.dataSource.getConnection()) {
-            try (PreparedStatement __statement = __connection.prepareStatement("select b from hello where a=? limit 3")) {
-                __statement.setInt(1, a);
+        return this.dialectSpecific.findTop3BByA(a);
+    }
+
+    @Override
+    public int[] findAByB(String b) {
+        try (SqlTransaction __transaction = this.database.readTransaction()) {
+            try (PreparedStatement __statement = __transaction.prepareStatement("select a from hello where b=?")) {
+                __statement.setString(1, b);
                 try (ResultSet __result = __statement.executeQuery()) {
-                    List<String> __responses = new ArrayList<>();
+                    var __responses = new IntArrayBuilder();
                     while (__result.next()) {
-                        __responses.add(__result.getString("b"));
+                        __responses.add(__result.getInt("a"));
                     }
-                    return __responses;
+                    return __responses.toArray();
                 }
             }
         } catch (SQLException __exception) {
@@ -91,11 +91,16 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
         }
     }
 
+    @Override
+    public CompletableFuture<IntStream> findTop3AByCOrderByA(String c) {
+        return this.dialectSpecific.findTop3AByCOrderByA(c);
+    }
+
     @Override
     public CompletableFuture<Boolean> existsByAOrB(int a, String bb) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("select 1 from hello where a=? or b=?")) {
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select 1 from hello where a=? or b=?")) {
                     __statement.setInt(1, a);
                     __statement.setString(2, bb);
                     try (ResultSet __result = __statement.executeQuery()) {
@@ -105,19 +110,18 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public void updateByBAndC(String b, String oldC, String c) {
-        try (Connection __connection = this.dataSource.getConnection()) {
-            try (PreparedStatement __statement = __connection.prepareStatement("update hello set c=? where b=? and c=?")) {
-                __statement.setString(1, c);
-                __statement.setString(2, b);
-                __statement.setString(3, oldC);
-                __statement.executeUpdate();
-                return ;
-            }
+        try (SqlTransaction __transaction = this.database.transaction()) {
+            PreparedStatement __statement = __transaction.batch("update hello set c=? where b=? and c=?");
+            __statement.setString(1, c);
+            __statement.setString(2, b);
+            __statement.setString(3, oldC);
+            __statement.addBatch();
+            return;
         } catch (SQLException __exception) {
             throw new CompletionException("Unexpected error occurred", __exception);
         }
@@ -125,9 +129,9 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
 
     @Override
     public CompletableFuture<Boolean> deleteByAAndBAndC(int a, String b, String c) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("delete from hello where a=? and b=? and c=?")) {
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.transaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("delete from hello where a=? and b=? and c=?")) {
                     __statement.setInt(1, a);
                     __statement.setString(2, b);
                     __statement.setString(3, c);
@@ -136,13 +140,13 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public int deleteByAAndC(int a, String c) {
-        try (Connection __connection = this.dataSource.getConnection()) {
-            try (PreparedStatement __statement = __connection.prepareStatement("delete from hello where a=? and c=?")) {
+        try (SqlTransaction __transaction = this.database.transaction()) {
+            try (PreparedStatement __statement = __transaction.prepareStatement("delete from hello where a=? and c=?")) {
                 __statement.setInt(1, a);
                 __statement.setString(2, c);
                 return __statement.executeUpdate();
@@ -164,19 +168,15 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
 
     @Override
     public TestEntity findWithAlternativeName(int a, String b) {
-        try (Connection __connection = this.dataSource.getConnection()) {
-            try (PreparedStatement __statement = __connection.prepareStatement("select * from hello where a=? and b=? and c is not null")) {
+        try (SqlTransaction __transaction = this.database.readTransaction()) {
+            try (PreparedStatement __statement = __transaction.prepareStatement("select * from hello where a=? and b=? and c is not null")) {
                 __statement.setInt(1, a);
                 __statement.setString(2, b);
                 try (ResultSet __result = __statement.executeQuery()) {
                     if (!__result.next()) {
                         return null;
                     }
-                    Integer _a = __result.getInt("a");
-                    String _b = __result.getString("b");
-                    String _c = __result.getString("c");
-                    UUID _d = this.__d.decode(__result.getBytes("d"));
-                    return new TestEntity(_a, _b, _c, _d);
+                    return this.mapRow(__result);
                 }
             }
         } catch (SQLException __exception) {
@@ -184,21 +184,61 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
         }
     }
 
+    private TestEntity mapRow(ResultSet __result) throws SQLException {
+        Integer _a = __result.getInt("a");
+        String _b = __result.getString("b");
+        String _c = __result.getString("c");
+        UUID _d = this.__d.decode(__result.getBytes("d"));
+        return new TestEntity(_a, _b, _c, _d);
+    }
+
     private class CommonImpl {
+        List<String> findTop3BByA(int a) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select b from hello where a=? limit 3")) {
+                    __statement.setInt(1, a);
+                    try (ResultSet __result = __statement.executeQuery()) {
+                        List<String> __responses = new ArrayList<>();
+                        while (__result.next()) {
+                            __responses.add(__result.getString("b"));
+                        }
+                        return __responses;
+                    }
+                }
+            } catch (SQLException __exception) {
+                throw new CompletionException("Unexpected error occurred", __exception);
+            }
+        }
+
+        CompletableFuture<IntStream> findTop3AByCOrderByA(String c) {
+            return AdvancedRepositorySqlImpl.this.database.supplyAsync(() -> {
+                try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.readTransaction()) {
+                    try (PreparedStatement __statement = __transaction.prepareStatement("select a from hello where c=? order by a asc limit 3")) {
+                        __statement.setString(1, c);
+                        try (ResultSet __result = __statement.executeQuery()) {
+                            var __responses = new IntArrayBuilder(3);
+                            while (__result.next()) {
+                                __responses.add(__result.getInt("a"));
+                            }
+                            return __responses.stream();
+                        }
+                    }
+                } catch (SQLException __exception) {
+                    throw new CompletionException("Unexpected error occurred", __exception);
+                }
+            });
+        }
+
         TestEntity deleteByAAndB(int a, String b) {
-            try (Connection __connection = AdvancedRepositorySqlImpl.this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("delete from hello where a=? and b=? returning *")) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.transaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("delete from hello where a=? and b=? returning *")) {
                     __statement.setInt(1, a);
                     __statement.setString(2, b);
                     try (ResultSet __result = __statement.executeQuery()) {
                         if (!__result.next()) {
                             return null;
                         }
-                        Integer _a = __result.getInt("a");
-                        String _b = __result.getString("b");
-                        String _c = __result.getString("c");
-                        UUID _d = AdvancedRepositorySqlImpl.this.__d.decode(__result.getBytes("d"));
-                        return new TestEntity(_a, _b, _c, _d);
+                        return AdvancedRepositorySqlImpl.this.mapRow(__result);
                     }
                 }
             } catch (SQLException __exception) {
@@ -207,18 +247,14 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
         }
 
         List<TestEntity> deleteByBAndC(String b, String c) {
-            try (Connection __connection = AdvancedRepositorySqlImpl.this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("delete from hello where b=? and c=? returning *")) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.transaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("delete from hello where b=? and c=? returning *")) {
                     __statement.setString(1, b);
                     __statement.setString(2, c);
                     try (ResultSet __result = __statement.executeQuery()) {
                         List<TestEntity> __responses = new ArrayList<>();
                         while (__result.next()) {
-                            Integer _a = __result.getInt("a");
-                            String _b = __result.getString("b");
-                            String _c = __result.getString("c");
-                            UUID _d = AdvancedRepositorySqlImpl.this.__d.decode(__result.getBytes("d"));
-                            __responses.add(new TestEntity(_a, _b, _c, _d));
+                            __responses.add(AdvancedRepositorySqlImpl.this.mapRow(__result));
                         }
                         return __responses;
                     }
@@ -230,21 +266,55 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
     }
 
     private final class SqlServerImpl extends CommonImpl {
+        @Override
+        List<String> findTop3BByA(int a) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select top 3 b from hello where a=?")) {
+                    __statement.setInt(1, a);
+                    try (ResultSet __result = __statement.executeQuery()) {
+                        List<String> __responses = new ArrayList<>();
+                        while (__result.next()) {
+                            __responses.add(__result.getString("b"));
+                        }
+                        return __responses;
+                    }
+                }
+            } catch (SQLException __exception) {
+                throw new CompletionException("Unexpected error occurred", __exception);
+            }
+        }
+
+        @Override
+        CompletableFuture<IntStream> findTop3AByCOrderByA(String c) {
+            return AdvancedRepositorySqlImpl.this.database.supplyAsync(() -> {
+                try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.readTransaction()) {
+                    try (PreparedStatement __statement = __transaction.prepareStatement("select top 3 a from hello where c=? order by a asc")) {
+                        __statement.setString(1, c);
+                        try (ResultSet __result = __statement.executeQuery()) {
+                            var __responses = new IntArrayBuilder(3);
+                            while (__result.next()) {
+                                __responses.add(__result.getInt("a"));
+                            }
+                            return __responses.stream();
+                        }
+                    }
+                } catch (SQLException __exception) {
+                    throw new CompletionException("Unexpected error occurred", __exception);
+                }
+            });
+        }
+
         @Override
         TestEntity deleteByAAndB(int a, String b) {
-            try (Connection __connection = AdvancedRepositorySqlImpl.this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("delete from hello output deleted.* where a=? and b=?")) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.transaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("delete from hello output deleted.* where a=? and b=?")) {
                     __statement.setInt(1, a);
                     __statement.setString(2, b);
                     try (ResultSet __result = __statement.executeQuery()) {
                         if (!__result.next()) {
                             return null;
                         }
-                        Integer _a = __result.getInt("a");
-                        String _b = __result.getString("b");
-                        String _c = __result.getString("c");
-                        UUID _d = AdvancedRepositorySqlImpl.this.__d.decode(__result.getBytes("d"));
-                        return new TestEntity(_a, _b, _c, _d);
+                        return AdvancedRepositorySqlImpl.this.mapRow(__result);
                     }
                 }
             } catch (SQLException __exception) {
@@ -254,18 +324,14 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
 
         @Override
         List<TestEntity> deleteByBAndC(String b, String c) {
-            try (Connection __connection = AdvancedRepositorySqlImpl.this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("delete from hello output deleted.* where b=? and c=?")) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.transaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("delete from hello output deleted.* where b=? and c=?")) {
                     __statement.setString(1, b);
                     __statement.setString(2, c);
                     try (ResultSet __result = __statement.executeQuery()) {
                         List<TestEntity> __responses = new ArrayList<>();
                         while (__result.next()) {
-                            Integer _a = __result.getInt("a");
-                            String _b = __result.getString("b");
-                            String _c = __result.getString("c");
-                            UUID _d = AdvancedRepositorySqlImpl.this.__d.decode(__result.getBytes("d"));
-                            __responses.add(new TestEntity(_a, _b, _c, _d));
+                            __responses.add(AdvancedRepositorySqlImpl.this.mapRow(__result));
                         }
                         return __responses;
                     }
@@ -277,10 +343,48 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
     }
 
     private final class OracleDatabaseImpl extends CommonImpl {
+        @Override
+        List<String> findTop3BByA(int a) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select b from hello where a=? fetch first 3 rows only")) {
+                    __statement.setInt(1, a);
+                    try (ResultSet __result = __statement.executeQuery()) {
+                        List<String> __responses = new ArrayList<>();
+                        while (__result.next()) {
+                            __responses.add(__result.getString("b"));
+                        }
+                        return __responses;
+                    }
+                }
+            } catch (SQLException __exception) {
+                throw new CompletionException("Unexpected error occurred", __exception);
+            }
+        }
+
+        @Override
+        CompletableFuture<IntStream> findTop3AByCOrderByA(String c) {
+            return AdvancedRepositorySqlImpl.this.database.supplyAsync(() -> {
+                try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.readTransaction()) {
+                    try (PreparedStatement __statement = __transaction.prepareStatement("select a from hello where c=? order by a asc fetch first 3 rows only")) {
+                        __statement.setString(1, c);
+                        try (ResultSet __result = __statement.executeQuery()) {
+                            var __responses = new IntArrayBuilder(3);
+                            while (__result.next()) {
+                                __responses.add(__result.getInt("a"));
+                            }
+                            return __responses.stream();
+                        }
+                    }
+                } catch (SQLException __exception) {
+                    throw new CompletionException("Unexpected error occurred", __exception);
+                }
+            });
+        }
+
         @Override
         TestEntity deleteByAAndB(int a, String b) {
-            try (Connection __connection = AdvancedRepositorySqlImpl.this.dataSource.getConnection()) {
-                try (CallableStatement __statement = __connection.prepareCall("BEGIN delete from hello where a=? and b=? returning hello_row(a, b, c, d) into ?; END;")) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.transaction()) {
+                try (CallableStatement __statement = __transaction.prepareCall("BEGIN delete from hello where a=? and b=? returning hello_row(a, b, c, d) into ?; END;")) {
                     __statement.setInt(1, a);
                     __statement.setString(2, b);
                     __statement.registerOutParameter(3, 2002, "HELLO_ROW");
@@ -303,8 +407,8 @@ public final class AdvancedRepositorySqlImpl implements AdvancedRepository {
 
         @Override
         List<TestEntity> deleteByBAndC(String b, String c) {
-            try (Connection __connection = AdvancedRepositorySqlImpl.this.dataSource.getConnection()) {
-                try (CallableStatement __statement = __connection.prepareCall("BEGIN delete from hello where b=? and c=? returning hello_row(a, b, c, d) bulk collect into ?; END;")) {
+            try (SqlTransaction __transaction = AdvancedRepositorySqlImpl.this.database.transaction()) {
+                try (CallableStatement __statement = __transaction.prepareCall("BEGIN delete from hello where b=? and c=? returning hello_row(a, b, c, d) bulk collect into ?; END;")) {
                     __statement.setString(1, b);
                     __statement.setString(2, c);
                     __statement.registerOutParameter(3, 2003, "HELLO_TABLE");
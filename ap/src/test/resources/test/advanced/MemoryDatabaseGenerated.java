@@ -0,0 +1,110 @@
+package org.geysermc.databaseutils.memory;
+
+import java.lang.Class;
+import java.lang.Integer;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.geysermc.databaseutils.DatabaseBootstrap;
+import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.codec.TypeCodec;
+import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotType;
+import test.advanced.AdvancedRepository;
+import test.advanced.AdvancedRepositoryEventsImpl;
+import test.advanced.AdvancedRepositoryMemoryImpl;
+import test.advanced.TestEntity;
+
+public final class MemoryDatabaseGenerated implements DatabaseBootstrap<MemoryDatabase> {
+    @Override
+    public DatabaseCategory category() {
+        return DatabaseCategory.MEMORY;
+    }
+
+    @Override
+    public boolean hasAsync() {
+        return true;
+    }
+
+    @Override
+    public void createEntities(MemoryDatabase database) {
+        database.createTable("hello", List.of("a", "b", "c", "d"), TestEntityKey::of, new TestEntityRowCodec(database.registry()), List.of(
+                    new MemoryIndex<TestEntity>("c", false, true, __entity -> Arrays.asList(__entity.c()))));
+    }
+
+    @Override
+    public List<SnapshotEntity> snapshotEntities() {
+        return List.of(
+                    new SnapshotEntity(TestEntity.class, "hello", List.of(
+                        new SnapshotColumn("a", SnapshotType.INTEGER),
+                        new SnapshotColumn("b", SnapshotType.STRING),
+                        new SnapshotColumn("c", SnapshotType.STRING),
+                        new SnapshotColumn("d", SnapshotType.BYTES)), List.of("a", "b")));
+    }
+
+    @Override
+    public Map<Class<?>, IRepository<?>> createRepositories(MemoryDatabase database, TypeCodecRegistry registry) {
+        Map<Class<?>, IRepository<?>> repositories = new HashMap<>();
+        repositories.put(AdvancedRepository.class, new AdvancedRepositoryEventsImpl(new AdvancedRepositoryMemoryImpl(database, registry), database));
+        return repositories;
+    }
+
+    public static final class TestEntityKey {
+        private final Integer a;
+        private final String b;
+
+        public TestEntityKey(Integer a, String b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        public static TestEntityKey of(TestEntity entity) {
+            return new TestEntityKey(entity.a(), entity.b());
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof TestEntityKey other)) {
+                return false;
+            }
+            return Objects.equals(this.a, other.a) && Objects.equals(this.b, other.b);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(a, b);
+        }
+
+        @Override
+        public String toString() {
+            return "TestEntity" + Arrays.asList(a, b);
+        }
+    }
+
+    private static final class TestEntityRowCodec implements MemoryRowCodec<TestEntity> {
+        private final TypeCodec<UUID> d;
+
+        TestEntityRowCodec(TypeCodecRegistry registry) {
+            this.d = registry.requireCodecFor(UUID.class);
+        }
+
+        @Override
+        public Object[] toRow(TestEntity entity) {
+            return new Object[] {entity.a(), entity.b(), entity.c(), entity.d() != null ? this.d.encode(entity.d()) : null};
+        }
+
+        @Override
+        public TestEntity fromRow(Object[] row) {
+            return new TestEntity((int) row[0], (String) row[1], (String) row[2], row[3] != null ? this.d.decode((byte[]) row[3]) : null);
+        }
+    }
+}
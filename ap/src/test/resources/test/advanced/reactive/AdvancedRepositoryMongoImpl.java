@@ -0,0 +1,140 @@
+package test.advanced;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import java.lang.Boolean;
+import java.lang.Exception;
+import java.lang.IllegalStateException;
+import java.lang.Override;
+import java.lang.String;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.geysermc.databaseutils.codec.TypeCodec;
+import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.mongo.MongoTransaction;
+import org.geysermc.databaseutils.mongo.MongodbDatabase;
+import org.geysermc.databaseutils.mongo.PublisherFutures;
+import org.geysermc.databaseutils.util.IntArrayBuilder;
+
+public final class AdvancedRepositoryMongoImpl implements AdvancedRepository {
+    private final MongodbDatabase database;
+    private final MongoCollection<TestEntity> collection;
+    private final com.mongodb.reactivestreams.client.MongoCollection<TestEntity> reactiveCollection;
+    private final TypeCodec<UUID> __d;
+
+    public AdvancedRepositoryMongoImpl(MongodbDatabase database, TypeCodecRegistry registry) {
+        this.database = database;
+        this.collection = database.mongoDatabase().getCollection("hello", TestEntity.class);
+        this.reactiveCollection = database.reactiveDatabase().getCollection("hello", TestEntity.class);
+        this.__d = registry.requireCodecFor(UUID.class);
+    }
+
+    @Override
+    public CompletableFuture<TestEntity> findByAAndB(int aa, String b) {
+        this.database.requireNoBoundTransaction();
+        return PublisherFutures.first(this.reactiveCollection.find(Filters.and(Filters.eq("a", aa), Filters.eq("b", b))).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).first());
+    }
+
+    @Override
+    public List<String> findTop3BByA(int a) {
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            return this.collection.find(__transaction.session(), Filters.eq("a", a)).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).limit(3).map(TestEntity::b).into(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public int[] findAByB(String b) {
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            var __responses = new IntArrayBuilder();
+            try (var __cursor = this.collection.find(__transaction.session(), Filters.eq("b", b), RawBsonDocument.class).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).projection(Projections.include("a")).iterator()) {
+                while (__cursor.hasNext()) {
+                    var __document = __cursor.next();
+                    __responses.add(__document.getInt32("a").getValue());
+                }
+            }
+            return __responses.toArray();
+        }
+    }
+
+    @Override
+    public CompletableFuture<IntStream> findTop3AByCOrderByA(String c) {
+        this.database.requireNoBoundTransaction();
+        var __responses = new IntArrayBuilder(3);
+        return PublisherFutures.forEach(this.reactiveCollection.find(Filters.eq("c", c), RawBsonDocument.class).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).sort(Sorts.orderBy(Sorts.ascending("a"))).limit(3).projection(Projections.include("a")), __document -> __responses.add(__document.getInt32("a").getValue()), __responses::stream);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsByAOrB(int a, String bb) {
+        this.database.requireNoBoundTransaction();
+        return PublisherFutures.first(this.reactiveCollection.find(Filters.or(Filters.eq("a", a), Filters.eq("b", bb))).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).limit(1).first(), Objects::nonNull);
+    }
+
+    @Override
+    public void updateByBAndC(String b, String oldC, String c) {
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            this.collection.updateMany(__transaction.session(), Filters.and(Filters.eq("b", b), Filters.eq("c", oldC)), Updates.combine(Updates.set("c", c)));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteByAAndBAndC(int a, String b, String c) {
+        this.database.requireNoBoundTransaction();
+        return PublisherFutures.first(this.reactiveCollection.deleteMany(Filters.and(Filters.eq("a", a), Filters.and(Filters.eq("b", b), Filters.eq("c", c)))), __result -> __result.getDeletedCount() > 0);
+    }
+
+    @Override
+    public int deleteByAAndC(int a, String c) {
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            int __count;
+            __count = (int) this.collection.deleteMany(__transaction.session(), Filters.and(Filters.eq("a", a), Filters.eq("c", c))).getDeletedCount();
+            return __count;
+        }
+    }
+
+    @Override
+    public TestEntity deleteByAAndB(int a, String b) {
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            return this.collection.findOneAndDelete(__transaction.session(), Filters.and(Filters.eq("a", a), Filters.eq("b", b)));
+        }
+    }
+
+    @Override
+    public List<TestEntity> deleteByBAndC(String b, String c) {
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            __transaction.begin();
+            try {
+                var __find = this.collection.find(__transaction.session(), Filters.and(Filters.eq("b", b), Filters.eq("c", c))).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).into(new ArrayList<>());
+                var __toDelete = new ArrayList<Bson>();
+                for (var __found : __find) {
+                    __toDelete.add(Filters.and(Filters.eq("a", __found.a()), Filters.eq("b", __found.b())));
+                }
+                var __deletedCount = this.collection.deleteMany(__transaction.session(), Filters.or(__toDelete)).getDeletedCount();
+                if (__find.size() != __deletedCount) {
+                    throw new IllegalStateException("Found %s documents but deleted %s documents".formatted(__find.size(), __deletedCount));
+                }
+                __transaction.commit();
+                return __find;
+            } catch (Exception __exception) {
+                __transaction.rollback();
+                throw __exception;
+            }
+        }
+    }
+
+    @Override
+    public TestEntity findWithAlternativeName(int a, String b) {
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            return this.collection.find(__transaction.session(), Filters.and(Filters.eq("a", a), Filters.and(Filters.eq("b", b), Filters.not(Filters.eq("c", null))))).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).first();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.geysermc.databaseutils.mongo;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import java.lang.Class;
+import java.lang.Override;
+import java.lang.SuppressWarnings;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bson.BsonReader;
+import org.bson.BsonSerializationException;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotType;
+import org.geysermc.databaseutils.util.TypedMap;
+import test.advanced.AdvancedRepository;
+import test.advanced.AdvancedRepositoryEventsImpl;
+import test.advanced.AdvancedRepositoryMongoImpl;
+import test.advanced.TestEntity;
+
+public final class MongoDatabaseGenerated implements MongoDatabaseBootstrap {
+    private static final CodecProvider ENTITY_CODECS = new EntityCodecProvider();
+
+    @Override
+    public DatabaseCategory category() {
+        return DatabaseCategory.MONGODB;
+    }
+
+    @Override
+    public boolean hasAsync() {
+        return false;
+    }
+
+    @Override
+    public boolean reactive() {
+        return true;
+    }
+
+    @Override
+    public CodecProvider entityCodecs() {
+        return ENTITY_CODECS;
+    }
+
+    @Override
+    public void createEntities(MongodbDatabase database) throws MongoException {
+        MongoDatabase mongoDatabase = database.mongoDatabase();
+        var collectionNames = mongoDatabase.listCollectionNames().into(new ArrayList<>());
+        if (!collectionNames.contains("hello")) {
+            mongoDatabase.createCollection("hello");
+            MongoCollection<Document> collection = mongoDatabase.getCollection("hello");
+            collection.createIndex(new Document().append("c", 1));
+            collection.createIndex(new Document().append("a", 1).append("b", 1), new IndexOptions().unique(true));
+        }
+    }
+
+    @Override
+    public List<SnapshotEntity> snapshotEntities() {
+        return List.of(
+                    new SnapshotEntity(TestEntity.class, "hello", List.of(
+                        new SnapshotColumn("a", SnapshotType.INTEGER),
+                        new SnapshotColumn("b", SnapshotType.STRING),
+                        new SnapshotColumn("c", SnapshotType.STRING),
+                        new SnapshotColumn("d", SnapshotType.BYTES)), List.of("a", "b")));
+    }
+
+    @Override
+    public Map<Class<?>, IRepository<?>> createRepositories(MongodbDatabase database, TypeCodecRegistry registry) {
+        Map<Class<?>, IRepository<?>> repositories = new HashMap<>();
+        repositories.put(AdvancedRepository.class, new AdvancedRepositoryEventsImpl(new AdvancedRepositoryMongoImpl(database, registry), database));
+        return repositories;
+    }
+
+    private static final class TestEntityCodec implements Codec<TestEntity> {
+        private final Codec<UUID> d;
+
+        public TestEntityCodec(CodecRegistry registry) {
+            this.d = registry.get(UUID.class);
+        }
+
+        @Override
+        public TestEntity decode(BsonReader reader, DecoderContext context) {
+            reader.readStartDocument();
+            var map = new TypedMap();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                var name = reader.readName();
+                if ("a".equals(name)) {
+                    map.put("a", reader.readInt32());
+                    continue;
+                }
+                if ("b".equals(name)) {
+                    map.put("b", reader.readString());
+                    continue;
+                }
+                if ("c".equals(name)) {
+                    map.put("c", reader.readString());
+                    continue;
+                }
+                if ("d".equals(name)) {
+                    map.put("d", this.d.decode(reader, context));
+                    continue;
+                }
+                if (!"_id".equals(name)) {
+                    throw new BsonSerializationException("Unknown field %s".formatted(name));
+                }
+                reader.readObjectId();
+            }
+            reader.readEndDocument();
+            return new TestEntity(map.get("a"), map.get("b"), map.get("c"), map.get("d"));
+        }
+
+        @Override
+        public void encode(BsonWriter writer, TestEntity value, EncoderContext context) {
+            writer.writeStartDocument();
+            writer.writeName("a");
+            writer.writeInt32(value.a());
+            writer.writeName("b");
+            writer.writeString(value.b());
+            writer.writeName("c");
+            writer.writeString(value.c());
+            writer.writeName("d");
+            this.d.encode(writer, value.d(), context);
+            writer.writeEndDocument();
+        }
+
+        @Override
+        public Class<TestEntity> getEncoderClass() {
+            return TestEntity.class;
+        }
+    }
+
+    private static final class EntityCodecProvider implements CodecProvider {
+        @Override
+        @SuppressWarnings({"unchecked"})
+        public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+            if (clazz == TestEntity.class) {
+                return (Codec<T>) new TestEntityCodec(registry);
+            }
+            return null;
+        }
+    }
+}
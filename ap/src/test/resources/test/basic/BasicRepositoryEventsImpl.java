@@ -0,0 +1,226 @@
+package test.basic;
+
+import java.lang.Boolean;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.Void;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.Database;
+import org.geysermc.databaseutils.jfr.RepositoryEvent;
+
+public final class BasicRepositoryEventsImpl implements BasicRepository {
+    private final BasicRepository delegate;
+
+    private final String database;
+
+    public BasicRepositoryEventsImpl(BasicRepository delegate, Database database) {
+        this.delegate = delegate;
+        this.database = database.type().name();
+    }
+
+    @Override
+    public CompletableFuture<List<TestEntity>> find() {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.find();
+        }
+        __event.start("test.basic.BasicRepository", "find", this.database, 0);
+        CompletableFuture<List<TestEntity>> __future;
+        try {
+            __future = this.delegate.find();
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            if (__error == null) {
+                __event.rows(__result.size());
+            }
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public CompletableFuture<TestEntity> findByA(int a) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.findByA(a);
+        }
+        __event.start("test.basic.BasicRepository", "findByA", this.database, 0);
+        CompletableFuture<TestEntity> __future;
+        try {
+            __future = this.delegate.findByA(a);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            if (__error == null) {
+                __event.rows(__result != null ? 1 : 0);
+            }
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists() {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.exists();
+        }
+        __event.start("test.basic.BasicRepository", "exists", this.database, 0);
+        CompletableFuture<Boolean> __future;
+        try {
+            __future = this.delegate.exists();
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            if (__error == null) {
+                __event.rows(Boolean.TRUE.equals(__result) ? 1 : 0);
+            }
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsByBEquals(String b) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.existsByBEquals(b);
+        }
+        __event.start("test.basic.BasicRepository", "existsByBEquals", this.database, 0);
+        CompletableFuture<Boolean> __future;
+        try {
+            __future = this.delegate.existsByBEquals(b);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            if (__error == null) {
+                __event.rows(Boolean.TRUE.equals(__result) ? 1 : 0);
+            }
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public void update(List<TestEntity> entity) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            this.delegate.update(entity);
+            return;
+        }
+        __event.start("test.basic.BasicRepository", "update", this.database, entity.size());
+        try {
+            this.delegate.update(entity);
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public void update(TestEntity entity) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            this.delegate.update(entity);
+            return;
+        }
+        __event.start("test.basic.BasicRepository", "update", this.database, 1);
+        try {
+            this.delegate.update(entity);
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> insert(TestEntity entity) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.insert(entity);
+        }
+        __event.start("test.basic.BasicRepository", "insert", this.database, 1);
+        CompletableFuture<Void> __future;
+        try {
+            __future = this.delegate.insert(entity);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public void insert(List<TestEntity> entities) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            this.delegate.insert(entities);
+            return;
+        }
+        __event.start("test.basic.BasicRepository", "insert", this.database, entities.size());
+        try {
+            this.delegate.insert(entities);
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(TestEntity entity) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.delete(entity);
+        }
+        __event.start("test.basic.BasicRepository", "delete", this.database, 1);
+        CompletableFuture<Void> __future;
+        try {
+            __future = this.delegate.delete(entity);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            __event.finish();
+        });
+        return __future;
+    }
+
+    @Override
+    public void delete(List<TestEntity> entities) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            this.delegate.delete(entities);
+            return;
+        }
+        __event.start("test.basic.BasicRepository", "delete", this.database, entities.size());
+        try {
+            this.delegate.delete(entities);
+        } finally {
+            __event.finish();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteByAAndB(int a, String b) {
+        RepositoryEvent __event = new RepositoryEvent();
+        if (!__event.isEnabled()) {
+            return this.delegate.deleteByAAndB(a, b);
+        }
+        __event.start("test.basic.BasicRepository", "deleteByAAndB", this.database, 0);
+        CompletableFuture<Void> __future;
+        try {
+            __future = this.delegate.deleteByAAndB(a, b);
+        } finally {
+            __event.detach();
+        }
+        __future.whenComplete((__result, __error) -> {
+            __event.finish();
+        });
+        return __future;
+    }
+}
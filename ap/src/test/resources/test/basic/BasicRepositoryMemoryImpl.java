@@ -0,0 +1,102 @@
+package test.basic;
+
+import java.lang.Boolean;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.Void;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.codec.TypeCodec;
+import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.memory.MemoryDatabase;
+import org.geysermc.databaseutils.memory.MemoryDatabaseGenerated;
+import org.geysermc.databaseutils.memory.MemoryTable;
+
+public final class BasicRepositoryMemoryImpl implements BasicRepository {
+    private final MemoryDatabase database;
+    private final MemoryTable<TestEntity> table;
+    private final TypeCodec<UUID> __d;
+
+    public BasicRepositoryMemoryImpl(MemoryDatabase database, TypeCodecRegistry registry) {
+        this.database = database;
+        this.table = database.table("hello");
+        this.__d = registry.requireCodecFor(UUID.class);
+    }
+
+    @Override
+    public CompletableFuture<List<TestEntity>> find() {
+        return this.database.supplyAsync(() -> {
+            return this.table.stream().collect(Collectors.toCollection(ArrayList::new));
+        });
+    }
+
+    @Override
+    public CompletableFuture<TestEntity> findByA(int a) {
+        return this.database.supplyAsync(() -> {
+            return this.table.stream().filter(__entity -> __entity.a() == a).findFirst().orElse(null);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists() {
+        return this.database.supplyAsync(() -> {
+            return this.table.stream().findAny().isPresent();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsByBEquals(String b) {
+        return this.database.supplyAsync(() -> {
+            return this.table.stream().filter(__entity -> Objects.equals(__entity.b(), b)).findAny().isPresent();
+        });
+    }
+
+    @Override
+    public void update(List<TestEntity> entity) {
+        this.table.updateAll(entity);
+    }
+
+    @Override
+    public void update(TestEntity entity) {
+        this.table.update(entity);
+    }
+
+    @Override
+    public CompletableFuture<Void> insert(TestEntity entity) {
+        return this.database.supplyAsync(() -> {
+            this.table.insert(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public void insert(List<TestEntity> entities) {
+        this.table.insertAll(entities);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(TestEntity entity) {
+        return this.database.supplyAsync(() -> {
+            this.table.delete(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(List<TestEntity> entities) {
+        this.table.deleteAll(entities);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteByAAndB(int a, String b) {
+        return this.database.supplyAsync(() -> {
+            this.table.deleteMatching(Stream.ofNullable(this.table.get(new MemoryDatabaseGenerated.TestEntityKey(a, b))).filter(__entity -> __entity.a() == a && Objects.equals(__entity.b(), b))).size();
+            return null;
+        });
+    }
+}
@@ -1,8 +1,7 @@
 package test.basic;
 
-import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.DeleteManyModel;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.WriteModel;
@@ -14,106 +13,144 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.bson.conversions.Bson;
 import org.geysermc.databaseutils.codec.TypeCodec;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.mongo.MongoTransaction;
 import org.geysermc.databaseutils.mongo.MongodbDatabase;
 
 public final class BasicRepositoryMongoImpl implements BasicRepository {
     private final MongodbDatabase database;
-    private final MongoClient mongoClient;
     private final MongoCollection<TestEntity> collection;
     private final TypeCodec<UUID> __d;
 
     public BasicRepositoryMongoImpl(MongodbDatabase database, TypeCodecRegistry registry) {
         this.database = database;
-        this.mongoClient = database.mongoClient();
         this.collection = database.mongoDatabase().getCollection("hello", TestEntity.class);
         this.__d = registry.requireCodecFor(UUID.class);
     }
 
     @Override
     public CompletableFuture<List<TestEntity>> find() {
-        return CompletableFuture.supplyAsync(() -> {
-            return this.collection.find(Filters.empty()).into(new ArrayList<>());
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                return this.collection.find(__transaction.session(), Filters.empty()).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).into(new ArrayList<>());
+            }
+        });
     }
 
     @Override
     public CompletableFuture<TestEntity> findByA(int a) {
-        return CompletableFuture.supplyAsync(() -> {
-            return this.collection.find(Filters.eq("a", a)).first();
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                return this.collection.find(__transaction.session(), Filters.eq("a", a)).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).first();
+            }
+        });
     }
 
     @Override
     public CompletableFuture<Boolean> exists() {
-        return CompletableFuture.supplyAsync(() -> {
-            return this.collection.find(Filters.empty()).limit(1).first() != null;
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                return this.collection.find(__transaction.session(), Filters.empty()).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).limit(1).first() != null;
+            }
+        });
     }
 
     @Override
     public CompletableFuture<Boolean> existsByBEquals(String b) {
-        return CompletableFuture.supplyAsync(() -> {
-            return this.collection.find(Filters.eq("b", b)).limit(1).first() != null;
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                return this.collection.find(__transaction.session(), Filters.eq("b", b)).maxTime(this.database.queryTimeoutMillis(), TimeUnit.MILLISECONDS).limit(1).first() != null;
+            }
+        });
     }
 
     @Override
     public void update(List<TestEntity> entity) {
-        if (entity.isEmpty()) {
-            return;
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            if (entity.isEmpty()) {
+                return;
+            }
+            var __bulkOperations = new ArrayList<WriteModel<TestEntity>>();
+            for (var __entry : entity) {
+                __bulkOperations.add(new ReplaceOneModel<>(keyFilter(__entry), __entry));
+            }
+            this.collection.bulkWrite(__transaction.session(), __bulkOperations);
         }
-        var __bulkOperations = new ArrayList<WriteModel<TestEntity>>();
-        for (var __entry : entity) {
-            __bulkOperations.add(new ReplaceOneModel<>(Filters.and(Filters.eq("a", __entry.a()), Filters.eq("b", __entry.b())), __entry));
-        }
-        this.collection.bulkWrite(__bulkOperations);
     }
 
     @Override
     public void update(TestEntity entity) {
-        this.collection.replaceOne(Filters.and(Filters.eq("a", entity.a()), Filters.eq("b", entity.b())), entity);
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            this.collection.replaceOne(__transaction.session(), keyFilter(entity), entity);
+        }
     }
 
     @Override
     public CompletableFuture<Void> insert(TestEntity entity) {
-        return CompletableFuture.supplyAsync(() -> {
-            this.collection.insertOne(entity);
-            return null;
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                this.collection.insertOne(__transaction.session(), entity);
+                return null;
+            }
+        });
     }
 
     @Override
     public void insert(List<TestEntity> entities) {
-        if (entities.isEmpty()) {
-            return;
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            if (entities.isEmpty()) {
+                return;
+            }
+            this.collection.insertMany(__transaction.session(), entities);
         }
-        this.collection.insertMany(entities);
     }
 
     @Override
     public CompletableFuture<Void> delete(TestEntity entity) {
-        return CompletableFuture.supplyAsync(() -> {
-            this.collection.deleteOne(Filters.and(Filters.eq("a", entity.a()), Filters.eq("b", entity.b())));
-            return null;
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                this.collection.deleteOne(__transaction.session(), keyFilter(entity));
+                return null;
+            }
+        });
     }
 
     @Override
     public void delete(List<TestEntity> entities) {
-        var __bulkOperations = new ArrayList<WriteModel<TestEntity>>();
-        for (var __entry : entities) {
-            __bulkOperations.add(new DeleteOneModel<>(Filters.and(Filters.eq("a", __entry.a()), Filters.eq("b", __entry.b()))));
+        try (MongoTransaction __transaction = this.database.transaction()) {
+            if (entities.isEmpty()) {
+                return;
+            }
+            var __keys = new ArrayList<Bson>();
+            var __bulkOperations = new ArrayList<WriteModel<TestEntity>>();
+            for (var __entry : entities) {
+                __keys.add(keyFilter(__entry));
+                if (__keys.size() == 1000) {
+                    __bulkOperations.add(new DeleteManyModel<>(Filters.or(__keys)));
+                    __keys = new ArrayList<>();
+                }
+            }
+            if (!__keys.isEmpty()) {
+                __bulkOperations.add(new DeleteManyModel<>(Filters.or(__keys)));
+            }
+            this.collection.bulkWrite(__transaction.session(), __bulkOperations);
         }
-        this.collection.bulkWrite(__bulkOperations);
     }
 
     @Override
     public CompletableFuture<Void> deleteByAAndB(int a, String b) {
-        return CompletableFuture.supplyAsync(() -> {
-            this.collection.deleteMany(Filters.and(Filters.eq("a", a), Filters.eq("b", b)));
-            return null;
-        } , this.database.executorService());
+        return this.database.supplyAsync(() -> {
+            try (MongoTransaction __transaction = this.database.transaction()) {
+                this.collection.deleteMany(__transaction.session(), Filters.and(Filters.eq("a", a), Filters.eq("b", b)));
+                return null;
+            }
+        });
+    }
+
+    private static Bson keyFilter(TestEntity __entity) {
+        return Filters.and(Filters.eq("a", __entity.a()), Filters.eq("b", __entity.b()));
     }
 }
\ No newline at end of file
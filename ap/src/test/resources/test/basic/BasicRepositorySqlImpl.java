@@ -1,16 +1,16 @@
 package test.basic;
 
-import com.zaxxer.hikari.HikariDataSource;
 import java.lang.Boolean;
 import java.lang.Integer;
+import java.lang.Math;
 import java.lang.Override;
 import java.lang.String;
 import java.lang.Void;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -19,33 +19,34 @@ import org.geysermc.databaseutils.codec.TypeCodec;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
 import org.geysermc.databaseutils.sql.SqlDatabase;
 import org.geysermc.databaseutils.sql.SqlDialect;
+import org.geysermc.databaseutils.sql.SqlTransaction;
 
 public final class BasicRepositorySqlImpl implements BasicRepository {
     private final SqlDatabase database;
-    private final HikariDataSource dataSource;
     private final SqlDialect dialect;
+    private final CommonImpl dialectSpecific;
     private final TypeCodec<UUID> __d;
 
     public BasicRepositorySqlImpl(SqlDatabase database, TypeCodecRegistry registry) {
         this.database = database;
-        this.dataSource = database.dataSource();
         this.dialect = database.dialect();
+        if (this.dialect == SqlDialect.SQL_SERVER) {
+            this.dialectSpecific = new SqlServerImpl();
+        } else {
+            this.dialectSpecific = new CommonImpl();
+        }
         this.__d = registry.requireCodecFor(UUID.class);
     }
 
     @Override
     public CompletableFuture<List<TestEntity>> find() {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("select * from hello")) {
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select * from hello")) {
                     try (ResultSet __result = __statement.executeQuery()) {
                         List<TestEntity> __responses = new ArrayList<>();
                         while (__result.next()) {
-                            Integer _a = __result.getInt("a");
-                            String _b = __result.getString("b");
-                            String _c = __result.getString("c");
-                            UUID _d = this.__d.decode(__result.getBytes("d"));
-                            __responses.add(new TestEntity(_a, _b, _c, _d));
+                            __responses.add(this.mapRow(__result));
                         }
                         return __responses;
                     }
@@ -53,37 +54,33 @@ public final class BasicRepositorySqlImpl implements BasicRepository {
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public CompletableFuture<TestEntity> findByA(int a) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("select * from hello where a=?")) {
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select * from hello where a=?")) {
                     __statement.setInt(1, a);
                     try (ResultSet __result = __statement.executeQuery()) {
                         if (!__result.next()) {
                             return null;
                         }
-                        Integer _a = __result.getInt("a");
-                        String _b = __result.getString("b");
-                        String _c = __result.getString("c");
-                        UUID _d = this.__d.decode(__result.getBytes("d"));
-                        return new TestEntity(_a, _b, _c, _d);
+                        return this.mapRow(__result);
                     }
                 }
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public CompletableFuture<Boolean> exists() {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("select 1 from hello")) {
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select 1 from hello")) {
                     try (ResultSet __result = __statement.executeQuery()) {
                         return __result.next();
                     }
@@ -91,14 +88,14 @@ public final class BasicRepositorySqlImpl implements BasicRepository {
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public CompletableFuture<Boolean> existsByBEquals(String b) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("select 1 from hello where b=?")) {
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.readTransaction()) {
+                try (PreparedStatement __statement = __transaction.prepareStatement("select 1 from hello where b=?")) {
                     __statement.setString(1, b);
                     try (ResultSet __result = __statement.executeQuery()) {
                         return __result.next();
@@ -107,14 +104,14 @@ public final class BasicRepositorySqlImpl implements BasicRepository {
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public void update(List<TestEntity> entity) {
-        try (Connection __connection = this.dataSource.getConnection()) {
-            __connection.setAutoCommit(false);
-            try (PreparedStatement __statement = __connection.prepareStatement("update hello set c=?,d=? where a=? and b=?")) {
+        try (SqlTransaction __transaction = this.database.transaction()) {
+            __transaction.begin();
+            try (PreparedStatement __statement = __transaction.prepareStatement("update hello set c=?,d=? where a=? and b=?")) {
                 int __count = 0;
                 for (var __element : entity) {
                     __statement.setString(1, __element.c());
@@ -127,10 +124,10 @@ public final class BasicRepositorySqlImpl implements BasicRepository {
                     }
                 }
                 __statement.executeBatch();
-                __connection.commit();
-                return;
+                __transaction.commit();
+                return ;
             } catch (SQLException __exception) {
-                __connection.rollback();
+                __transaction.rollback();
                 throw __exception;
             }
         } catch (SQLException __exception) {
@@ -140,15 +137,14 @@ public final class BasicRepositorySqlImpl implements BasicRepository {
 
     @Override
     public void update(TestEntity entity) {
-        try (Connection __connection = this.dataSource.getConnection()) {
-            try (PreparedStatement __statement = __connection.prepareStatement("update hello set c=?,d=? where a=? and b=?")) {
-                __statement.setString(1, entity.c());
-                __statement.setBytes(2, this.__d.encode(entity.d()));
-                __statement.setInt(3, entity.a());
-                __statement.setString(4, entity.b());
-                __statement.executeUpdate();
-                return;
-            }
+        try (SqlTransaction __transaction = this.database.transaction()) {
+            PreparedStatement __statement = __transaction.batch("update hello set c=?,d=? where a=? and b=?");
+            __statement.setString(1, entity.c());
+            __statement.setBytes(2, this.__d.encode(entity.d()));
+            __statement.setInt(3, entity.a());
+            __statement.setString(4, entity.b());
+            __statement.addBatch();
+            return;
         } catch (SQLException __exception) {
             throw new CompletionException("Unexpected error occurred", __exception);
         }
@@ -156,43 +152,36 @@ public final class BasicRepositorySqlImpl implements BasicRepository {
 
     @Override
     public CompletableFuture<Void> insert(TestEntity entity) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("insert into hello (a,b,c,d) values (?,?,?,?)")) {
-                    __statement.setInt(1, entity.a());
-                    __statement.setString(2, entity.b());
-                    __statement.setString(3, entity.c());
-                    __statement.setBytes(4, this.__d.encode(entity.d()));
-                    __statement.executeUpdate();
-                    return null;
-                }
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.transaction()) {
+                PreparedStatement __statement = __transaction.batch("insert into hello (a,b,c,d) values (?,?,?,?)");
+                this.bindAll(__statement, 1, entity);
+                __statement.addBatch();
+                return null;
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public void insert(List<TestEntity> entities) {
-        try (Connection __connection = this.dataSource.getConnection()) {
-            __connection.setAutoCommit(false);
-            try (PreparedStatement __statement = __connection.prepareStatement("insert into hello (a,b,c,d) values (?,?,?,?)")) {
+        try (SqlTransaction __transaction = this.database.transaction()) {
+            __transaction.begin();
+            try (PreparedStatement __statement = __transaction.prepareStatement("insert into hello (a,b,c,d) values (?,?,?,?)")) {
                 int __count = 0;
                 for (var __element : entities) {
-                    __statement.setInt(1, __element.a());
-                    __statement.setString(2, __element.b());
-                    __statement.setString(3, __element.c());
-                    __statement.setBytes(4, this.__d.encode(__element.d()));
+                    this.bindAll(__statement, 1, __element);
                     __statement.addBatch();
                     if (++__count % 500 == 0) {
                         __statement.executeBatch();
                     }
                 }
                 __statement.executeBatch();
-                __connection.commit();
+                __transaction.commit();
                 return ;
             } catch (SQLException __exception) {
-                __connection.rollback();
+                __transaction.rollback();
                 throw __exception;
             }
         } catch (SQLException __exception) {
@@ -202,59 +191,115 @@ public final class BasicRepositorySqlImpl implements BasicRepository {
 
     @Override
     public CompletableFuture<Void> delete(TestEntity entity) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("delete from hello where a=? and b=?")) {
-                    __statement.setInt(1, entity.a());
-                    __statement.setString(2, entity.b());
-                    __statement.executeUpdate();
-                    return null;
-                }
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.transaction()) {
+                PreparedStatement __statement = __transaction.batch("delete from hello where a=? and b=?");
+                __statement.setInt(1, entity.a());
+                __statement.setString(2, entity.b());
+                __statement.addBatch();
+                return null;
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        });
     }
 
     @Override
     public void delete(List<TestEntity> entities) {
-        try (Connection __connection = this.dataSource.getConnection()) {
-            __connection.setAutoCommit(false);
-            try (PreparedStatement __statement = __connection.prepareStatement("delete from hello where a=? and b=?")) {
-                int __count = 0;
-                for (var __element : entities) {
-                    __statement.setInt(1, __element.a());
-                    __statement.setString(2, __element.b());
-                    __statement.addBatch();
-                    if (++__count % 500 == 0) {
-                        __statement.executeBatch();
+        this.dialectSpecific.delete(entities);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteByAAndB(int a, String b) {
+        return this.database.supplyAsync(() -> {
+            try (SqlTransaction __transaction = this.database.transaction()) {
+                PreparedStatement __statement = __transaction.batch("delete from hello where a=? and b=?");
+                __statement.setInt(1, a);
+                __statement.setString(2, b);
+                __statement.addBatch();
+                return null;
+            } catch (SQLException __exception) {
+                throw new CompletionException("Unexpected error occurred", __exception);
+            }
+        });
+    }
+
+    private TestEntity mapRow(ResultSet __result) throws SQLException {
+        Integer _a = __result.getInt("a");
+        String _b = __result.getString("b");
+        String _c = __result.getString("c");
+        UUID _d = this.__d.decode(__result.getBytes("d"));
+        return new TestEntity(_a, _b, _c, _d);
+    }
+
+    private void bindAll(PreparedStatement __statement, int __index, TestEntity __entity) throws SQLException {
+        __statement.setInt(__index, __entity.a());
+        __statement.setString(__index + 1, __entity.b());
+        __statement.setString(__index + 2, __entity.c());
+        __statement.setBytes(__index + 3, this.__d.encode(__entity.d()));
+    }
+
+    private void bindKey(PreparedStatement __statement, int __index, TestEntity __entity) throws SQLException {
+        __statement.setInt(__index, __entity.a());
+        __statement.setString(__index + 1, __entity.b());
+    }
+
+    private class CommonImpl {
+        void delete(List<TestEntity> entities) {
+            try (SqlTransaction __transaction = BasicRepositorySqlImpl.this.database.transaction()) {
+                __transaction.begin();
+                try {
+                    var __iterator = entities.iterator();
+                    int __remaining = entities.size();
+                    while (__remaining > 0) {
+                        int __chunkSize = Math.min(__remaining, 1000);
+                        __remaining -= __chunkSize;
+                        try (PreparedStatement __statement = __transaction.prepareStatement("delete from hello where (a,b) in (%s)".formatted(String.join(",", Collections.nCopies(__chunkSize, "(?,?)"))))) {
+                            for (int __index = 1; __index <= __chunkSize * 2; __index += 2) {
+                                BasicRepositorySqlImpl.this.bindKey(__statement, __index, __iterator.next());
+                            }
+                            __statement.executeUpdate();
+                        }
                     }
+                    __transaction.commit();
+                    return ;
+                } catch (SQLException __exception) {
+                    __transaction.rollback();
+                    throw __exception;
                 }
-                __statement.executeBatch();
-                __connection.commit();
-                return ;
             } catch (SQLException __exception) {
-                __connection.rollback();
-                throw __exception;
+                throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } catch (SQLException __exception) {
-            throw new CompletionException("Unexpected error occurred", __exception);
         }
     }
 
-    @Override
-    public CompletableFuture<Void> deleteByAAndB(int a, String b) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection __connection = this.dataSource.getConnection()) {
-                try (PreparedStatement __statement = __connection.prepareStatement("delete from hello where a=? and b=?")) {
-                    __statement.setInt(1, a);
-                    __statement.setString(2, b);
-                    __statement.executeUpdate();
-                    return null;
+    private final class SqlServerImpl extends CommonImpl {
+        @Override
+        void delete(List<TestEntity> entities) {
+            try (SqlTransaction __transaction = BasicRepositorySqlImpl.this.database.transaction()) {
+                __transaction.begin();
+                try {
+                    var __iterator = entities.iterator();
+                    int __remaining = entities.size();
+                    while (__remaining > 0) {
+                        int __chunkSize = Math.min(__remaining, 1000);
+                        __remaining -= __chunkSize;
+                        try (PreparedStatement __statement = __transaction.prepareStatement("delete from hello where %s".formatted(String.join(" or ", Collections.nCopies(__chunkSize, "(a=? and b=?)"))))) {
+                            for (int __index = 1; __index <= __chunkSize * 2; __index += 2) {
+                                BasicRepositorySqlImpl.this.bindKey(__statement, __index, __iterator.next());
+                            }
+                            __statement.executeUpdate();
+                        }
+                    }
+                    __transaction.commit();
+                    return ;
+                } catch (SQLException __exception) {
+                    __transaction.rollback();
+                    throw __exception;
                 }
             } catch (SQLException __exception) {
                 throw new CompletionException("Unexpected error occurred", __exception);
             }
-        } , this.database.executorService());
+        }
     }
 }
\ No newline at end of file
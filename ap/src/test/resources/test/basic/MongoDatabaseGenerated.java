@@ -8,9 +8,10 @@ import java.lang.Class;
 import java.lang.Override;
 import java.lang.SuppressWarnings;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.function.BiFunction;
 import org.bson.BsonReader;
 import org.bson.BsonSerializationException;
 import org.bson.BsonType;
@@ -21,25 +22,38 @@ import org.bson.codecs.DecoderContext;
 import org.bson.codecs.EncoderContext;
 import org.bson.codecs.configuration.CodecProvider;
 import org.bson.codecs.configuration.CodecRegistry;
+import org.geysermc.databaseutils.DatabaseCategory;
 import org.geysermc.databaseutils.IRepository;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotType;
 import org.geysermc.databaseutils.util.TypedMap;
+import test.basic.BasicRepository;
+import test.basic.BasicRepositoryEventsImpl;
 import test.basic.BasicRepositoryMongoImpl;
 import test.basic.TestEntity;
 
-class MongoDatabaseGenerated {
-    private static final boolean HAS_ASYNC = true;
-
+public final class MongoDatabaseGenerated implements MongoDatabaseBootstrap {
     private static final CodecProvider ENTITY_CODECS = new EntityCodecProvider();
 
-    private static final List<BiFunction<MongodbDatabase, TypeCodecRegistry, IRepository<?>>> REPOSITORIES;
+    @Override
+    public DatabaseCategory category() {
+        return DatabaseCategory.MONGODB;
+    }
+
+    @Override
+    public boolean hasAsync() {
+        return true;
+    }
 
-    static {
-        REPOSITORIES = new ArrayList<>();
-        REPOSITORIES.add(BasicRepositoryMongoImpl::new);
+    @Override
+    public CodecProvider entityCodecs() {
+        return ENTITY_CODECS;
     }
 
-    static void createEntities(MongodbDatabase database) throws MongoException {
+    @Override
+    public void createEntities(MongodbDatabase database) throws MongoException {
         MongoDatabase mongoDatabase = database.mongoDatabase();
         var collectionNames = mongoDatabase.listCollectionNames().into(new ArrayList<>());
         if (!collectionNames.contains("hello")) {
@@ -50,6 +64,23 @@ class MongoDatabaseGenerated {
         }
     }
 
+    @Override
+    public List<SnapshotEntity> snapshotEntities() {
+        return List.of(
+                    new SnapshotEntity(TestEntity.class, "hello", List.of(
+                        new SnapshotColumn("a", SnapshotType.INTEGER),
+                        new SnapshotColumn("b", SnapshotType.STRING),
+                        new SnapshotColumn("c", SnapshotType.STRING),
+                        new SnapshotColumn("d", SnapshotType.BYTES)), List.of("a", "b")));
+    }
+
+    @Override
+    public Map<Class<?>, IRepository<?>> createRepositories(MongodbDatabase database, TypeCodecRegistry registry) {
+        Map<Class<?>, IRepository<?>> repositories = new HashMap<>();
+        repositories.put(BasicRepository.class, new BasicRepositoryEventsImpl(new BasicRepositoryMongoImpl(database, registry), database));
+        return repositories;
+    }
+
     private static final class TestEntityCodec implements Codec<TestEntity> {
         private final Codec<UUID> d;
 
@@ -1,29 +1,41 @@
 package org.geysermc.databaseutils.sql;
 
+import java.lang.Class;
 import java.lang.Integer;
+import java.lang.Override;
 import java.lang.String;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.function.BiFunction;
+import org.geysermc.databaseutils.DatabaseBootstrap;
+import org.geysermc.databaseutils.DatabaseCategory;
 import org.geysermc.databaseutils.IRepository;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotType;
+import test.basic.BasicRepository;
+import test.basic.BasicRepositoryEventsImpl;
 import test.basic.BasicRepositorySqlImpl;
+import test.basic.TestEntity;
 
-class SqlDatabaseGenerated {
-    private static final boolean HAS_ASYNC = true;
-
-    private static final List<BiFunction<SqlDatabase, TypeCodecRegistry, IRepository<?>>> REPOSITORIES;
+public final class SqlDatabaseGenerated implements DatabaseBootstrap<SqlDatabase> {
+    @Override
+    public DatabaseCategory category() {
+        return DatabaseCategory.SQL;
+    }
 
-    static {
-        REPOSITORIES = new ArrayList<>();
-        REPOSITORIES.add(BasicRepositorySqlImpl::new);
+    @Override
+    public boolean hasAsync() {
+        return true;
     }
 
-    static void createEntities(SqlDatabase database) throws SQLException {
+    @Override
+    public void createEntities(SqlDatabase database) throws SQLException {
         SqlDialect dialect = database.dialect();
         try (Connection connection = database.dataSource().getConnection()) {
             try (Statement statement = connection.createStatement()) {
@@ -64,4 +76,21 @@ class SqlDatabaseGenerated {
             }
         }
     }
+
+    @Override
+    public List<SnapshotEntity> snapshotEntities() {
+        return List.of(
+                    new SnapshotEntity(TestEntity.class, "hello", List.of(
+                        new SnapshotColumn("a", SnapshotType.INTEGER),
+                        new SnapshotColumn("b", SnapshotType.STRING),
+                        new SnapshotColumn("c", SnapshotType.STRING),
+                        new SnapshotColumn("d", SnapshotType.BYTES)), List.of("a", "b")));
+    }
+
+    @Override
+    public Map<Class<?>, IRepository<?>> createRepositories(SqlDatabase database, TypeCodecRegistry registry) {
+        Map<Class<?>, IRepository<?>> repositories = new HashMap<>();
+        repositories.put(BasicRepository.class, new BasicRepositoryEventsImpl(new BasicRepositorySqlImpl(database, registry), database));
+        return repositories;
+    }
 }
\ No newline at end of file
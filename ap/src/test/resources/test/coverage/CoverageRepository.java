@@ -0,0 +1,27 @@
+package test.coverage;
+
+import java.util.List;
+import java.util.UUID;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.meta.AllowFullScan;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface CoverageRepository extends IRepository<TestEntity> {
+    List<TestEntity> findByA(int a);
+
+    List<TestEntity> findByCAndB(String c, String b);
+
+    List<TestEntity> findByAOrderByB(int a);
+
+    List<TestEntity> findByB(String b);
+
+    List<TestEntity> findByAOrD(int a, UUID d);
+
+    List<TestEntity> findByAOrderByC(int a);
+
+    List<TestEntity> findByCOrderByB(String c);
+
+    @AllowFullScan
+    List<TestEntity> findByD(UUID d);
+}
@@ -1,6 +1,7 @@
 dependencies {
     compileOnlyApi(libs.hikari.cp)
     compileOnlyApi(libs.mongo.driver)
+    compileOnlyApi(libs.mongo.driver.reactive)
     compileOnly(libs.checker.qual)
 
     testAnnotationProcessor(projects.ap)
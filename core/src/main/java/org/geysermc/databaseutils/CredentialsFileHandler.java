@@ -11,6 +11,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 final class CredentialsFileHandler {
@@ -37,7 +39,16 @@ final class CredentialsFileHandler {
                 properties.getProperty("url"),
                 properties.getProperty("username"),
                 properties.getProperty("password"),
-                Integer.parseInt(properties.getProperty("connectionPoolSize")));
+                Integer.parseInt(properties.getProperty("connectionPoolSize")),
+                replicaUrls(properties.getProperty("replicaUrls")));
+    }
+
+    private List<String> replicaUrls(String value) {
+        // absent in credential files created before replicas were supported
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).toList();
     }
 
     private void createConfig(DatabaseConfig defaults, Path toStore) {
@@ -48,6 +59,8 @@ final class CredentialsFileHandler {
         lines.add("username=" + nullToEmpty(defaults.username()));
         lines.add("password=" + nullToEmpty(defaults.password()));
         lines.add("connectionPoolSize=" + defaults.connectionPoolSize());
+        lines.add("# Comma separated urls of read replicas (SQL only)");
+        lines.add("replicaUrls=" + String.join(",", defaults.replicaUrls()));
         try {
             Files.write(toStore, lines);
         } catch (IOException exception) {
@@ -64,6 +77,9 @@ final class CredentialsFileHandler {
             case POSTGRESQL -> configFor("jdbc:postgresql://localhost/database");
             case SQLITE -> configFor("jdbc:sqlite:./database");
             case MONGODB -> configFor("mongodb://localhost:27017/database");
+            // the url isn't used, but a config requires one
+            case MEMORY -> configFor("memory");
+            case FILE -> configFor("./database-file");
         };
     }
 
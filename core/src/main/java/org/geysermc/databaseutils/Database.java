@@ -5,23 +5,140 @@
  */
 package org.geysermc.databaseutils;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.expiry.ExpiringEntity;
+import org.geysermc.databaseutils.filter.KeyFilter;
+import org.geysermc.databaseutils.jfr.RepositoryEvent;
+import org.geysermc.databaseutils.snapshot.RowConsumer;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotReader;
+import org.geysermc.databaseutils.snapshot.SnapshotWriter;
+import org.geysermc.databaseutils.util.QueryFuture;
 
 public abstract class Database {
     protected ExecutorService service;
+    protected long queryTimeoutMillis;
+    protected DatabaseType type;
     private boolean started = false;
+    private final Map<String, KeyFilter> keyFilters = new ConcurrentHashMap<>();
 
-    public void start(DatabaseContext context, Class<?> databaseImpl) {
+    public void start(DatabaseContext context, DatabaseBootstrap<?> bootstrap) {
         if (started) {
             throw new IllegalStateException("Database instances currently cannot be reused!");
         }
         this.service = context.service();
+        this.queryTimeoutMillis = context.queryTimeout().toMillis();
+        this.type = context.type();
         this.started = true;
     }
 
     public abstract void stop();
 
+    /**
+     * Runs the scope in a transaction that is bound to the current thread. The transaction is committed when the
+     * scope returns normally and rolled back when it throws or is marked as rollback only. When there already is a
+     * transaction bound to the current thread, the scope joins it.
+     */
+    public abstract <T> T inTransaction(Function<Transaction, T> scope);
+
+    public abstract boolean hasBoundTransaction();
+
+    /**
+     * Deletes at most limit rows of the given entity that have a timestamp before expiredBefore, and returns the
+     * amount of rows that were deleted. Used by the {@link org.geysermc.databaseutils.expiry.ExpiryPurger}.
+     */
+    public abstract int deleteExpired(ExpiringEntity entity, long expiredBefore, int limit);
+
+    /**
+     * Passes every row of the entity to the consumer, ordered by the key columns. When afterKey is provided, only the
+     * rows with a key after it are passed, the values of afterKey are in the same order as
+     * {@link SnapshotEntity#keys()}. Values are of the types of {@link SnapshotEntity#columns()}.
+     */
+    public abstract void readRows(SnapshotEntity entity, @Nullable List<Object> afterKey, RowConsumer consumer)
+            throws IOException;
+
+    /**
+     * Inserts the rows in a single transaction, the values are in the same order as the columns of the entity.
+     */
+    public abstract void insertRows(SnapshotEntity entity, List<Object[]> rows);
+
+    /**
+     * Deletes the rows with a key after the given key, and returns the amount of rows that were deleted.
+     */
+    public abstract long deleteRowsAfter(SnapshotEntity entity, List<Object> afterKey);
+
+    /**
+     * Writes every row of the entity to the snapshot, and returns the amount of rows that were written.
+     */
+    public long exportSnapshot(SnapshotEntity entity, SnapshotWriter writer) throws IOException {
+        readRows(entity, null, writer::write);
+        return writer.rows();
+    }
+
+    /**
+     * Inserts every row of the snapshot, and returns the amount of rows that were inserted. The rows are inserted in
+     * batches, and the creation of indexes that aren't needed to enforce a constraint is deferred until all rows have
+     * been inserted.
+     */
+    public abstract long importSnapshot(SnapshotEntity entity, SnapshotReader reader) throws IOException;
+
     public ExecutorService executorService() {
         return service;
     }
+
+    /**
+     * The executor async repository methods run on. Inside a transaction scope they run on the calling thread instead,
+     * since that is the thread the transaction is bound to.
+     */
+    public Executor executor() {
+        if (hasBoundTransaction()) {
+            return Runnable::run;
+        }
+        return service;
+    }
+
+    /**
+     * Runs an async repository method on the {@link #executor()}. Cancelling the returned future cancels the query
+     * that is running at that moment, if the database supports it. The {@link RepositoryEvent} of the calling thread
+     * is carried over to the thread the method runs on.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> method) {
+        var event = RepositoryEvent.current();
+        if (event != null) {
+            return QueryFuture.supplyAsync(() -> event.run(method), executor());
+        }
+        return QueryFuture.supplyAsync(method, executor());
+    }
+
+    /**
+     * Returns the key filter of the entity with the given name, or null if the entity doesn't have a
+     * {@link org.geysermc.databaseutils.meta.BloomFilter}.
+     */
+    public @Nullable KeyFilter keyFilter(String entityName) {
+        return keyFilters.get(entityName);
+    }
+
+    void addKeyFilter(KeyFilter filter) {
+        keyFilters.put(filter.name(), filter);
+    }
+
+    /**
+     * The query timeout for methods without a {@link org.geysermc.databaseutils.meta.Timeout}, zero if there is none.
+     */
+    public long queryTimeoutMillis() {
+        return queryTimeoutMillis;
+    }
+
+    public DatabaseType type() {
+        return type;
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.expiry.ExpiringEntity;
+import org.geysermc.databaseutils.filter.FilteredEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+
+/**
+ * Entrypoint of the generated code for a single {@link DatabaseCategory}. Implementations are generated by the
+ * annotation processor and are discovered using {@link java.util.ServiceLoader}, so no reflection is needed to start
+ * a database.
+ *
+ * @param <DB> the database class this bootstrap belongs to
+ */
+public interface DatabaseBootstrap<DB extends Database> {
+    DatabaseCategory category();
+
+    boolean hasAsync();
+
+    void createEntities(DB database) throws Exception;
+
+    /**
+     * Creates an instance of every repository, keyed by the repository interface it implements.
+     */
+    Map<Class<?>, IRepository<?>> createRepositories(DB database, TypeCodecRegistry registry);
+
+    /**
+     * Creates an instance of every repository annotated with {@link org.geysermc.databaseutils.meta.Sharded}, which
+     * delegate to the repositories of the shards. Like {@link #createRepositories(Database, TypeCodecRegistry)}, the
+     * result is keyed by the repository interface.
+     *
+     * @param shards the repositories of every shard, as created by {@link #createRepositories}
+     * @param executor the executor used to run a method on multiple shards in parallel
+     */
+    default Map<Class<?>, IRepository<?>> createShardedRepositories(
+            List<Map<Class<?>, IRepository<?>>> shards, Executor executor) {
+        return Map.of();
+    }
+
+    /**
+     * The entities with a {@link org.geysermc.databaseutils.meta.TimeToLive} column.
+     */
+    default List<ExpiringEntity> expiringEntities() {
+        return List.of();
+    }
+
+    /**
+     * The entities annotated with {@link org.geysermc.databaseutils.meta.BloomFilter}.
+     */
+    default List<FilteredEntity> filteredEntities() {
+        return List.of();
+    }
+
+    /**
+     * Every entity, with the columns that are exported and imported by
+     * {@link DatabaseUtils#exportSnapshot(Class, java.nio.file.Path)} and
+     * {@link DatabaseUtils#importSnapshot(Class, java.nio.file.Path)}.
+     */
+    default List<SnapshotEntity> snapshotEntities() {
+        return List.of();
+    }
+}
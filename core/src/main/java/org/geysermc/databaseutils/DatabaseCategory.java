@@ -7,7 +7,8 @@ package org.geysermc.databaseutils;
 
 public enum DatabaseCategory {
     SQL("Sql"),
-    MONGODB("Mongo");
+    MONGODB("Mongo"),
+    MEMORY("Memory");
 
     private final String upperCamelCaseName;
 
@@ -5,7 +5,15 @@
  */
 package org.geysermc.databaseutils;
 
-public record DatabaseConfig(String url, String username, String password, int connectionPoolSize) {
+import java.util.List;
+
+/**
+ * @param replicaUrls the urls of read replicas. Reads are spread across them, while writes always go to the url.
+ *                    Reads from repository methods annotated with
+ *                    {@link org.geysermc.databaseutils.meta.ReadFromPrimary} go to the url as well.
+ */
+public record DatabaseConfig(
+        String url, String username, String password, int connectionPoolSize, List<String> replicaUrls) {
     public DatabaseConfig {
         if (username != null && (username.isEmpty() || "null".equals(username))) {
             username = null;
@@ -18,5 +26,14 @@ public record DatabaseConfig(String url, String username, String password, int c
         if (connectionPoolSize <= 0 && connectionPoolSize != -1) {
             throw new IllegalArgumentException("connectionPoolSize has to be at least 1, or -1 to not define one");
         }
+
+        replicaUrls = replicaUrls != null ? List.copyOf(replicaUrls) : List.of();
+        for (String replicaUrl : replicaUrls) {
+            if (replicaUrl.isEmpty()) throw new IllegalArgumentException("replicaUrls cannot contain empty urls");
+        }
+    }
+
+    public DatabaseConfig(String url, String username, String password, int connectionPoolSize) {
+        this(url, username, password, connectionPoolSize, List.of());
     }
 }
@@ -5,20 +5,67 @@
  */
 package org.geysermc.databaseutils;
 
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.expiry.PurgeSettings;
 
+/**
+ * @param queryTimeout the maximum amount of time a query is allowed to run, zero means no timeout. Repository methods
+ *                     can override it with {@link org.geysermc.databaseutils.meta.Timeout}.
+ * @param purgeSettings how the expired rows of entities with a {@link org.geysermc.databaseutils.meta.TimeToLive}
+ *                      column are deleted
+ * @param sharePool whether the connection pool (or client) is shared with the other databases in this JVM that use
+ *                  the same url and credentials. The connection pool size is then the limit of this database within
+ *                  the shared pool.
+ */
 public record DatabaseContext(
         DatabaseConfig config,
         String poolName,
         DatabaseType type,
         ExecutorService service,
-        TypeCodecRegistry registry) {
+        TypeCodecRegistry registry,
+        Duration queryTimeout,
+        PurgeSettings purgeSettings,
+        boolean sharePool) {
 
     public DatabaseContext {
         if (poolName == null || poolName.isEmpty())
             throw new IllegalArgumentException("poolName cannot be null or empty");
         if (type == null) throw new IllegalArgumentException("A database type has to be provided");
+        if (queryTimeout == null) queryTimeout = Duration.ZERO;
+        if (queryTimeout.isNegative()) throw new IllegalArgumentException("queryTimeout cannot be negative");
+        if (purgeSettings == null) purgeSettings = PurgeSettings.DEFAULT;
+    }
+
+    public DatabaseContext(
+            DatabaseConfig config,
+            String poolName,
+            DatabaseType type,
+            ExecutorService service,
+            TypeCodecRegistry registry,
+            Duration queryTimeout,
+            PurgeSettings purgeSettings) {
+        this(config, poolName, type, service, registry, queryTimeout, purgeSettings, false);
+    }
+
+    public DatabaseContext(
+            DatabaseConfig config,
+            String poolName,
+            DatabaseType type,
+            ExecutorService service,
+            TypeCodecRegistry registry,
+            Duration queryTimeout) {
+        this(config, poolName, type, service, registry, queryTimeout, PurgeSettings.DEFAULT);
+    }
+
+    public DatabaseContext(
+            DatabaseConfig config,
+            String poolName,
+            DatabaseType type,
+            ExecutorService service,
+            TypeCodecRegistry registry) {
+        this(config, poolName, type, service, registry, Duration.ZERO);
     }
 
     public DatabaseContext(
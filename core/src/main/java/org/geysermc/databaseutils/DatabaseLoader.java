@@ -5,16 +5,14 @@
  */
 package org.geysermc.databaseutils;
 
-import static org.geysermc.databaseutils.util.ClassUtils.access;
-import static org.geysermc.databaseutils.util.ClassUtils.staticCastedValue;
-
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.List;
-import java.util.function.BiFunction;
+import java.util.Map;
+import java.util.ServiceLoader;
 import org.checkerframework.checker.nullness.qual.NonNull;
-import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.expiry.ExpiryPurger;
+import org.geysermc.databaseutils.filter.FilteredEntity;
+import org.geysermc.databaseutils.filter.KeyFilter;
+import org.geysermc.databaseutils.filter.KeyFilterRebuilder;
 
 final class DatabaseLoader {
     @NonNull StartResult startDatabase(DatabaseContext context) {
@@ -23,42 +21,61 @@ final class DatabaseLoader {
             throw new IllegalStateException("Couldn't find a database manager for " + context.type());
         }
 
-        Class<?> databaseImplClass;
-        boolean hasAsync;
-        List<BiFunction<Database, TypeCodecRegistry, IRepository<?>>> repositoryCreators;
-        Method createEntitiesMethod;
-        try {
-            var className = context.type().databaseCategory().upperCamelCaseName() + "DatabaseGenerated";
-            databaseImplClass = Class.forName(database.getClass().getPackageName() + "." + className);
-
-            hasAsync = access(databaseImplClass.getDeclaredField("HAS_ASYNC")).getBoolean(null);
-            repositoryCreators = staticCastedValue(databaseImplClass.getDeclaredField("REPOSITORIES"));
-            createEntitiesMethod = access(databaseImplClass.getDeclaredMethod("createEntities", database.getClass()));
-        } catch (ClassNotFoundException exception) {
-            throw new IllegalStateException("Could not find database implementation!", exception);
-        } catch (NoSuchMethodException | NoSuchFieldException | IllegalAccessException exception) {
-            throw new RuntimeException("Something went wrong with the generated database implementation", exception);
+        var bootstrap = bootstrapFor(context.type().databaseCategory(), database);
+        if (bootstrap == null) {
+            throw new IllegalStateException(
+                    "Could not find the generated %s implementation! Was it excluded using databaseutils.targets?"
+                            .formatted(context.type().databaseCategory()));
         }
 
-        if (hasAsync && context.service() == null) {
+        if (bootstrap.hasAsync() && context.service() == null) {
             throw new IllegalStateException("Database has async methods but no ExecutorService was provided!");
         }
 
-        database.start(context, databaseImplClass);
+        database.start(context, bootstrap);
 
         try {
-            createEntitiesMethod.invoke(null, database);
-        } catch (IllegalAccessException | InvocationTargetException exception) {
+            bootstrap.createEntities(database);
+        } catch (Exception exception) {
             throw new RuntimeException("Something went wrong with creating entities", exception);
         }
 
-        var repositories = new ArrayList<IRepository<?>>();
-        for (var repositoryCreator : repositoryCreators) {
-            repositories.add(repositoryCreator.apply(database, context.registry()));
+        var purger = new ExpiryPurger(database, bootstrap.expiringEntities(), context.purgeSettings());
+        purger.start();
+
+        var filters = new ArrayList<KeyFilter>();
+        for (FilteredEntity filtered : bootstrap.filteredEntities()) {
+            var entity = bootstrap.snapshotEntities().stream()
+                    .filter(snapshotEntity -> snapshotEntity.name().equals(filtered.name()))
+                    .findFirst()
+                    .orElseThrow();
+            var filter = new KeyFilter(entity, filtered);
+            database.addKeyFilter(filter);
+            filters.add(filter);
         }
+        // the repositories expect the filters to be built
+        var rebuilder = new KeyFilterRebuilder(database, filters);
+        rebuilder.start();
 
-        return new StartResult(database, repositories);
+        var repositories = bootstrap.createRepositories(database, context.registry());
+        return new StartResult(database, bootstrap, repositories, purger, rebuilder);
+    }
+
+    @SuppressWarnings("unchecked")
+    private DatabaseBootstrap<Database> bootstrapFor(DatabaseCategory category, Database database) {
+        var classLoader = database.getClass().getClassLoader();
+        for (DatabaseBootstrap<?> bootstrap : ServiceLoader.load(DatabaseBootstrap.class, classLoader)) {
+            if (bootstrap.category() == category) {
+                return (DatabaseBootstrap<Database>) bootstrap;
+            }
+        }
+        return null;
     }
 
-    record StartResult(Database database, List<IRepository<?>> repositories) {}
+    record StartResult(
+            Database database,
+            DatabaseBootstrap<?> bootstrap,
+            Map<Class<?>, IRepository<?>> repositories,
+            ExpiryPurger purger,
+            KeyFilterRebuilder rebuilder) {}
 }
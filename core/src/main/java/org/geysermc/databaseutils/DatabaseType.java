@@ -19,7 +19,9 @@ public enum DatabaseType {
     ORACLE_DATABASE(DatabaseCategory.SQL, SqlDialect.ORACLE_DATABASE, "Oracle Database"),
     POSTGRESQL(DatabaseCategory.SQL, SqlDialect.POSTGRESQL, "PostgreSQL"),
     SQLITE(DatabaseCategory.SQL, SqlDialect.SQLITE, "SQLite"),
-    MONGODB(DatabaseCategory.MONGODB, null, "MongoDB");
+    MONGODB(DatabaseCategory.MONGODB, null, "MongoDB"),
+    MEMORY(DatabaseCategory.MEMORY, null, "Memory"),
+    FILE(DatabaseCategory.MEMORY, null, "File");
 
     public static final DatabaseType[] VALUES = values();
 
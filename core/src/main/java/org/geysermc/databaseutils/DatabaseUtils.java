@@ -5,22 +5,39 @@
  */
 package org.geysermc.databaseutils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import org.geysermc.databaseutils.codec.TypeCodec;
 import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.expiry.PurgeSettings;
+import org.geysermc.databaseutils.expiry.PurgeStats;
+import org.geysermc.databaseutils.filter.KeyFilter;
+import org.geysermc.databaseutils.migrate.DatabaseMigrator;
+import org.geysermc.databaseutils.migrate.MigrationSettings;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotReader;
+import org.geysermc.databaseutils.snapshot.SnapshotWriter;
 
 public class DatabaseUtils {
-    private final DatabaseContext context;
+    private final List<DatabaseContext> contexts;
 
-    private Database database = null;
-    private List<IRepository<?>> repositories;
+    private List<DatabaseLoader.StartResult> shards;
+    private Map<Class<?>, IRepository<?>> repositories;
 
-    private DatabaseUtils(DatabaseContext context) {
-        this.context = context;
+    private DatabaseUtils(List<DatabaseContext> contexts) {
+        this.contexts = contexts;
     }
 
     public static Builder builder() {
@@ -28,24 +45,265 @@ public class DatabaseUtils {
     }
 
     public List<IRepository<?>> start() {
-        var result = new DatabaseLoader().startDatabase(context);
-        this.database = result.database();
-        this.repositories = result.repositories();
-        return result.repositories();
+        var loader = new DatabaseLoader();
+        var shards = new ArrayList<DatabaseLoader.StartResult>();
+        for (DatabaseContext context : contexts) {
+            shards.add(loader.startDatabase(context));
+        }
+        this.shards = shards;
+
+        var primary = shards.get(0);
+        if (shards.size() == 1) {
+            this.repositories = primary.repositories();
+        } else {
+            // repositories that aren't sharded only use the first shard
+            var repositories = new HashMap<>(primary.repositories());
+            var shardRepositories = shards.stream()
+                    .map(DatabaseLoader.StartResult::repositories)
+                    .toList();
+            repositories.putAll(primary.bootstrap()
+                    .createShardedRepositories(shardRepositories, contexts.get(0).service()));
+            this.repositories = repositories;
+        }
+        return new ArrayList<>(repositories.values());
     }
 
     public void stop() {
-        if (database == null) {
+        if (shards == null) {
             return;
         }
-        database.stop();
+        for (var shard : shards) {
+            shard.purger().stop();
+            shard.rebuilder().stop();
+            shard.database().stop();
+        }
+    }
+
+    /**
+     * Runs the given scope in a single transaction. See {@link Database#inTransaction(Function)}.
+     * Transactions are not supported when using multiple shards.
+     */
+    public <T> T inTransaction(Function<Transaction, T> scope) {
+        if (shards == null) {
+            throw new IllegalStateException("Please call start before calling this method!");
+        }
+        if (shards.size() > 1) {
+            throw new IllegalStateException("Transactions cannot span multiple shards");
+        }
+        return shards.get(0).database().inTransaction(scope);
+    }
+
+    public void runInTransaction(Consumer<Transaction> scope) {
+        inTransaction(transaction -> {
+            scope.accept(transaction);
+            return null;
+        });
+    }
+
+    /**
+     * Deletes the expired rows of every entity with a {@link org.geysermc.databaseutils.meta.TimeToLive} column right
+     * away, instead of waiting for the next scheduled purge. The future completes with the amount of deleted rows.
+     */
+    public CompletableFuture<Long> purgeExpired() {
+        if (shards == null) {
+            throw new IllegalStateException("Please call start before calling this method!");
+        }
+        CompletableFuture<Long> purged = CompletableFuture.completedFuture(0L);
+        for (var shard : shards) {
+            purged = purged.thenCombine(shard.purger().purge(), Long::sum);
+        }
+        return purged;
+    }
+
+    /**
+     * Rebuilds the key filter of every entity with a {@link org.geysermc.databaseutils.meta.BloomFilter} right away,
+     * instead of waiting for the next scheduled check. This is needed after rows have been written without using the
+     * repositories, for example directly in the database.
+     */
+    public CompletableFuture<Void> rebuildKeyFilters() {
+        if (shards == null) {
+            throw new IllegalStateException("Please call start before calling this method!");
+        }
+        var futures = shards.stream().map(shard -> shard.rebuilder().rebuildAll()).toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Returns the purge stats, combined for all shards.
+     */
+    public PurgeStats purgeStats() {
+        if (shards == null) {
+            throw new IllegalStateException("Please call start before calling this method!");
+        }
+        var stats = new PurgeStats(0, 0, 0, 0, -1);
+        for (var shard : shards) {
+            stats = stats.combine(shard.purger().stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Writes every row of the given entity to a snapshot file, which can be imported in a database of any type using
+     * {@link #importSnapshot(Class, Path)}. The future completes with the amount of exported rows.
+     * Snapshots are not supported when using multiple shards.
+     */
+    public CompletableFuture<Long> exportSnapshot(Class<?> entityClass, Path file) {
+        var database = snapshotDatabase();
+        var entity = snapshotEntity(entityClass);
+        return CompletableFuture.supplyAsync(() -> exportSnapshot(database, entity, file), database.executorService());
+    }
+
+    /**
+     * Inserts every row of a snapshot file created by {@link #exportSnapshot(Class, Path)} into the given entity. The
+     * future completes with the amount of imported rows.
+     * Snapshots are not supported when using multiple shards.
+     */
+    public CompletableFuture<Long> importSnapshot(Class<?> entityClass, Path file) {
+        var database = snapshotDatabase();
+        var entity = snapshotEntity(entityClass);
+        return CompletableFuture.supplyAsync(() -> importSnapshot(database, entity, file), database.executorService());
+    }
+
+    /**
+     * Exports every entity to a snapshot file in the given directory, named after the table or collection. The future
+     * completes with the total amount of exported rows.
+     */
+    public CompletableFuture<Long> exportSnapshots(Path directory) {
+        var database = snapshotDatabase();
+        var entities = shards.get(0).bootstrap().snapshotEntities();
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        Files.createDirectories(directory);
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                    long exported = 0;
+                    for (SnapshotEntity entity : entities) {
+                        exported += exportSnapshot(database, entity, snapshotFile(directory, entity));
+                    }
+                    return exported;
+                },
+                database.executorService());
+    }
+
+    /**
+     * Imports the snapshot files in the given directory created by {@link #exportSnapshots(Path)}. Entities without
+     * a snapshot file are skipped. The future completes with the total amount of imported rows.
+     */
+    public CompletableFuture<Long> importSnapshots(Path directory) {
+        var database = snapshotDatabase();
+        var entities = shards.get(0).bootstrap().snapshotEntities();
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    long imported = 0;
+                    for (SnapshotEntity entity : entities) {
+                        var file = snapshotFile(directory, entity);
+                        if (Files.exists(file)) {
+                            imported += importSnapshot(database, entity, file);
+                        }
+                    }
+                    return imported;
+                },
+                database.executorService());
+    }
+
+    /**
+     * Creates a migrator that copies the rows of the entities of this instance to the given target, which has to have
+     * the same entities but can be of a different database type. Both instances have to be started, and like
+     * snapshots, migrations are not supported when using multiple shards.
+     */
+    public DatabaseMigrator migrateTo(DatabaseUtils target, MigrationSettings settings) {
+        var source = snapshotDatabase();
+        var targetDatabase = target.snapshotDatabase();
+
+        var entities = shards.get(0).bootstrap().snapshotEntities();
+        if (!target.shards.get(0).bootstrap().snapshotEntities().containsAll(entities)) {
+            throw new IllegalStateException("The target doesn't have the same entities as the source");
+        }
+        return new DatabaseMigrator(source, targetDatabase, entities, settings);
+    }
+
+    private Database snapshotDatabase() {
+        if (shards == null) {
+            throw new IllegalStateException("Please call start before calling this method!");
+        }
+        if (shards.size() > 1) {
+            throw new IllegalStateException("Snapshots and migrations are not supported when using multiple shards");
+        }
+        return shards.get(0).database();
+    }
+
+    private SnapshotEntity snapshotEntity(Class<?> entityClass) {
+        for (SnapshotEntity entity : shards.get(0).bootstrap().snapshotEntities()) {
+            if (entity.type() == entityClass) {
+                return entity;
+            }
+        }
+        throw new IllegalArgumentException(entityClass.getName() + " is not an entity");
+    }
+
+    private static Path snapshotFile(Path directory, SnapshotEntity entity) {
+        return directory.resolve(entity.name() + ".snapshot");
+    }
+
+    private static long exportSnapshot(Database database, SnapshotEntity entity, Path file) {
+        try (var writer = new SnapshotWriter(file, entity)) {
+            try {
+                var rows = database.exportSnapshot(entity, writer);
+                writer.finish();
+                return rows;
+            } catch (IOException | RuntimeException exception) {
+                // don't leave a partial snapshot behind that could be mistaken for a complete one
+                writer.close();
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException deleteException) {
+                    exception.addSuppressed(deleteException);
+                }
+                throw exception;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static long importSnapshot(Database database, SnapshotEntity entity, Path file) {
+        var filter = database.keyFilter(entity.name());
+        if (filter != null) {
+            // the imported rows don't go through the repositories, so they aren't added to the filter
+            filter.suspend();
+        }
+        try (var reader = new SnapshotReader(file)) {
+            reader.requireMatches(entity);
+            return database.importSnapshot(entity, reader);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            if (filter != null) {
+                resumeFilter(database, filter);
+            }
+        }
+    }
+
+    private static void resumeFilter(Database database, KeyFilter filter) {
+        try {
+            filter.resume(database);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
 
     public <T extends IRepository<?>> T repositoryFor(Class<T> repository) {
         if (repositories == null) {
             throw new IllegalStateException("Please call start before calling this method!");
         }
-        for (IRepository<?> iRepository : repositories) {
+        var instance = repositories.get(repository);
+        if (instance != null) {
+            return repository.cast(instance);
+        }
+        // fallback for when a supertype of the repository is requested
+        for (IRepository<?> iRepository : repositories.values()) {
             if (repository.isInstance(iRepository)) {
                 return repository.cast(iRepository);
             }
@@ -59,6 +317,8 @@ public class DatabaseUtils {
         private String uri;
         private String username;
         private String password;
+        private List<String> replicaUris = List.of();
+        private List<DatabaseConfig> shards = List.of();
         private String poolName = "database-utils";
         private int connectionPoolSize = -1;
 
@@ -68,6 +328,9 @@ public class DatabaseUtils {
         private boolean useDefaultCredentials = true;
 
         private ExecutorService executorService;
+        private Duration queryTimeout = Duration.ZERO;
+        private PurgeSettings purgeSettings = PurgeSettings.DEFAULT;
+        private boolean sharePool;
 
         private Builder() {}
 
@@ -121,6 +384,33 @@ public class DatabaseUtils {
             return this;
         }
 
+        public List<String> replicaUris() {
+            return replicaUris;
+        }
+
+        /**
+         * The uris of read replicas. Only supported by SQL databases.
+         */
+        public Builder replicaUris(List<String> replicaUris) {
+            this.replicaUris = replicaUris;
+            return this;
+        }
+
+        public List<DatabaseConfig> shards() {
+            return shards;
+        }
+
+        /**
+         * Spreads the entities of repositories annotated with {@link org.geysermc.databaseutils.meta.Sharded} over
+         * the given databases, which replace the config, uri and credentials. Repositories that aren't sharded use
+         * the first shard. All shards should be of the same type, and the order of the shards shouldn't change since
+         * that determines where the entities are stored.
+         */
+        public Builder shards(List<DatabaseConfig> shards) {
+            this.shards = shards;
+            return this;
+        }
+
         public String poolName() {
             return poolName;
         }
@@ -178,6 +468,47 @@ public class DatabaseUtils {
             return this;
         }
 
+        public Duration queryTimeout() {
+            return queryTimeout;
+        }
+
+        /**
+         * The maximum amount of time a query is allowed to run, zero (the default) means no timeout.
+         * Repository methods can override it using {@link org.geysermc.databaseutils.meta.Timeout}.
+         */
+        public Builder queryTimeout(Duration queryTimeout) {
+            this.queryTimeout = queryTimeout;
+            return this;
+        }
+
+        public PurgeSettings purgeSettings() {
+            return purgeSettings;
+        }
+
+        /**
+         * The batch size, the pause between batches and the interval used to delete the expired rows of entities with
+         * a {@link org.geysermc.databaseutils.meta.TimeToLive} column.
+         */
+        public Builder purgeSettings(PurgeSettings purgeSettings) {
+            this.purgeSettings = purgeSettings;
+            return this;
+        }
+
+        public boolean sharePool() {
+            return sharePool;
+        }
+
+        /**
+         * Whether to share the connection pool (or MongoDB client) with the other instances in this JVM that connect
+         * to the same url with the same credentials, instead of creating a pool per instance. The pool is closed once
+         * the last instance using it is stopped. The connection pool size then limits the amount of connections this
+         * instance takes from the shared pool. Disabled by default.
+         */
+        public Builder sharePool(boolean sharePool) {
+            this.sharePool = sharePool;
+            return this;
+        }
+
         public DatabaseUtils build() {
             if (credentialsFile != null && !useDefaultCredentials) {
                 throw new IllegalStateException(
@@ -189,11 +520,28 @@ public class DatabaseUtils {
                 service = Executors.newCachedThreadPool();
             }
 
+            if (!shards.isEmpty()) {
+                var contexts = new ArrayList<DatabaseContext>();
+                for (int i = 0; i < shards.size(); i++) {
+                    var shardPoolName = poolName + "-shard-" + i;
+                    contexts.add(new DatabaseContext(
+                            shards.get(i),
+                            shardPoolName,
+                            type,
+                            service,
+                            registry,
+                            queryTimeout,
+                            purgeSettings,
+                            sharePool));
+                }
+                return new DatabaseUtils(contexts);
+            }
+
             var actual = config;
             if (credentialsFile != null) {
                 actual = new CredentialsFileHandler().handle(type, credentialsFile);
             } else if (config == null && uri != null) {
-                actual = new DatabaseConfig(uri, username, password, connectionPoolSize);
+                actual = new DatabaseConfig(uri, username, password, connectionPoolSize, replicaUris);
             } else if (useDefaultCredentials) {
                 actual = new CredentialsFileHandler().handle(type, null);
             } else {
@@ -201,7 +549,8 @@ public class DatabaseUtils {
                         "At least an uri has to be provided when default credentials are disabled");
             }
 
-            return new DatabaseUtils(new DatabaseContext(actual, poolName, type, service, registry));
+            return new DatabaseUtils(List.of(new DatabaseContext(
+                    actual, poolName, type, service, registry, queryTimeout, purgeSettings, sharePool)));
         }
     }
 }
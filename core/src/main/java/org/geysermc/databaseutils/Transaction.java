@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils;
+
+/**
+ * A transaction scope started by {@link DatabaseUtils#inTransaction(java.util.function.Function)}. Every repository
+ * method called on the thread that started the scope becomes part of the transaction.
+ */
+public interface Transaction {
+    /**
+     * Marks the transaction so that it'll be rolled back instead of committed once the scope ends.
+     */
+    void setRollbackOnly();
+
+    boolean isRollbackOnly();
+}
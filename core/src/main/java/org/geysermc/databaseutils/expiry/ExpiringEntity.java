@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.expiry;
+
+import java.util.List;
+
+/**
+ * An entity with a {@link org.geysermc.databaseutils.meta.TimeToLive} column. Instances are generated by the
+ * annotation processor.
+ *
+ * @param name the name of the table or collection
+ * @param keys the key columns of the entity, which are used to delete the expired rows in batches
+ * @param column the column holding the timestamp the time to live is relative to
+ * @param timeToLiveMillis how long a row lives after the timestamp in its column
+ */
+public record ExpiringEntity(String name, List<String> keys, String column, long timeToLiveMillis) {
+    /**
+     * Rows with a timestamp before the returned timestamp are expired.
+     */
+    public long expiredBefore(long nowMillis) {
+        return nowMillis - timeToLiveMillis;
+    }
+}
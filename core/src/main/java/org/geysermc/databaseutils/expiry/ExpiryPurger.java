@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.expiry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.geysermc.databaseutils.Database;
+
+/**
+ * Periodically deletes the expired rows of the entities with a {@link org.geysermc.databaseutils.meta.TimeToLive}
+ * column. Every statement deletes at most {@link PurgeSettings#batchSize()} rows, and there is a short pause between
+ * the batches of an entity so that a large amount of expired rows doesn't lock the table for a long time.
+ * All the work runs on the executor of the database.
+ */
+public final class ExpiryPurger {
+    private final Database database;
+    private final List<ExpiringEntity> entities;
+    private final PurgeSettings settings;
+    private final Executor pauseExecutor;
+    private final Executor intervalExecutor;
+
+    private final AtomicLong purges = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong purgedRows = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong lastPurgeMillis = new AtomicLong(-1);
+
+    private CompletableFuture<Long> running;
+    private volatile boolean stopped;
+
+    public ExpiryPurger(Database database, List<ExpiringEntity> entities, PurgeSettings settings) {
+        this.database = database;
+        this.entities = List.copyOf(entities);
+        this.settings = settings;
+        this.pauseExecutor = CompletableFuture.delayedExecutor(
+                settings.batchPause().toMillis(), TimeUnit.MILLISECONDS, database.executorService());
+        this.intervalExecutor = CompletableFuture.delayedExecutor(
+                settings.interval().toMillis(), TimeUnit.MILLISECONDS, database.executorService());
+    }
+
+    /**
+     * Schedules a purge every {@link PurgeSettings#interval()}, starting one interval from now.
+     */
+    public void start() {
+        if (!entities.isEmpty()) {
+            scheduleNext();
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Starts a purge right away, or returns the purge that is already running. The returned future completes with
+     * the amount of rows that were deleted.
+     */
+    public synchronized CompletableFuture<Long> purge() {
+        if (entities.isEmpty()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        if (running != null) {
+            return running;
+        }
+
+        var future = new CompletableFuture<Long>();
+        // returning the dependent future makes sure that the stats are up-to-date once it completes
+        var result = running = future.whenComplete((count, error) -> {
+            synchronized (this) {
+                running = null;
+            }
+            if (error != null) {
+                failures.incrementAndGet();
+                return;
+            }
+            purges.incrementAndGet();
+            lastPurgeMillis.set(System.currentTimeMillis());
+        });
+
+        // all batches use the same cutoff, otherwise rows that expire during a purge would keep it going
+        var now = System.currentTimeMillis();
+        database.executorService().execute(() -> purgeBatch(future, 0, now, 0));
+        return result;
+    }
+
+    public PurgeStats stats() {
+        return new PurgeStats(
+                purges.get(), batches.get(), purgedRows.get(), failures.get(), lastPurgeMillis.get());
+    }
+
+    private void purgeBatch(CompletableFuture<Long> future, int entityIndex, long now, long purged) {
+        if (stopped) {
+            future.complete(purged);
+            return;
+        }
+
+        int deleted;
+        try {
+            var entity = entities.get(entityIndex);
+            deleted = database.deleteExpired(entity, entity.expiredBefore(now), settings.batchSize());
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+            return;
+        }
+        batches.incrementAndGet();
+        purgedRows.addAndGet(deleted);
+        if (deleted > 0) {
+            var filter = database.keyFilter(entities.get(entityIndex).name());
+            if (filter != null) {
+                filter.markStale();
+            }
+        }
+
+        var total = purged + deleted;
+        if (deleted >= settings.batchSize()) {
+            // there are probably more expired rows, give other queries a chance before continuing
+            pauseExecutor.execute(() -> purgeBatch(future, entityIndex, now, total));
+            return;
+        }
+
+        var nextIndex = entityIndex + 1;
+        if (nextIndex == entities.size()) {
+            future.complete(total);
+            return;
+        }
+        purgeBatch(future, nextIndex, now, total);
+    }
+
+    private void scheduleNext() {
+        intervalExecutor.execute(() -> {
+            if (!stopped) {
+                purge().whenComplete((count, error) -> scheduleNext());
+            }
+        });
+    }
+}
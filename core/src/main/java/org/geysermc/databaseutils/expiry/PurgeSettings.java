@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.expiry;
+
+import java.time.Duration;
+
+/**
+ * @param batchSize the maximum amount of rows that are deleted by a single statement
+ * @param batchPause the time between two batches, so that other queries can acquire the locks in between
+ * @param interval the time between the end of a purge and the start of the next one
+ */
+public record PurgeSettings(int batchSize, Duration batchPause, Duration interval) {
+    public static final PurgeSettings DEFAULT = new PurgeSettings(500, Duration.ofMillis(50), Duration.ofMinutes(1));
+
+    public PurgeSettings {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize has to be at least 1");
+        if (batchPause == null || batchPause.isNegative())
+            throw new IllegalArgumentException("batchPause cannot be null or negative");
+        if (interval == null || interval.isNegative() || interval.isZero())
+            throw new IllegalArgumentException("interval has to be positive");
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.expiry;
+
+/**
+ * @param purges the amount of purges that have completed
+ * @param batches the amount of delete statements that have been executed
+ * @param purgedRows the total amount of expired rows that have been deleted
+ * @param failures the amount of purges that stopped because of an error
+ * @param lastPurgeMillis when the last purge completed in epoch millis, or -1 if none has completed yet
+ */
+public record PurgeStats(long purges, long batches, long purgedRows, long failures, long lastPurgeMillis) {
+    public PurgeStats combine(PurgeStats other) {
+        return new PurgeStats(
+                purges + other.purges,
+                batches + other.batches,
+                purgedRows + other.purgedRows,
+                failures + other.failures,
+                Math.max(lastPurgeMillis, other.lastPurgeMillis));
+    }
+}
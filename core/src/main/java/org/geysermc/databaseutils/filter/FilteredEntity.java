@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.filter;
+
+/**
+ * An entity annotated with {@link org.geysermc.databaseutils.meta.BloomFilter}. Instances are generated by the
+ * annotation processor.
+ *
+ * @param name the name of the table or collection
+ * @param falsePositiveRate the chance that a key that doesn't exist is reported as maybe existing
+ * @param rebuildIntervalMillis the time between two checks whether the filter has to be rebuilt
+ */
+public record FilteredEntity(String name, double falsePositiveRate, long rebuildIntervalMillis) {
+    public FilteredEntity {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+            throw new IllegalArgumentException("falsePositiveRate has to be between 0 and 1");
+        if (rebuildIntervalMillis <= 0) throw new IllegalArgumentException("rebuildIntervalMillis has to be positive");
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.Database;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotRows;
+import org.geysermc.databaseutils.util.LongArrayBuilder;
+
+/**
+ * A Bloom filter of the keys of an entity. Keys are hashed in their snapshot format, so the keys the generated
+ * repositories pass (with the columns that use a TypeCodec already encoded) hash the same as the keys read by
+ * {@link Database#readRows(SnapshotEntity, java.util.List, org.geysermc.databaseutils.snapshot.RowConsumer)}. Keys
+ * only match when they're exactly equal, which is why the annotation processor only allows key columns of which the
+ * database compares the values exactly as well.
+ * <p>
+ * The filter is sized for twice the amount of keys it was built with. Rows can't be removed from a Bloom filter, so
+ * deletes only mark the filter as stale, and a rebuild drops the keys that no longer exist. A rebuild includes the keys
+ * added while it runs, and the keys added since the previous rebuild started. The latter covers inserts that were
+ * added to the filter before the rebuild started but committed after the rows were read, as long as they're committed
+ * within one rebuild interval.
+ */
+public final class KeyFilter {
+    private static final int MIN_EXPECTED_KEYS = 1024;
+    private static final double LN2 = Math.log(2);
+
+    private final SnapshotEntity entity;
+    private final FilteredEntity settings;
+    private final List<SnapshotColumn> keyColumns;
+    private final int[] keyIndexes;
+    private final AtomicInteger suspended = new AtomicInteger();
+    private final Object rebuildLock = new Object();
+
+    private volatile @Nullable Bits current;
+    private volatile boolean stale;
+    // keys added since the last rebuild started, only accessed while holding the lock of this instance
+    private LongArrayBuilder added = new LongArrayBuilder();
+    private int remainingCapacity;
+
+    public KeyFilter(SnapshotEntity entity, FilteredEntity settings) {
+        this.entity = entity;
+        this.settings = settings;
+        this.keyIndexes = entity.keyIndexes();
+        this.keyColumns = entity.keys().stream().map(entity::column).toList();
+    }
+
+    public String name() {
+        return entity.name();
+    }
+
+    public FilteredEntity settings() {
+        return settings;
+    }
+
+    /**
+     * Returns false when the key definitely doesn't exist. Before the filter is built, and while it's suspended, this
+     * always returns true.
+     *
+     * @param key the values of the key columns in the order of {@link SnapshotEntity#keys()}, in snapshot format
+     */
+    public boolean mightContain(Object... key) {
+        var bits = current;
+        if (bits == null || suspended.get() > 0) {
+            return true;
+        }
+        return bits.mightContain(hash(key));
+    }
+
+    /**
+     * Adds a key that is about to be inserted. Adding a key of an insert that ends up failing only results in a false
+     * positive.
+     */
+    public void add(Object... key) {
+        long hash = hash(key);
+        synchronized (this) {
+            added.add(hash);
+            var bits = current;
+            if (bits != null) {
+                bits.add(hash);
+                remainingCapacity--;
+            }
+        }
+    }
+
+    /**
+     * Marks that rows have been deleted, so that the next scheduled check rebuilds the filter.
+     */
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Whether the filter has keys of deleted rows, or has more keys than it was sized for.
+     */
+    public boolean needsRebuild() {
+        synchronized (this) {
+            return current == null || stale || remainingCapacity < 0;
+        }
+    }
+
+    /**
+     * Stops filtering until {@link #resume(Database)} is called, for writes that don't go through the generated
+     * repositories like importing a snapshot or migrating.
+     */
+    public void suspend() {
+        suspended.incrementAndGet();
+    }
+
+    /**
+     * Rebuilds the filter, which then includes the rows written while it was suspended, and filters again.
+     */
+    public void resume(Database database) throws IOException {
+        try {
+            rebuild(database);
+        } finally {
+            suspended.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reads every key of the entity and replaces the filter. Only one rebuild runs at a time.
+     */
+    public void rebuild(Database database) throws IOException {
+        synchronized (rebuildLock) {
+            LongArrayBuilder previous;
+            synchronized (this) {
+                previous = added;
+                added = new LongArrayBuilder();
+                // rows deleted from now on have to be dropped by the next rebuild
+                stale = false;
+            }
+
+            var read = new LongArrayBuilder();
+            try {
+                database.readRows(entity, null, row -> read.add(hash(keyOf(row))));
+            } catch (IOException | RuntimeException exception) {
+                synchronized (this) {
+                    previous.stream().forEach(added::add);
+                    stale = true;
+                }
+                throw exception;
+            }
+
+            int keys = read.size() + previous.size();
+            var bits = new Bits(Math.max(keys * 2, MIN_EXPECTED_KEYS), settings.falsePositiveRate());
+            read.stream().forEach(bits::add);
+            previous.stream().forEach(bits::add);
+
+            synchronized (this) {
+                // the keys added while the rows were read
+                added.stream().forEach(bits::add);
+                remainingCapacity = bits.expectedKeys() - keys - added.size();
+                current = bits;
+            }
+        }
+    }
+
+    private Object[] keyOf(Object[] row) {
+        var key = new Object[keyIndexes.length];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            key[i] = row[keyIndexes[i]];
+        }
+        return key;
+    }
+
+    private long hash(Object[] key) {
+        var bytes = new ByteArrayOutputStream(32);
+        try {
+            SnapshotRows.write(new DataOutputStream(bytes), keyColumns, key);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        // FNV-1a, mixed with the finalizer of MurmurHash3 to spread the bits
+        long hash = 0xcbf29ce484222325L;
+        for (byte value : bytes.toByteArray()) {
+            hash = (hash ^ (value & 0xFF)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * The bits of a Bloom filter, which can be set and read concurrently. The bit positions of a key are derived from
+     * two hashes (Kirsch-Mitzenmacher).
+     */
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final int expectedKeys;
+
+        Bits(int expectedKeys, double falsePositiveRate) {
+            this.expectedKeys = expectedKeys;
+            long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (LN2 * LN2));
+            this.words = new AtomicLongArray((int) Math.min((optimalBits + 63) / 64, Integer.MAX_VALUE - 8));
+            this.bitCount = words.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * LN2));
+        }
+
+        int expectedKeys() {
+            return expectedKeys;
+        }
+
+        void add(long hash) {
+            long second = mix(hash ^ 0x9e3779b97f4a7c15L);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash + i * second, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value;
+                do {
+                    value = words.get(word);
+                } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+            }
+        }
+
+        boolean mightContain(long hash) {
+            long second = mix(hash ^ 0x9e3779b97f4a7c15L);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash + i * second, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
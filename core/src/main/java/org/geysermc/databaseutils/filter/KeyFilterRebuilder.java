@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.filter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.geysermc.databaseutils.Database;
+
+/**
+ * Builds the {@link KeyFilter}s of a database when it starts, and checks every
+ * {@link FilteredEntity#rebuildIntervalMillis()} whether a filter has to be rebuilt. All the work after starting runs
+ * on the executor of the database.
+ */
+public final class KeyFilterRebuilder {
+    private final Database database;
+    private final List<KeyFilter> filters;
+
+    private volatile boolean stopped;
+
+    public KeyFilterRebuilder(Database database, List<KeyFilter> filters) {
+        this.database = database;
+        this.filters = List.copyOf(filters);
+    }
+
+    /**
+     * Builds every filter on the calling thread, and schedules the checks.
+     */
+    public void start() {
+        for (KeyFilter filter : filters) {
+            try {
+                filter.rebuild(database);
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Failed to build the key filter of " + filter.name(), exception);
+            }
+            scheduleNext(filter);
+        }
+    }
+
+    /**
+     * Rebuilds every filter right away on the executor of the database, regardless of whether they need it.
+     */
+    public CompletableFuture<Void> rebuildAll() {
+        return CompletableFuture.runAsync(
+                () -> {
+                    for (KeyFilter filter : filters) {
+                        try {
+                            filter.rebuild(database);
+                        } catch (IOException exception) {
+                            throw new UncheckedIOException(
+                                    "Failed to rebuild the key filter of " + filter.name(), exception);
+                        }
+                    }
+                },
+                database.executorService());
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    private void scheduleNext(KeyFilter filter) {
+        var executor = CompletableFuture.delayedExecutor(
+                filter.settings().rebuildIntervalMillis(), TimeUnit.MILLISECONDS, database.executorService());
+        executor.execute(() -> {
+            if (stopped) {
+                return;
+            }
+            try {
+                if (filter.needsRebuild()) {
+                    filter.rebuild(database);
+                }
+            } catch (Throwable ignored) {
+                // the old filter stays in use, the next check tries again
+            }
+            scheduleNext(filter);
+        });
+    }
+}
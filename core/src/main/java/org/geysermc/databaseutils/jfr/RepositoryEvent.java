@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.jfr;
+
+import java.util.function.Supplier;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The JDK Flight Recorder event of a call to a generated repository method. The duration of the event is the time it
+ * took to execute the method, which for async methods starts when the method starts running on the executor.
+ * <p>
+ * The generated repositories only fill in the event when it's enabled, so the overhead is negligible when there is no
+ * recording, or when the recording doesn't include this event.
+ */
+@Name(RepositoryEvent.NAME)
+@Label("Repository Method")
+@Category({"DatabaseUtils"})
+@Description("A call to a method of a generated repository")
+public final class RepositoryEvent extends Event {
+    public static final String NAME = "org.geysermc.databaseutils.RepositoryMethod";
+
+    private static final ThreadLocal<RepositoryEvent> CURRENT = new ThreadLocal<>();
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Database")
+    @Description("The database type, which is the dialect for SQL databases")
+    String database;
+
+    @Label("Rows")
+    @Description("The amount of rows that were returned or affected, -1 when unknown")
+    int rows = -1;
+
+    @Label("Batch Size")
+    @Description("The amount of entities the method was called with")
+    int batchSize;
+
+    @Label("Pool Acquisition")
+    @Description("The time it took to acquire a connection from the connection pool")
+    @Timespan(Timespan.NANOSECONDS)
+    long poolAcquisition;
+
+    private transient @Nullable RepositoryEvent previous;
+
+    /**
+     * Returns the event of the repository method that is running on the current thread, or null if there is none or
+     * if the event isn't enabled.
+     */
+    public static @Nullable RepositoryEvent current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Fills in the event, starts timing and makes it the {@link #current()} event of this thread until the event is
+     * either detached or finished.
+     */
+    public void start(String repository, String method, String database, int batchSize) {
+        this.repository = repository;
+        this.method = method;
+        this.database = database;
+        this.batchSize = batchSize;
+        this.previous = CURRENT.get();
+        CURRENT.set(this);
+        begin();
+    }
+
+    public void rows(int rows) {
+        this.rows = rows;
+    }
+
+    public void addPoolAcquisition(long nanos) {
+        this.poolAcquisition += nanos;
+    }
+
+    /**
+     * Runs the supplier as this event, which is how async methods carry their event over to the thread they run on.
+     * The timing is restarted, so that the time spent waiting for the executor isn't included.
+     */
+    public <T> T run(Supplier<T> supplier) {
+        var outer = CURRENT.get();
+        CURRENT.set(this);
+        begin();
+        try {
+            return supplier.get();
+        } finally {
+            restore(outer);
+        }
+    }
+
+    /**
+     * Stops this event from being the {@link #current()} event of this thread, without committing it. Used by async
+     * methods once the method has been handed over to the executor.
+     */
+    public void detach() {
+        if (CURRENT.get() == this) {
+            restore(previous);
+        }
+        previous = null;
+    }
+
+    /**
+     * Detaches the event and commits it.
+     */
+    public void finish() {
+        detach();
+        end();
+        commit();
+    }
+
+    private static void restore(@Nullable RepositoryEvent event) {
+        if (event == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(event);
+        }
+    }
+}
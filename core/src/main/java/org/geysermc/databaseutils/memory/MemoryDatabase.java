@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.memory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.Database;
+import org.geysermc.databaseutils.DatabaseBootstrap;
+import org.geysermc.databaseutils.DatabaseContext;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.Transaction;
+import org.geysermc.databaseutils.codec.TypeCodecRegistry;
+import org.geysermc.databaseutils.expiry.ExpiringEntity;
+import org.geysermc.databaseutils.snapshot.RowConsumer;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotReader;
+
+/**
+ * A database that keeps every entity in memory, for tests and single node setups that don't need persistence. The
+ * url of the config is ignored, and the data is gone once the database is stopped.
+ * <p>
+ * When started as {@link DatabaseType#FILE} the entities are kept in memory as well, but every change is also appended
+ * to a log per table in the directory of the config url. The logs are replayed when the database starts, see
+ * {@link TableLog}.
+ * <p>
+ * Every write of a repository method is atomic, but transaction scopes only offer read uncommitted isolation: the
+ * writes of a scope are visible to other threads before the scope ends, and are undone when it's rolled back. Scopes
+ * are serialized, so at most one scope is running at a time.
+ */
+public final class MemoryDatabase extends Database {
+    private final Map<String, MemoryTable<?>> tables = new ConcurrentHashMap<>();
+    private final ThreadLocal<MemoryTransaction> boundTransaction = new ThreadLocal<>();
+    private final ReentrantLock transactionLock = new ReentrantLock();
+    private TypeCodecRegistry registry;
+    private @Nullable Path directory;
+    private @Nullable FileChannel directoryLock;
+    private Map<String, SnapshotEntity> entities = Map.of();
+
+    @Override
+    public void start(DatabaseContext context, DatabaseBootstrap<?> bootstrap) {
+        super.start(context, bootstrap);
+        if (!context.config().replicaUrls().isEmpty()) {
+            throw new IllegalStateException("The in-memory database does not support replica urls");
+        }
+        this.registry = context.registry();
+
+        if (context.type() == DatabaseType.FILE) {
+            this.directory = Path.of(context.config().url());
+            this.entities = bootstrap.snapshotEntities().stream()
+                    .collect(Collectors.toMap(SnapshotEntity::name, Function.identity()));
+            try {
+                Files.createDirectories(directory);
+                this.directoryLock = FileChannel.open(
+                        directory.resolve("database.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                if (directoryLock.tryLock() == null) {
+                    directoryLock.close();
+                    throw new IllegalStateException("Database directory " + directory + " is already in use");
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Failed to open database directory " + directory, exception);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        IOException failure = null;
+        for (MemoryTable<?> table : tables.values()) {
+            try {
+                table.close();
+            } catch (IOException exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        tables.clear();
+
+        if (directoryLock != null) {
+            try {
+                // closing the channel releases the lock
+                directoryLock.close();
+            } catch (IOException exception) {
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Failed to close the logs in " + directory, failure);
+        }
+    }
+
+    @Override
+    public <T> T inTransaction(Function<Transaction, T> scope) {
+        var bound = boundTransaction.get();
+        if (bound != null) {
+            return scope.apply(bound);
+        }
+
+        var transaction = new MemoryTransaction();
+        transactionLock.lock();
+        try {
+            T result;
+            boundTransaction.set(transaction);
+            try {
+                result = scope.apply(transaction);
+            } catch (Throwable throwable) {
+                boundTransaction.remove();
+                transaction.finish(false);
+                throw throwable;
+            }
+            boundTransaction.remove();
+
+            transaction.finish(true);
+            return result;
+        } finally {
+            transactionLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean hasBoundTransaction() {
+        return boundTransaction.get() != null;
+    }
+
+    @Nullable MemoryTransaction boundTransaction() {
+        return boundTransaction.get();
+    }
+
+    /**
+     * Creates the table of an entity, unless it already exists. Called by the generated code when the database starts.
+     * For the file database this loads the entities of the table from its log as well.
+     */
+    public <E> void createTable(
+            String name,
+            List<String> columns,
+            Function<E, Object> keyFunction,
+            MemoryRowCodec<E> rowCodec,
+            List<MemoryIndex<E>> indexes) {
+        tables.computeIfAbsent(name, ignored -> {
+            var table = new MemoryTable<>(this, name, columns, keyFunction, rowCodec, indexes);
+            if (directory != null) {
+                var entity = entities.get(name);
+                if (entity == null) {
+                    throw new IllegalStateException("No snapshot columns for " + name);
+                }
+                try {
+                    table.attachLog(new TableLog<>(directory, name, entity.columns(), rowCodec, service));
+                } catch (IOException exception) {
+                    throw new UncheckedIOException("Failed to load the log of " + name, exception);
+                }
+            }
+            return table;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E> MemoryTable<E> table(String name) {
+        var table = tables.get(name);
+        if (table == null) {
+            throw new IllegalStateException("Table " + name + " does not exist");
+        }
+        return (MemoryTable<E>) table;
+    }
+
+    public TypeCodecRegistry registry() {
+        return registry;
+    }
+
+    @Override
+    public int deleteExpired(ExpiringEntity entity, long expiredBefore, int limit) {
+        return table(entity.name()).deleteExpired(entity.column(), expiredBefore, limit);
+    }
+
+    @Override
+    public void readRows(SnapshotEntity entity, @Nullable List<Object> afterKey, RowConsumer consumer)
+            throws IOException {
+        table(entity.name()).readRows(entity, afterKey, consumer);
+    }
+
+    @Override
+    public void insertRows(SnapshotEntity entity, List<Object[]> rows) {
+        table(entity.name()).insertRows(rows);
+    }
+
+    @Override
+    public long deleteRowsAfter(SnapshotEntity entity, List<Object> afterKey) {
+        return table(entity.name()).deleteRowsAfter(entity, afterKey);
+    }
+
+    @Override
+    public long importSnapshot(SnapshotEntity entity, SnapshotReader reader) throws IOException {
+        // like the other databases the import is all or nothing, the indexes are always kept up to date though
+        var table = table(entity.name());
+        try {
+            return inTransaction(transaction -> {
+                long count = 0;
+                List<Object[]> rows;
+                while ((rows = nextBlock(reader)) != null) {
+                    table.insertRows(rows);
+                    count += rows.size();
+                }
+                return count;
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    private static List<Object[]> nextBlock(SnapshotReader reader) {
+        try {
+            return reader.nextBlock();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.memory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A secondary index of an in-memory table, mapping the values of the index columns to the keys of the entities. The
+ * keys are kept in a hash map for equality lookups and, when the index is sorted, in a skip list ordered by the index
+ * columns for range lookups and ordered reads. Both maps share the same key sets.
+ * <p>
+ * Changes are made by the table while holding its lock, but reads don't lock. A read can therefore see a key that was
+ * just removed or moved, which is why the generated repositories always filter the entities they get from an index.
+ */
+public final class MemoryIndex<E> {
+    private final String name;
+    private final boolean unique;
+    private final Function<E, List<?>> columns;
+
+    private final Map<List<?>, Set<Object>> hash = new ConcurrentHashMap<>();
+    private final @Nullable NavigableMap<List<?>, Set<Object>> sorted;
+
+    /**
+     * @param sorted whether the keys are kept ordered as well, which requires every index column to be comparable
+     * @param columns returns the values of the index columns of an entity, in the order of the index. The list has to
+     *                support null values.
+     */
+    public MemoryIndex(String name, boolean unique, boolean sorted, Function<E, List<?>> columns) {
+        this.name = Objects.requireNonNull(name);
+        this.unique = unique;
+        this.sorted = sorted ? new ConcurrentSkipListMap<>(MemoryValues::compareLists) : null;
+        this.columns = Objects.requireNonNull(columns);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public boolean unique() {
+        return unique;
+    }
+
+    public boolean sorted() {
+        return sorted != null;
+    }
+
+    /**
+     * Throws when adding the entity would violate the uniqueness of the index. Like the other databases, rows with a
+     * null in one of the index columns never conflict.
+     *
+     * @param ignoredKey the key of the entity that is being replaced, which is allowed to have the same values
+     */
+    void checkUnique(E entity, Object ignoredKey) {
+        if (!unique) {
+            return;
+        }
+        var values = columns.apply(entity);
+        if (values.contains(null)) {
+            return;
+        }
+        var keys = hash.get(values);
+        if (keys == null) {
+            return;
+        }
+        for (Object key : keys) {
+            if (!key.equals(ignoredKey)) {
+                throw new IllegalStateException(
+                        "Unique index %s already contains %s, for key %s".formatted(name, values, key));
+            }
+        }
+    }
+
+    void add(Object key, E entity) {
+        var values = columns.apply(entity);
+        var keys = hash.computeIfAbsent(values, ignored -> ConcurrentHashMap.newKeySet());
+        if (sorted != null) {
+            sorted.putIfAbsent(values, keys);
+        }
+        keys.add(key);
+    }
+
+    void remove(Object key, E entity) {
+        var values = columns.apply(entity);
+        var keys = hash.get(values);
+        if (keys == null) {
+            return;
+        }
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            hash.remove(values);
+            if (sorted != null) {
+                sorted.remove(values);
+            }
+        }
+    }
+
+    void clear() {
+        hash.clear();
+        if (sorted != null) {
+            sorted.clear();
+        }
+    }
+
+    Stream<Object> equalTo(Object... values) {
+        var keys = hash.get(Arrays.asList(values));
+        return keys != null ? keys.stream() : Stream.empty();
+    }
+
+    /**
+     * Returns the keys of the entities of which the first index column is less than the given value. The entities with
+     * a null in that column are included, since they are ordered first.
+     */
+    Stream<Object> lessThan(Object value) {
+        requireSorted();
+        // a list is ordered before every longer list it is a prefix of
+        return sorted.headMap(Collections.singletonList(value), false).values().stream()
+                .flatMap(Set::stream);
+    }
+
+    Stream<Object> ordered(boolean descending) {
+        requireSorted();
+        var map = descending ? sorted.descendingMap() : sorted;
+        return map.values().stream().flatMap(Set::stream);
+    }
+
+    private void requireSorted() {
+        if (sorted == null) {
+            throw new IllegalStateException("Index %s is not sorted".formatted(name));
+        }
+    }
+}
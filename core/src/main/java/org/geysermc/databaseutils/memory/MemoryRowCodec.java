@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.memory;
+
+/**
+ * Converts an entity from and to the row format of {@link org.geysermc.databaseutils.snapshot.SnapshotEntity}, so
+ * that in-memory tables can be exported, imported and migrated like the tables of the other databases. Instances are
+ * generated by the annotation processor.
+ */
+public interface MemoryRowCodec<E> {
+    Object[] toRow(E entity);
+
+    E fromRow(Object[] row);
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.memory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.snapshot.RowConsumer;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+
+/**
+ * The entities of a single entity type, keyed by their generated key class. Reads don't lock and can run concurrently
+ * with each other and with writes. Writes are serialized per table, every write method either fully applies or, when
+ * it throws, leaves the table unchanged.
+ * <p>
+ * The methods accepting a stream consume it while holding the lock of the table, so that the entities that are
+ * updated or deleted are the ones matching at the time of the write.
+ * <p>
+ * Tables of the file database additionally have a {@link TableLog}, to which every change is appended once the write
+ * method has been applied.
+ */
+public final class MemoryTable<E> {
+    private final MemoryDatabase database;
+    private final String name;
+    private final List<String> columns;
+    private final Function<E, Object> keyFunction;
+    private final MemoryRowCodec<E> rowCodec;
+    private final Map<String, MemoryIndex<E>> indexes = new HashMap<>();
+    private final Map<Object, E> rows = new ConcurrentHashMap<>();
+    private @Nullable TableLog<E> log;
+
+    MemoryTable(
+            MemoryDatabase database,
+            String name,
+            List<String> columns,
+            Function<E, Object> keyFunction,
+            MemoryRowCodec<E> rowCodec,
+            List<MemoryIndex<E>> indexes) {
+        this.database = database;
+        this.name = name;
+        this.columns = List.copyOf(columns);
+        this.keyFunction = keyFunction;
+        this.rowCodec = rowCodec;
+        for (MemoryIndex<E> index : indexes) {
+            if (this.indexes.put(index.name(), index) != null) {
+                throw new IllegalStateException("Duplicate index %s for %s".formatted(index.name(), name));
+            }
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public @Nullable E get(Object key) {
+        return rows.get(key);
+    }
+
+    public Stream<E> stream() {
+        return rows.values().stream();
+    }
+
+    /**
+     * Returns the entities of which the index columns are equal to the given values.
+     */
+    public Stream<E> equalTo(String index, Object... values) {
+        return lookup(index(index).equalTo(values));
+    }
+
+    /**
+     * Returns the entities of which the first index column is less than the given value, which may include entities
+     * that don't match.
+     */
+    public Stream<E> lessThan(String index, Object value) {
+        return lookup(index(index).lessThan(value));
+    }
+
+    /**
+     * Returns every entity ordered by the index columns.
+     */
+    public Stream<E> ordered(String index, boolean descending) {
+        return lookup(index(index).ordered(descending));
+    }
+
+    public void insert(E entity) {
+        change(changes -> {
+            changes.insert(entity);
+            return null;
+        });
+    }
+
+    public int insertAll(Collection<? extends E> entities) {
+        return change(changes -> {
+            entities.forEach(changes::insert);
+            return entities.size();
+        });
+    }
+
+    /**
+     * Replaces the entity with the same key, and returns whether there was one.
+     */
+    public boolean update(E entity) {
+        return change(changes -> changes.replace(keyFunction.apply(entity), entity));
+    }
+
+    public int updateAll(Collection<? extends E> entities) {
+        return change(changes -> {
+            int count = 0;
+            for (E entity : entities) {
+                if (changes.replace(keyFunction.apply(entity), entity)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Replaces every matching entity by the result of the updater, which is allowed to change the key. Returns the
+     * amount of entities that were updated.
+     */
+    public int updateMatching(Stream<E> matching, UnaryOperator<E> updater) {
+        return change(changes -> {
+            var found = matching.toList();
+            for (E entity : found) {
+                changes.delete(keyFunction.apply(entity));
+            }
+            for (E entity : found) {
+                changes.insert(updater.apply(entity));
+            }
+            return found.size();
+        });
+    }
+
+    /**
+     * Deletes the entity with the same key, and returns the entity that was deleted or null if there was none.
+     */
+    public @Nullable E delete(E entity) {
+        return change(changes -> changes.delete(keyFunction.apply(entity)));
+    }
+
+    public int deleteAll(Collection<? extends E> entities) {
+        return change(changes -> {
+            int count = 0;
+            for (E entity : entities) {
+                if (changes.delete(keyFunction.apply(entity)) != null) {
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Deletes every matching entity, and returns the entities that were deleted.
+     */
+    public List<E> deleteMatching(Stream<E> matching) {
+        return change(changes -> {
+            var deleted = new ArrayList<E>();
+            for (E entity : matching.toList()) {
+                var removed = changes.delete(keyFunction.apply(entity));
+                if (removed != null) {
+                    deleted.add(removed);
+                }
+            }
+            return deleted;
+        });
+    }
+
+    int deleteExpired(String column, long expiredBefore, int limit) {
+        int index = columns.indexOf(column);
+        return deleteMatching(rows.values().stream()
+                        .filter(entity -> {
+                            var value = rowCodec.toRow(entity)[index];
+                            return value != null && ((Number) value).longValue() < expiredBefore;
+                        })
+                        .limit(limit))
+                .size();
+    }
+
+    void readRows(SnapshotEntity entity, @Nullable List<Object> afterKey, RowConsumer consumer) throws IOException {
+        var keyIndexes = entity.keyIndexes();
+        var sortedRows = rows.values().stream()
+                .map(rowCodec::toRow)
+                .filter(row -> afterKey == null || MemoryValues.compareLists(rowKey(row, keyIndexes), afterKey) > 0)
+                .sorted(Comparator.comparing(row -> rowKey(row, keyIndexes), MemoryValues::compareLists))
+                .toList();
+        for (Object[] row : sortedRows) {
+            consumer.accept(row);
+        }
+    }
+
+    void insertRows(List<Object[]> rowsToInsert) {
+        change(changes -> {
+            for (Object[] row : rowsToInsert) {
+                changes.insert(rowCodec.fromRow(row));
+            }
+            return null;
+        });
+    }
+
+    long deleteRowsAfter(SnapshotEntity entity, List<Object> afterKey) {
+        var keyIndexes = entity.keyIndexes();
+        return deleteMatching(rows.values().stream().filter(existing -> {
+                    var key = rowKey(rowCodec.toRow(existing), keyIndexes);
+                    return MemoryValues.compareLists(key, afterKey) > 0;
+                }))
+                .size();
+    }
+
+    /**
+     * Loads the entities from the log, and appends every following change to it.
+     */
+    void attachLog(TableLog<E> log) throws IOException {
+        synchronized (this) {
+            log.open(new TableLog.ReplayTarget<>() {
+                @Override
+                public void put(E entity) {
+                    MemoryTable.this.put(keyFunction.apply(entity), entity);
+                }
+
+                @Override
+                public void delete(E entity) {
+                    remove(keyFunction.apply(entity));
+                }
+
+                @Override
+                public void clear() {
+                    clearRows();
+                }
+            });
+            this.log = log;
+        }
+    }
+
+    /**
+     * Closes the log if there is one, and removes every entity from memory.
+     */
+    void close() throws IOException {
+        synchronized (this) {
+            try {
+                if (log != null) {
+                    log.close();
+                }
+            } finally {
+                log = null;
+                clearRows();
+            }
+        }
+    }
+
+    private void clearRows() {
+        rows.clear();
+        indexes.values().forEach(MemoryIndex::clear);
+    }
+
+    private MemoryIndex<E> index(String index) {
+        var memoryIndex = indexes.get(index);
+        if (memoryIndex == null) {
+            throw new IllegalStateException("Unknown index %s for %s".formatted(index, name));
+        }
+        return memoryIndex;
+    }
+
+    private static List<Object> rowKey(Object[] row, int[] keyIndexes) {
+        var key = new ArrayList<>(keyIndexes.length);
+        for (int keyIndex : keyIndexes) {
+            key.add(row[keyIndex]);
+        }
+        return key;
+    }
+
+    private Stream<E> lookup(Stream<Object> keys) {
+        return keys.map(rows::get).filter(Objects::nonNull);
+    }
+
+    private <T> T change(Function<Changes, T> operation) {
+        synchronized (this) {
+            var changes = new Changes();
+            T result;
+            try {
+                result = operation.apply(changes);
+                flushLog();
+            } catch (RuntimeException exception) {
+                changes.undo();
+                if (log != null) {
+                    // the log now either has none of the changes, or the changes and their undo
+                    log.discard();
+                }
+                throw exception;
+            }
+
+            var transaction = database.boundTransaction();
+            if (transaction != null && !changes.isEmpty()) {
+                transaction.addUndo(() -> {
+                    synchronized (this) {
+                        changes.undo();
+                        flushLog();
+                    }
+                });
+            }
+            if (log != null) {
+                log.compactIfNeeded(rows.size(), () -> List.copyOf(rows.values()));
+            }
+            return result;
+        }
+    }
+
+    private void flushLog() {
+        if (log != null) {
+            log.flush();
+        }
+    }
+
+    private void put(Object key, E entity) {
+        var previous = rows.put(key, entity);
+        for (MemoryIndex<E> index : indexes.values()) {
+            if (previous != null) {
+                index.remove(key, previous);
+            }
+            index.add(key, entity);
+        }
+        if (log != null) {
+            log.put(entity);
+        }
+    }
+
+    private @Nullable E remove(Object key) {
+        var removed = rows.remove(key);
+        if (removed != null) {
+            for (MemoryIndex<E> index : indexes.values()) {
+                index.remove(key, removed);
+            }
+            if (log != null) {
+                log.delete(removed);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * The changes of a single write method, which are undone when the method throws or when the transaction it is
+     * part of is rolled back.
+     */
+    private final class Changes {
+        private final List<Runnable> undoLog = new ArrayList<>();
+
+        void insert(E entity) {
+            var key = keyFunction.apply(entity);
+            if (rows.containsKey(key)) {
+                throw new IllegalStateException("%s already contains an entity with key %s".formatted(name, key));
+            }
+            for (MemoryIndex<E> index : indexes.values()) {
+                index.checkUnique(entity, null);
+            }
+            put(key, entity);
+            undoLog.add(() -> remove(key));
+        }
+
+        boolean replace(Object key, E entity) {
+            var existing = rows.get(key);
+            if (existing == null) {
+                return false;
+            }
+            for (MemoryIndex<E> index : indexes.values()) {
+                index.checkUnique(entity, key);
+            }
+            put(key, entity);
+            undoLog.add(() -> put(key, existing));
+            return true;
+        }
+
+        @Nullable E delete(Object key) {
+            var removed = remove(key);
+            if (removed != null) {
+                undoLog.add(() -> put(key, removed));
+            }
+            return removed;
+        }
+
+        boolean isEmpty() {
+            return undoLog.isEmpty();
+        }
+
+        void undo() {
+            for (int i = undoLog.size() - 1; i >= 0; i--) {
+                undoLog.get(i).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.geysermc.databaseutils.Transaction;
+
+/**
+ * A transaction scope of the in-memory database. Writes are applied directly and recorded in an undo log, which is
+ * replayed in reverse when the scope is rolled back.
+ */
+public final class MemoryTransaction implements Transaction {
+    private final List<Runnable> undoLog = new ArrayList<>();
+    private boolean rollbackOnly;
+
+    MemoryTransaction() {}
+
+    void addUndo(Runnable undo) {
+        undoLog.add(undo);
+    }
+
+    @Override
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    @Override
+    public boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    void finish(boolean commit) {
+        if (commit && !rollbackOnly) {
+            return;
+        }
+        for (int i = undoLog.size() - 1; i >= 0; i--) {
+            undoLog.get(i).run();
+        }
+    }
+}
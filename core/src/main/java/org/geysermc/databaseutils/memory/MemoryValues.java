@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.memory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The comparisons used by the generated in-memory repositories and the sorted indexes. Like the other databases,
+ * null is never less than a value, and nulls are ordered before the values.
+ */
+public final class MemoryValues {
+    private MemoryValues() {}
+
+    public static boolean lessThan(Object value, Object bound) {
+        if (value == null || bound == null) {
+            return false;
+        }
+        return compare(value, bound) < 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static int compare(Object left, Object right) {
+        if (left == right) {
+            return 0;
+        }
+        if (left == null) {
+            return -1;
+        }
+        if (right == null) {
+            return 1;
+        }
+        if (left instanceof byte[] leftBytes && right instanceof byte[] rightBytes) {
+            return Arrays.compare(leftBytes, rightBytes);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    public static int compareReversed(Object left, Object right) {
+        return compare(right, left);
+    }
+
+    /**
+     * Compares the lists column by column, a list that is a prefix of the other list is ordered before it.
+     */
+    public static int compareLists(List<?> left, List<?> right) {
+        int size = Math.min(left.size(), right.size());
+        for (int i = 0; i < size; i++) {
+            int result = compare(left.get(i), right.get(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(left.size(), right.size());
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.memory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotRows;
+
+/**
+ * The append-only log of a table of the file database. The log consists of segments named
+ * {@code <table>-<generation>.log}, which are replayed in order of their generation when the database starts. Every
+ * record is prefixed by its length and a CRC32 of its content, followed by the operation and the row of the entity in
+ * the format of {@link SnapshotRows}.
+ * <p>
+ * When most records of the log are outdated, the active segment is closed and a new one is started. The live entities
+ * are then written to a segment in between the two in the background, which starts with a record clearing the table.
+ * Once it has been written completely the older segments are deleted. Like this a crash at any point leaves a log that
+ * replays to the same entities.
+ * <p>
+ * Every method except {@link #close()} has to be called while holding the lock of the table.
+ */
+final class TableLog<E> implements Closeable {
+    private static final byte PUT = 0;
+    private static final byte DELETE = 1;
+    private static final byte CLEAR = 2;
+
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int WINDOW_SIZE = 1 << 24;
+    private static final int MIN_COMPACTION_RECORDS = 1000;
+
+    private final Path directory;
+    private final String table;
+    private final List<SnapshotColumn> columns;
+    private final MemoryRowCodec<E> rowCodec;
+    private final Executor executor;
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final RecordWriter writer = new RecordWriter();
+
+    private FileChannel active;
+    private long activeGeneration;
+    private long records;
+    private CompletableFuture<Void> compaction = CompletableFuture.completedFuture(null);
+
+    TableLog(
+            Path directory,
+            String table,
+            List<SnapshotColumn> columns,
+            MemoryRowCodec<E> rowCodec,
+            Executor executor) {
+        this.directory = directory;
+        this.table = table;
+        this.columns = columns;
+        this.rowCodec = rowCodec;
+        this.executor = executor;
+    }
+
+    /**
+     * Replays every segment, and opens the last one to append to. A record at the end of the last segment that was
+     * only partially written is discarded, since it belongs to a write that never completed.
+     */
+    void open(ReplayTarget<E> target) throws IOException {
+        var generations = new ArrayList<Long>();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                var fileName = file.getFileName().toString();
+                if (!fileName.startsWith(table + "-")) {
+                    continue;
+                }
+                if (fileName.endsWith(".log.tmp")) {
+                    // the result of a compaction that didn't finish
+                    Files.delete(file);
+                    continue;
+                }
+                var generation = generationOf(fileName);
+                if (generation != -1) {
+                    generations.add(generation);
+                }
+            }
+        }
+        generations.sort(null);
+
+        for (int i = 0; i < generations.size(); i++) {
+            boolean last = i == generations.size() - 1;
+            records += replay(segment(generations.get(i)), last, target);
+        }
+
+        activeGeneration = generations.isEmpty() ? 0 : generations.get(generations.size() - 1);
+        active = openSegment(activeGeneration);
+    }
+
+    void put(E entity) {
+        append(PUT, entity);
+    }
+
+    void delete(E entity) {
+        append(DELETE, entity);
+    }
+
+    /**
+     * Writes the records of the last write to the active segment. They're handed to the operating system, but not
+     * forced to disk.
+     */
+    void flush() {
+        if (pending.size() == 0) {
+            return;
+        }
+        try {
+            writeFully(active, pending);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to write to the log of " + table, exception);
+        } finally {
+            pending.reset();
+        }
+    }
+
+    /**
+     * Drops the records of the last write, which is used when the write failed and has been undone.
+     */
+    void discard() {
+        pending.reset();
+    }
+
+    /**
+     * Starts a compaction in the background when more than half of the records of the log are outdated, and there is
+     * no compaction running yet.
+     *
+     * @param liveCount the amount of entities that are currently in the table
+     * @param live returns a copy of the entities that are currently in the table
+     */
+    void compactIfNeeded(int liveCount, Supplier<List<E>> live) {
+        if (records < MIN_COMPACTION_RECORDS || records <= liveCount * 2L || !compaction.isDone()) {
+            return;
+        }
+
+        var compacted = activeGeneration + 1;
+        try {
+            active.close();
+            activeGeneration += 2;
+            active = openSegment(activeGeneration);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to start a new segment for " + table, exception);
+        }
+        var entities = live.get();
+        records = entities.size();
+        compaction = CompletableFuture.runAsync(() -> writeCompacted(compacted, entities), executor);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            compaction.join();
+        } catch (RuntimeException ignored) {
+            // a failed compaction leaves the older segments in place, which replay to the same entities
+        }
+        flush();
+        active.force(true);
+        active.close();
+    }
+
+    private void append(byte operation, E entity) {
+        writer.write(pending, operation, entity);
+        records++;
+    }
+
+    private void writeCompacted(long generation, List<E> live) {
+        var temporary = directory.resolve(table + "-" + generation + ".log.tmp");
+        try {
+            try (var channel = FileChannel.open(
+                    temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                // this runs without holding the lock of the table, so it can't share the buffers of the appends
+                var compactionWriter = new RecordWriter();
+                var buffer = new ByteArrayOutputStream();
+                compactionWriter.write(buffer, CLEAR, null);
+                for (E entity : live) {
+                    compactionWriter.write(buffer, PUT, entity);
+                    if (buffer.size() >= WINDOW_SIZE) {
+                        writeFully(channel, buffer);
+                    }
+                }
+                writeFully(channel, buffer);
+                channel.force(true);
+            }
+            Files.move(temporary, segment(generation), StandardCopyOption.ATOMIC_MOVE);
+
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    var fileName = file.getFileName().toString();
+                    if (fileName.startsWith(table + "-")) {
+                        var fileGeneration = generationOf(fileName);
+                        if (fileGeneration != -1 && fileGeneration < generation) {
+                            Files.delete(file);
+                        }
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+            }
+            throw new UncheckedIOException("Failed to compact the log of " + table, exception);
+        }
+    }
+
+    private long replay(Path segment, boolean last, ReplayTarget<E> target) throws IOException {
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = 0;
+            long count = 0;
+            MappedByteBuffer window = null;
+            long windowStart = 0;
+            var crc = new CRC32();
+
+            while (position < size) {
+                ByteBuffer content = null;
+                if (size - position >= RECORD_HEADER_SIZE) {
+                    if (window == null || position + RECORD_HEADER_SIZE > windowStart + window.capacity()) {
+                        window = channel.map(
+                                FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+                        windowStart = position;
+                    }
+                    var header = window.slice((int) (position - windowStart), RECORD_HEADER_SIZE);
+                    int length = header.getInt();
+                    int checksum = header.getInt();
+
+                    long contentStart = position + RECORD_HEADER_SIZE;
+                    if (length > 0 && contentStart + length <= size) {
+                        if (contentStart + length > windowStart + window.capacity()) {
+                            window = channel.map(
+                                    FileChannel.MapMode.READ_ONLY,
+                                    position,
+                                    Math.min(Math.max(RECORD_HEADER_SIZE + length, WINDOW_SIZE), size - position));
+                            windowStart = position;
+                        }
+                        content = window.slice((int) (contentStart - windowStart), length);
+                        crc.reset();
+                        crc.update(content.duplicate());
+                        if ((int) crc.getValue() != checksum) {
+                            content = null;
+                        }
+                    }
+                    if (content != null) {
+                        position = contentStart + length;
+                    }
+                }
+
+                if (content == null) {
+                    if (!last) {
+                        throw new IOException("Log segment %s is corrupt at %s".formatted(segment, position));
+                    }
+                    // mappings of the file have to be released before it can be truncated on some platforms
+                    window = null;
+                    channel.truncate(position);
+                    break;
+                }
+
+                try {
+                    byte operation = content.get();
+                    switch (operation) {
+                        case PUT -> target.put(rowCodec.fromRow(SnapshotRows.read(content, columns)));
+                        case DELETE -> target.delete(rowCodec.fromRow(SnapshotRows.read(content, columns)));
+                        case CLEAR -> target.clear();
+                        default -> throw new IOException("Unknown log operation " + operation + " in " + segment);
+                    }
+                } catch (BufferUnderflowException exception) {
+                    throw new IOException("Log segment %s is corrupt at %s".formatted(segment, position), exception);
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteArrayOutputStream buffer) throws IOException {
+        var bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        buffer.reset();
+    }
+
+    private FileChannel openSegment(long generation) throws IOException {
+        return FileChannel.open(
+                segment(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segment(long generation) {
+        return directory.resolve(table + "-" + generation + ".log");
+    }
+
+    private long generationOf(String fileName) {
+        if (!fileName.endsWith(".log")) {
+            return -1;
+        }
+        var generation = fileName.substring(table.length() + 1, fileName.length() - ".log".length());
+        try {
+            return Long.parseLong(generation);
+        } catch (NumberFormatException ignored) {
+            // belongs to a table of which the name starts with the name of this table
+            return -1;
+        }
+    }
+
+    private final class RecordWriter {
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+        private final DataOutputStream recordOutput = new DataOutputStream(record);
+        private final CRC32 crc = new CRC32();
+
+        void write(ByteArrayOutputStream target, byte operation, @Nullable E entity) {
+            try {
+                record.reset();
+                recordOutput.writeByte(operation);
+                if (entity != null) {
+                    SnapshotRows.write(recordOutput, columns, rowCodec.toRow(entity));
+                }
+
+                crc.reset();
+                crc.update(record.toByteArray());
+                var header = new DataOutputStream(target);
+                header.writeInt(record.size());
+                header.writeInt((int) crc.getValue());
+                record.writeTo(target);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    interface ReplayTarget<E> {
+        void put(E entity);
+
+        void delete(E entity);
+
+        void clear();
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+/**
+ * The annotation processor reports repository methods of which the filter or order isn't covered by an {@link Index}
+ * or the {@link Key}, since those result in a full table scan. Methods that are intentionally not covered, for example
+ * because the table is small, can be excluded from that check with this annotation.
+ */
+@Target(ElementType.METHOD)
+public @interface AllowFullScan {}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.index.qual.Positive;
+
+/**
+ * Keeps a Bloom filter of the keys of the entity in memory, so that find and exists methods looking up a key that
+ * doesn't exist return without querying the database. Only methods that have an equals condition for every key column
+ * and no Or are short-circuited. The filter is built when the database starts, and rebuilt periodically when rows have
+ * been deleted or when it's getting full, see {@link org.geysermc.databaseutils.filter.KeyFilter}.
+ * <p>
+ * Update methods can't change the key columns of an entity with a Bloom filter. The keys are hashed as they are in
+ * Java, so every key column has to be of a type of which the values are compared exactly by every database, like a
+ * number or UUID. Strings aren't, since for example MySQL and MariaDB compare them case-insensitively by default.
+ */
+@Target(ElementType.TYPE)
+public @interface BloomFilter {
+    /**
+     * The chance that a key that doesn't exist still has to be looked up, between 0 and 1 exclusive. A lower rate
+     * makes the filter larger.
+     */
+    double falsePositiveRate() default 0.01;
+
+    @Positive long rebuildInterval() default 1;
+
+    TimeUnit rebuildUnit() default TimeUnit.HOURS;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+import org.checkerframework.checker.index.qual.Positive;
+
+/**
+ * Coalesces concurrent calls of an async single-key find method into one query. Lookups that arrive within the window
+ * (or until the batch is full) are sent as a single {@code in} query and the results are handed back to every caller.
+ * Duplicate keys are only requested once, but every caller gets a future of its own. Cancelling it only cancels the
+ * query once every caller of the batch cancelled.
+ * <pre>{@code
+ * @Coalesce(windowMillis = 5, maxBatchSize = 200)
+ * CompletableFuture<Player> findByUniqueId(UUID uniqueId);
+ * }</pre>
+ * Inside a transaction scope the lookup is executed directly, since the transaction is bound to the calling thread.
+ * <p>
+ * The results are matched with the requested keys using equals, so the column has to be compared exactly by the
+ * database as well. Strings and floating point numbers aren't supported, since for example MySQL compares strings
+ * case-insensitively by default.
+ */
+@Target(ElementType.METHOD)
+public @interface Coalesce {
+    /**
+     * The amount of milliseconds the first lookup of a batch waits for other lookups to join it.
+     */
+    @Positive long windowMillis() default 2;
+
+    /**
+     * The maximum amount of distinct keys in a single batch. A full batch is sent right away. This can be at most
+     * 1000, because that's the maximum amount of items in an in list for some dialects.
+     */
+    @Positive int maxBatchSize() default 100;
+}
@@ -7,6 +7,7 @@ package org.geysermc.databaseutils.meta;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Target;
+import org.geysermc.databaseutils.sql.SqlDialect;
 
 /**
  * Allows you to change the method name to anything you like, because it will use the value of this annotation.
@@ -14,8 +15,44 @@ import java.lang.annotation.Target;
  * @Query("deleteByBedrockUsernameAndJavaUsernameAndLinkCodeAndJavaUniqueIdIsNotNull")
  * LinkRequest getAndInvalidateLinkRequest(String, String, String);
  * }</pre>
+ * Alternatively a native query can be provided when a derived query can't express it. Method parameters are
+ * referenced by name, e.g. {@code :username}, and are resolved when the repository is generated. The action is still
+ * read from the method name (find, exists, update or delete), and the results are read like any other method.
+ * <pre>{@code
+ * @Query(
+ *         sql = "select * from link_request where java_username = :username or bedrock_username = :username",
+ *         mongo = "{\"$or\": [{\"java_username\": :username}, {\"bedrock_username\": :username}]}")
+ * List<LinkRequest> findForUsername(String username);
+ * }</pre>
+ * Databases without a query for them, like the memory database, throw an {@link IllegalStateException} when the
+ * method is called.
  */
 @Target(ElementType.METHOD)
 public @interface Query {
-    String value();
+    /**
+     * The derived query to use instead of the method name. Can't be combined with a native query.
+     */
+    String value() default "";
+
+    /**
+     * The native SQL query, used for every dialect without its own query in {@link #dialects()}.
+     */
+    String sql() default "";
+
+    /**
+     * Native SQL queries for specific dialects, which take precedence over {@link #sql()}.
+     */
+    Dialect[] dialects() default {};
+
+    /**
+     * The native MongoDB filter as extended JSON. Only find, exists and delete methods support a filter.
+     */
+    String mongo() default "";
+
+    @Target({})
+    @interface Dialect {
+        SqlDialect dialect();
+
+        String sql();
+    }
 }
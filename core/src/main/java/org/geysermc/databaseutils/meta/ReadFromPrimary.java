@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+/**
+ * Find and exists methods read from a read replica when replicas are configured. Replicas can lag behind the primary,
+ * so methods that have to see the writes that were just made (read-your-writes) can be forced to read from the
+ * primary with this annotation.
+ */
+@Target(ElementType.METHOD)
+public @interface ReadFromPrimary {}
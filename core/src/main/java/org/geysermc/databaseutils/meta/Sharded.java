@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+/**
+ * Spreads the entities of the repository over the shards provided by
+ * {@link org.geysermc.databaseutils.DatabaseUtils.Builder#shards(java.util.List)}. The shard of an entity is
+ * determined by a stable hash of its key columns. Methods that filter on every key column by equality only use that
+ * shard, methods with entities as parameter are split per shard, and every other method runs on all shards in
+ * parallel after which the results are merged.
+ * Repositories without this annotation only use the first shard.
+ */
+@Target(ElementType.TYPE)
+public @interface Sharded {}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.index.qual.Positive;
+
+/**
+ * Marks a long column holding a timestamp (in epoch millis) after which the row expires once the given time to live
+ * has passed. Expired rows are removed in the background, see {@link org.geysermc.databaseutils.expiry.ExpiryPurger}.
+ * An entity can have at most one time to live column, and an index is created for it.
+ */
+@Target(ElementType.FIELD)
+public @interface TimeToLive {
+    @Positive long value();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.index.qual.Positive;
+
+/**
+ * The maximum amount of time the queries of a repository method are allowed to run, overriding the query timeout
+ * configured in {@link org.geysermc.databaseutils.DatabaseUtils.Builder#queryTimeout(java.time.Duration)}.
+ * SQL databases only support timeouts in whole seconds, so the timeout is rounded up. For MongoDB it's applied as the
+ * {@code maxTime} of finds.
+ */
+@Target(ElementType.METHOD)
+public @interface Timeout {
+    @Positive long value();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
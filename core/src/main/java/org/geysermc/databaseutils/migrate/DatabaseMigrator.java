@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.migrate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.Database;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+
+/**
+ * Copies the rows of entities from one database to another, which can be of a different type. The rows are streamed
+ * from the source ordered by their key and are grouped in batches, which are put in a bounded queue. Multiple writers
+ * take the batches from the queue and insert them in the target on threads owned by the migrator, so reading and
+ * writing happen at the same time while the queue limits the amount of rows in memory. Instances are created by
+ * {@link org.geysermc.databaseutils.DatabaseUtils#migrateTo(org.geysermc.databaseutils.DatabaseUtils,
+ * MigrationSettings)}.
+ */
+public final class DatabaseMigrator {
+    private static final Batch END = new Batch(-1, List.of());
+    private static final long POLL_MILLIS = 100;
+
+    private final Database source;
+    private final Database target;
+    private final List<SnapshotEntity> entities;
+    private final MigrationSettings settings;
+
+    public DatabaseMigrator(
+            Database source, Database target, List<SnapshotEntity> entities, MigrationSettings settings) {
+        this.source = source;
+        this.target = target;
+        this.entities = List.copyOf(entities);
+        this.settings = settings;
+    }
+
+    /**
+     * Copies every row of the given entity. The listener is called every time a batch has been inserted and every
+     * row up to that batch has been inserted as well, so {@link MigrationProgress#lastKey()} can be used to resume.
+     * The future completes with the progress after the last batch.
+     *
+     * @param resumeAfter the {@link MigrationProgress#lastKey()} of an interrupted migration, or null to start from the
+     *     beginning. Batches after the last key might have been inserted by the interrupted migration, so the rows with
+     *     a key after it are deleted from the target before resuming.
+     */
+    public CompletableFuture<MigrationProgress> migrate(
+            Class<?> entityClass, @Nullable List<Object> resumeAfter, Consumer<MigrationProgress> listener) {
+        var entity = entityFor(entityClass);
+        return CompletableFuture.supplyAsync(
+                () -> new Migration(entity, resumeAfter, listener).run(), source.executorService());
+    }
+
+    /**
+     * Copies every row of every entity, one entity at a time. The future completes with the total amount of copied
+     * rows.
+     */
+    public CompletableFuture<Long> migrateAll(Consumer<MigrationProgress> listener) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    long copied = 0;
+                    for (SnapshotEntity entity : entities) {
+                        copied += new Migration(entity, null, listener).run().copiedRows();
+                    }
+                    return copied;
+                },
+                source.executorService());
+    }
+
+    private SnapshotEntity entityFor(Class<?> entityClass) {
+        for (SnapshotEntity entity : entities) {
+            if (entity.type() == entityClass) {
+                return entity;
+            }
+        }
+        throw new IllegalArgumentException(entityClass.getName() + " is not an entity");
+    }
+
+    private record Batch(long sequence, List<Object[]> rows) {}
+
+    private final class Migration {
+        private final SnapshotEntity entity;
+        private final List<Object> resumeAfter;
+        private final Consumer<MigrationProgress> listener;
+        private final int[] keyIndexes;
+        private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final long startNanos = System.nanoTime();
+
+        private List<Object[]> current = new ArrayList<>();
+        private long nextSequence;
+        private long readRows;
+
+        // only accessed while holding the lock of completed
+        private final Map<Long, Batch> completed = new HashMap<>();
+        private long nextCompleted;
+        private long copiedRows;
+        private List<Object> lastKey;
+
+        Migration(SnapshotEntity entity, @Nullable List<Object> resumeAfter, Consumer<MigrationProgress> listener) {
+            this.entity = entity;
+            this.resumeAfter = resumeAfter;
+            this.listener = listener;
+            this.keyIndexes = entity.keyIndexes();
+            this.lastKey = resumeAfter;
+        }
+
+        MigrationProgress run() {
+            var filter = target.keyFilter(entity.name());
+            if (filter == null) {
+                return copy();
+            }
+            // the copied rows don't go through the repositories of the target, so they aren't added to its filter
+            filter.suspend();
+            try {
+                return copy();
+            } finally {
+                try {
+                    filter.resume(target);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }
+        }
+
+        private MigrationProgress copy() {
+            if (resumeAfter != null) {
+                target.deleteRowsAfter(entity, resumeAfter);
+            }
+
+            // the writers get threads of their own. On the executor of the target they could wait behind this reader
+            // when it's shared and bounded, while the reader waits for them to take batches from the queue
+            var writers = new CompletableFuture<?>[settings.writers()];
+            var writerService = writerService(writers.length);
+            for (int i = 0; i < writers.length; i++) {
+                writers[i] = CompletableFuture.runAsync(this::write, writerService);
+            }
+            writerService.shutdown();
+
+            try {
+                source.readRows(entity, resumeAfter, this::read);
+                if (!current.isEmpty()) {
+                    enqueue(new Batch(nextSequence++, current));
+                }
+                for (int i = 0; i < writers.length; i++) {
+                    enqueue(END);
+                }
+            } catch (IOException | RuntimeException exception) {
+                failure.compareAndSet(null, exception);
+            }
+
+            CompletableFuture.allOf(writers).join();
+            var error = failure.get();
+            if (error != null) {
+                throw new CompletionException(error);
+            }
+            synchronized (completed) {
+                return progress();
+            }
+        }
+
+        private ExecutorService writerService(int writers) {
+            var name = "DatabaseUtils Migrator " + entity.name() + " #";
+            var index = new int[1];
+            return Executors.newFixedThreadPool(writers, runnable -> {
+                var thread = new Thread(runnable, name + index[0]++);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private void read(Object[] row) throws IOException {
+            current.add(row);
+            readRows++;
+            if (current.size() >= settings.batchSize()) {
+                throttle();
+                enqueue(new Batch(nextSequence++, current));
+                current = new ArrayList<>();
+            }
+        }
+
+        private void throttle() throws IOException {
+            if (settings.maxRowsPerSecond() == 0) {
+                return;
+            }
+            var expectedNanos = TimeUnit.SECONDS.toNanos(readRows) / settings.maxRowsPerSecond();
+            var aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+            if (aheadNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(aheadNanos);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while migrating " + entity.name());
+                }
+            }
+        }
+
+        private void enqueue(Batch batch) throws IOException {
+            try {
+                // the writers stop taking batches when one of them fails
+                while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        throw new IOException("Failed to insert the rows of " + entity.name(), failure.get());
+                    }
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while migrating " + entity.name());
+            }
+        }
+
+        private void write() {
+            try {
+                while (failure.get() == null) {
+                    var batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (batch == END) {
+                        return;
+                    }
+                    if (batch != null) {
+                        target.insertRows(entity, batch.rows());
+                        completed(batch);
+                    }
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, exception);
+            } catch (Throwable throwable) {
+                failure.compareAndSet(null, throwable);
+            }
+        }
+
+        private void completed(Batch batch) {
+            synchronized (completed) {
+                completed.put(batch.sequence(), batch);
+                // batches can complete out of order, the progress only includes batches without gaps before them
+                boolean advanced = false;
+                Batch next;
+                while ((next = completed.remove(nextCompleted)) != null) {
+                    nextCompleted++;
+                    copiedRows += next.rows().size();
+                    lastKey = keyOf(next.rows().get(next.rows().size() - 1));
+                    advanced = true;
+                }
+                if (advanced) {
+                    listener.accept(progress());
+                }
+            }
+        }
+
+        private List<Object> keyOf(Object[] row) {
+            var key = new Object[keyIndexes.length];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = row[keyIndexes[i]];
+            }
+            return Collections.unmodifiableList(Arrays.asList(key));
+        }
+
+        private MigrationProgress progress() {
+            var elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            return new MigrationProgress(entity.name(), copiedRows, lastKey, elapsedMillis);
+        }
+    }
+}
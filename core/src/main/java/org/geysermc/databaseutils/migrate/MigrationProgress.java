@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.migrate;
+
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * @param entity the name of the table or collection that is being migrated
+ * @param copiedRows the amount of rows that have been inserted in the target during this migration
+ * @param lastKey the key of the last row that has been copied, every row with a key up to and including this key has
+ *     been inserted in the target. Pass it to {@link DatabaseMigrator#migrate} to resume an interrupted migration.
+ *     Null when no rows have been copied yet.
+ * @param elapsedMillis the time since the start of this migration
+ */
+public record MigrationProgress(String entity, long copiedRows, @Nullable List<Object> lastKey, long elapsedMillis) {
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? 0 : copiedRows * 1000D / elapsedMillis;
+    }
+}
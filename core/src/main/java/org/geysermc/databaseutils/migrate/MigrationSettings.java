@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.migrate;
+
+/**
+ * @param batchSize the amount of rows that are inserted in the target by a single transaction
+ * @param writers the amount of threads inserting batches in the target at the same time
+ * @param queueCapacity the maximum amount of batches that have been read from the source but not yet inserted
+ * @param maxRowsPerSecond the maximum amount of rows that are read from the source per second, zero for no limit
+ */
+public record MigrationSettings(int batchSize, int writers, int queueCapacity, long maxRowsPerSecond) {
+    public static final MigrationSettings DEFAULT = new MigrationSettings(500, 4, 16, 0);
+
+    public MigrationSettings {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize has to be at least 1");
+        if (writers < 1) throw new IllegalArgumentException("writers has to be at least 1");
+        if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity has to be at least 1");
+        if (maxRowsPerSecond < 0) throw new IllegalArgumentException("maxRowsPerSecond cannot be negative");
+    }
+}
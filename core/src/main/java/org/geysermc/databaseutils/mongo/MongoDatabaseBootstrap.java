@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.mongo;
+
+import org.bson.codecs.configuration.CodecProvider;
+import org.geysermc.databaseutils.DatabaseBootstrap;
+
+public interface MongoDatabaseBootstrap extends DatabaseBootstrap<MongodbDatabase> {
+    CodecProvider entityCodecs();
+
+    /**
+     * Whether the generated repositories use the reactive streams driver for their async methods. In that case
+     * mongodb-driver-reactivestreams has to be present at runtime.
+     */
+    default boolean reactive() {
+        return false;
+    }
+}
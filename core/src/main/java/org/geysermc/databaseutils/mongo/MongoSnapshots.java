@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.mongo;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.snapshot.RowConsumer;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotReader;
+import org.geysermc.databaseutils.snapshot.SnapshotType;
+
+/**
+ * Streams and inserts the documents of a collection, for snapshots and migrations. The values are converted between
+ * the types the default codecs and {@link CustomTypeCodec} store them as and the types of the snapshot.
+ */
+final class MongoSnapshots {
+    private static final int BATCH_SIZE = 1000;
+    private static final String ID_INDEX = "_id_";
+
+    private MongoSnapshots() {}
+
+    static void readRows(
+            MongoDatabase database, SnapshotEntity entity, @Nullable List<Object> afterKey, RowConsumer consumer)
+            throws IOException {
+        var columns = entity.columns();
+        var names = columns.stream().map(SnapshotColumn::name).toList();
+
+        var documents = database.getCollection(entity.name())
+                .find(afterKey != null ? afterKeyFilter(entity, afterKey) : new Document())
+                .projection(Projections.fields(Projections.include(names), Projections.excludeId()))
+                .sort(Sorts.ascending(entity.keys()))
+                .batchSize(BATCH_SIZE);
+        for (Document document : documents) {
+            var row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = read(document.get(names.get(i)), columns.get(i).type());
+            }
+            consumer.accept(row);
+        }
+    }
+
+    static void insertRows(MongoDatabase database, SnapshotEntity entity, List<Object[]> rows) {
+        var columns = entity.columns();
+        var documents = new ArrayList<Document>(rows.size());
+        for (Object[] row : rows) {
+            var document = new Document();
+            for (int i = 0; i < row.length; i++) {
+                document.append(columns.get(i).name(), write(row[i], columns.get(i).type()));
+            }
+            documents.add(document);
+        }
+        database.getCollection(entity.name()).insertMany(documents, new InsertManyOptions().ordered(false));
+    }
+
+    static long deleteRowsAfter(MongoDatabase database, SnapshotEntity entity, List<Object> afterKey) {
+        return database.getCollection(entity.name())
+                .deleteMany(afterKeyFilter(entity, afterKey))
+                .getDeletedCount();
+    }
+
+    static long importFrom(MongoDatabase database, SnapshotEntity entity, SnapshotReader reader) throws IOException {
+        var collection = database.getCollection(entity.name());
+
+        // unique indexes stay, otherwise the constraint wouldn't be enforced while loading
+        var deferred = new ArrayList<Document>();
+        for (Document index : collection.listIndexes()) {
+            if (!ID_INDEX.equals(index.getString("name")) && !index.getBoolean("unique", false)) {
+                deferred.add(index);
+            }
+        }
+        deferred.forEach(index -> collection.dropIndex(index.getString("name")));
+
+        long imported = 0;
+        try {
+            List<Object[]> rows;
+            while ((rows = reader.nextBlock()) != null) {
+                insertRows(database, entity, rows);
+                imported += rows.size();
+            }
+        } finally {
+            recreateIndexes(collection, deferred);
+        }
+        return imported;
+    }
+
+    private static void recreateIndexes(MongoCollection<Document> collection, List<Document> indexes) {
+        for (Document index : indexes) {
+            var options = new IndexOptions()
+                    .name(index.getString("name"))
+                    .sparse(index.getBoolean("sparse", false));
+            collection.createIndex(index.get("key", Document.class), options);
+        }
+    }
+
+    private static Bson afterKeyFilter(SnapshotEntity entity, List<Object> afterKey) {
+        // (a, b) > (x, y) becomes a > x OR (a = x AND b > y)
+        var keys = entity.keys();
+        if (afterKey.size() != keys.size()) {
+            throw new IllegalArgumentException("Expected " + keys.size() + " key values, got " + afterKey.size());
+        }
+        var branches = new ArrayList<Bson>();
+        for (int i = 0; i < keys.size(); i++) {
+            var branch = new ArrayList<Bson>();
+            for (int j = 0; j < i; j++) {
+                branch.add(Filters.eq(keys.get(j), keyValue(entity, keys.get(j), afterKey.get(j))));
+            }
+            branch.add(Filters.gt(keys.get(i), keyValue(entity, keys.get(i), afterKey.get(i))));
+            branches.add(branch.size() == 1 ? branch.get(0) : Filters.and(branch));
+        }
+        return branches.size() == 1 ? branches.get(0) : Filters.or(branches);
+    }
+
+    private static Object keyValue(SnapshotEntity entity, String key, Object value) {
+        return write(value, entity.column(key).type());
+    }
+
+    private static Object read(Object value, SnapshotType type) {
+        if (value == null) {
+            return null;
+        }
+        return switch (type) {
+            // the default codec stores characters as strings
+            case CHARACTER -> ((String) value).charAt(0);
+            case BYTES -> ((Binary) value).getData();
+            // the default codecs store bytes and shorts as int32, and floats as doubles
+            case BYTE -> ((Number) value).byteValue();
+            case SHORT -> ((Number) value).shortValue();
+            case INTEGER -> ((Number) value).intValue();
+            case LONG -> ((Number) value).longValue();
+            case FLOAT -> ((Number) value).floatValue();
+            case DOUBLE -> ((Number) value).doubleValue();
+            case BOOLEAN, STRING -> value;
+        };
+    }
+
+    private static Object write(Object value, SnapshotType type) {
+        if (value == null) {
+            return null;
+        }
+        return switch (type) {
+            case BYTE, SHORT -> ((Number) value).intValue();
+            case FLOAT -> ((Number) value).doubleValue();
+            case CHARACTER -> String.valueOf(value);
+            case BYTES -> new Binary((byte[]) value);
+            case INTEGER, LONG, DOUBLE, BOOLEAN, STRING -> value;
+        };
+    }
+}
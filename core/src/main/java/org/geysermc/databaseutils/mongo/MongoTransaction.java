@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.mongo;
+
+import com.mongodb.client.ClientSession;
+import org.geysermc.databaseutils.Transaction;
+
+/**
+ * The session a generated repository method runs on. This is either the session of the transaction bound to the
+ * current thread, or a session that only lives for the duration of a single repository method.
+ */
+public final class MongoTransaction implements Transaction, AutoCloseable {
+    private final ClientSession session;
+    private final boolean scoped;
+    private boolean rollbackOnly;
+
+    MongoTransaction(ClientSession session, boolean scoped) {
+        this.session = session;
+        this.scoped = scoped;
+    }
+
+    public ClientSession session() {
+        return session;
+    }
+
+    /**
+     * Starts a transaction for the writes of a single repository method, unless it's part of a transaction scope.
+     */
+    public void begin() {
+        if (!scoped) {
+            session.startTransaction();
+        }
+    }
+
+    public void commit() {
+        if (!scoped) {
+            session.commitTransaction();
+        }
+    }
+
+    public void rollback() {
+        if (scoped) {
+            // the scope decides what happens, but it should never commit a partial write
+            rollbackOnly = true;
+            return;
+        }
+        session.abortTransaction();
+    }
+
+    @Override
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    @Override
+    public boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    @Override
+    public void close() {
+        if (!scoped) {
+            session.close();
+        }
+    }
+
+    void finish(boolean commit) {
+        try {
+            if (commit && !rollbackOnly) {
+                session.commitTransaction();
+            } else {
+                session.abortTransaction();
+            }
+        } finally {
+            session.close();
+        }
+    }
+}
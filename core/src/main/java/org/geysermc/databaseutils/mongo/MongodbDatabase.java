@@ -5,33 +5,62 @@
  */
 package org.geysermc.databaseutils.mongo;
 
-import static org.geysermc.databaseutils.util.ClassUtils.staticCastedValue;
-
+import com.mongodb.ClientSessionOptions;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCredential;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
+import org.bson.Document;
 import org.bson.codecs.Codec;
-import org.bson.codecs.configuration.CodecProvider;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.databaseutils.Database;
+import org.geysermc.databaseutils.DatabaseBootstrap;
 import org.geysermc.databaseutils.DatabaseContext;
+import org.geysermc.databaseutils.Transaction;
 import org.geysermc.databaseutils.codec.TypeCodec;
+import org.geysermc.databaseutils.expiry.ExpiringEntity;
+import org.geysermc.databaseutils.snapshot.RowConsumer;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotReader;
+import org.geysermc.databaseutils.util.ClassUtils;
+import org.geysermc.databaseutils.util.SharedResources;
 
 public final class MongodbDatabase extends Database {
+    private static final ClientSessionOptions METHOD_SESSION_OPTIONS =
+            ClientSessionOptions.builder().causallyConsistent(false).build();
+    private static final String REACTIVE_CLIENTS_CLASS = "com.mongodb.reactivestreams.client.MongoClients";
+    private static final SharedResources<ClientKey, MongoClient> SHARED_CLIENTS = new SharedResources<>();
+    private static final SharedResources<ClientKey, com.mongodb.reactivestreams.client.MongoClient>
+            SHARED_REACTIVE_CLIENTS = new SharedResources<>();
+
+    private final ThreadLocal<MongoTransaction> boundTransaction = new ThreadLocal<>();
     private MongoClient mongoClient;
     private MongoDatabase mongoDatabase;
+    private com.mongodb.reactivestreams.client.MongoClient reactiveClient;
+    private com.mongodb.reactivestreams.client.MongoDatabase reactiveDatabase;
+    private @Nullable ClientKey sharedClientKey;
 
     @Override
-    public void start(DatabaseContext context, Class<?> databaseImpl) {
-        super.start(context, databaseImpl);
+    public void start(DatabaseContext context, DatabaseBootstrap<?> bootstrap) {
+        super.start(context, bootstrap);
         var config = context.config();
 
+        if (!config.replicaUrls().isEmpty()) {
+            throw new IllegalStateException(
+                    "MongoDB does not support replica urls, use the readPreference option of the connection string");
+        }
+
         var connectionString = new ConnectionString(config.url());
         Objects.requireNonNull(connectionString.getDatabase(), "Database has to be specified!");
 
@@ -44,18 +73,146 @@ public final class MongodbDatabase extends Database {
                     config.password() != null ? config.password().toCharArray() : new char[0]));
         }
 
-        settings.codecRegistry(CodecRegistries.fromRegistries(
-                entityCodecRegistry(databaseImpl),
+        var codecRegistry = CodecRegistries.fromRegistries(
+                entityCodecRegistry(bootstrap),
                 customCodecRegistry(context),
-                MongoClientSettings.getDefaultCodecRegistry()));
+                MongoClientSettings.getDefaultCodecRegistry());
+        boolean reactive = bootstrap instanceof MongoDatabaseBootstrap mongoBootstrap && mongoBootstrap.reactive();
+        if (reactive && !ClassUtils.isClassPresent(REACTIVE_CLIENTS_CLASS)) {
+            throw new IllegalStateException(
+                    "The repositories were generated for the reactive streams driver, but it is not present!");
+        }
+
+        if (context.sharePool()) {
+            // the codecs differ per database, so a shared client only has the default codecs
+            var clientSettings = settings.build();
+            var key = new ClientKey(config.url(), config.username(), SharedResources.fingerprint(config.password()));
+            this.mongoClient = SHARED_CLIENTS.acquire(key, ignored -> MongoClients.create(clientSettings));
+            if (reactive) {
+                this.reactiveClient = SHARED_REACTIVE_CLIENTS.acquire(
+                        key, ignored -> com.mongodb.reactivestreams.client.MongoClients.create(clientSettings));
+            }
+            this.sharedClientKey = key;
+        } else {
+            var clientSettings = settings.codecRegistry(codecRegistry).build();
+            this.mongoClient = MongoClients.create(clientSettings);
+            if (reactive) {
+                this.reactiveClient = com.mongodb.reactivestreams.client.MongoClients.create(clientSettings);
+            }
+        }
 
-        this.mongoClient = MongoClients.create(settings.build());
-        this.mongoDatabase = mongoClient.getDatabase(connectionString.getDatabase());
+        this.mongoDatabase =
+                mongoClient.getDatabase(connectionString.getDatabase()).withCodecRegistry(codecRegistry);
+        if (reactive) {
+            this.reactiveDatabase =
+                    reactiveClient.getDatabase(connectionString.getDatabase()).withCodecRegistry(codecRegistry);
+        }
     }
 
     @Override
     public void stop() {
+        if (sharedClientKey != null) {
+            SHARED_CLIENTS.release(sharedClientKey);
+            if (reactiveClient != null) {
+                SHARED_REACTIVE_CLIENTS.release(sharedClientKey);
+            }
+            return;
+        }
         mongoClient.close();
+        if (reactiveClient != null) {
+            reactiveClient.close();
+        }
+    }
+
+    @Override
+    public <T> T inTransaction(Function<Transaction, T> scope) {
+        var bound = boundTransaction.get();
+        if (bound != null) {
+            return scope.apply(bound);
+        }
+
+        var session = mongoClient.startSession();
+        session.startTransaction();
+        var transaction = new MongoTransaction(session, true);
+
+        T result;
+        boundTransaction.set(transaction);
+        try {
+            result = scope.apply(transaction);
+        } catch (Throwable throwable) {
+            boundTransaction.remove();
+            transaction.finish(false);
+            throw throwable;
+        }
+        boundTransaction.remove();
+
+        transaction.finish(true);
+        return result;
+    }
+
+    @Override
+    public boolean hasBoundTransaction() {
+        return boundTransaction.get() != null;
+    }
+
+    @Override
+    public int deleteExpired(ExpiringEntity entity, long expiredBefore, int limit) {
+        // deleteMany has no limit, so the ids of a batch are looked up first
+        var collection = mongoDatabase.getCollection(entity.name());
+        var ids = new ArrayList<>();
+        for (Document document : collection
+                .find(Filters.lt(entity.column(), expiredBefore))
+                .projection(Projections.include("_id"))
+                .limit(limit)) {
+            ids.add(document.get("_id"));
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return (int) collection.deleteMany(Filters.in("_id", ids)).getDeletedCount();
+    }
+
+    @Override
+    public void readRows(SnapshotEntity entity, @Nullable List<Object> afterKey, RowConsumer consumer)
+            throws IOException {
+        MongoSnapshots.readRows(mongoDatabase, entity, afterKey, consumer);
+    }
+
+    @Override
+    public void insertRows(SnapshotEntity entity, List<Object[]> rows) {
+        MongoSnapshots.insertRows(mongoDatabase, entity, rows);
+    }
+
+    @Override
+    public long deleteRowsAfter(SnapshotEntity entity, List<Object> afterKey) {
+        return MongoSnapshots.deleteRowsAfter(mongoDatabase, entity, afterKey);
+    }
+
+    @Override
+    public long importSnapshot(SnapshotEntity entity, SnapshotReader reader) throws IOException {
+        return MongoSnapshots.importFrom(mongoDatabase, entity, reader);
+    }
+
+    /**
+     * Returns the transaction bound to the current thread, or a new session that is closed by the caller when there
+     * is none.
+     */
+    public MongoTransaction transaction() {
+        var bound = boundTransaction.get();
+        if (bound != null) {
+            return bound;
+        }
+        return new MongoTransaction(mongoClient.startSession(METHOD_SESSION_OPTIONS), false);
+    }
+
+    /**
+     * Reactive repository methods complete on the threads of the driver, so they can't take part in the transaction
+     * that is bound to the calling thread. Rather than silently running them outside the transaction, this fails.
+     */
+    public void requireNoBoundTransaction() {
+        if (hasBoundTransaction()) {
+            throw new IllegalStateException("Reactive repository methods cannot be used inside a transaction scope");
+        }
     }
 
     public MongoClient mongoClient() {
@@ -66,6 +223,18 @@ public final class MongodbDatabase extends Database {
         return mongoDatabase;
     }
 
+    public com.mongodb.reactivestreams.client.MongoDatabase reactiveDatabase() {
+        if (reactiveDatabase == null) {
+            throw new IllegalStateException("The repositories were not generated for the reactive streams driver");
+        }
+        return reactiveDatabase;
+    }
+
+    /**
+     * Only holds a fingerprint of the password, since the key lives as long as the client and could end up in logs.
+     */
+    private record ClientKey(String url, @Nullable String username, @Nullable String passwordFingerprint) {}
+
     @SuppressWarnings("unchecked")
     private CodecRegistry customCodecRegistry(DatabaseContext context) {
         var codecs = new ArrayList<Codec<?>>();
@@ -75,12 +244,10 @@ public final class MongodbDatabase extends Database {
         return CodecRegistries.fromCodecs(codecs);
     }
 
-    private CodecRegistry entityCodecRegistry(Class<?> databaseImpl) {
-        try {
-            return CodecRegistries.fromProviders(
-                    staticCastedValue(databaseImpl.getDeclaredField("ENTITY_CODECS"), CodecProvider.class));
-        } catch (NoSuchFieldException exception) {
-            throw new RuntimeException("Expected there to be codecs for the entities!", exception);
+    private CodecRegistry entityCodecRegistry(DatabaseBootstrap<?> bootstrap) {
+        if (!(bootstrap instanceof MongoDatabaseBootstrap mongoBootstrap)) {
+            throw new IllegalStateException("Expected there to be codecs for the entities!");
         }
+        return CodecRegistries.fromProviders(mongoBootstrap.entityCodecs());
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.mongo;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Adapts the Publishers of the reactive streams driver to CompletableFutures, used by the generated repositories.
+ * The futures complete on the threads of the driver.
+ */
+public final class PublisherFutures {
+    private PublisherFutures() {}
+
+    /**
+     * Returns the first item of the publisher, or null if it didn't publish any items.
+     */
+    public static <T> CompletableFuture<T> first(Publisher<T> publisher) {
+        return first(publisher, Function.identity());
+    }
+
+    /**
+     * Returns the first item of the publisher after being mapped. When the publisher didn't publish any items the
+     * mapper receives null.
+     */
+    public static <T, R> CompletableFuture<R> first(Publisher<T> publisher, Function<? super T, ? extends R> mapper) {
+        var future = new CompletableFuture<R>();
+        publisher.subscribe(new Subscriber<T>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                cancelOnCancellation(future, subscription);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(T item) {
+                subscription.cancel();
+                complete(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                // no-op if an item was already published
+                if (!future.isDone()) {
+                    complete(null);
+                }
+            }
+
+            private void complete(T item) {
+                try {
+                    future.complete(mapper.apply(item));
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+            }
+        });
+        return future;
+    }
+
+    public static <T, C extends Collection<? super T>> CompletableFuture<C> into(Publisher<T> publisher, C collection) {
+        return into(publisher, collection, Function.identity());
+    }
+
+    /**
+     * Adds every published item, after being mapped, to the collection.
+     */
+    public static <T, R, C extends Collection<? super R>> CompletableFuture<C> into(
+            Publisher<T> publisher, C collection, Function<? super T, ? extends R> mapper) {
+        return forEach(publisher, item -> collection.add(mapper.apply(item)), () -> collection);
+    }
+
+    /**
+     * Passes every published item to the consumer, and completes with the result of the finisher once the publisher
+     * completed.
+     */
+    public static <T, R> CompletableFuture<R> forEach(
+            Publisher<T> publisher, Consumer<? super T> consumer, Supplier<? extends R> finisher) {
+        var future = new CompletableFuture<R>();
+        publisher.subscribe(new Subscriber<T>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                cancelOnCancellation(future, subscription);
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                // the reactive streams spec guarantees that onNext is never called concurrently
+                consumer.accept(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(finisher.get());
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Cancelling the future cancels the subscription, which makes the driver kill the cursor of the query.
+     */
+    private static void cancelOnCancellation(CompletableFuture<?> future, Subscription subscription) {
+        future.whenComplete((ignored, throwable) -> {
+            if (future.isCancelled()) {
+                subscription.cancel();
+            }
+        });
+    }
+}
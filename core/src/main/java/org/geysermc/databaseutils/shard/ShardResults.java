@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.shard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Merges the results of a method that ran on multiple shards, as if the method ran on a single database.
+ */
+public final class ShardResults {
+    private ShardResults() {}
+
+    /**
+     * Merges the collections returned by every shard into the given collection.
+     *
+     * @param order the order of the method, or null if it has none
+     * @param limit the maximum amount of items of the method, or -1 if there is no limit
+     */
+    public static <T, C extends Collection<T>> C merge(
+            List<? extends Collection<T>> results, Comparator<? super T> order, boolean distinct, int limit, C into) {
+        List<T> merged = new ArrayList<>();
+        for (Collection<T> result : results) {
+            merged.addAll(result);
+        }
+        if (distinct) {
+            merged = new ArrayList<>(new LinkedHashSet<>(merged));
+        }
+        if (order != null) {
+            // every shard already applied the limit to its own sorted results, so the first items overall are in there
+            merged.sort(order);
+        }
+        if (limit != -1 && merged.size() > limit) {
+            merged = merged.subList(0, limit);
+        }
+        into.addAll(merged);
+        return into;
+    }
+
+    /**
+     * Returns the first result in the given order, or the first non-null result when order is null. Null results,
+     * like those of shards without a matching row, are skipped.
+     */
+    public static <T> T first(List<T> results, Comparator<? super T> order) {
+        T first = null;
+        for (T result : results) {
+            if (result == null) {
+                continue;
+            }
+            if (first == null || (order != null && order.compare(result, first) < 0)) {
+                first = result;
+            }
+        }
+        return first;
+    }
+
+    public static boolean any(List<Boolean> results) {
+        for (Boolean result : results) {
+            if (Boolean.TRUE.equals(result)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the sum of the results, or null when every shard returned null.
+     */
+    public static Integer sumInt(List<? extends Number> results) {
+        var sum = sumLong(results);
+        return sum != null ? Math.toIntExact(sum) : null;
+    }
+
+    public static Long sumLong(List<? extends Number> results) {
+        Long sum = null;
+        for (Number result : results) {
+            if (result != null) {
+                sum = (sum != null ? sum : 0L) + result.longValue();
+            }
+        }
+        return sum;
+    }
+
+    public static Double sumDouble(List<? extends Number> results) {
+        Double sum = null;
+        for (Number result : results) {
+            if (result != null) {
+                sum = (sum != null ? sum : 0D) + result.doubleValue();
+            }
+        }
+        return sum;
+    }
+}
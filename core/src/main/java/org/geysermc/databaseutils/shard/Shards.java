@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.geysermc.databaseutils.IRepository;
+
+/**
+ * The instances of a repository on every shard, used by the generated implementations of repositories annotated with
+ * {@link org.geysermc.databaseutils.meta.Sharded}.
+ *
+ * @param <R> the repository type
+ */
+public final class Shards<R> {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<R> repositories;
+    private final Executor executor;
+
+    public Shards(Class<R> repositoryClass, List<Map<Class<?>, IRepository<?>>> shards, Executor executor) {
+        var repositories = new ArrayList<R>();
+        for (var shard : shards) {
+            repositories.add(repositoryClass.cast(shard.get(repositoryClass)));
+        }
+        this.repositories = List.copyOf(repositories);
+        this.executor = executor;
+    }
+
+    public int count() {
+        return repositories.size();
+    }
+
+    /**
+     * Returns the repository of the shard the entity with the given key belongs to.
+     */
+    public R shardFor(Object... keys) {
+        return repositories.get(indexFor(repositories.size(), keys));
+    }
+
+    /**
+     * Returns the shard an entity with the given key belongs to. The hash only depends on the values of the key, not
+     * on the JVM or the types that hold them (an int and a long with the same value have the same hash), so the same
+     * key always ends up on the same shard as long as the amount of shards doesn't change.
+     */
+    public static int indexFor(int shardCount, Object... keys) {
+        long hash = FNV_OFFSET_BASIS;
+        for (Object key : keys) {
+            hash = hash(hash, key);
+        }
+        // fold the upper half in, since only the lower bits are used for small shard counts
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) shardCount);
+    }
+
+    /**
+     * Runs the call on every shard in parallel and returns the results in shard order.
+     */
+    public <T> List<T> fanOut(Function<R, T> call) {
+        return join(fanOutAsync(repository -> CompletableFuture.supplyAsync(() -> call.apply(repository), executor)));
+    }
+
+    public <T> CompletableFuture<List<T>> fanOutAsync(Function<R, CompletableFuture<T>> call) {
+        var futures = new ArrayList<CompletableFuture<T>>();
+        for (R repository : repositories) {
+            futures.add(call.apply(repository));
+        }
+        return allOf(futures);
+    }
+
+    /**
+     * Splits the entities by the shard they belong to, and runs the call in parallel for every shard that has at
+     * least one of the entities.
+     */
+    public <E, T> List<T> split(Collection<E> entities, Function<E, Object[]> keys, BiFunction<R, List<E>, T> call) {
+        return join(splitAsync(
+                entities,
+                keys,
+                (repository, part) -> CompletableFuture.supplyAsync(() -> call.apply(repository, part), executor)));
+    }
+
+    public <E, T> CompletableFuture<List<T>> splitAsync(
+            Collection<E> entities, Function<E, Object[]> keys, BiFunction<R, List<E>, CompletableFuture<T>> call) {
+        var parts = new ArrayList<List<E>>();
+        for (int i = 0; i < repositories.size(); i++) {
+            parts.add(new ArrayList<>());
+        }
+        for (E entity : entities) {
+            parts.get(indexFor(repositories.size(), keys.apply(entity))).add(entity);
+        }
+
+        var futures = new ArrayList<CompletableFuture<T>>();
+        for (int i = 0; i < parts.size(); i++) {
+            if (!parts.get(i).isEmpty()) {
+                futures.add(call.apply(repositories.get(i), parts.get(i)));
+            }
+        }
+        return allOf(futures);
+    }
+
+    private static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            var results = new ArrayList<T>();
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            // same exception as the method would've thrown without sharding
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw exception;
+        }
+    }
+
+    private static long hash(long hash, Object key) {
+        if (key == null) {
+            return mix(hash, 0);
+        }
+        if (key instanceof Byte || key instanceof Short || key instanceof Integer || key instanceof Long) {
+            return mixLong(mix(hash, 1), ((Number) key).longValue());
+        }
+        if (key instanceof Float || key instanceof Double) {
+            return mixLong(mix(hash, 2), Double.doubleToLongBits(((Number) key).doubleValue()));
+        }
+        if (key instanceof Boolean value) {
+            return mix(mix(hash, 3), value ? 1 : 0);
+        }
+        if (key instanceof UUID uuid) {
+            return mixLong(mixLong(mix(hash, 4), uuid.getMostSignificantBits()), uuid.getLeastSignificantBits());
+        }
+        if (key instanceof byte[] bytes) {
+            return mixBytes(mix(hash, 5), bytes);
+        }
+        return mixBytes(mix(hash, 6), key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long mixBytes(long hash, byte[] bytes) {
+        hash = mixLong(hash, bytes.length);
+        for (byte value : bytes) {
+            hash = mix(hash, value);
+        }
+        return hash;
+    }
+
+    private static long mixLong(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = mix(hash, (int) (value >>> (i * 8)));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ (value & 0xff)) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+import java.io.IOException;
+
+/**
+ * Receives the rows that are streamed from a database, see
+ * {@link org.geysermc.databaseutils.Database#readRows(SnapshotEntity, java.util.List, RowConsumer)}.
+ */
+@FunctionalInterface
+public interface RowConsumer {
+    /**
+     * @param row the values of the row, in the same order as the columns of the entity
+     */
+    void accept(Object[] row) throws IOException;
+}
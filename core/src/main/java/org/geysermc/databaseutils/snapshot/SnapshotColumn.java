@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+/**
+ * A column of a {@link SnapshotEntity}.
+ *
+ * @param name the name of the column
+ * @param type the type the column is stored as
+ */
+public record SnapshotColumn(String name, SnapshotType type) {}
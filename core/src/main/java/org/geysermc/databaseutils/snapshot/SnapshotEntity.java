@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+import java.util.List;
+
+/**
+ * The information needed to export and import the rows of an entity. Instances are generated by the annotation
+ * processor.
+ *
+ * @param type the entity class
+ * @param name the name of the table or collection
+ * @param columns the columns of the entity, in the order they're written to a snapshot
+ * @param keys the key columns of the entity, which determine the order rows are migrated in
+ */
+public record SnapshotEntity(Class<?> type, String name, List<SnapshotColumn> columns, List<String> keys) {
+    /**
+     * Returns the index of every key column in {@link #columns()}.
+     */
+    public int[] keyIndexes() {
+        var indexes = new int[keys.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = columnIndex(keys.get(i));
+        }
+        return indexes;
+    }
+
+    /**
+     * Returns the column with the given name.
+     */
+    public SnapshotColumn column(String name) {
+        return columns.get(columnIndex(name));
+    }
+
+    private int columnIndex(String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Column " + name + " not found in " + this.name);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a snapshot file written by {@link SnapshotWriter}. The file is memory-mapped in windows, so reading a block
+ * doesn't copy the compressed bytes before inflating them.
+ */
+public final class SnapshotReader implements Closeable {
+    private static final int WINDOW_SIZE = 1 << 24;
+
+    private final FileChannel channel;
+    private final long size;
+    private final Inflater inflater = new Inflater();
+    private final String entityName;
+    private final List<SnapshotColumn> columns;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private boolean finished;
+
+    public SnapshotReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+
+            var header = mapped(0, (int) Math.min(size, WINDOW_SIZE));
+            if (header.remaining() < Integer.BYTES + 1 || header.getInt() != SnapshotWriter.MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            int version = header.get();
+            if (version != SnapshotWriter.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+
+            this.entityName = SnapshotRows.readString(header);
+            int columnCount = SnapshotRows.readVarInt(header);
+            var columns = new ArrayList<SnapshotColumn>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                columns.add(new SnapshotColumn(SnapshotRows.readString(header), SnapshotType.byId(header.get())));
+            }
+            this.columns = List.copyOf(columns);
+            this.position = header.position();
+        } catch (BufferUnderflowException exception) {
+            close();
+            throw new EOFException("Snapshot header is truncated");
+        } catch (IOException | RuntimeException exception) {
+            close();
+            throw exception;
+        }
+    }
+
+    public String entityName() {
+        return entityName;
+    }
+
+    public List<SnapshotColumn> columns() {
+        return columns;
+    }
+
+    /**
+     * Throws when the snapshot wasn't exported from the given entity, or when the columns of the entity changed since.
+     */
+    public void requireMatches(SnapshotEntity entity) {
+        if (!entityName.equals(entity.name()) || !columns.equals(entity.columns())) {
+            throw new IllegalStateException("Snapshot of " + entityName + " doesn't match entity " + entity.name());
+        }
+    }
+
+    /**
+     * Reads the rows of the next block, or returns null when the end of the file has been reached. The values of a
+     * row are in the same order as the {@link #columns()}.
+     */
+    public List<Object[]> nextBlock() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        var header = mapped(position, SnapshotWriter.BLOCK_HEADER_SIZE);
+        int rowCount = header.getInt();
+        int uncompressedLength = header.getInt();
+        int compressedLength = header.getInt();
+        position += SnapshotWriter.BLOCK_HEADER_SIZE;
+        if (rowCount == 0) {
+            finished = true;
+            return null;
+        }
+
+        var uncompressed = new byte[uncompressedLength];
+        inflater.reset();
+        inflater.setInput(mapped(position, compressedLength));
+        try {
+            if (inflater.inflate(uncompressed) != uncompressedLength || !inflater.finished()) {
+                throw new IOException("Snapshot block at " + position + " is corrupt");
+            }
+        } catch (DataFormatException exception) {
+            throw new IOException("Snapshot block at " + position + " is corrupt", exception);
+        }
+        position += compressedLength;
+
+        var block = ByteBuffer.wrap(uncompressed);
+        var rows = new ArrayList<Object[]>(rowCount);
+        try {
+            for (int i = 0; i < rowCount; i++) {
+                rows.add(SnapshotRows.read(block, columns));
+            }
+        } catch (BufferUnderflowException exception) {
+            throw new IOException("Snapshot block at " + position + " is corrupt", exception);
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        // the mapping is released once the buffer is garbage collected
+        window = null;
+        channel.close();
+    }
+
+    private ByteBuffer mapped(long offset, int length) throws IOException {
+        if (offset + length > size) {
+            throw new EOFException("Snapshot is truncated");
+        }
+        if (window == null || offset < windowStart || offset + length > windowStart + window.capacity()) {
+            var windowSize = Math.min(Math.max(length, WINDOW_SIZE), size - offset);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, offset, windowSize);
+            windowStart = offset;
+        }
+        return window.slice((int) (offset - windowStart), length);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The binary encoding of a single row, which is shared by snapshots and the log of the file database. A row starts
+ * with a bitmap of the columns that are null, followed by the values of the other columns. Strings and byte arrays are
+ * prefixed by their length.
+ */
+public final class SnapshotRows {
+    private SnapshotRows() {}
+
+    /**
+     * Writes a row, the values have to be in the same order as the columns.
+     */
+    public static void write(DataOutput output, List<SnapshotColumn> columns, Object[] row) throws IOException {
+        if (row.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + row.length);
+        }
+
+        for (int i = 0; i < row.length; i += 8) {
+            int nulls = 0;
+            for (int j = i; j < Math.min(i + 8, row.length); j++) {
+                if (row[j] == null) {
+                    nulls |= 1 << (j - i);
+                }
+            }
+            output.writeByte(nulls);
+        }
+
+        for (int i = 0; i < row.length; i++) {
+            var value = row[i];
+            if (value == null) {
+                continue;
+            }
+            switch (columns.get(i).type()) {
+                case BOOLEAN -> output.writeBoolean((Boolean) value);
+                case BYTE -> output.writeByte(((Number) value).byteValue());
+                case SHORT -> output.writeShort(((Number) value).shortValue());
+                case CHARACTER -> output.writeChar((Character) value);
+                case INTEGER -> output.writeInt(((Number) value).intValue());
+                case LONG -> output.writeLong(((Number) value).longValue());
+                case FLOAT -> output.writeFloat(((Number) value).floatValue());
+                case DOUBLE -> output.writeDouble(((Number) value).doubleValue());
+                case STRING -> writeString(output, (String) value);
+                case BYTES -> {
+                    var bytes = (byte[]) value;
+                    writeVarInt(output, bytes.length);
+                    output.write(bytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a row, the values are in the same order as the columns.
+     *
+     * @throws java.nio.BufferUnderflowException when the row is truncated
+     */
+    public static Object[] read(ByteBuffer buffer, List<SnapshotColumn> columns) {
+        var row = new Object[columns.size()];
+        var nulls = new byte[(row.length + 7) / 8];
+        buffer.get(nulls);
+
+        for (int i = 0; i < row.length; i++) {
+            if ((nulls[i / 8] & (1 << (i % 8))) != 0) {
+                continue;
+            }
+            row[i] = switch (columns.get(i).type()) {
+                case BOOLEAN -> buffer.get() != 0;
+                case BYTE -> buffer.get();
+                case SHORT -> buffer.getShort();
+                case CHARACTER -> buffer.getChar();
+                case INTEGER -> buffer.getInt();
+                case LONG -> buffer.getLong();
+                case FLOAT -> buffer.getFloat();
+                case DOUBLE -> buffer.getDouble();
+                case STRING -> readString(buffer);
+                case BYTES -> {
+                    var bytes = new byte[readVarInt(buffer)];
+                    buffer.get(bytes);
+                    yield bytes;
+                }
+            };
+        }
+        return row;
+    }
+
+    static void writeString(DataOutput output, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(output, bytes.length);
+        output.write(bytes);
+    }
+
+    static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        var bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte current = buffer.get();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("VarInt is too big");
+    }
+}
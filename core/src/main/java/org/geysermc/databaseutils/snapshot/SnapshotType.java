@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+/**
+ * The types a column can have in a snapshot. These are the types the columns are stored as in the database, so
+ * columns that use a {@link org.geysermc.databaseutils.codec.TypeCodec} are stored as {@link #BYTES}, which makes the
+ * snapshots independent of the codecs and the database type.
+ */
+public enum SnapshotType {
+    BOOLEAN,
+    BYTE,
+    SHORT,
+    CHARACTER,
+    INTEGER,
+    LONG,
+    FLOAT,
+    DOUBLE,
+    STRING,
+    BYTES;
+
+    private static final SnapshotType[] VALUES = values();
+
+    static SnapshotType byId(int id) {
+        if (id < 0 || id >= VALUES.length) {
+            throw new IllegalStateException("Unknown snapshot column type " + id);
+        }
+        return VALUES[id];
+    }
+}
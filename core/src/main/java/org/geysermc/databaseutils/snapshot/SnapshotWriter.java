@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the rows of an entity to a snapshot file. The file starts with a header describing the entity, followed by
+ * Deflate compressed blocks of rows. Every block is prefixed by its row count, its uncompressed length and its
+ * compressed length, and the file ends with a block without rows, which is only written by {@link #finish()}. A row
+ * starts with a bitmap of the columns that are null, followed by the values of the other columns, see
+ * {@link SnapshotRows}.
+ */
+public final class SnapshotWriter implements Closeable {
+    static final int MAGIC = 0x44425553; // DBUS
+    static final int VERSION = 1;
+    static final int BLOCK_HEADER_SIZE = Integer.BYTES * 3;
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final List<SnapshotColumn> columns;
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_SIZE + (BLOCK_SIZE >> 2));
+    private final DataOutputStream output = new DataOutputStream(block);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final byte[] deflateBuffer = new byte[BLOCK_SIZE];
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(BLOCK_SIZE);
+    private int blockRows;
+    private long rows;
+
+    public SnapshotWriter(Path file, SnapshotEntity entity) throws IOException {
+        this.channel = FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.columns = entity.columns();
+
+        try {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            SnapshotRows.writeString(output, entity.name());
+            SnapshotRows.writeVarInt(output, columns.size());
+            for (SnapshotColumn column : columns) {
+                SnapshotRows.writeString(output, column.name());
+                output.writeByte(column.type().ordinal());
+            }
+            writeFully(ByteBuffer.wrap(block.toByteArray()));
+            block.reset();
+        } catch (IOException exception) {
+            close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Writes a row, the values have to be in the same order as the columns of the entity.
+     */
+    public void write(Object[] row) throws IOException {
+        SnapshotRows.write(output, columns, row);
+
+        blockRows++;
+        rows++;
+        if (block.size() >= BLOCK_SIZE) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Returns the amount of rows that have been written.
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Writes the remaining rows and the end of the file, and closes the file. A file that is closed without finishing
+     * it lacks the end of the file, so reading it fails.
+     */
+    public void finish() throws IOException {
+        try {
+            flushBlock();
+            // a block without rows marks the end of the file
+            writeFully(ByteBuffer.allocate(BLOCK_HEADER_SIZE));
+            channel.force(false);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            deflater.end();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRows == 0) {
+            return;
+        }
+
+        deflater.reset();
+        deflater.setInput(block.toByteArray());
+        deflater.finish();
+        compressed.reset();
+        while (!deflater.finished()) {
+            int length = deflater.deflate(deflateBuffer);
+            compressed.write(deflateBuffer, 0, length);
+        }
+
+        var header = ByteBuffer.allocate(BLOCK_HEADER_SIZE)
+                .putInt(blockRows)
+                .putInt(block.size())
+                .putInt(compressed.size())
+                .flip();
+        writeFully(header);
+        writeFully(ByteBuffer.wrap(compressed.toByteArray()));
+
+        block.reset();
+        blockRows = 0;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
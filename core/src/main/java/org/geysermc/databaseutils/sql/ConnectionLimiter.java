@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Limits the amount of connections a single database takes from a shared pool, so that the connection pool size of
+ * every database sharing the pool is still respected. A permit is taken before a connection is borrowed, and is
+ * returned by the {@link SqlTransaction} holding the connection once it closes the connection.
+ */
+final class ConnectionLimiter {
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    ConnectionLimiter(int maxConnections, long timeoutMillis) {
+        this.permits = new Semaphore(maxConnections, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    Connection connection(DataSource dataSource) throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Connection is not available, request timed out after " + timeoutMillis + "ms");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", exception);
+        }
+
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+}
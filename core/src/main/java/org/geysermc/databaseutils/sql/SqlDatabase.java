@@ -7,17 +7,43 @@ package org.geysermc.databaseutils.sql;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.databaseutils.Database;
+import org.geysermc.databaseutils.DatabaseBootstrap;
 import org.geysermc.databaseutils.DatabaseContext;
+import org.geysermc.databaseutils.Transaction;
+import org.geysermc.databaseutils.expiry.ExpiringEntity;
+import org.geysermc.databaseutils.jfr.RepositoryEvent;
+import org.geysermc.databaseutils.snapshot.RowConsumer;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotReader;
 import org.geysermc.databaseutils.util.ClassUtils;
+import org.geysermc.databaseutils.util.SharedResources;
 
 public final class SqlDatabase extends Database {
+    private static final SharedResources<PoolKey, HikariDataSource> SHARED_POOLS = new SharedResources<>();
+
+    private final ThreadLocal<SqlTransaction> boundTransaction = new ThreadLocal<>();
+    private final List<HikariDataSource> replicaDataSources = new ArrayList<>();
+    private final List<PoolKey> sharedPoolKeys = new ArrayList<>();
+    private final Map<HikariDataSource, ConnectionLimiter> limiters = new IdentityHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
     private SqlDialect dialect;
     private HikariDataSource dataSource;
 
     @Override
-    public void start(DatabaseContext context, Class<?> databaseImpl) {
-        super.start(context, databaseImpl);
+    public void start(DatabaseContext context, DatabaseBootstrap<?> bootstrap) {
+        super.start(context, bootstrap);
         this.dialect = context.type().dialect();
 
         if (dialect == null) {
@@ -29,30 +55,276 @@ public final class SqlDatabase extends Database {
             throw new IllegalStateException("The driver for the selected dialect '" + dialect + "' is not present!");
         }
 
+        var config = context.config();
+        this.dataSource = dataSourceFor(context, config.url(), context.poolName(), false);
+
+        var replicaUrls = config.replicaUrls();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicaDataSources.add(
+                    dataSourceFor(context, replicaUrls.get(i), context.poolName() + "-replica-" + i, true));
+        }
+    }
+
+    private HikariDataSource dataSourceFor(DatabaseContext context, String url, String poolName, boolean readOnly) {
+        if (!context.sharePool()) {
+            var hikariConfig = hikariConfigFor(context, url, poolName);
+            hikariConfig.setReadOnly(readOnly);
+            return new HikariDataSource(hikariConfig);
+        }
+
+        var config = context.config();
+        var key = new PoolKey(url, config.username(), SharedResources.fingerprint(config.password()), readOnly);
+        var shared = SHARED_POOLS.acquire(key, ignored -> {
+            var hikariConfig = hikariConfigFor(context, url, poolName + "-shared");
+            hikariConfig.setReadOnly(readOnly);
+            return new HikariDataSource(hikariConfig);
+        });
+        sharedPoolKeys.add(key);
+
+        // the pool is as large as the largest pool size of the databases using it
+        var poolSize = config.connectionPoolSize();
+        var bean = shared.getHikariConfigMXBean();
+        synchronized (shared) {
+            if (poolSize > bean.getMaximumPoolSize()) {
+                bean.setMaximumPoolSize(poolSize);
+            }
+        }
+        if (poolSize != -1) {
+            limiters.put(shared, new ConnectionLimiter(poolSize, shared.getConnectionTimeout()));
+        }
+        return shared;
+    }
+
+    private HikariConfig hikariConfigFor(DatabaseContext context, String url, String poolName) {
         var config = context.config();
 
         var hikariConfig = new HikariConfig();
-        hikariConfig.setJdbcUrl(config.url());
+        hikariConfig.setJdbcUrl(url);
         hikariConfig.setUsername(config.username());
         hikariConfig.setPassword(config.password());
-        hikariConfig.setPoolName(context.poolName());
+        hikariConfig.setPoolName(poolName);
         if (config.connectionPoolSize() != -1) {
             hikariConfig.setMaximumPoolSize(config.connectionPoolSize());
         }
-
-        this.dataSource = new HikariDataSource(hikariConfig);
+        return hikariConfig;
     }
 
     @Override
     public void stop() {
+        if (!sharedPoolKeys.isEmpty()) {
+            sharedPoolKeys.forEach(SHARED_POOLS::release);
+            return;
+        }
         dataSource.close();
+        replicaDataSources.forEach(HikariDataSource::close);
+    }
+
+    @Override
+    public <T> T inTransaction(Function<Transaction, T> scope) {
+        var bound = boundTransaction.get();
+        if (bound != null) {
+            return scope.apply(bound);
+        }
+
+        SqlTransaction transaction;
+        try {
+            transaction = startScopedTransaction();
+        } catch (SQLException exception) {
+            throw new CompletionException("Unexpected error occurred", exception);
+        }
+
+        T result;
+        boundTransaction.set(transaction);
+        try {
+            result = scope.apply(transaction);
+        } catch (Throwable throwable) {
+            boundTransaction.remove();
+            try {
+                transaction.finish(false);
+            } catch (SQLException exception) {
+                throwable.addSuppressed(exception);
+            }
+            throw throwable;
+        }
+        boundTransaction.remove();
+
+        try {
+            transaction.finish(true);
+        } catch (SQLException exception) {
+            throw new CompletionException("Unexpected error occurred", exception);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasBoundTransaction() {
+        return boundTransaction.get() != null;
+    }
+
+    @Override
+    public int deleteExpired(ExpiringEntity entity, long expiredBefore, int limit) {
+        try (var transaction = transaction()) {
+            try (var statement = transaction.prepareStatement(deleteExpiredQuery(entity, limit))) {
+                statement.setLong(1, expiredBefore);
+                return statement.executeUpdate();
+            }
+        } catch (SQLException exception) {
+            throw new CompletionException("Unexpected error occurred", exception);
+        }
+    }
+
+    @Override
+    public void readRows(SnapshotEntity entity, @Nullable List<Object> afterKey, RowConsumer consumer)
+            throws IOException {
+        try (var transaction = transaction()) {
+            SqlSnapshots.readRows(transaction, dialect, entity, afterKey, consumer);
+        } catch (SQLException exception) {
+            throw new CompletionException("Unexpected error occurred", exception);
+        }
+    }
+
+    @Override
+    public void insertRows(SnapshotEntity entity, List<Object[]> rows) {
+        try (var transaction = transaction()) {
+            transaction.begin();
+            try {
+                SqlSnapshots.insertRows(transaction, dialect, entity, rows);
+            } catch (SQLException | RuntimeException exception) {
+                transaction.rollback();
+                throw exception;
+            }
+            transaction.commit();
+        } catch (SQLException exception) {
+            throw new CompletionException("Unexpected error occurred", exception);
+        }
+    }
+
+    @Override
+    public long deleteRowsAfter(SnapshotEntity entity, List<Object> afterKey) {
+        try (var transaction = transaction()) {
+            return SqlSnapshots.deleteRowsAfter(transaction, entity, afterKey);
+        } catch (SQLException exception) {
+            throw new CompletionException("Unexpected error occurred", exception);
+        }
+    }
+
+    @Override
+    public long importSnapshot(SnapshotEntity entity, SnapshotReader reader) throws IOException {
+        // tables don't have secondary indexes yet, only primary keys and unique constraints which are always enforced
+        try (var transaction = transaction()) {
+            transaction.begin();
+            long imported = 0;
+            try {
+                List<Object[]> rows;
+                while ((rows = reader.nextBlock()) != null) {
+                    SqlSnapshots.insertRows(transaction, dialect, entity, rows);
+                    imported += rows.size();
+                }
+            } catch (SQLException | IOException | RuntimeException exception) {
+                transaction.rollback();
+                throw exception;
+            }
+            transaction.commit();
+            return imported;
+        } catch (SQLException exception) {
+            throw new CompletionException("Unexpected error occurred", exception);
+        }
+    }
+
+    private String deleteExpiredQuery(ExpiringEntity entity, int limit) {
+        var filter = "%s < ?".formatted(entity.column());
+        return switch (dialect) {
+            case MYSQL, MARIADB -> "DELETE FROM %s WHERE %s LIMIT %s".formatted(entity.name(), filter, limit);
+            case SQL_SERVER -> "DELETE TOP (%s) FROM %s WHERE %s".formatted(limit, entity.name(), filter);
+            case ORACLE_DATABASE -> "DELETE FROM %s WHERE %s AND ROWNUM <= %s".formatted(entity.name(), filter, limit);
+            // the others don't support a limit on delete, so the keys of a batch are selected first
+            case H2, POSTGRESQL, SQLITE -> {
+                var keys = String.join(", ", entity.keys());
+                if (entity.keys().size() > 1) {
+                    keys = "(" + keys + ")";
+                }
+                yield "DELETE FROM %s WHERE %s IN (SELECT %s FROM %s WHERE %s LIMIT %s)"
+                        .formatted(entity.name(), keys, String.join(", ", entity.keys()), entity.name(), filter, limit);
+            }
+        };
+    }
+
+    /**
+     * Returns the transaction bound to the current thread, or a new transaction that is closed by the caller when
+     * there is none.
+     */
+    public SqlTransaction transaction() throws SQLException {
+        var bound = boundTransaction.get();
+        if (bound != null) {
+            return bound;
+        }
+        return transactionFor(dataSource, false);
+    }
+
+    /**
+     * Same as {@link #transaction()}, but outside a transaction scope the connection is taken from one of the read
+     * replicas (round-robin) if there are any. Replica connections are read-only.
+     */
+    public SqlTransaction readTransaction() throws SQLException {
+        if (replicaDataSources.isEmpty() || boundTransaction.get() != null) {
+            return transaction();
+        }
+        var index = Math.floorMod(nextReplica.getAndIncrement(), replicaDataSources.size());
+        return transactionFor(replicaDataSources.get(index), false);
+    }
+
+    private SqlTransaction startScopedTransaction() throws SQLException {
+        var transaction = transactionFor(dataSource, true);
+        try {
+            transaction.connection().setAutoCommit(false);
+        } catch (SQLException exception) {
+            transaction.closeConnection();
+            throw exception;
+        }
+        return transaction;
+    }
+
+    private SqlTransaction transactionFor(HikariDataSource source, boolean scoped) throws SQLException {
+        var limiter = limiters.get(source);
+        return new SqlTransaction(connection(source, limiter), limiter, scoped, queryTimeoutMillis);
+    }
+
+    private Connection connection(HikariDataSource source, @Nullable ConnectionLimiter limiter) throws SQLException {
+        var event = RepositoryEvent.current();
+        if (event == null) {
+            return acquireConnection(source, limiter);
+        }
+        long start = System.nanoTime();
+        try {
+            return acquireConnection(source, limiter);
+        } finally {
+            event.addPoolAcquisition(System.nanoTime() - start);
+        }
+    }
+
+    private static Connection acquireConnection(HikariDataSource source, @Nullable ConnectionLimiter limiter)
+            throws SQLException {
+        if (limiter != null) {
+            return limiter.connection(source);
+        }
+        return source.getConnection();
     }
 
     public SqlDialect dialect() {
         return dialect;
     }
 
+    /**
+     * Returns the data source of the primary. When the pool is shared with other databases, connections taken from it
+     * directly don't count towards the connection pool size of this database.
+     */
     public HikariDataSource dataSource() {
         return dataSource;
     }
+
+    /**
+     * Only holds a fingerprint of the password, since the key lives as long as the pool and could end up in logs.
+     */
+    private record PoolKey(
+            String url, @Nullable String username, @Nullable String passwordFingerprint, boolean readOnly) {}
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.sql;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.snapshot.RowConsumer;
+import org.geysermc.databaseutils.snapshot.SnapshotColumn;
+import org.geysermc.databaseutils.snapshot.SnapshotEntity;
+import org.geysermc.databaseutils.snapshot.SnapshotType;
+
+/**
+ * Streams and inserts the rows of a table, for snapshots and migrations. The rows are read using the same getters as
+ * the generated repositories, so columns that use a {@link org.geysermc.databaseutils.codec.TypeCodec} are read as
+ * the bytes they're stored as, and they're inserted using multi-row inserts.
+ */
+final class SqlSnapshots {
+    private static final int FETCH_SIZE = 1000;
+    private static final int MAX_ROWS_PER_INSERT = 500;
+
+    private SqlSnapshots() {}
+
+    static void readRows(
+            SqlTransaction transaction,
+            SqlDialect dialect,
+            SnapshotEntity entity,
+            @Nullable List<Object> afterKey,
+            RowConsumer consumer)
+            throws SQLException, IOException {
+        var query = new StringBuilder("SELECT %s FROM %s".formatted(columnNames(entity), entity.name()));
+        if (afterKey != null) {
+            query.append(" WHERE ").append(afterKeyFilter(entity));
+        }
+        query.append(" ORDER BY ").append(String.join(", ", entity.keys()));
+
+        // PostgreSQL only streams the results instead of loading them at once in a transaction
+        transaction.begin();
+        try (var statement = transaction.prepareStatement(query.toString(), 0)) {
+            statement.setFetchSize(fetchSize(transaction, dialect));
+            if (afterKey != null) {
+                bindAfterKey(statement, entity, afterKey);
+            }
+            try (var result = statement.executeQuery()) {
+                var columns = entity.columns();
+                while (result.next()) {
+                    var row = new Object[columns.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = read(result, i + 1, columns.get(i).type());
+                    }
+                    consumer.accept(row);
+                }
+            }
+        }
+        transaction.commit();
+    }
+
+    static void insertRows(SqlTransaction transaction, SqlDialect dialect, SnapshotEntity entity, List<Object[]> rows)
+            throws SQLException {
+        var columns = entity.columns();
+        int rowsPerInsert = rowsPerInsert(dialect, columns.size());
+
+        // full inserts are batched, the remainder gets an insert of its own
+        int remainder = rows.size() % rowsPerInsert;
+        int batched = rows.size() - remainder;
+        if (batched > 0) {
+            try (var statement = transaction.prepareStatement(insertQuery(entity, rowsPerInsert), 0)) {
+                for (int offset = 0; offset < batched; offset += rowsPerInsert) {
+                    bind(statement, columns, rows, offset, rowsPerInsert);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        if (remainder > 0) {
+            try (var statement = transaction.prepareStatement(insertQuery(entity, remainder), 0)) {
+                bind(statement, columns, rows, batched, remainder);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    static long deleteRowsAfter(SqlTransaction transaction, SnapshotEntity entity, List<Object> afterKey)
+            throws SQLException {
+        var query = "DELETE FROM %s WHERE %s".formatted(entity.name(), afterKeyFilter(entity));
+        try (var statement = transaction.prepareStatement(query, 0)) {
+            bindAfterKey(statement, entity, afterKey);
+            return statement.executeUpdate();
+        }
+    }
+
+    private static String afterKeyFilter(SnapshotEntity entity) {
+        // not every dialect supports comparing row values, so e.g. (a, b) > (?, ?) becomes a > ? OR (a = ? AND b > ?)
+        var keys = entity.keys();
+        var filter = new StringBuilder();
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                filter.append(" OR ");
+            }
+            filter.append('(');
+            for (int j = 0; j < i; j++) {
+                filter.append(keys.get(j)).append(" = ? AND ");
+            }
+            filter.append(keys.get(i)).append(" > ?)");
+        }
+        return filter.toString();
+    }
+
+    private static void bindAfterKey(PreparedStatement statement, SnapshotEntity entity, List<Object> afterKey)
+            throws SQLException {
+        var keys = entity.keys();
+        if (afterKey.size() != keys.size()) {
+            throw new IllegalArgumentException("Expected " + keys.size() + " key values, got " + afterKey.size());
+        }
+        int index = 1;
+        for (int i = 0; i < keys.size(); i++) {
+            for (int j = 0; j <= i; j++) {
+                write(statement, index++, entity.column(keys.get(j)).type(), afterKey.get(j));
+            }
+        }
+    }
+
+    /**
+     * The MariaDB driver streams the results in batches of the fetch size, but MySQL Connector/J ignores the fetch size
+     * unless cursor fetching is enabled on the connection. Connector/J does stream the results row by row when the
+     * fetch size of a forward only, read only statement (the default) is Integer.MIN_VALUE, which the MariaDB driver
+     * doesn't accept.
+     */
+    private static int fetchSize(SqlTransaction transaction, SqlDialect dialect) throws SQLException {
+        if (dialect != SqlDialect.MYSQL && dialect != SqlDialect.MARIADB) {
+            return FETCH_SIZE;
+        }
+        var driverName = transaction.connection().getMetaData().getDriverName();
+        return driverName.startsWith("MySQL Connector") ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+
+    private static int rowsPerInsert(SqlDialect dialect, int columnCount) {
+        int maxParameters = switch (dialect) {
+            // Oracle doesn't support inserting multiple rows using VALUES, so it relies on batching only
+            case ORACLE_DATABASE -> columnCount;
+            // SQLite versions before 3.32 only allow 999 parameters
+            case SQLITE -> 999;
+            // SQL Server allows 2100 parameters
+            case SQL_SERVER -> 2000;
+            case H2, MYSQL, MARIADB, POSTGRESQL -> 30000;
+        };
+        return Math.max(1, Math.min(MAX_ROWS_PER_INSERT, maxParameters / columnCount));
+    }
+
+    private static String insertQuery(SnapshotEntity entity, int rowCount) {
+        var row = entity.columns().stream().map(column -> "?").collect(Collectors.joining(", ", "(", ")"));
+        var query = new StringBuilder("INSERT INTO %s (%s) VALUES ".formatted(entity.name(), columnNames(entity)));
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(row);
+        }
+        return query.toString();
+    }
+
+    private static String columnNames(SnapshotEntity entity) {
+        return entity.columns().stream().map(SnapshotColumn::name).collect(Collectors.joining(", "));
+    }
+
+    private static void bind(
+            PreparedStatement statement, List<SnapshotColumn> columns, List<Object[]> rows, int offset, int count)
+            throws SQLException {
+        int index = 1;
+        for (int i = offset; i < offset + count; i++) {
+            var row = rows.get(i);
+            for (int j = 0; j < row.length; j++) {
+                write(statement, index++, columns.get(j).type(), row[j]);
+            }
+        }
+    }
+
+    private static Object read(ResultSet result, int index, SnapshotType type) throws SQLException {
+        Object value = switch (type) {
+            case BOOLEAN -> result.getBoolean(index);
+            case BYTE -> result.getByte(index);
+            case SHORT -> result.getShort(index);
+            case CHARACTER -> (char) result.getInt(index);
+            case INTEGER -> result.getInt(index);
+            case LONG -> result.getLong(index);
+            case FLOAT -> result.getFloat(index);
+            case DOUBLE -> result.getDouble(index);
+            case STRING -> result.getString(index);
+            case BYTES -> result.getBytes(index);
+        };
+        return result.wasNull() ? null : value;
+    }
+
+    private static void write(PreparedStatement statement, int index, SnapshotType type, Object value)
+            throws SQLException {
+        if (value == null) {
+            statement.setNull(index, sqlType(type));
+            return;
+        }
+        switch (type) {
+            case BOOLEAN -> statement.setBoolean(index, (Boolean) value);
+            case BYTE -> statement.setByte(index, (Byte) value);
+            case SHORT -> statement.setShort(index, (Short) value);
+            case CHARACTER -> statement.setInt(index, (Character) value);
+            case INTEGER -> statement.setInt(index, (Integer) value);
+            case LONG -> statement.setLong(index, (Long) value);
+            case FLOAT -> statement.setFloat(index, (Float) value);
+            case DOUBLE -> statement.setDouble(index, (Double) value);
+            case STRING -> statement.setString(index, (String) value);
+            case BYTES -> statement.setBytes(index, (byte[]) value);
+        }
+    }
+
+    private static int sqlType(SnapshotType type) {
+        return switch (type) {
+            case BOOLEAN -> Types.BOOLEAN;
+            case BYTE -> Types.TINYINT;
+            case SHORT -> Types.SMALLINT;
+            case CHARACTER, INTEGER -> Types.INTEGER;
+            case LONG -> Types.BIGINT;
+            case FLOAT -> Types.REAL;
+            case DOUBLE -> Types.DOUBLE;
+            case STRING -> Types.VARCHAR;
+            case BYTES -> Types.VARBINARY;
+        };
+    }
+}
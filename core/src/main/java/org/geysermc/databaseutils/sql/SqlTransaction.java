@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.sql;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.databaseutils.Transaction;
+import org.geysermc.databaseutils.util.QueryFuture;
+
+/**
+ * The connection a generated repository method runs on. This is either the transaction bound to the current thread,
+ * or a transaction that only lives for the duration of a single repository method.
+ * Writes that don't need a result are queued using {@link #batch(String)} and are flushed as a batch before the next
+ * statement with a different query, before any read and when the transaction ends.
+ * Every statement gets the query timeout of the database, unless the repository method provides its own timeout.
+ * When the future of an async repository method is cancelled, its running statement is cancelled as well.
+ */
+public final class SqlTransaction implements Transaction, AutoCloseable {
+    private static final int BATCH_SIZE = 500;
+
+    private final Connection connection;
+    private final @Nullable ConnectionLimiter limiter;
+    private final boolean scoped;
+    private final long timeoutMillis;
+
+    private String batchQuery;
+    private PreparedStatement batchStatement;
+    private int batchCount;
+    private boolean rollbackOnly;
+    private boolean closed;
+
+    SqlTransaction(Connection connection, @Nullable ConnectionLimiter limiter, boolean scoped, long timeoutMillis) {
+        this.connection = connection;
+        this.limiter = limiter;
+        this.scoped = scoped;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public Connection connection() {
+        return connection;
+    }
+
+    public PreparedStatement prepareStatement(String query) throws SQLException {
+        return prepareStatement(query, timeoutMillis);
+    }
+
+    public PreparedStatement prepareStatement(String query, long timeoutMillis) throws SQLException {
+        flush();
+        return configure(connection.prepareStatement(query), timeoutMillis);
+    }
+
+    public CallableStatement prepareCall(String query) throws SQLException {
+        return prepareCall(query, timeoutMillis);
+    }
+
+    public CallableStatement prepareCall(String query, long timeoutMillis) throws SQLException {
+        flush();
+        return configure(connection.prepareCall(query), timeoutMillis);
+    }
+
+    /**
+     * Returns the statement to add the write to, the caller is expected to call {@link PreparedStatement#addBatch()}.
+     * Consecutive writes with the same query share the same batch, a different query flushes the pending batch first
+     * so that the order of writes is preserved.
+     */
+    public PreparedStatement batch(String query) throws SQLException {
+        if (!query.equals(batchQuery)) {
+            flush();
+            batchStatement = configure(connection.prepareStatement(query), timeoutMillis);
+            batchQuery = query;
+        } else if (batchCount >= BATCH_SIZE) {
+            batchStatement.executeBatch();
+            batchCount = 0;
+        }
+        batchCount++;
+        return batchStatement;
+    }
+
+    public void flush() throws SQLException {
+        if (batchStatement == null) {
+            return;
+        }
+        try (var statement = batchStatement) {
+            resetBatch();
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Starts a transaction for the writes of a single repository method, unless it's part of a transaction scope.
+     */
+    public void begin() throws SQLException {
+        if (!scoped) {
+            connection.setAutoCommit(false);
+        }
+    }
+
+    public void commit() throws SQLException {
+        flush();
+        if (!scoped) {
+            connection.commit();
+        }
+    }
+
+    public void rollback() throws SQLException {
+        if (scoped) {
+            // the scope decides what happens, but it should never commit a partial write
+            rollbackOnly = true;
+            return;
+        }
+        discardBatch();
+        connection.rollback();
+    }
+
+    @Override
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    @Override
+    public boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (scoped) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closeConnection();
+        }
+    }
+
+    void finish(boolean commit) throws SQLException {
+        try {
+            if (commit && !rollbackOnly) {
+                try {
+                    flush();
+                    connection.commit();
+                    return;
+                } catch (SQLException exception) {
+                    connection.rollback();
+                    throw exception;
+                }
+            }
+            discardBatch();
+            connection.rollback();
+        } finally {
+            closeConnection();
+        }
+    }
+
+    /**
+     * Closes the connection and returns its permit to the limiter of the shared pool it was taken from, if any.
+     */
+    void closeConnection() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            connection.close();
+        } finally {
+            if (limiter != null) {
+                limiter.release();
+            }
+        }
+    }
+
+    private <T extends Statement> T configure(T statement, long timeoutMillis) throws SQLException {
+        if (timeoutMillis > 0) {
+            // JDBC only supports whole seconds
+            statement.setQueryTimeout((int) ((timeoutMillis + 999) / 1000));
+        }
+        QueryFuture.onCancel(() -> {
+            try {
+                statement.cancel();
+            } catch (SQLException ignored) {
+                // the statement has already finished or has been closed
+            }
+        });
+        return statement;
+    }
+
+    private void discardBatch() throws SQLException {
+        var statement = batchStatement;
+        if (statement != null) {
+            try {
+                resetBatch();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+
+    private void resetBatch() {
+        batchStatement = null;
+        batchQuery = null;
+        batchCount = 0;
+    }
+}
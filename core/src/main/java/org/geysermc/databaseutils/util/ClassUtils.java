@@ -5,9 +5,6 @@
  */
 package org.geysermc.databaseutils.util;
 
-import java.lang.reflect.AccessibleObject;
-import java.lang.reflect.Field;
-
 public final class ClassUtils {
     private ClassUtils() {}
 
@@ -19,22 +16,4 @@ public final class ClassUtils {
             return false;
         }
     }
-
-    public static <T extends AccessibleObject> T access(T member) {
-        member.setAccessible(true);
-        return member;
-    }
-
-    public static <T> T staticCastedValue(Field field) {
-        try {
-            //noinspection unchecked
-            return (T) access(field).get(null);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    public static <T> T staticCastedValue(Field field, Class<T> type) {
-        return staticCastedValue(field);
-    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.geysermc.databaseutils.Database;
+
+/**
+ * Merges single-key lookups that arrive within a short window into one batch lookup. Used by the generated
+ * implementations of methods annotated with {@link org.geysermc.databaseutils.meta.Coalesce}.
+ */
+public final class CoalescingLoader<K, V> {
+    private final Database database;
+    private final Executor delayedExecutor;
+    private final int maxBatchSize;
+    private final Function<List<K>, List<V>> batchLoader;
+    private final Function<V, K> keyExtractor;
+
+    private Batch<K, V> current;
+
+    public CoalescingLoader(
+            Database database,
+            long windowMillis,
+            int maxBatchSize,
+            Function<List<K>, List<V>> batchLoader,
+            Function<V, K> keyExtractor) {
+        this.database = database;
+        this.delayedExecutor =
+                CompletableFuture.delayedExecutor(windowMillis, TimeUnit.MILLISECONDS, database.executorService());
+        this.maxBatchSize = maxBatchSize;
+        this.batchLoader = batchLoader;
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Returns a future of its own for every call, also when the key is already part of the batch. Cancelling it only
+     * cancels the lookup of this caller, the batch query is cancelled once every caller of the batch cancelled.
+     */
+    public CompletableFuture<V> load(K key) {
+        if (database.hasBoundTransaction()) {
+            // the transaction is bound to this thread, so we can't hand the lookup over to another one
+            var batch = new Batch<K, V>();
+            var future = batch.join(key);
+            dispatch(batch);
+            return future;
+        }
+
+        Batch<K, V> full = null;
+        CompletableFuture<V> future;
+        synchronized (this) {
+            future = current != null ? current.join(key) : null;
+            if (future == null) {
+                // either there is no batch yet or every caller of the current batch cancelled
+                var batch = current = new Batch<>();
+                delayedExecutor.execute(() -> dispatchIfCurrent(batch));
+                future = batch.join(key);
+            }
+
+            if (current.size() >= maxBatchSize) {
+                full = current;
+                current = null;
+            }
+        }
+
+        if (full != null) {
+            var batch = full;
+            database.executorService().execute(() -> dispatch(batch));
+        }
+        return future;
+    }
+
+    private void dispatchIfCurrent(Batch<K, V> batch) {
+        synchronized (this) {
+            if (current != batch) {
+                // already dispatched because it was full, or replaced because every caller cancelled
+                return;
+            }
+            current = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        var query = new QueryFuture<List<V>>();
+        var keys = batch.start(query);
+        if (keys == null) {
+            return;
+        }
+        // running it as a query future allows the running statement to be cancelled
+        query.run(() -> batchLoader.apply(keys));
+
+        try {
+            var results = query.join();
+
+            var resultsByKey = new HashMap<K, V>();
+            for (V result : results) {
+                // equal to a regular find, only the first match is returned
+                resultsByKey.putIfAbsent(keyExtractor.apply(result), result);
+            }
+
+            for (var entry : batch.futures.entrySet()) {
+                entry.getValue().complete(resultsByKey.get(entry.getKey()));
+            }
+        } catch (Throwable throwable) {
+            var cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            for (var future : batch.futures.values()) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Every key has a single future that is completed by the batch, and every caller gets a future that depends on
+     * it, so that callers can't complete or cancel each other's future.
+     */
+    private static final class Batch<K, V> {
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        private int callers;
+        private boolean cancelled;
+        private QueryFuture<List<V>> query;
+
+        /**
+         * Returns the future of a new caller, or null when every caller of this batch already cancelled.
+         */
+        synchronized CompletableFuture<V> join(K key) {
+            if (cancelled) {
+                return null;
+            }
+            callers++;
+
+            var caller = new QueryFuture<V>();
+            futures.computeIfAbsent(key, ignored -> new CompletableFuture<>()).whenComplete((result, error) -> {
+                if (error != null) {
+                    caller.completeExceptionally(error);
+                } else {
+                    caller.complete(result);
+                }
+            });
+            caller.addCancelHandler(this::cancelled);
+            return caller;
+        }
+
+        synchronized int size() {
+            return futures.size();
+        }
+
+        /**
+         * Returns the keys to look up, or null when every caller cancelled before the batch was dispatched.
+         */
+        synchronized List<K> start(QueryFuture<List<V>> query) {
+            if (cancelled) {
+                return null;
+            }
+            this.query = query;
+            return new ArrayList<>(futures.keySet());
+        }
+
+        private void cancelled() {
+            QueryFuture<List<V>> running;
+            synchronized (this) {
+                if (--callers > 0) {
+                    return;
+                }
+                cancelled = true;
+                running = query;
+            }
+            if (running != null) {
+                running.cancel(false);
+            }
+        }
+    }
+}
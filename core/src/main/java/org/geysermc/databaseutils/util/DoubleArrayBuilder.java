@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.util;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * A growable double array, used by the generated repositories to read a column as double[] or DoubleStream without
+ * boxing every value.
+ */
+public final class DoubleArrayBuilder {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] values;
+    private int size;
+
+    public DoubleArrayBuilder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DoubleArrayBuilder(int initialCapacity) {
+        this.values = new double[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the added values. The builder should not be used after calling this, because the array is handed out
+     * as-is when it's exactly full.
+     */
+    public double[] toArray() {
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public DoubleStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+}
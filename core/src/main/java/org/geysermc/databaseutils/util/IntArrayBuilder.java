@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.util;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A growable int array, used by the generated repositories to read a column as int[] or IntStream without boxing every
+ * value.
+ */
+public final class IntArrayBuilder {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] values;
+    private int size;
+
+    public IntArrayBuilder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayBuilder(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the added values. The builder should not be used after calling this, because the array is handed out
+     * as-is when it's exactly full.
+     */
+    public int[] toArray() {
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+}
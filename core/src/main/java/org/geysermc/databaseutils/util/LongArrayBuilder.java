@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.util;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * A growable long array, used by the generated repositories to read a column as long[] or LongStream without
+ * boxing every value.
+ */
+public final class LongArrayBuilder {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] values;
+    private int size;
+
+    public LongArrayBuilder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongArrayBuilder(int initialCapacity) {
+        this.values = new long[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the added values. The builder should not be used after calling this, because the array is handed out
+     * as-is when it's exactly full.
+     */
+    public long[] toArray() {
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * The future returned by async repository methods. Cancelling it before the method started skips the method entirely,
+ * and cancelling it while the method runs invokes the cancel handlers that were registered by the running method,
+ * for example to cancel the statement that is being executed.
+ */
+public final class QueryFuture<T> extends CompletableFuture<T> {
+    private static final ThreadLocal<QueryFuture<?>> RUNNING = new ThreadLocal<>();
+
+    private final List<Runnable> cancelHandlers = new ArrayList<>();
+
+    QueryFuture() {}
+
+    public static <T> QueryFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        var future = new QueryFuture<T>();
+        executor.execute(() -> future.run(supplier));
+        return future;
+    }
+
+    /**
+     * Registers a handler that is invoked when the future of the async repository method running on the current thread
+     * is cancelled. The handler is invoked right away if it's already cancelled. Does nothing for sync methods.
+     */
+    public static void onCancel(Runnable handler) {
+        var running = RUNNING.get();
+        if (running != null) {
+            running.addCancelHandler(handler);
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            List<Runnable> handlers;
+            synchronized (cancelHandlers) {
+                handlers = List.copyOf(cancelHandlers);
+                cancelHandlers.clear();
+            }
+            handlers.forEach(Runnable::run);
+        }
+        return cancelled;
+    }
+
+    void run(Supplier<T> supplier) {
+        if (isDone()) {
+            return;
+        }
+
+        // the executor runs inline inside a transaction scope, which means that this can be a nested call
+        var previous = RUNNING.get();
+        RUNNING.set(this);
+        try {
+            complete(supplier.get());
+        } catch (Throwable throwable) {
+            completeExceptionally(throwable);
+        } finally {
+            RUNNING.set(previous);
+            synchronized (cancelHandlers) {
+                cancelHandlers.clear();
+            }
+        }
+    }
+
+    void addCancelHandler(Runnable handler) {
+        synchronized (cancelHandlers) {
+            if (!isCancelled()) {
+                cancelHandlers.add(handler);
+                return;
+            }
+        }
+        handler.run();
+    }
+}
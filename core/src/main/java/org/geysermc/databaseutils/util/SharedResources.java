@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A reference counted registry of resources that can be shared by multiple databases in the same JVM, like connection
+ * pools. A resource is created by the first {@link #acquire(Object, Function)} of its key, and closed by the
+ * {@link #release(Object)} that matches the last acquire.
+ */
+public final class SharedResources<K, V extends AutoCloseable> {
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+
+    /**
+     * Returns a SHA-256 fingerprint of a secret like a password, so that keys can tell secrets apart without holding
+     * (or printing) the secret itself.
+     */
+    public static @Nullable String fingerprint(@Nullable String secret) {
+        if (secret == null) {
+            return null;
+        }
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException exception) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Returns the resource of the given key, and creates it if there is none yet. Every call has to be matched by a
+     * call to {@link #release(Object)}.
+     */
+    public synchronized V acquire(K key, Function<K, V> factory) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(factory.apply(key));
+            entries.put(key, entry);
+        }
+        entry.references++;
+        return entry.resource;
+    }
+
+    /**
+     * Releases a reference to the resource of the given key, and closes it if this was the last reference.
+     */
+    public void release(K key) {
+        V closing;
+        synchronized (this) {
+            var entry = entries.get(key);
+            if (entry == null) {
+                throw new IllegalStateException("Resource was already released");
+            }
+            if (--entry.references > 0) {
+                return;
+            }
+            entries.remove(key);
+            closing = entry.resource;
+        }
+
+        // closing can take a while (e.g. waiting for connections to be returned), so it's done outside the lock
+        try {
+            closing.close();
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IllegalStateException("Failed to close shared resource", exception);
+        }
+    }
+
+    /**
+     * Returns the amount of databases that are using the resource of the given key.
+     */
+    public synchronized int references(K key) {
+        var entry = entries.get(key);
+        return entry != null ? entry.references : 0;
+    }
+
+    private static final class Entry<V> {
+        private final V resource;
+        private int references;
+
+        private Entry(V resource) {
+            this.resource = resource;
+        }
+    }
+}
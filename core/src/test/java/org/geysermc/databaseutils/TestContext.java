@@ -5,6 +5,10 @@
  */
 package org.geysermc.databaseutils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -16,6 +20,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DynamicTest;
@@ -53,12 +58,19 @@ public final class TestContext {
     private boolean containersEnabled;
 
     private final Map<DatabaseType, Map<Class<?>, IRepository<?>>> repositoriesForType = new ConcurrentHashMap<>();
+    private final Map<DatabaseType, DatabaseUtils> instancesForType = new ConcurrentHashMap<>();
     private final Set<Class<?>> usedRepositories = new HashSet<>();
     private final ExecutorService executor = Executors.newCachedThreadPool();
     private final Set<DatabaseType> limitedSet;
+    private final Path fileDirectory;
 
     private TestContext(DatabaseType... limitedSet) {
         this.limitedSet = new HashSet<>(Arrays.asList(limitedSet));
+        try {
+            this.fileDirectory = Files.createTempDirectory("database-file");
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
 
     private TestContext() {
@@ -98,6 +110,12 @@ public final class TestContext {
         if (limitedSet.contains(DatabaseType.SQLITE)) {
             addRepositoriesFor(DatabaseType.SQLITE, null, null, null, repositoryClasses);
         }
+        if (limitedSet.contains(DatabaseType.MEMORY)) {
+            addRepositoriesFor(DatabaseType.MEMORY, null, null, null, repositoryClasses);
+        }
+        if (limitedSet.contains(DatabaseType.FILE)) {
+            addRepositoriesFor(DatabaseType.FILE, fileDirectory.toString(), null, null, repositoryClasses);
+        }
 
         // ensure all database types are present
         // if (repositoriesForType.size() != DatabaseType.VALUES.length - limitedSet.size()) {
@@ -108,7 +126,10 @@ public final class TestContext {
     public void stop() {
         // just to make sure every row is deleted, since this instance can be reused
         deleteRows();
+        // the file database locks its directory until it's stopped
+        instancesForType.values().forEach(DatabaseUtils::stop);
         repositoriesForType.clear();
+        instancesForType.clear();
     }
 
     private void shutdown() {
@@ -151,6 +172,21 @@ public final class TestContext {
         return allTypesForBut(repositoryClass, callback);
     }
 
+    @SuppressWarnings("unchecked")
+    public <T extends IRepository<?>> Stream<DynamicTest> allTypesFor(
+            Class<T> repositoryClass, BiConsumer<DatabaseUtils, T> callback) {
+        var builder = Stream.<DynamicTest>builder();
+        repositoriesForType.forEach((type, value) -> {
+            var repository = (T) value.get(repositoryClass);
+            if (repository != null) {
+                usedRepositories.add(repositoryClass);
+                var instance = instancesForType.get(type);
+                builder.add(DynamicTest.dynamicTest(type.toString(), () -> callback.accept(instance, repository)));
+            }
+        });
+        return builder.build();
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends IRepository<?>> Stream<DynamicTest> allTypesForBut(
             Class<T> repositoryClass, Consumer<T> callback, DatabaseType... excludedTypes) {
@@ -192,6 +228,7 @@ public final class TestContext {
                 .password(password)
                 .executorService(executor)
                 .build();
+        instancesForType.put(type, instance);
         for (IRepository<?> repository : instance.start()) {
             for (var repositoryClass : repositoryClasses) {
                 if (repositoryClass.isInstance(repository)) {
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.coalesce;
+
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Coalesce;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface CoalesceRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    @Coalesce(windowMillis = 20, maxBatchSize = 4)
+    CompletableFuture<TestEntity> findByA(int a);
+
+    void insert(TestEntity entity);
+
+    @Override
+    void delete();
+}
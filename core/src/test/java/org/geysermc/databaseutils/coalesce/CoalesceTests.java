@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.coalesce;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class CoalesceTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(CoalesceRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> findCoalesced() {
+        return context.allTypesFor(CoalesceRepository.class, repository -> {
+            for (int i = 0; i < 10; i++) {
+                repository.insert(new TestEntity(i, "hello", "world!", null));
+            }
+
+            // more lookups than the max batch size, to make sure both full and timed batches are resolved
+            var futures = new ArrayList<CompletableFuture<TestEntity>>();
+            for (int i = 0; i < 12; i++) {
+                futures.add(repository.findByA(i));
+            }
+
+            for (int i = 0; i < 12; i++) {
+                var result = futures.get(i).join();
+                if (i < 10) {
+                    assertEquals(new TestEntity(i, "hello", "world!", null), result);
+                } else {
+                    assertNull(result);
+                }
+            }
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> findCoalescedDuplicateKeys() {
+        return context.allTypesFor(CoalesceRepository.class, repository -> {
+            repository.insert(new TestEntity(0, "hello", "world!", null));
+
+            var first = repository.findByA(0);
+            var second = repository.findByA(0);
+            var third = repository.findByA(0);
+            // every caller has its own future, cancelling or completing one doesn't affect the others
+            assertNotSame(first, second);
+            assertTrue(first.cancel(false));
+            third.complete(null);
+            assertEquals(new TestEntity(0, "hello", "world!", null), second.join());
+            assertTrue(first.isCancelled());
+            assertNull(third.join());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> findCoalescedCancelled() {
+        return context.allTypesFor(CoalesceRepository.class, repository -> {
+            repository.insert(new TestEntity(0, "hello", "world!", null));
+
+            // every caller of the batch cancels, so it's replaced by a new batch for the next lookup
+            var first = repository.findByA(0);
+            var second = repository.findByA(0);
+            first.cancel(false);
+            second.cancel(false);
+            assertTrue(first.isCancelled() && second.isCancelled());
+            assertEquals(new TestEntity(0, "hello", "world!", null), repository.findByA(0).join());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> findCoalescedInTransaction() {
+        return context.allTypesFor(CoalesceRepository.class, (database, repository) -> {
+            database.runInTransaction(transaction -> {
+                repository.insert(new TestEntity(0, "hello", "world!", null));
+                // runs directly on the bound transaction, so the queued insert is visible
+                assertEquals(new TestEntity(0, "hello", "world!", null), repository.findByA(0).join());
+            });
+        });
+    }
+}
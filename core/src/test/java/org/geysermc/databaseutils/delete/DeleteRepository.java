@@ -9,6 +9,7 @@ import java.util.List;
 import org.geysermc.databaseutils.IRepository;
 import org.geysermc.databaseutils.ReusableTestRepository;
 import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.AllowFullScan;
 import org.geysermc.databaseutils.meta.Query;
 import org.geysermc.databaseutils.meta.Repository;
 
@@ -16,25 +17,37 @@ import org.geysermc.databaseutils.meta.Repository;
 public interface DeleteRepository extends IRepository<TestEntity>, ReusableTestRepository {
     void insert(TestEntity entity);
 
+    void insert(List<TestEntity> entities);
+
     boolean existsByAAndB(int a, String b);
 
     void delete(TestEntity entity);
 
+    void delete(List<TestEntity> entities);
+
+    @Query("delete")
+    int deleteWithCount(List<TestEntity> entities);
+
     void deleteByAAndB(int a, String b);
 
     @Query("deleteByAAndB")
     TestEntity deleteReturning(int a, String b);
 
     @Query("deleteByB")
+    @AllowFullScan
     List<TestEntity> deleteReturningList(String b);
 
+    @AllowFullScan
     int deleteByB(String b);
 
+    @AllowFullScan
     int deleteFirstByB(String b);
 
+    @AllowFullScan
     int deleteFirstByBOrderByA(String b);
 
     @Query("deleteFirstByBOrderByA")
+    @AllowFullScan
     TestEntity deleteFirstWithOrderReturning(String b);
 
     @Override
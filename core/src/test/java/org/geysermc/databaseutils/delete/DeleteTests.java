@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -72,6 +73,33 @@ final class DeleteTests {
         });
     }
 
+    @TestFactory
+    Stream<DynamicTest> deleteEntities() {
+        return context.allTypesFor(DeleteRepository.class, repository -> {
+            // more entities than fit in a single chunk of keys
+            var entities = new ArrayList<TestEntity>();
+            for (int i = 0; i < 1500; i++) {
+                entities.add(new TestEntity(i, i % 2 == 0 ? "hello" : "hi", "world!", null));
+            }
+            repository.insert(entities);
+
+            repository.delete(entities.subList(0, 2));
+            assertFalse(repository.existsByAAndB(0, "hello"));
+            assertFalse(repository.existsByAAndB(1, "hi"));
+            assertTrue(repository.existsByAAndB(2, "hello"));
+
+            var toDelete = new ArrayList<>(entities.subList(2, 1400));
+            // there is no entity with this key, so it isn't counted
+            toDelete.add(new TestEntity(1400, "hi", "world!", null));
+            assertEquals(1398, repository.deleteWithCount(toDelete));
+            assertFalse(repository.existsByAAndB(1399, "hi"));
+            assertTrue(repository.existsByAAndB(1400, "hello"));
+            assertTrue(repository.existsByAAndB(1499, "hi"));
+
+            assertEquals(0, repository.deleteWithCount(List.of()));
+        });
+    }
+
     @TestFactory
     Stream<DynamicTest> deleteSingleEntityJustCheckKeys() {
         // current behaviour is that value of the keys determine whether an item is deleted.
@@ -125,48 +153,36 @@ final class DeleteTests {
 
     @TestFactory
     Stream<DynamicTest> deleteFirst() {
-        return context.allTypesForBut(
-                DeleteRepository.class,
-                repository -> {
-                    repository.insert(new TestEntity(1, "hello", "world!", null));
-                    repository.insert(new TestEntity(2, "hello", "world!", null));
-                    repository.insert(new TestEntity(0, "hello", "world!", null));
+        return context.allTypesFor(DeleteRepository.class, repository -> {
+            repository.insert(new TestEntity(1, "hello", "world!", null));
+            repository.insert(new TestEntity(2, "hello", "world!", null));
+            repository.insert(new TestEntity(0, "hello", "world!", null));
 
-                    assertEquals(1, repository.deleteFirstByB("hello"));
+            assertEquals(1, repository.deleteFirstByB("hello"));
 
-                    // depending on the dialect either the first inserted item is deleted or
-                    // the one with the lowest index
-                    if (repository.existsByAAndB(1, "hello")) {
-                        assertFalse(repository.existsByAAndB(0, "hello"));
-                    } else {
-                        assertTrue(repository.existsByAAndB(0, "hello"));
-                    }
-                    assertTrue(repository.existsByAAndB(2, "hello"));
-                },
-                DatabaseType.ORACLE_DATABASE,
-                DatabaseType.POSTGRESQL,
-                DatabaseType.SQLITE,
-                DatabaseType.SQL_SERVER);
-        // delete limit is a flag that needs to be enabled during compiling on sqlite, and on Oracle and Postgres it
-        // doesn't exist. So we have to work around this in the future by doing a subquery
+            // depending on the dialect either the first inserted item is deleted or
+            // the one with the lowest index
+            if (repository.existsByAAndB(1, "hello")) {
+                assertFalse(repository.existsByAAndB(0, "hello"));
+            } else {
+                assertTrue(repository.existsByAAndB(0, "hello"));
+            }
+            assertTrue(repository.existsByAAndB(2, "hello"));
+        });
     }
 
     @TestFactory
     Stream<DynamicTest> deleteFirstOrderBy() {
-        // todo indexes are not yet added for sql types
-        return context.allTypesForOnly(
-                DeleteRepository.class,
-                repository -> {
-                    repository.insert(new TestEntity(1, "hello", "world!", null));
-                    repository.insert(new TestEntity(2, "hello", "world!", null));
-                    repository.insert(new TestEntity(0, "hello", "world!", null));
+        return context.allTypesFor(DeleteRepository.class, repository -> {
+            repository.insert(new TestEntity(1, "hello", "world!", null));
+            repository.insert(new TestEntity(2, "hello", "world!", null));
+            repository.insert(new TestEntity(0, "hello", "world!", null));
 
-                    assertEquals(1, repository.deleteFirstByBOrderByA("hello"));
-                    assertFalse(repository.existsByAAndB(0, "hello"));
-                    assertTrue(repository.existsByAAndB(1, "hello"));
-                    assertTrue(repository.existsByAAndB(2, "hello"));
-                },
-                DatabaseType.MONGODB);
+            assertEquals(1, repository.deleteFirstByBOrderByA("hello"));
+            assertFalse(repository.existsByAAndB(0, "hello"));
+            assertTrue(repository.existsByAAndB(1, "hello"));
+            assertTrue(repository.existsByAAndB(2, "hello"));
+        });
     }
 
     @TestFactory
@@ -221,7 +237,6 @@ final class DeleteTests {
 
     @TestFactory
     Stream<DynamicTest> deleteFirstWithOrderReturning() {
-        // todo allow dialect specific impls, then impl this
         return context.allTypesForBut(
                 DeleteRepository.class,
                 repository -> {
@@ -236,13 +251,9 @@ final class DeleteTests {
                     assertTrue(repository.existsByAAndB(1, "hello"));
                     assertTrue(repository.existsByAAndB(2, "hello"));
                 },
-                DatabaseType.ORACLE_DATABASE,
-                DatabaseType.POSTGRESQL,
-                DatabaseType.SQLITE,
                 DatabaseType.H2,
                 DatabaseType.MYSQL,
-                DatabaseType.MONGODB,
-                DatabaseType.MARIADB,
-                DatabaseType.SQL_SERVER);
+                DatabaseType.MONGODB);
+        // see readme why those are excluded for now
     }
 }
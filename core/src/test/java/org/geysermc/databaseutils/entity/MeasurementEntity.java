@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.entity;
+
+import org.geysermc.databaseutils.meta.Entity;
+import org.geysermc.databaseutils.meta.Key;
+
+/**
+ * An entity with the column types that MongoDB stores as a wider type.
+ */
+@Entity("measurements")
+public record MeasurementEntity(@Key int id, byte level, short count, float ratio) {}
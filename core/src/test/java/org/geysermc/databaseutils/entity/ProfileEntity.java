@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.entity;
+
+import java.util.UUID;
+import org.geysermc.databaseutils.meta.BloomFilter;
+import org.geysermc.databaseutils.meta.Entity;
+import org.geysermc.databaseutils.meta.Key;
+import org.geysermc.databaseutils.meta.Length;
+
+@BloomFilter(falsePositiveRate = 0.001)
+@Entity("profiles")
+public record ProfileEntity(@Key @Length(max = 16) UUID id, @Key int realm, @Length(max = 30) String name) {}
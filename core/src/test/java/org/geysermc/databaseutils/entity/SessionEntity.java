@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.entity;
+
+import java.util.concurrent.TimeUnit;
+import org.geysermc.databaseutils.meta.Entity;
+import org.geysermc.databaseutils.meta.Key;
+import org.geysermc.databaseutils.meta.Length;
+import org.geysermc.databaseutils.meta.TimeToLive;
+
+@Entity("sessions")
+public record SessionEntity(
+        @Key int id,
+        @Key @Length(max = 20) String scope,
+        @TimeToLive(value = 1, unit = TimeUnit.HOURS) long lastSeen) {}
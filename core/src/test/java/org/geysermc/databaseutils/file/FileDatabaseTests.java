@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.DatabaseUtils;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Restarts a file database to check that every change is read back from its log.
+ */
+final class FileDatabaseTests {
+    Path directory;
+    DatabaseUtils database;
+    FileRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-database");
+        open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        database.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void persistsChanges() {
+        var entities = insertEntities(100);
+        repository.update(new TestEntity(1, "b1", "updated", null));
+        repository.delete(entities.get(2));
+
+        restart();
+
+        assertEquals(99, repository.findCountA());
+        assertEquals(entities.get(0), repository.findByAAndB(0, "b0"));
+        assertEquals(entities.get(3), repository.findByAAndB(3, "b3"));
+        assertEquals(new TestEntity(1, "b1", "updated", null), repository.findByAAndB(1, "b1"));
+        assertNull(repository.findByAAndB(2, "b2"));
+        // the indexes are rebuilt from the log as well
+        assertEquals(List.of(new TestEntity(1, "b1", "updated", null)), repository.findByC("updated"));
+    }
+
+    @Test
+    void discardsPartialWrite() throws IOException {
+        var entities = insertEntities(10);
+        database.stop();
+
+        // what a crash in the middle of appending a record leaves behind, the entity table is called hello
+        Files.write(directory.resolve("hello-0.log"), new byte[] {0, 0, 0, 100, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        open();
+        assertEquals(10, repository.findCountA());
+        assertEquals(entities.get(9), repository.findByAAndB(9, "b9"));
+
+        // writes after the discarded record are read back too
+        repository.update(new TestEntity(9, "b9", "after", null));
+        restart();
+        assertEquals(new TestEntity(9, "b9", "after", null), repository.findByAAndB(9, "b9"));
+    }
+
+    @Test
+    void compactsLog() throws IOException {
+        insertEntities(10);
+        for (int i = 0; i < 3000; i++) {
+            repository.update(new TestEntity(0, "b0", "c" + i, null));
+        }
+
+        restart();
+
+        assertEquals(10, repository.findCountA());
+        assertEquals(new TestEntity(0, "b0", "c2999", null), repository.findByAAndB(0, "b0"));
+        try (Stream<Path> files = Files.list(directory)) {
+            long segments = files.filter(file -> file.getFileName().toString().startsWith("hello-"))
+                    .count();
+            assertTrue(segments <= 2, "found " + segments + " segments");
+        }
+        long size;
+        try (Stream<Path> files = Files.list(directory)) {
+            size = files.mapToLong(file -> file.toFile().length()).sum();
+        }
+        // without compaction the 3010 records would take about 70KB
+        assertTrue(size < 35_000, "log is " + size + " bytes");
+    }
+
+    private void open() {
+        database = DatabaseUtils.builder()
+                .type(DatabaseType.FILE)
+                .uri(directory.toString())
+                .useDefaultCredentials(false)
+                .poolName("file")
+                .build();
+        database.start();
+        repository = database.repositoryFor(FileRepository.class);
+    }
+
+    private void restart() {
+        database.stop();
+        open();
+    }
+
+    private List<TestEntity> insertEntities(int count) {
+        var entities = new ArrayList<TestEntity>();
+        for (int i = 0; i < count; i++) {
+            var uuid = i % 3 == 0 ? null : new UUID(i, -i);
+            entities.add(new TestEntity(i, "b" + i, i % 2 == 0 ? null : "c" + i, uuid));
+        }
+        repository.insert(entities);
+        return entities;
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.file;
+
+import java.util.List;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface FileRepository extends IRepository<TestEntity> {
+    void insert(List<TestEntity> entities);
+
+    void update(TestEntity entity);
+
+    void delete(TestEntity entity);
+
+    TestEntity findByAAndB(int a, String b);
+
+    List<TestEntity> findByC(String c);
+
+    long findCountA();
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.filter;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.ProfileEntity;
+import org.geysermc.databaseutils.meta.AllowFullScan;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface BloomFilterRepository extends IRepository<ProfileEntity>, ReusableTestRepository {
+    void insert(ProfileEntity entity);
+
+    void insert(List<ProfileEntity> entities);
+
+    ProfileEntity findByIdAndRealm(UUID id, int realm);
+
+    List<ProfileEntity> findByRealmAndId(int realm, UUID id);
+
+    boolean existsByIdAndRealm(UUID id, int realm);
+
+    CompletableFuture<Boolean> existsByRealmAndId(int realm, UUID id);
+
+    @AllowFullScan
+    List<ProfileEntity> findByRealm(int realm);
+
+    void updateByIdAndRealm(UUID id, int realm, String name);
+
+    void deleteByIdAndRealm(UUID id, int realm);
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.ProfileEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class BloomFilterTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(BloomFilterRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> findsInsertedKeys() {
+        return context.allTypesFor(BloomFilterRepository.class, repository -> {
+            var id = new UUID(1, 2);
+            assertNull(repository.findByIdAndRealm(id, 1));
+            assertFalse(repository.existsByIdAndRealm(id, 1));
+            assertFalse(repository.existsByRealmAndId(1, id).join());
+            assertEquals(List.of(), repository.findByRealmAndId(1, id));
+
+            var entity = new ProfileEntity(id, 1, "hello");
+            repository.insert(entity);
+            assertEquals(entity, repository.findByIdAndRealm(id, 1));
+            assertTrue(repository.existsByIdAndRealm(id, 1));
+            assertTrue(repository.existsByRealmAndId(1, id).join());
+            assertEquals(List.of(entity), repository.findByRealmAndId(1, id));
+            assertFalse(repository.existsByIdAndRealm(id, 2));
+
+            var entities = new ArrayList<ProfileEntity>();
+            for (int i = 0; i < 100; i++) {
+                entities.add(new ProfileEntity(new UUID(i, -i), 2, "profile" + i));
+            }
+            repository.insert(entities);
+            for (ProfileEntity profile : entities) {
+                assertTrue(repository.existsByIdAndRealm(profile.id(), 2));
+            }
+            assertEquals(100, repository.findByRealm(2).size());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> rebuildDropsDeletedKeys() {
+        return context.allTypesFor(BloomFilterRepository.class, (instance, repository) -> {
+            // more keys than the filter was initially sized for, so that it has to grow when rebuilt
+            var entities = new ArrayList<ProfileEntity>();
+            for (int i = 0; i < 3000; i++) {
+                entities.add(new ProfileEntity(new UUID(i, i), i % 3, "profile" + i));
+            }
+            repository.insert(entities);
+            instance.rebuildKeyFilters().join();
+
+            for (int i = 0; i < 3000; i += 2) {
+                repository.deleteByIdAndRealm(new UUID(i, i), i % 3);
+            }
+            instance.rebuildKeyFilters().join();
+
+            for (int i = 0; i < 3000; i++) {
+                assertEquals(i % 2 == 1, repository.existsByIdAndRealm(new UUID(i, i), i % 3));
+            }
+
+            // updating the other columns keeps the key in the filter
+            repository.updateByIdAndRealm(new UUID(1, 1), 1, "updated");
+            instance.rebuildKeyFilters().join();
+            assertEquals("updated", repository.findByIdAndRealm(new UUID(1, 1), 1).name());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> filtersAfterImport() {
+        return context.allTypesFor(BloomFilterRepository.class, (instance, repository) -> {
+            var entity = new ProfileEntity(new UUID(3, 4), 5, "imported");
+            repository.insert(entity);
+
+            var file = createTempFile();
+            instance.exportSnapshot(ProfileEntity.class, file).join();
+            repository.delete();
+            instance.rebuildKeyFilters().join();
+            assertFalse(repository.existsByIdAndRealm(entity.id(), 5));
+
+            // the filter is rebuilt after importing, since the imported rows don't go through the repository
+            instance.importSnapshot(ProfileEntity.class, file).join();
+            assertEquals(entity, repository.findByIdAndRealm(entity.id(), 5));
+        });
+    }
+
+    private static Path createTempFile() {
+        try {
+            var file = Files.createTempFile("profiles", ".snapshot");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
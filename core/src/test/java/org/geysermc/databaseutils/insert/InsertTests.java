@@ -155,6 +155,8 @@ final class InsertTests {
                     assertEquals(new TestEntity(1, "hello", "world!", null), repository.findByAAndB(1, "hello"));
                     assertEquals(new TestEntity(2, "hello", "world!", null), repository.findByAAndB(2, "hello"));
                 },
-                DatabaseType.MONGODB);
+                DatabaseType.MONGODB,
+                DatabaseType.MEMORY,
+                DatabaseType.FILE);
     }
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.jfr;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface RepositoryEventRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    void insert(List<TestEntity> entities);
+
+    List<TestEntity> findByC(String c);
+
+    CompletableFuture<TestEntity> findByAAndB(int a, String b);
+
+    int deleteByC(String c);
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.geysermc.databaseutils.DatabaseCategory;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class RepositoryEventTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(RepositoryEventRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> eventsAreRecorded() {
+        return context.allTypesFor(RepositoryEventRepository.class, repository -> {
+            Map<String, RecordedEvent> events;
+            try (var recording = new Recording()) {
+                recording.enable(RepositoryEvent.NAME);
+                recording.start();
+
+                repository.insert(List.of(
+                        new TestEntity(1, "hello", "world", null),
+                        new TestEntity(2, "hello", "world", null),
+                        new TestEntity(3, "hello", "other", null)));
+                assertEquals(2, repository.findByC("world").size());
+                assertNotNull(repository.findByAAndB(3, "hello").join());
+                assertEquals(1, repository.deleteByC("other"));
+
+                recording.stop();
+                events = recordedEvents(recording);
+            }
+
+            var insert = events.get("insert");
+            assertEquals(RepositoryEventRepository.class.getCanonicalName(), insert.getString("repository"));
+            assertEquals(3, insert.getInt("batchSize"));
+            assertEquals(-1, insert.getInt("rows"));
+
+            assertEquals(2, events.get("findByC").getInt("rows"));
+            assertEquals(1, events.get("deleteByC").getInt("rows"));
+
+            // the event of an async method is carried over to the thread the method runs on
+            var find = events.get("findByAAndB");
+            assertEquals(1, find.getInt("rows"));
+            var type = DatabaseType.valueOf(find.getString("database"));
+            if (type.databaseCategory() == DatabaseCategory.SQL) {
+                assertTrue(find.getDuration("poolAcquisition").toNanos() > 0);
+            }
+        });
+    }
+
+    private static Map<String, RecordedEvent> recordedEvents(Recording recording) {
+        try {
+            var file = Files.createTempFile("repository-events", ".jfr");
+            try {
+                recording.dump(file);
+                var events = new HashMap<String, RecordedEvent>();
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    events.put(event.getString("method"), event);
+                }
+                return events;
+            } finally {
+                Files.delete(file);
+            }
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.limit;
+
+import java.util.List;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.AllowFullScan;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface LimitRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    @AllowFullScan
+    List<TestEntity> findTop2ByB(String b);
+
+    @AllowFullScan
+    List<TestEntity> findSkip1ByB(String b);
+
+    @AllowFullScan
+    List<TestEntity> findTop1Skip1ByB(String b);
+
+    @AllowFullScan
+    List<String> findTop2DistinctCByB(String b);
+
+    @AllowFullScan
+    List<TestEntity> findTop2ByBOrderByADesc(String b);
+
+    @AllowFullScan
+    List<TestEntity> findSkip1ByBOrderByA(String b);
+
+    @AllowFullScan
+    List<Integer> findTop1Skip1AByBOrderByCAndADesc(String b);
+
+    void insert(TestEntity entity);
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class LimitTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(LimitRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> findWithLimitAndOffset() {
+        return context.allTypesFor(LimitRepository.class, repository -> {
+            repository.insert(new TestEntity(0, "hello", "world!", null));
+            repository.insert(new TestEntity(1, "hello", "world!", null));
+            repository.insert(new TestEntity(2, "hello", "steve!", null));
+            repository.insert(new TestEntity(3, "hi", "world!", null));
+
+            // without an order the rows that are returned can differ per dialect, but the amount can't
+            assertEquals(2, repository.findTop2ByB("hello").size());
+            assertEquals(2, repository.findSkip1ByB("hello").size());
+            assertEquals(1, repository.findTop1Skip1ByB("hello").size());
+            assertEquals(2, repository.findTop2DistinctCByB("hello").size());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> findOrderedWithLimitAndOffset() {
+        return context.allTypesFor(LimitRepository.class, repository -> {
+            repository.insert(new TestEntity(1, "hello", "world!", null));
+            repository.insert(new TestEntity(3, "hello", "steve!", null));
+            repository.insert(new TestEntity(0, "hello", "world!", null));
+            repository.insert(new TestEntity(2, "hi", "world!", null));
+
+            assertEquals(
+                    List.of(new TestEntity(3, "hello", "steve!", null), new TestEntity(1, "hello", "world!", null)),
+                    repository.findTop2ByBOrderByADesc("hello"));
+            assertEquals(
+                    List.of(new TestEntity(1, "hello", "world!", null), new TestEntity(3, "hello", "steve!", null)),
+                    repository.findSkip1ByBOrderByA("hello"));
+            assertEquals(List.of(1), repository.findTop1Skip1AByBOrderByCAndADesc("hello"));
+        });
+    }
+}
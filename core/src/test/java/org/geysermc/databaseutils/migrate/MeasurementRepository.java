@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.migrate;
+
+import java.util.List;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.MeasurementEntity;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface MeasurementRepository extends IRepository<MeasurementEntity>, ReusableTestRepository {
+    void insert(List<MeasurementEntity> entities);
+
+    MeasurementEntity findById(int id);
+
+    long findCountId();
+
+    @Override
+    void delete();
+}
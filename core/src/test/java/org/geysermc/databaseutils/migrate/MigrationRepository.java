@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.migrate;
+
+import java.util.List;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface MigrationRepository extends IRepository<TestEntity> {
+    void insert(List<TestEntity> entities);
+
+    TestEntity findByAAndB(int a, String b);
+
+    long findCountA();
+
+    void delete();
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.migrate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.DatabaseUtils;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.MeasurementEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * Migrates from every database type to a memory database, which requires every source to read the rows as the types
+ * of the entity, even when it stores them as a different type.
+ */
+final class MigrationSourceTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(MeasurementRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> migrateNarrowTypes() {
+        return context.allTypesFor(MeasurementRepository.class, (source, repository) -> {
+            var entities = new ArrayList<MeasurementEntity>();
+            for (int i = 0; i < 100; i++) {
+                entities.add(new MeasurementEntity(i, (byte) (i - 50), (short) (i * 300), i / 4f));
+            }
+            repository.insert(entities);
+
+            var target = DatabaseUtils.builder().type(DatabaseType.MEMORY).build();
+            target.start();
+            try {
+                var result = source.migrateTo(target, new MigrationSettings(30, 2, 4, 0))
+                        .migrate(MeasurementEntity.class, null, progress -> {})
+                        .join();
+                assertEquals(100, result.copiedRows());
+
+                var targetRepository = target.repositoryFor(MeasurementRepository.class);
+                assertEquals(100, targetRepository.findCountId());
+                for (MeasurementEntity entity : entities) {
+                    assertEquals(entity, targetRepository.findById(entity.id()));
+                }
+            } finally {
+                target.stop();
+            }
+        });
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.migrate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.DatabaseUtils;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Migrates from an H2 database to an SQLite database.
+ */
+final class MigrationTests {
+    static Path directory;
+    static DatabaseUtils source;
+    static DatabaseUtils target;
+    static MigrationRepository sourceRepository;
+    static MigrationRepository targetRepository;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        directory = Files.createTempDirectory("migration");
+        source = DatabaseUtils.builder()
+                .type(DatabaseType.H2)
+                .uri("jdbc:h2:mem:migrate-source;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .poolName("migrate-source")
+                .build();
+        target = DatabaseUtils.builder()
+                .type(DatabaseType.SQLITE)
+                .uri("jdbc:sqlite:" + directory.resolve("target.db"))
+                .useDefaultCredentials(false)
+                .poolName("migrate-target")
+                .build();
+        source.start();
+        target.start();
+        sourceRepository = source.repositoryFor(MigrationRepository.class);
+        targetRepository = target.repositoryFor(MigrationRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        source.stop();
+        target.stop();
+        Files.deleteIfExists(directory.resolve("target.db"));
+        Files.deleteIfExists(directory);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        sourceRepository.delete();
+        targetRepository.delete();
+    }
+
+    @Test
+    void copiesAllRows() {
+        var entities = insertEntities(3000);
+
+        var progress = new CopyOnWriteArrayList<MigrationProgress>();
+        var settings = new MigrationSettings(250, 3, 2, 0);
+        var result = source.migrateTo(target, settings)
+                .migrate(TestEntity.class, null, progress::add)
+                .join();
+
+        assertEquals(3000, result.copiedRows());
+        assertEquals(List.of(2999, "b2999"), result.lastKey());
+        assertEquals(3000, targetRepository.findCountA());
+        assertEquals(entities.get(0), targetRepository.findByAAndB(0, "b0"));
+        assertEquals(entities.get(1), targetRepository.findByAAndB(1, "b1"));
+        assertEquals(entities.get(2999), targetRepository.findByAAndB(2999, "b2999"));
+
+        // batches are only reported once the batches before them have been inserted as well
+        long previous = 0;
+        for (MigrationProgress current : progress) {
+            assertTrue(current.copiedRows() > previous);
+            assertEquals(0, current.copiedRows() % 250);
+            previous = current.copiedRows();
+        }
+        assertEquals(3000, previous);
+    }
+
+    @Test
+    void resumesAfterLastKey() {
+        var entities = insertEntities(1000);
+        // what an interrupted migration left behind: everything up to the last key, and a batch after it
+        targetRepository.insert(entities.subList(0, 400));
+        targetRepository.insert(entities.subList(600, 700));
+
+        var result = source.migrateTo(target, MigrationSettings.DEFAULT)
+                .migrate(TestEntity.class, List.of(399, "b399"), progress -> {})
+                .join();
+
+        assertEquals(600, result.copiedRows());
+        assertEquals(1000, targetRepository.findCountA());
+        assertEquals(entities.get(650), targetRepository.findByAAndB(650, "b650"));
+    }
+
+    @Test
+    void limitsThroughput() {
+        insertEntities(1000);
+
+        var result = source.migrateTo(target, new MigrationSettings(100, 2, 4, 2000))
+                .migrate(TestEntity.class, null, progress -> {})
+                .join();
+
+        assertEquals(1000, result.copiedRows());
+        // the last batch is read after 900 rows, which takes at least 450ms at 2000 rows per second
+        assertTrue(result.elapsedMillis() >= 450, "took " + result.elapsedMillis() + "ms");
+    }
+
+    @Test
+    void failsOnConflict() {
+        var entities = insertEntities(100);
+        targetRepository.insert(entities.subList(50, 51));
+
+        var migrator = source.migrateTo(target, MigrationSettings.DEFAULT);
+        assertThrows(CompletionException.class, () -> migrator
+                .migrate(TestEntity.class, null, progress -> {})
+                .join());
+    }
+
+    @Test
+    void writersDontWaitForASharedExecutor() {
+        insertEntities(1000);
+
+        // the migration itself takes the only thread of the executor
+        var executor = Executors.newSingleThreadExecutor();
+        var memory = DatabaseUtils.builder()
+                .type(DatabaseType.MEMORY)
+                .executorService(executor)
+                .build();
+        memory.start();
+        var singleThreaded = DatabaseUtils.builder()
+                .type(DatabaseType.H2)
+                .uri("jdbc:h2:mem:migrate-source;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .poolName("migrate-single-threaded")
+                .executorService(executor)
+                .build();
+        singleThreaded.start();
+        try {
+            var result = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> singleThreaded
+                    .migrateTo(memory, new MigrationSettings(10, 2, 1, 0))
+                    .migrate(TestEntity.class, null, progress -> {})
+                    .join());
+            assertEquals(1000, result.copiedRows());
+        } finally {
+            singleThreaded.stop();
+            memory.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<TestEntity> insertEntities(int count) {
+        var entities = new ArrayList<TestEntity>();
+        for (int i = 0; i < count; i++) {
+            var uuid = i % 3 == 0 ? null : new UUID(i, -i);
+            entities.add(new TestEntity(i, "b" + i, i % 2 == 0 ? null : "c" + i, uuid));
+        }
+        sourceRepository.insert(entities);
+        return entities;
+    }
+}
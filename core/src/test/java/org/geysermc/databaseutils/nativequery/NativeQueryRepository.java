@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.nativequery;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Query;
+import org.geysermc.databaseutils.meta.Repository;
+import org.geysermc.databaseutils.projection.KeyView;
+import org.geysermc.databaseutils.sql.SqlDialect;
+
+@Repository
+public interface NativeQueryRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    @Query(
+            sql = "select * from hello where b = :value or c = :value order by a",
+            mongo = "{\"$or\": [{\"b\": :value}, {\"c\": :value}]}")
+    List<TestEntity> findWithBOrC(String value);
+
+    @Query(sql = "select * from hello where d = :d", mongo = "{\"d\": :d}")
+    TestEntity findWithD(UUID d);
+
+    @Query(sql = "select a, b from hello where a >= :min order by a", mongo = "{\"a\": {\"$gte\": :min}}")
+    CompletableFuture<List<KeyView>> findKeysFrom(int min);
+
+    @Query(
+            sql = "select 1 from hello where length(c) > :length",
+            dialects =
+                    @Query.Dialect(dialect = SqlDialect.SQL_SERVER, sql = "select 1 from hello where len(c) > :length"),
+            mongo = "{\"$expr\": {\"$gt\": [{\"$strLenCP\": \"$c\"}, :length]}}")
+    Boolean existsWithCLongerThan(int length);
+
+    @Query(sql = "update hello set c = :c where a = :a and b = :b")
+    int updateC(int a, String b, String c);
+
+    @Query(sql = "delete from hello where a < :max", mongo = "{\"a\": {\"$lt\": :max}}")
+    int deleteBelow(int max);
+
+    void insert(TestEntity entity);
+
+    @Override
+    void delete();
+}
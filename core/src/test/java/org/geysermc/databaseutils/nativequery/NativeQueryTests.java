@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.nativequery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.projection.KeyView;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class NativeQueryTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(NativeQueryRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> nativeFind() {
+        return context.allTypesForBut(
+                NativeQueryRepository.class,
+                repository -> {
+                    var id = new UUID(5, 6);
+                    repository.insert(new TestEntity(1, "hello", "world", null));
+                    repository.insert(new TestEntity(2, "world", "hello", id));
+                    repository.insert(new TestEntity(3, "other", "other", null));
+
+                    // the MongoDB filter doesn't have an order
+                    var found = repository.findWithBOrC("hello");
+                    found.sort(Comparator.comparingInt(TestEntity::a));
+                    assertEquals(
+                            List.of(
+                                    new TestEntity(1, "hello", "world", null),
+                                    new TestEntity(2, "world", "hello", id)),
+                            found);
+
+                    assertEquals(new TestEntity(2, "world", "hello", id), repository.findWithD(id));
+                    assertNull(repository.findWithD(new UUID(6, 5)));
+
+                    var keys = repository.findKeysFrom(2).join();
+                    keys.sort(Comparator.comparingInt(KeyView::a));
+                    assertEquals(List.of(new KeyView(2, "world"), new KeyView(3, "other")), keys);
+                },
+                DatabaseType.MEMORY,
+                DatabaseType.FILE);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> nativeExistsAndDelete() {
+        return context.allTypesForBut(
+                NativeQueryRepository.class,
+                repository -> {
+                    repository.insert(new TestEntity(1, "hello", "short", null));
+                    repository.insert(new TestEntity(2, "hello", "a longer value", null));
+                    repository.insert(new TestEntity(3, "hello", "short", null));
+
+                    assertTrue(repository.existsWithCLongerThan(5));
+                    assertFalse(repository.existsWithCLongerThan(20));
+
+                    assertEquals(2, repository.deleteBelow(3));
+                    assertEquals(0, repository.deleteBelow(3));
+                    assertEquals(List.of(new TestEntity(3, "hello", "short", null)), repository.findWithBOrC("hello"));
+                },
+                DatabaseType.MEMORY,
+                DatabaseType.FILE);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> nativeUpdate() {
+        return context.allTypesForBut(
+                NativeQueryRepository.class,
+                repository -> {
+                    repository.insert(new TestEntity(1, "hello", "world", null));
+
+                    assertEquals(1, repository.updateC(1, "hello", "updated"));
+                    assertEquals(0, repository.updateC(2, "hello", "updated"));
+                    assertEquals(
+                            List.of(new TestEntity(1, "hello", "updated", null)), repository.findWithBOrC("hello"));
+                },
+                DatabaseType.MEMORY,
+                DatabaseType.FILE,
+                DatabaseType.MONGODB);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> withoutNativeQuery() {
+        return context.allTypesForOnly(
+                NativeQueryRepository.class,
+                repository -> {
+                    var exception = assertThrows(IllegalStateException.class, () -> repository.updateC(1, "a", "b"));
+                    assertTrue(exception.getMessage().startsWith("No native query is available"));
+                },
+                DatabaseType.MEMORY,
+                DatabaseType.FILE,
+                DatabaseType.MONGODB);
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.pool;
+
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface SharedPoolRepository extends IRepository<TestEntity> {
+    void insert(TestEntity entity);
+
+    TestEntity findByAAndB(int a, String b);
+
+    void delete();
+}
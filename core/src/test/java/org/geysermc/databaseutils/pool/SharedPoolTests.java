@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.DatabaseUtils;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.sql.SqlTransaction;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Multiple instances sharing the connection pool of a single H2 database.
+ */
+final class SharedPoolTests {
+    private static final String URL = "jdbc:h2:mem:shared-pool;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void sharesPoolUntilLastStop() {
+        var first = createInstance("first", 2);
+        var second = createInstance("second", 2);
+        var firstRepository = startAndGet(first);
+        var secondRepository = startAndGet(second);
+
+        var entity = new TestEntity(1, "hello", "world", null);
+        firstRepository.insert(entity);
+        assertEquals(entity, secondRepository.findByAAndB(1, "hello"));
+
+        // the pool is still used by the second instance
+        first.stop();
+        assertEquals(entity, secondRepository.findByAAndB(1, "hello"));
+        secondRepository.delete();
+        second.stop();
+
+        // the pool was closed by the last stop, so a new one is created
+        var third = createInstance("third", 2);
+        var thirdRepository = startAndGet(third);
+        assertNull(thirdRepository.findByAAndB(1, "hello"));
+        third.stop();
+    }
+
+    @Test
+    void limitsConnectionsPerInstance() throws Exception {
+        var limited = createInstance("limited", 1);
+        var other = createInstance("other", 5);
+        var limitedRepository = startAndGet(limited);
+        var otherRepository = startAndGet(other);
+
+        var lookup = new CompletableFuture<TestEntity>();
+        limited.runInTransaction(transaction -> {
+            limitedRepository.insert(new TestEntity(2, "hello", "world", null));
+
+            // the transaction holds the only connection this instance is allowed to use
+            CompletableFuture.runAsync(() -> lookup.complete(limitedRepository.findByAAndB(2, "hello")));
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException exception) {
+                throw new RuntimeException(exception);
+            }
+            assertFalse(lookup.isDone());
+            // while the other instance can still use the shared pool
+            assertNull(otherRepository.findByAAndB(2, "hello"));
+        });
+
+        assertEquals(new TestEntity(2, "hello", "world", null), lookup.get(5, TimeUnit.SECONDS));
+        limitedRepository.delete();
+        limited.stop();
+        other.stop();
+    }
+
+    @Test
+    void limitedConnectionsAreNotWrapped() {
+        var limited = createInstance("unwrapped", 1);
+        var limitedRepository = startAndGet(limited);
+
+        // every call returns its permit, otherwise the second call would time out
+        for (int i = 0; i < 3; i++) {
+            assertNull(limitedRepository.findByAAndB(i, "hello"));
+        }
+        limited.runInTransaction(transaction -> {
+            var sqlTransaction = (SqlTransaction) transaction;
+            try (var statement = sqlTransaction.prepareStatement("SELECT 1")) {
+                assertSame(sqlTransaction.connection(), statement.getConnection());
+            } catch (SQLException exception) {
+                throw new RuntimeException(exception);
+            }
+        });
+        assertNull(limitedRepository.findByAAndB(1, "hello"));
+        limited.stop();
+    }
+
+    private static DatabaseUtils createInstance(String poolName, int connectionPoolSize) {
+        return DatabaseUtils.builder()
+                .type(DatabaseType.H2)
+                .uri(URL)
+                .username("sa")
+                .connectionPoolSize(connectionPoolSize)
+                .poolName(poolName)
+                .sharePool(true)
+                .build();
+    }
+
+    private static SharedPoolRepository startAndGet(DatabaseUtils instance) {
+        instance.start();
+        return instance.repositoryFor(SharedPoolRepository.class);
+    }
+}
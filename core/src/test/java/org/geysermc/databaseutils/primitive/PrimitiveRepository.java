@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.primitive;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.AllowFullScan;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface PrimitiveRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    @AllowFullScan
+    int[] findAByBOrderByA(String b);
+
+    @AllowFullScan
+    IntStream findAByCOrderByADesc(String c);
+
+    @AllowFullScan
+    CompletableFuture<int[]> findTop2AByBOrderByA(String b);
+
+    void insert(TestEntity entity);
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.primitive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class PrimitiveTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(PrimitiveRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> primitiveProjections() {
+        return context.allTypesFor(PrimitiveRepository.class, repository -> {
+            // more rows than the default capacity, so that the builder has to grow
+            for (int i = 0; i < 40; i++) {
+                repository.insert(new TestEntity(i, i % 2 == 0 ? "even" : "odd", "world!", null));
+            }
+
+            assertArrayEquals(
+                    IntStream.range(0, 20).map(i -> i * 2).toArray(), repository.findAByBOrderByA("even"));
+            assertArrayEquals(
+                    IntStream.range(0, 40).map(i -> 39 - i).toArray(),
+                    repository.findAByCOrderByADesc("world!").toArray());
+            assertArrayEquals(new int[] {1, 3}, repository.findTop2AByBOrderByA("odd").join());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> primitiveProjectionsWithoutMatches() {
+        return context.allTypesFor(PrimitiveRepository.class, repository -> {
+            assertArrayEquals(new int[0], repository.findAByBOrderByA("even"));
+            assertArrayEquals(new int[0], repository.findAByCOrderByADesc("world!").toArray());
+            assertArrayEquals(new int[0], repository.findTop2AByBOrderByA("odd").join());
+        });
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.projection;
+
+import java.util.UUID;
+
+public interface DetailsView {
+    String b();
+
+    String c();
+
+    UUID d();
+
+    default String describe() {
+        return b() + ": " + c();
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.projection;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.AllowFullScan;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface ProjectionRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    @AllowFullScan
+    List<KeyView> findByCOrderByA(String c);
+
+    KeyView findByAAndB(int a, String b);
+
+    @AllowFullScan
+    List<KeyView> findTop2ByCOrderByADesc(String c);
+
+    DetailsView findByA(int a);
+
+    @AllowFullScan
+    CompletableFuture<List<DetailsView>> findByBOrderByA(String b);
+
+    void insert(TestEntity entity);
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.projection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class ProjectionTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(ProjectionRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> recordProjections() {
+        return context.allTypesFor(ProjectionRepository.class, repository -> {
+            repository.insert(new TestEntity(1, "first", "shared", null));
+            repository.insert(new TestEntity(2, "second", "shared", new UUID(1, 2)));
+            repository.insert(new TestEntity(3, "third", "other", null));
+
+            assertEquals(
+                    List.of(new KeyView(1, "first"), new KeyView(2, "second")), repository.findByCOrderByA("shared"));
+            assertEquals(new KeyView(2, "second"), repository.findByAAndB(2, "second"));
+            assertNull(repository.findByAAndB(2, "first"));
+            assertEquals(
+                    List.of(new KeyView(3, "third")), repository.findTop2ByCOrderByADesc("other"));
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> interfaceProjections() {
+        return context.allTypesFor(ProjectionRepository.class, repository -> {
+            var id = new UUID(3, 4);
+            repository.insert(new TestEntity(1, "hello", "world", id));
+            repository.insert(new TestEntity(2, "hello", "there", null));
+
+            var details = repository.findByA(1);
+            assertEquals("hello", details.b());
+            assertEquals("world", details.c());
+            assertEquals(id, details.d());
+            assertEquals("hello: world", details.describe());
+            assertNull(repository.findByA(3));
+
+            var all = repository.findByBOrderByA("hello").join();
+            assertEquals(2, all.size());
+            assertEquals("there", all.get(1).c());
+            assertNull(all.get(1).d());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> projectionsOfNullColumns() {
+        return context.allTypesFor(ProjectionRepository.class, repository -> {
+            repository.insert(new TestEntity(1, "hello", null, null));
+
+            var details = repository.findByA(1);
+            assertNull(details.c());
+            assertNull(details.d());
+            assertEquals("hello: null", details.describe());
+            assertNull(repository.findByBOrderByA("hello").join().get(0).c());
+        });
+    }
+}
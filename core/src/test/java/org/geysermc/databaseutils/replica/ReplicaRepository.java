@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.replica;
+
+import java.util.List;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Query;
+import org.geysermc.databaseutils.meta.ReadFromPrimary;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface ReplicaRepository extends IRepository<TestEntity> {
+    List<TestEntity> find();
+
+    @ReadFromPrimary
+    @Query("find")
+    List<TestEntity> findFromPrimary();
+
+    boolean existsByA(int a);
+
+    void insert(TestEntity entity);
+
+    void delete();
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.replica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.DatabaseUtils;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Uses two H2 databases, where one of them acts as a read replica that doesn't receive the writes of the primary.
+ */
+final class ReplicaTests {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-replica;DB_CLOSE_DELAY=-1";
+    private static final TestEntity REPLICA_ENTITY = new TestEntity(1, "replica", "world!", null);
+
+    static DatabaseUtils database;
+    static ReplicaRepository repository;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        try (var connection = DriverManager.getConnection(REPLICA_URL, "sa", null);
+                var statement = connection.createStatement()) {
+            statement.executeUpdate(
+                    "CREATE TABLE hello (a int, b varchar(50), c varchar(30), d varbinary(16), PRIMARY KEY (a, b))");
+            statement.executeUpdate("INSERT INTO hello (a, b, c) VALUES (1, 'replica', 'world!')");
+        }
+
+        database = DatabaseUtils.builder()
+                .type(DatabaseType.H2)
+                .uri(PRIMARY_URL)
+                .username("sa")
+                .replicaUris(List.of(REPLICA_URL))
+                .poolName("replica-tests")
+                .build();
+        database.start();
+        repository = database.repositoryFor(ReplicaRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.delete();
+    }
+
+    @Test
+    void readsFromReplica() {
+        repository.insert(new TestEntity(0, "primary", "world!", null));
+
+        assertEquals(List.of(REPLICA_ENTITY), repository.find());
+        assertTrue(repository.existsByA(1));
+        assertFalse(repository.existsByA(0));
+    }
+
+    @Test
+    void readFromPrimary() {
+        repository.insert(new TestEntity(0, "primary", "world!", null));
+
+        assertEquals(List.of(new TestEntity(0, "primary", "world!", null)), repository.findFromPrimary());
+    }
+
+    @Test
+    void readsInTransactionUsePrimary() {
+        database.runInTransaction(transaction -> {
+            repository.insert(new TestEntity(0, "primary", "world!", null));
+            assertEquals(List.of(new TestEntity(0, "primary", "world!", null)), repository.find());
+        });
+    }
+
+    @Test
+    void emptyReplicaUrlIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DatabaseUtils.builder()
+                .type(DatabaseType.H2)
+                .uri(PRIMARY_URL)
+                .replicaUris(List.of(""))
+                .build());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.shard;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.AllowFullScan;
+import org.geysermc.databaseutils.meta.Query;
+import org.geysermc.databaseutils.meta.Repository;
+import org.geysermc.databaseutils.meta.Sharded;
+
+@Sharded
+@Repository
+public interface ShardedRepository extends IRepository<TestEntity> {
+    void insert(TestEntity entity);
+
+    void insert(List<TestEntity> entities);
+
+    TestEntity findByAAndB(int a, String b);
+
+    @AllowFullScan
+    List<TestEntity> findByCOrderByA(String c);
+
+    @AllowFullScan
+    List<TestEntity> findTop3ByCOrderByADesc(String c);
+
+    @AllowFullScan
+    CompletableFuture<List<Integer>> findAByCOrderByA(String c);
+
+    long findCountAByC(String c);
+
+    Integer findMinAByC(String c);
+
+    Integer findMaxAByC(String c);
+
+    boolean existsByC(String c);
+
+    @Query("delete")
+    int deleteWithCount(List<TestEntity> entities);
+
+    int deleteByC(String c);
+
+    void delete();
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.shard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.geysermc.databaseutils.DatabaseConfig;
+import org.geysermc.databaseutils.DatabaseType;
+import org.geysermc.databaseutils.DatabaseUtils;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Spreads the entities over three H2 databases.
+ */
+final class ShardedTests {
+    private static final List<String> SHARD_URLS = List.of(
+            "jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1",
+            "jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1",
+            "jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1");
+
+    static DatabaseUtils database;
+    static ShardedRepository repository;
+
+    @BeforeAll
+    static void setUp() {
+        database = DatabaseUtils.builder()
+                .type(DatabaseType.H2)
+                .shards(SHARD_URLS.stream()
+                        .map(url -> new DatabaseConfig(url, "sa", null, -1))
+                        .toList())
+                .poolName("sharded-tests")
+                .build();
+        database.start();
+        repository = database.repositoryFor(ShardedRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.delete();
+    }
+
+    @Test
+    void routesByKey() throws SQLException {
+        var entities = entities(30, "world!");
+        entities.forEach(repository::insert);
+
+        for (TestEntity entity : entities) {
+            assertEquals(entity, repository.findByAAndB(entity.a(), entity.b()));
+        }
+        assertNull(repository.findByAAndB(100, "hello"));
+        assertEntitiesOnTheirShard(30);
+    }
+
+    @Test
+    void splitsBatches() throws SQLException {
+        var entities = entities(30, "world!");
+        repository.insert(entities);
+        assertEntitiesOnTheirShard(30);
+
+        assertEquals(10, repository.deleteWithCount(entities.subList(0, 10)));
+        assertEquals(20, repository.findCountAByC("world!"));
+        assertEquals(0, repository.deleteWithCount(List.of()));
+    }
+
+    @Test
+    void mergesFanOut() {
+        repository.insert(entities(30, "world!"));
+        repository.insert(new TestEntity(100, "other", "hello", null));
+
+        var ordered = repository.findByCOrderByA("world!");
+        assertEquals(IntStream.range(0, 30).boxed().toList(), ordered.stream().map(TestEntity::a).toList());
+
+        var top = repository.findTop3ByCOrderByADesc("world!");
+        assertEquals(List.of(29, 28, 27), top.stream().map(TestEntity::a).toList());
+
+        assertEquals(IntStream.range(0, 30).boxed().toList(), repository.findAByCOrderByA("world!").join());
+        assertEquals(30, repository.findCountAByC("world!"));
+        assertTrue(repository.existsByC("hello"));
+        assertFalse(repository.existsByC("nope"));
+
+        assertEquals(30, repository.deleteByC("world!"));
+        assertEquals(0, repository.findCountAByC("world!"));
+    }
+
+    @Test
+    void mergesMinAndMaxOfShardsWithoutMatches() {
+        repository.insert(entities(30, "world!"));
+        // only a single shard has a row matching hello, the others return null
+        repository.insert(new TestEntity(100, "other", "hello", null));
+
+        assertEquals(0, repository.findMinAByC("world!"));
+        assertEquals(29, repository.findMaxAByC("world!"));
+        assertEquals(100, repository.findMinAByC("hello"));
+        assertEquals(100, repository.findMaxAByC("hello"));
+        assertNull(repository.findMinAByC("nope"));
+        assertNull(repository.findMaxAByC("nope"));
+    }
+
+    @Test
+    void spreadsOverAllShards() {
+        var counts = new int[SHARD_URLS.size()];
+        for (TestEntity entity : entities(300, "world!")) {
+            counts[Shards.indexFor(counts.length, entity.a(), entity.b())]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 50, "Expected the entities to be spread evenly, got " + count);
+        }
+        // the hash doesn't depend on the boxed type
+        assertEquals(Shards.indexFor(7, 12, "a"), Shards.indexFor(7, 12L, "a"));
+    }
+
+    @Test
+    void noTransactions() {
+        assertThrows(IllegalStateException.class, () -> database.inTransaction(transaction -> null));
+    }
+
+    private static List<TestEntity> entities(int count, String c) {
+        var entities = new ArrayList<TestEntity>();
+        for (int i = 0; i < count; i++) {
+            entities.add(new TestEntity(i, "key-" + i, c, null));
+        }
+        return entities;
+    }
+
+    private static void assertEntitiesOnTheirShard(int expectedTotal) throws SQLException {
+        int total = 0;
+        for (int shard = 0; shard < SHARD_URLS.size(); shard++) {
+            try (var connection = DriverManager.getConnection(SHARD_URLS.get(shard), "sa", null);
+                    var statement = connection.createStatement();
+                    var result = statement.executeQuery("SELECT a, b FROM hello")) {
+                while (result.next()) {
+                    assertEquals(shard, Shards.indexFor(SHARD_URLS.size(), result.getInt(1), result.getString(2)));
+                    total++;
+                }
+            }
+        }
+        assertEquals(expectedTotal, total);
+    }
+}
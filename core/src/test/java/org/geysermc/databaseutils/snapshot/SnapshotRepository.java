@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+import java.util.List;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface SnapshotRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    void insert(List<TestEntity> entities);
+
+    TestEntity findByAAndB(int a, String b);
+
+    long findCountA();
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+final class SnapshotTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(SnapshotRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> exportAndImport() {
+        return context.allTypesFor(SnapshotRepository.class, (instance, repository) -> {
+            // enough rows to span multiple blocks
+            var entities = new ArrayList<TestEntity>();
+            for (int i = 0; i < 5000; i++) {
+                var uuid = i % 3 == 0 ? null : new UUID(i, -i);
+                entities.add(new TestEntity(i, "b" + i, i % 2 == 0 ? null : "c" + i, uuid));
+            }
+            repository.insert(entities);
+
+            var file = createTempFile();
+            assertEquals(5000L, instance.exportSnapshot(TestEntity.class, file).join());
+            repository.delete();
+            assertEquals(0L, repository.findCountA());
+
+            assertEquals(5000L, instance.importSnapshot(TestEntity.class, file).join());
+            assertEquals(5000L, repository.findCountA());
+            assertEquals(entities.get(0), repository.findByAAndB(0, "b0"));
+            assertEquals(entities.get(1), repository.findByAAndB(1, "b1"));
+            assertEquals(entities.get(4999), repository.findByAAndB(4999, "b4999"));
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> exportAndImportDirectory() {
+        return context.allTypesFor(SnapshotRepository.class, (instance, repository) -> {
+            var entity = new TestEntity(1, "hello", "world", UUID.randomUUID());
+            repository.insert(List.of(entity));
+
+            Path directory;
+            try {
+                directory = Files.createTempDirectory("snapshots");
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            instance.exportSnapshots(directory).join();
+            repository.delete();
+
+            instance.importSnapshots(directory).join();
+            assertEquals(entity, repository.findByAAndB(1, "hello"));
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> rejectInvalidFile() {
+        return context.allTypesFor(SnapshotRepository.class, (instance, repository) -> {
+            var file = createTempFile();
+            try {
+                Files.writeString(file, "not a snapshot");
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+
+            var exception = assertThrows(
+                    CompletionException.class,
+                    () -> instance.importSnapshot(TestEntity.class, file).join());
+            assertInstanceOf(UncheckedIOException.class, exception.getCause());
+        });
+    }
+
+    @Test
+    void rejectUnfinishedFile() throws IOException {
+        var entity = new SnapshotEntity(
+                TestEntity.class,
+                "hello",
+                List.of(new SnapshotColumn("a", SnapshotType.INTEGER), new SnapshotColumn("b", SnapshotType.STRING)),
+                List.of("a", "b"));
+        var file = createTempFile();
+        // what an export that failed halfway would have written, if it didn't delete the file
+        try (var writer = new SnapshotWriter(file, entity)) {
+            writer.write(new Object[] {1, "hello"});
+        }
+
+        try (var reader = new SnapshotReader(file)) {
+            assertThrows(EOFException.class, () -> {
+                while (reader.nextBlock() != null) {
+                    // read until the end of the file
+                }
+            });
+        }
+    }
+
+    private static Path createTempFile() {
+        try {
+            var file = Files.createTempFile("snapshot", ".snapshot");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
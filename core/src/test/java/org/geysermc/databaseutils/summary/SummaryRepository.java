@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.summary;
+
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.AllowFullScan;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface SummaryRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    long findSumA();
+
+    @AllowFullScan
+    long findSumAByB(String b);
+
+    @AllowFullScan
+    double findAvgAByB(String b);
+
+    @AllowFullScan
+    Integer findMinAByB(String b);
+
+    @AllowFullScan
+    Integer findMaxAByB(String b);
+
+    @AllowFullScan
+    String findMaxCByB(String b);
+
+    @AllowFullScan
+    long findCountCByB(String b);
+
+    @AllowFullScan
+    CompletableFuture<Integer> findCountDistinctCByB(String b);
+
+    void insert(TestEntity entity);
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.summary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class SummaryTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(SummaryRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> summaries() {
+        return context.allTypesFor(SummaryRepository.class, repository -> {
+            repository.insert(new TestEntity(1, "hello", "world!", null));
+            repository.insert(new TestEntity(2, "hello", "steve!", null));
+            repository.insert(new TestEntity(6, "hello", "world!", null));
+            repository.insert(new TestEntity(10, "hi", "alex!", null));
+
+            assertEquals(19, repository.findSumA());
+            assertEquals(9, repository.findSumAByB("hello"));
+            assertEquals(3, repository.findAvgAByB("hello"));
+            assertEquals(1, repository.findMinAByB("hello"));
+            assertEquals(6, repository.findMaxAByB("hello"));
+            assertEquals("world!", repository.findMaxCByB("hello"));
+            assertEquals(3, repository.findCountCByB("hello"));
+            assertEquals(2, repository.findCountDistinctCByB("hello").join());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> summariesWithoutMatches() {
+        return context.allTypesFor(SummaryRepository.class, repository -> {
+            assertEquals(0, repository.findSumAByB("hello"));
+            assertEquals(0, repository.findCountCByB("hello"));
+            assertEquals(0, repository.findCountDistinctCByB("hello").join());
+            assertNull(repository.findMinAByB("hello"));
+            assertNull(repository.findMaxAByB("hello"));
+            assertNull(repository.findMaxCByB("hello"));
+        });
+    }
+}
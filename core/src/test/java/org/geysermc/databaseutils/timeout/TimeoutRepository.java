@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.timeout;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.AllowFullScan;
+import org.geysermc.databaseutils.meta.Repository;
+import org.geysermc.databaseutils.meta.Timeout;
+
+@Repository
+public interface TimeoutRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    @Timeout(5)
+    TestEntity findByA(int a);
+
+    @Timeout(value = 1500, unit = TimeUnit.MILLISECONDS)
+    @AllowFullScan
+    CompletableFuture<List<TestEntity>> findByB(String b);
+
+    @Timeout(5)
+    boolean existsByA(int a);
+
+    @Timeout(5)
+    void insert(TestEntity entity);
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.timeout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class TimeoutTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(TimeoutRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> queriesWithTimeout() {
+        return context.allTypesFor(TimeoutRepository.class, repository -> {
+            repository.insert(new TestEntity(0, "hello", "world!", null));
+            repository.insert(new TestEntity(1, "hello", "world!", null));
+
+            assertEquals(new TestEntity(0, "hello", "world!", null), repository.findByA(0));
+            assertTrue(repository.existsByA(1));
+            assertEquals(
+                    List.of(new TestEntity(0, "hello", "world!", null), new TestEntity(1, "hello", "world!", null)),
+                    repository.findByB("hello").join());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> cancelledQuery() {
+        return context.allTypesFor(TimeoutRepository.class, repository -> {
+            repository.insert(new TestEntity(0, "hello", "world!", null));
+
+            // the query can finish before it's cancelled
+            var future = repository.findByB("hello");
+            if (future.cancel(true)) {
+                assertTrue(future.isCancelled());
+                assertThrows(CancellationException.class, future::join);
+            } else {
+                assertEquals(List.of(new TestEntity(0, "hello", "world!", null)), future.join());
+            }
+
+            // the cancelled query shouldn't hold on to its connection
+            for (int i = 0; i < 20; i++) {
+                repository.findByB("hello").cancel(true);
+            }
+            assertEquals(new TestEntity(0, "hello", "world!", null), repository.findByA(0));
+        });
+    }
+}
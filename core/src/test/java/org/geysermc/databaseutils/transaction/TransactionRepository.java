@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.transaction;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.geysermc.databaseutils.meta.Query;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface TransactionRepository extends IRepository<TestEntity>, ReusableTestRepository {
+    void insert(TestEntity entity);
+
+    @Query("insert")
+    CompletableFuture<Void> insertAsync(TestEntity entity);
+
+    void update(TestEntity entity);
+
+    List<TestEntity> find();
+
+    TestEntity findByAAndB(int a, String b);
+
+    @Override
+    void delete();
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.TestEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class TransactionTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(TransactionRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> commit() {
+        return context.allTypesFor(TransactionRepository.class, (database, repository) -> {
+            database.runInTransaction(transaction -> {
+                repository.insert(new TestEntity(0, "hello", "world!", null));
+                repository.insert(new TestEntity(1, "hello", "world!", null));
+                repository.update(new TestEntity(1, "hello", "steve!", null));
+                // queued writes have to be visible to reads inside the same transaction
+                assertEquals(new TestEntity(1, "hello", "steve!", null), repository.findByAAndB(1, "hello"));
+            });
+
+            assertEquals(new TestEntity(0, "hello", "world!", null), repository.findByAAndB(0, "hello"));
+            assertEquals(new TestEntity(1, "hello", "steve!", null), repository.findByAAndB(1, "hello"));
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> rollbackOnException() {
+        return context.allTypesFor(TransactionRepository.class, (database, repository) -> {
+            assertThrows(IllegalStateException.class, () -> database.runInTransaction(transaction -> {
+                repository.insert(new TestEntity(0, "hello", "world!", null));
+                throw new IllegalStateException("rollback");
+            }));
+
+            assertNull(repository.findByAAndB(0, "hello"));
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> rollbackOnly() {
+        return context.allTypesFor(TransactionRepository.class, (database, repository) -> {
+            database.runInTransaction(transaction -> {
+                repository.insert(new TestEntity(0, "hello", "world!", null));
+                transaction.setRollbackOnly();
+            });
+
+            assertTrue(repository.find().isEmpty());
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> asyncJoinsTransaction() {
+        return context.allTypesFor(TransactionRepository.class, (database, repository) -> {
+            assertThrows(IllegalStateException.class, () -> database.runInTransaction(transaction -> {
+                repository.insertAsync(new TestEntity(0, "hello", "world!", null)).join();
+                throw new IllegalStateException("rollback");
+            }));
+
+            assertNull(repository.findByAAndB(0, "hello"));
+        });
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.ttl;
+
+import java.util.List;
+import org.geysermc.databaseutils.IRepository;
+import org.geysermc.databaseutils.ReusableTestRepository;
+import org.geysermc.databaseutils.entity.SessionEntity;
+import org.geysermc.databaseutils.meta.Repository;
+
+@Repository
+public interface TimeToLiveRepository extends IRepository<SessionEntity>, ReusableTestRepository {
+    void insert(List<SessionEntity> entities);
+
+    boolean existsByIdAndScope(int id, String scope);
+
+    long findCountId();
+
+    @Override
+    void delete();
+}
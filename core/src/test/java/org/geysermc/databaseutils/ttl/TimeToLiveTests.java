@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/DatabaseUtils
+ */
+package org.geysermc.databaseutils.ttl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.geysermc.databaseutils.TestContext;
+import org.geysermc.databaseutils.entity.SessionEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+final class TimeToLiveTests {
+    static TestContext context = TestContext.INSTANCE;
+
+    @BeforeAll
+    static void setUp() {
+        context.start(TimeToLiveRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.stop();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        context.deleteRows();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> purgeExpired() {
+        return context.allTypesFor(TimeToLiveRepository.class, (instance, repository) -> {
+            var now = System.currentTimeMillis();
+            var expired = now - TimeUnit.HOURS.toMillis(2);
+
+            // more expired rows than the default batch size, so that it takes multiple batches
+            var sessions = new ArrayList<SessionEntity>();
+            for (int i = 0; i < 1100; i++) {
+                sessions.add(new SessionEntity(i, i % 2 == 0 ? "game" : "web", expired));
+            }
+            sessions.add(new SessionEntity(0, "chat", now));
+            sessions.add(new SessionEntity(1, "chat", now - TimeUnit.MINUTES.toMillis(30)));
+            repository.insert(sessions);
+
+            var before = instance.purgeStats();
+            assertEquals(1100L, instance.purgeExpired().join());
+            var after = instance.purgeStats();
+
+            assertEquals(2L, repository.findCountId());
+            assertTrue(repository.existsByIdAndScope(0, "chat"));
+            assertTrue(repository.existsByIdAndScope(1, "chat"));
+            assertFalse(repository.existsByIdAndScope(0, "game"));
+
+            assertEquals(1, after.purges() - before.purges());
+            assertEquals(3, after.batches() - before.batches());
+            assertEquals(1100, after.purgedRows() - before.purgedRows());
+            assertTrue(after.lastPurgeMillis() >= now);
+
+            // nothing left to purge
+            assertEquals(0L, instance.purgeExpired().join());
+        });
+    }
+}